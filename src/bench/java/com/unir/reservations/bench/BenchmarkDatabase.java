@@ -0,0 +1,194 @@
+package com.unir.reservations.bench;
+
+import java.sql.Connection;
+import java.sql.Date;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.time.LocalDate;
+import java.util.SplittableRandom;
+
+import javax.sql.DataSource;
+
+import org.h2.jdbcx.JdbcConnectionPool;
+
+/*
+ * Embedded H2 database in MySQL mode with the evp_* schema, seeded with a
+ * deterministic dataset so runs are comparable.
+ */
+public final class BenchmarkDatabase implements AutoCloseable {
+  public static final int ROOMS = 500;
+  public static final LocalDate FIRST_DAY = LocalDate.of(2024, 1, 1);
+  public static final int DAYS = 730;
+
+  private static final String SCHEMA = """
+    CREATE TABLE evp_client (
+      clientId INT AUTO_INCREMENT PRIMARY KEY,
+      document VARCHAR(20) NOT NULL,
+      documentType VARCHAR(5) NOT NULL,
+      firstName VARCHAR(60) NOT NULL,
+      surName VARCHAR(60) NOT NULL,
+      phoneNumber VARCHAR(20),
+      mobileNumber VARCHAR(20),
+      email VARCHAR(120),
+      version INT NOT NULL DEFAULT 0,
+      UNIQUE (document)
+    );
+    CREATE TABLE evp_room (
+      roomId INT AUTO_INCREMENT PRIMARY KEY,
+      name VARCHAR(60) NOT NULL,
+      description VARCHAR(255),
+      address VARCHAR(255),
+      pricePerHour DOUBLE NOT NULL
+    );
+    CREATE TABLE evp_event (
+      eventId INT AUTO_INCREMENT PRIMARY KEY,
+      clientId INT NOT NULL,
+      roomId INT NOT NULL,
+      date DATE NOT NULL,
+      startHour INT NOT NULL,
+      endHour INT NOT NULL,
+      priceTotal DOUBLE NOT NULL,
+      observations VARCHAR(255),
+      version INT NOT NULL DEFAULT 0,
+      updatedAt TIMESTAMP(3) NOT NULL DEFAULT CURRENT_TIMESTAMP(3) ON UPDATE CURRENT_TIMESTAMP(3)
+    );
+    CREATE TABLE evp_service (
+      serviceId INT AUTO_INCREMENT PRIMARY KEY,
+      name VARCHAR(60) NOT NULL,
+      price DOUBLE NOT NULL
+    );
+    CREATE TABLE evp_event_service (
+      eventId INT NOT NULL,
+      serviceId INT NOT NULL,
+      PRIMARY KEY (eventId, serviceId)
+    );
+    CREATE INDEX evp_event_client ON evp_event (clientId);
+    CREATE INDEX evp_event_room_date ON evp_event (roomId, date);
+    CREATE INDEX evp_event_date ON evp_event (date, eventId);
+    CREATE INDEX evp_event_updated ON evp_event (updatedAt);
+  """;
+
+  private final JdbcConnectionPool pool;
+  private final int clients;
+
+  public BenchmarkDatabase(String name, int events, int maxConnections) throws SQLException {
+    this.pool = JdbcConnectionPool.create(
+      "jdbc:h2:mem:" + name + ";MODE=MySQL;DATABASE_TO_LOWER=TRUE;DB_CLOSE_DELAY=-1",
+      "sa",
+      ""
+    );
+    this.pool.setMaxConnections(maxConnections);
+    this.clients = Math.max(1_000, events / 20);
+
+    try(Connection connection = pool.getConnection()) {
+      try(Statement statement = connection.createStatement()) {
+        statement.execute(SCHEMA);
+      }
+
+      connection.setAutoCommit(false);
+      seedRooms(connection);
+      seedClients(connection);
+      seedEvents(connection, events);
+    }
+  }
+
+  public DataSource dataSource() {
+    return pool;
+  }
+
+  public int clients() {
+    return clients;
+  }
+
+  @Override
+  public void close() {
+    try(
+      Connection connection = pool.getConnection();
+      Statement statement = connection.createStatement()
+    ) {
+      statement.execute("SHUTDOWN");
+    } catch (SQLException e) {
+      // Already gone.
+    }
+    pool.dispose();
+  }
+
+  private void seedRooms(Connection connection) throws SQLException {
+    try(
+      PreparedStatement statement = connection.prepareStatement(
+        "INSERT INTO evp_room (name, description, address, pricePerHour) VALUES (?, ?, ?, ?)"
+      )
+    ) {
+      for (int i = 1; i <= ROOMS; i++) {
+        statement.setString(1, "Room " + i);
+        statement.setString(2, "Meeting room " + i);
+        statement.setString(3, "Floor " + (i % 20));
+        statement.setDouble(4, 20 + (i % 15) * 5);
+        statement.addBatch();
+      }
+      statement.executeBatch();
+      connection.commit();
+    }
+  }
+
+  private void seedClients(Connection connection) throws SQLException {
+    try(
+      PreparedStatement statement = connection.prepareStatement("""
+        INSERT INTO evp_client (
+          document, documentType, firstName, surName, phoneNumber, mobileNumber, email
+        ) VALUES (?, ?, ?, ?, ?, ?, ?)
+      """)
+    ) {
+      for (int i = 1; i <= clients; i++) {
+        statement.setString(1, String.valueOf(10_000_000 + i));
+        statement.setString(2, "CC");
+        statement.setString(3, "Name" + i);
+        statement.setString(4, "Surname" + (i % 997));
+        statement.setString(5, "60" + i);
+        statement.setString(6, "30" + i);
+        statement.setString(7, "client" + i + "@example.com");
+        statement.addBatch();
+
+        if (i % 5_000 == 0) {
+          statement.executeBatch();
+        }
+      }
+      statement.executeBatch();
+      connection.commit();
+    }
+  }
+
+  private void seedEvents(Connection connection, int events) throws SQLException {
+    final SplittableRandom random = new SplittableRandom(42);
+
+    try(
+      PreparedStatement statement = connection.prepareStatement("""
+        INSERT INTO evp_event (
+          clientId, roomId, date, startHour, endHour, priceTotal, observations
+        ) VALUES (?, ?, ?, ?, ?, ?, ?)
+      """)
+    ) {
+      for (int i = 1; i <= events; i++) {
+        final int startHour = random.nextInt(8, 20);
+        final int endHour = startHour + random.nextInt(1, 4);
+
+        statement.setInt(1, random.nextInt(1, clients + 1));
+        statement.setInt(2, random.nextInt(1, ROOMS + 1));
+        statement.setDate(3, Date.valueOf(FIRST_DAY.plusDays(random.nextInt(DAYS))));
+        statement.setInt(4, startHour);
+        statement.setInt(5, endHour);
+        statement.setDouble(6, (endHour - startHour) * 25.0);
+        statement.setString(7, null);
+        statement.addBatch();
+
+        if (i % 10_000 == 0) {
+          statement.executeBatch();
+          connection.commit();
+        }
+      }
+      statement.executeBatch();
+      connection.commit();
+    }
+  }
+}
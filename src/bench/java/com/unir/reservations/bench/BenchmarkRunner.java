@@ -0,0 +1,35 @@
+package com.unir.reservations.bench;
+
+import java.util.Arrays;
+
+import org.openjdk.jmh.profile.GCProfiler;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.CommandLineOptionException;
+import org.openjdk.jmh.runner.options.CommandLineOptions;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+/*
+ * Runs the DAO benchmarks with the GC profiler attached, so every result
+ * carries its allocation rate next to throughput and latency percentiles.
+ * Any JMH command line option (include regex, -p events=..., -rf json) is
+ * passed through.
+ */
+public final class BenchmarkRunner {
+  private BenchmarkRunner() {
+  }
+
+  public static void main(String[] args) throws RunnerException, CommandLineOptionException {
+    final String[] options = Arrays.stream(args)
+      .filter(arg -> !arg.isBlank())
+      .flatMap(arg -> Arrays.stream(arg.trim().split("\\s+")))
+      .toArray(String[]::new);
+
+    new Runner(
+      new OptionsBuilder()
+        .parent(new CommandLineOptions(options))
+        .addProfiler(GCProfiler.class)
+        .build()
+    ).run();
+  }
+}
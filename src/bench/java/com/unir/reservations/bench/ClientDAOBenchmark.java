@@ -0,0 +1,68 @@
+package com.unir.reservations.bench;
+
+import java.sql.SQLException;
+import java.util.HashMap;
+import java.util.SplittableRandom;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.unir.reservations.dao.ClientDAO;
+import com.unir.reservations.dao.implementations.ClientDAOImplementation;
+import com.unir.reservations.models.Client;
+import com.unir.reservations.utils.RawRecord;
+
+@State(Scope.Benchmark)
+@BenchmarkMode({Mode.Throughput, Mode.SampleTime})
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 5)
+@Measurement(iterations = 5, time = 10)
+@Fork(1)
+public class ClientDAOBenchmark {
+  @Param({"10000", "1000000"})
+  public int events;
+
+  private BenchmarkDatabase database;
+  private ClientDAO clientDAO;
+
+  @State(Scope.Thread)
+  public static class ThreadState {
+    final SplittableRandom random = new SplittableRandom();
+  }
+
+  @Setup(Level.Trial)
+  public void setUp() throws SQLException {
+    database = new BenchmarkDatabase("clients" + events, events, 16);
+    clientDAO = new ClientDAOImplementation(database.dataSource());
+  }
+
+  @TearDown(Level.Trial)
+  public void tearDown() {
+    database.close();
+  }
+
+  @Benchmark
+  public RawRecord getListFiltered(ThreadState state) {
+    final HashMap<String, Object> params = new HashMap<>();
+    params.put("FILTER", String.valueOf(state.random.nextInt(100, 999)));
+    params.put("PAGE_SIZE", 50);
+    return clientDAO.getList(params);
+  }
+
+  @Benchmark
+  public Client getForId(ThreadState state) {
+    return clientDAO.getForId(state.random.nextInt(1, database.clients() + 1));
+  }
+}
@@ -0,0 +1,128 @@
+package com.unir.reservations.bench;
+
+import java.sql.Date;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.SplittableRandom;
+import java.util.concurrent.TimeUnit;
+
+import javax.sql.DataSource;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.unir.reservations.dao.ReservationDAO;
+import com.unir.reservations.dao.implementations.ReservationDAOImplementation;
+import com.unir.reservations.models.Client;
+import com.unir.reservations.models.Reservation;
+import com.unir.reservations.models.Room;
+import com.unir.reservations.pool.RoutingDataSource;
+import com.unir.reservations.utils.Pagination;
+import com.unir.reservations.utils.RawRecord;
+
+@State(Scope.Benchmark)
+@BenchmarkMode({Mode.Throughput, Mode.SampleTime})
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 5)
+@Measurement(iterations = 5, time = 10)
+@Fork(1)
+public class ReservationDAOBenchmark {
+  @Param({"10000", "100000", "1000000", "10000000"})
+  public int events;
+
+  // Seeded copies standing in for read replicas, e.g. -p replicas=2.
+  @Param({"0"})
+  public int replicas;
+
+  private BenchmarkDatabase database;
+  private final List<BenchmarkDatabase> replicaDatabases = new ArrayList<>();
+  private ReservationDAO reservationDAO;
+
+  @State(Scope.Thread)
+  public static class ThreadState {
+    final SplittableRandom random = new SplittableRandom();
+  }
+
+  @Setup(Level.Trial)
+  public void setUp() throws SQLException {
+    database = new BenchmarkDatabase("events" + events, events, 16);
+    final List<DataSource> replicaSources = new ArrayList<>();
+    for (int i = 0; i < replicas; i++) {
+      final BenchmarkDatabase replica = new BenchmarkDatabase("events" + events + "replica" + i, events, 16);
+      replicaDatabases.add(replica);
+      replicaSources.add(replica.dataSource());
+    }
+
+    reservationDAO = new ReservationDAOImplementation(new RoutingDataSource(
+      database.dataSource(),
+      replicaSources,
+      RoutingDataSource.Selection.LEAST_LOADED,
+      0
+    ));
+  }
+
+  @TearDown(Level.Trial)
+  public void tearDown() {
+    database.close();
+    replicaDatabases.forEach(BenchmarkDatabase::close);
+    replicaDatabases.clear();
+  }
+
+  @Benchmark
+  public RawRecord getListFiltered(ThreadState state) {
+    final HashMap<String, Object> params = new HashMap<>();
+    params.put("FILTER", String.valueOf(state.random.nextInt(1, database.clients() + 1)));
+    params.put("PAGE_SIZE", 50);
+    return reservationDAO.getList(params);
+  }
+
+  @Benchmark
+  public Reservation getForId(ThreadState state) {
+    return reservationDAO.getForId(state.random.nextInt(1, events + 1));
+  }
+
+  @Benchmark
+  @Threads(8)
+  public RawRecord addUnderContention(ThreadState state) {
+    return reservationDAO.add(randomReservation(state.random), null);
+  }
+
+  @Benchmark
+  public Pagination listAfterWrite(ThreadState state) {
+    final HashMap<String, Object> params = new HashMap<>();
+    params.put("FILTER", "");
+    params.put("PAGE_SIZE", 50);
+    return reservationDAO.add(randomReservation(state.random), params).loadPagination();
+  }
+
+  private Reservation randomReservation(SplittableRandom random) {
+    final int startHour = random.nextInt(0, 23);
+
+    return new Reservation(
+      0,
+      new Client(random.nextInt(1, database.clients() + 1), null, null, null, null, null, null, null, null),
+      null,
+      new Room(random.nextInt(1, BenchmarkDatabase.ROOMS + 1), null, null, null, null),
+      Date.valueOf(BenchmarkDatabase.FIRST_DAY.plusDays(random.nextInt(BenchmarkDatabase.DAYS))),
+      startHour,
+      startHour + 1,
+      25.0,
+      "benchmark",
+      null
+    );
+  }
+}
@@ -0,0 +1,98 @@
+package com.unir.reservations.admission;
+
+import java.util.Collection;
+import java.util.EnumMap;
+import java.util.LinkedHashSet;
+import java.util.Map;
+import java.util.function.Supplier;
+
+import com.unir.reservations.utils.RawRecord;
+
+/*
+ * One limiter per kind of work, so a burst of exports cannot starve
+ * writes and a flood of list pages cannot starve either.
+ *
+ * Each kind also draws from a fixed budget for the pool it runs on, sized
+ * to that pool, so the kinds together never admit more calls than it has
+ * connections. Writes run on the primary; reads and exports on the
+ * replicas, or on the primary when there are none.
+ */
+public class AdmissionControl {
+  public static final String BUSY_MESSAGE = "Server is busy, try again later";
+
+  public enum Operation {
+    READ,
+    WRITE,
+    EXPORT
+  }
+
+  private final Map<Operation, AdmissionLimiter> limiters = new EnumMap<>(Operation.class);
+  private final Map<Operation, AdmissionLimiter> budgets = new EnumMap<>(Operation.class);
+
+  public AdmissionControl(
+    AdmissionLimiter reads,
+    AdmissionLimiter writes,
+    AdmissionLimiter exports,
+    AdmissionLimiter primary,
+    AdmissionLimiter replicas
+  ) {
+    limiters.put(Operation.READ, reads);
+    limiters.put(Operation.WRITE, writes);
+    limiters.put(Operation.EXPORT, exports);
+    budgets.put(Operation.READ, replicas);
+    budgets.put(Operation.WRITE, primary);
+    budgets.put(Operation.EXPORT, replicas);
+  }
+
+  public AdmissionLimiter limiter(Operation operation) {
+    return limiters.get(operation);
+  }
+
+  // Kind limiters first, then the pool budgets, each listed once.
+  public Collection<AdmissionLimiter> limiters() {
+    final Collection<AdmissionLimiter> all = new LinkedHashSet<>(limiters.values());
+    all.addAll(budgets.values());
+    return all;
+  }
+
+  /*
+   * Takes a slot of the operation's limiter, then of its pool budget.
+   * Every true must be matched by one release.
+   */
+  public boolean acquire(Operation operation) {
+    final AdmissionLimiter limiter = limiters.get(operation);
+    if (!limiter.acquire()) {
+      return false;
+    }
+    if (!budgets.get(operation).acquire()) {
+      limiter.release(-1);
+      return false;
+    }
+    return true;
+  }
+
+  public void release(Operation operation, long latencyNanos) {
+    budgets.get(operation).release(-1);
+    limiters.get(operation).release(latencyNanos);
+  }
+
+  public <R> R call(Operation operation, Supplier<R> call, Supplier<R> rejected) {
+    if (!acquire(operation)) {
+      return rejected.get();
+    }
+
+    final long start = System.nanoTime();
+    try {
+      return call.get();
+    } finally {
+      release(operation, System.nanoTime() - start);
+    }
+  }
+
+  public static RawRecord busy() {
+    final RawRecord rawRecord = new RawRecord();
+    rawRecord.setServerMessage(BUSY_MESSAGE);
+    rawRecord.setRejected(true);
+    return rawRecord;
+  }
+}
@@ -0,0 +1,200 @@
+package com.unir.reservations.admission;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+
+/*
+ * Concurrency limit for one class of DAO calls. Up to limit calls run at
+ * once, up to maxQueue more wait at most queueTimeout for a slot, and
+ * anything beyond that is turned away immediately.
+ *
+ * An adaptive limiter moves its limit with latency, gradient style: a fast
+ * moving average of recent calls is compared with a baseline that drops
+ * quickly and rises slowly;
+ * while they agree the limit grows by about sqrt(limit), and as recent
+ * latency rises above TOLERANCE times the baseline it shrinks in proportion
+ * (at most halving per sample). Waiting in a queue then replaces waiting
+ * in the pool, where every caller would time out together.
+ */
+public class AdmissionLimiter {
+  private static final double TOLERANCE = 1.5;
+  private static final double SHORT_WEIGHT = 0.2;
+  private static final double LONG_WEIGHT = 0.002;
+  private static final double LIMIT_WEIGHT = 0.2;
+
+  private final String name;
+  private final int minLimit;
+  private final int maxLimit;
+  private final int maxQueue;
+  private final long queueTimeoutNanos;
+  private final boolean adaptive;
+
+  private final ReentrantLock lock = new ReentrantLock(true);
+  private final Condition released = lock.newCondition();
+  private double limit;
+  private int inFlight;
+  private int queued;
+  private double shortNanos;
+  private double longNanos;
+
+  private final LongAdder admitted = new LongAdder();
+  private final LongAdder rejected = new LongAdder();
+  private final LongAdder timedOut = new LongAdder();
+
+  public AdmissionLimiter(String name, int limit, int maxQueue, long queueTimeoutMillis) {
+    this(name, limit, limit, limit, maxQueue, queueTimeoutMillis, false);
+  }
+
+  public AdmissionLimiter(
+    String name,
+    int initialLimit,
+    int minLimit,
+    int maxLimit,
+    int maxQueue,
+    long queueTimeoutMillis,
+    boolean adaptive
+  ) {
+    if (minLimit < 1 || minLimit > initialLimit || initialLimit > maxLimit || maxQueue < 0) {
+      throw new IllegalArgumentException("Invalid admission limits for " + name);
+    }
+
+    this.name = name;
+    this.limit = initialLimit;
+    this.minLimit = minLimit;
+    this.maxLimit = maxLimit;
+    this.maxQueue = maxQueue;
+    this.queueTimeoutNanos = TimeUnit.MILLISECONDS.toNanos(queueTimeoutMillis);
+    this.adaptive = adaptive;
+  }
+
+  /*
+   * Returns false without waiting when the queue is full, or after the
+   * queue deadline passes. Every true must be matched by one release.
+   */
+  public boolean acquire() {
+    lock.lock();
+    try {
+      if (inFlight < (int) limit) {
+        inFlight++;
+        admitted.increment();
+        return true;
+      }
+      if (queued >= maxQueue) {
+        rejected.increment();
+        return false;
+      }
+
+      queued++;
+      try {
+        long remaining = queueTimeoutNanos;
+        while (inFlight >= (int) limit) {
+          if (remaining <= 0) {
+            timedOut.increment();
+            return false;
+          }
+          remaining = released.awaitNanos(remaining);
+        }
+      } catch (InterruptedException e) {
+        Thread.currentThread().interrupt();
+        // Pass on a signal this waiter may have consumed.
+        released.signal();
+        rejected.increment();
+        return false;
+      } finally {
+        queued--;
+      }
+
+      inFlight++;
+      admitted.increment();
+      return true;
+    } finally {
+      lock.unlock();
+    }
+  }
+
+  // latencyNanos < 0 releases without a sample, e.g. for a stream closed by its consumer.
+  public void release(long latencyNanos) {
+    lock.lock();
+    try {
+      final int before = (int) limit;
+      inFlight--;
+      if (adaptive && latencyNanos >= 0) {
+        adapt(latencyNanos);
+      }
+
+      if ((int) limit > before) {
+        released.signalAll();
+      } else {
+        released.signal();
+      }
+    } finally {
+      lock.unlock();
+    }
+  }
+
+  private void adapt(long latencyNanos) {
+    if (longNanos == 0) {
+      shortNanos = latencyNanos;
+      longNanos = latencyNanos;
+      return;
+    }
+
+    shortNanos += SHORT_WEIGHT * (latencyNanos - shortNanos);
+    // Quick to follow improvements, slow to accept sustained overload as normal.
+    longNanos += (shortNanos < longNanos ? SHORT_WEIGHT : LONG_WEIGHT) * (shortNanos - longNanos);
+
+    final double gradient = Math.max(0.5, Math.min(1.0, TOLERANCE * longNanos / shortNanos));
+    double target = limit * gradient + Math.sqrt(limit);
+    // An underused limit says nothing about how much more the database can take.
+    if (gradient == 1.0 && inFlight < limit / 2) {
+      target = Math.min(target, limit);
+    }
+
+    limit = Math.max(minLimit, Math.min(maxLimit, limit + LIMIT_WEIGHT * (target - limit)));
+  }
+
+  public String getName() {
+    return name;
+  }
+
+  public int getLimit() {
+    lock.lock();
+    try {
+      return (int) limit;
+    } finally {
+      lock.unlock();
+    }
+  }
+
+  public int getInFlight() {
+    lock.lock();
+    try {
+      return inFlight;
+    } finally {
+      lock.unlock();
+    }
+  }
+
+  public int getQueued() {
+    lock.lock();
+    try {
+      return queued;
+    } finally {
+      lock.unlock();
+    }
+  }
+
+  public long getAdmittedCount() {
+    return admitted.sum();
+  }
+
+  public long getRejectedCount() {
+    return rejected.sum();
+  }
+
+  public long getTimedOutCount() {
+    return timedOut.sum();
+  }
+}
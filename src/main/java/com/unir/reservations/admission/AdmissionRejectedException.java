@@ -0,0 +1,12 @@
+package com.unir.reservations.admission;
+
+/*
+ * Thrown by admitted calls that have no RawRecord to carry the rejection.
+ */
+public class AdmissionRejectedException extends RuntimeException {
+  private static final long serialVersionUID = 1L;
+
+  public AdmissionRejectedException(String operation) {
+    super(AdmissionControl.BUSY_MESSAGE + " (" + operation + ")");
+  }
+}
@@ -0,0 +1,10 @@
+package com.unir.reservations.admission;
+
+import com.unir.reservations.dao.ClientDAO;
+import com.unir.reservations.models.Client;
+
+public class AdmittedClientDAO extends AdmittedDAO<Client> implements ClientDAO {
+  public AdmittedClientDAO(ClientDAO delegate, AdmissionControl admission) {
+    super(delegate, admission);
+  }
+}
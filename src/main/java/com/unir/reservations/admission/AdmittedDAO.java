@@ -0,0 +1,96 @@
+package com.unir.reservations.admission;
+
+import java.sql.Connection;
+import java.util.HashMap;
+import java.util.List;
+
+import com.unir.reservations.admission.AdmissionControl.Operation;
+import com.unir.reservations.dao.CRUD;
+import com.unir.reservations.dao.ListQuery;
+import com.unir.reservations.utils.Pagination;
+import com.unir.reservations.utils.RawRecord;
+
+public class AdmittedDAO<T> implements CRUD<T> {
+  private final CRUD<T> delegate;
+  private final AdmissionControl admission;
+
+  public AdmittedDAO(CRUD<T> delegate, AdmissionControl admission) {
+    this.delegate = delegate;
+    this.admission = admission;
+  }
+
+  // The caller already holds a connection, so there is nothing left to admit.
+  @Override
+  public Pagination getList(ListQuery query, Connection connection) {
+    return delegate.getList(query, connection);
+  }
+
+  @Override
+  public RawRecord getList(ListQuery query) {
+    return admission.call(
+      Operation.READ,
+      () -> delegate.getList(query),
+      AdmissionControl::busy
+    );
+  }
+
+  @Override
+  public RawRecord add(T object, HashMap<String, Object> params) {
+    return admission.call(
+      Operation.WRITE,
+      () -> delegate.add(object, params),
+      AdmissionControl::busy
+    );
+  }
+
+  @Override
+  public RawRecord update(T object, HashMap<String, Object> params) {
+    return admission.call(
+      Operation.WRITE,
+      () -> delegate.update(object, params),
+      AdmissionControl::busy
+    );
+  }
+
+  @Override
+  public RawRecord delete(Integer id, HashMap<String, Object> params) {
+    return admission.call(
+      Operation.WRITE,
+      () -> delegate.delete(id, params),
+      AdmissionControl::busy
+    );
+  }
+
+  @Override
+  public List<RawRecord> addAll(List<T> objects, HashMap<String, Object> params) {
+    return admission.call(
+      Operation.WRITE,
+      () -> delegate.addAll(objects, params),
+      () -> busy(objects)
+    );
+  }
+
+  @Override
+  public List<RawRecord> updateAll(List<T> objects, HashMap<String, Object> params) {
+    return admission.call(
+      Operation.WRITE,
+      () -> delegate.updateAll(objects, params),
+      () -> busy(objects)
+    );
+  }
+
+  @Override
+  public T getForId(Integer id) {
+    return admission.call(Operation.READ, () -> delegate.getForId(id), () -> {
+      throw new AdmissionRejectedException("getForId");
+    });
+  }
+
+  protected AdmissionControl admission() {
+    return admission;
+  }
+
+  private static List<RawRecord> busy(List<?> objects) {
+    return objects.stream().map(object -> AdmissionControl.busy()).toList();
+  }
+}
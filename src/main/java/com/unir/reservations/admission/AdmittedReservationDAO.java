@@ -0,0 +1,48 @@
+package com.unir.reservations.admission;
+
+import java.sql.SQLException;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.stream.Stream;
+
+import com.unir.reservations.admission.AdmissionControl.Operation;
+import com.unir.reservations.dao.ReservationDAO;
+import com.unir.reservations.models.Reservation;
+import com.unir.reservations.utils.RawRecord;
+
+public class AdmittedReservationDAO extends AdmittedDAO<Reservation> implements ReservationDAO {
+  private final ReservationDAO delegate;
+
+  public AdmittedReservationDAO(ReservationDAO delegate, AdmissionControl admission) {
+    super(delegate, admission);
+    this.delegate = delegate;
+  }
+
+  /*
+   * The export permit is held until the stream is closed. Its duration
+   * depends on the consumer, so it is not fed to the latency estimate.
+   */
+  @Override
+  public Stream<Reservation> stream(HashMap<String, Object> params, int fetchSize) throws SQLException {
+    final AdmissionControl admission = admission();
+    if (!admission.acquire(Operation.EXPORT)) {
+      throw new AdmissionRejectedException("stream");
+    }
+
+    try {
+      return delegate.stream(params, fetchSize).onClose(() -> admission.release(Operation.EXPORT, -1));
+    } catch (SQLException | RuntimeException e) {
+      admission.release(Operation.EXPORT, -1);
+      throw e;
+    }
+  }
+
+  @Override
+  public RawRecord updatePrices(Map<Integer, Double> prices) {
+    return admission().call(
+      Operation.WRITE,
+      () -> delegate.updatePrices(prices),
+      AdmissionControl::busy
+    );
+  }
+}
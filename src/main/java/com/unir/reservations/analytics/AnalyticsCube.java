@@ -0,0 +1,278 @@
+package com.unir.reservations.analytics;
+
+import java.time.LocalDate;
+import java.time.YearMonth;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.PriorityQueue;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
+
+import com.unir.reservations.availability.Slot;
+
+/*
+ * Reservations per room, day and hour, revenue per room and month, and
+ * revenue and reservation counts per client, in flat primitive arrays.
+ *
+ * Rooms and clients get dense slots in the order they are first seen, so
+ * a large auto-increment id costs one slot rather than sizing the arrays.
+ * Cells are room-major, so a delta is bucketed by room once and then
+ * applied by fork/join tasks over disjoint room ranges that never write
+ * the same cell. The day axis grows in both directions with a year of
+ * headroom, so steady bookings rarely reallocate; the engine keeps the
+ * dates it passes in within a bounded window. Not thread-safe; the engine
+ * serializes writers against readers.
+ */
+class AnalyticsCube {
+  private static final int HOURS = Slot.HOURS_PER_DAY;
+  private static final int SEQUENTIAL_ROWS = 4_096;
+  private static final int DAY_HEADROOM = 366;
+  private static final int ROOM_HEADROOM = 16;
+
+  private final HashMap<Integer, Integer> roomSlots = new HashMap<>();
+  private final HashMap<Integer, Integer> clientSlots = new HashMap<>();
+  private int[] roomIds = new int[0];
+  private int[] clientIds = new int[0];
+
+  private int rooms;
+  private int firstDay;
+  private int days;
+  private int firstMonth;
+  private int months;
+  // (room * days + day) * HOURS + hour
+  private int[] occupancy = new int[0];
+  // room * months + month
+  private double[] revenue = new double[0];
+  private double[] clientRevenue = new double[0];
+  private int[] clientReservations = new int[0];
+
+  void apply(EventDelta delta, ForkJoinPool pool) {
+    if (delta.size == 0) {
+      return;
+    }
+
+    final int[] slots = new int[delta.size];
+    final int[] clients = new int[delta.size];
+    for (int i = 0; i < delta.size; i++) {
+      slots[i] = roomSlot(delta.rooms[i]);
+      clients[i] = clientSlot(delta.clients[i]);
+    }
+    ensureCapacity(roomSlots.size(), delta.minDay, delta.maxDay);
+
+    // Counting sort of delta rows by room slot; roomStart[r]..roomStart[r + 1] indexes order.
+    final int[] roomStart = new int[rooms + 1];
+    for (int i = 0; i < delta.size; i++) {
+      roomStart[slots[i] + 1]++;
+    }
+    for (int room = 0; room < rooms; room++) {
+      roomStart[room + 1] += roomStart[room];
+    }
+    final int[] order = new int[delta.size];
+    final int[] next = Arrays.copyOf(roomStart, rooms);
+    for (int i = 0; i < delta.size; i++) {
+      order[next[slots[i]]++] = i;
+    }
+
+    pool.invoke(ForkJoinTask.adapt(() -> applyRooms(delta, slots, order, roomStart, 0, rooms)));
+
+    for (int i = 0; i < delta.size; i++) {
+      clientRevenue[clients[i]] += delta.signs[i] * delta.prices[i];
+      clientReservations[clients[i]] += delta.signs[i];
+    }
+  }
+
+  List<HourlyOccupancy> occupancy(LocalDate from, LocalDate to, Integer roomId) {
+    final List<HourlyOccupancy> report = new ArrayList<>();
+
+    for (LocalDate date = from; !date.isAfter(to); date = date.plusDays(1)) {
+      final int[] booked = new int[HOURS];
+      final int day = (int) date.toEpochDay() - firstDay;
+
+      if (day >= 0 && day < days) {
+        for (int room : slotsOf(roomId)) {
+          final int base = (room * days + day) * HOURS;
+          for (int hour = 0; hour < HOURS; hour++) {
+            booked[hour] += occupancy[base + hour];
+          }
+        }
+      }
+
+      report.add(new HourlyOccupancy(date, Arrays.stream(booked).boxed().toList()));
+    }
+
+    return report;
+  }
+
+  List<RoomRevenue> revenue(YearMonth from, YearMonth to, Integer roomId) {
+    final List<RoomRevenue> report = new ArrayList<>();
+    final int fromMonth = Math.max(EventDelta.monthOf(from.atDay(1)) - firstMonth, 0);
+    final int toMonth = Math.min(EventDelta.monthOf(to.atDay(1)) - firstMonth, months - 1);
+
+    for (int room : slotsOf(roomId)) {
+      for (int month = fromMonth; month <= toMonth; month++) {
+        final double total = revenue[room * months + month];
+        if (Math.abs(total) >= 0.005) {
+          final int absolute = firstMonth + month;
+          report.add(new RoomRevenue(
+            roomIds[room],
+            YearMonth.of(absolute / 12, absolute % 12 + 1),
+            Math.round(total * 100) / 100.0
+          ));
+        }
+      }
+    }
+
+    return report;
+  }
+
+  List<ClientRevenue> topClients(int limit) {
+    final PriorityQueue<Integer> top = new PriorityQueue<>(
+      limit + 1,
+      (a, b) -> Double.compare(clientRevenue[a], clientRevenue[b])
+    );
+
+    for (int client = 0; client < clientSlots.size(); client++) {
+      if (clientReservations[client] > 0) {
+        top.add(client);
+        if (top.size() > limit) {
+          top.poll();
+        }
+      }
+    }
+
+    final List<ClientRevenue> report = new ArrayList<>(top.size());
+    while (!top.isEmpty()) {
+      final int client = top.poll();
+      report.add(new ClientRevenue(
+        clientIds[client],
+        clientReservations[client],
+        Math.round(clientRevenue[client] * 100) / 100.0
+      ));
+    }
+
+    return report.reversed();
+  }
+
+  // One room's slot, or every slot in room id order.
+  private int[] slotsOf(Integer roomId) {
+    if (roomId != null) {
+      final Integer slot = roomSlots.get(roomId);
+      return slot == null || slot >= rooms ? new int[0] : new int[] { slot };
+    }
+
+    final Integer[] slots = new Integer[roomSlots.size()];
+    for (int slot = 0; slot < slots.length; slot++) {
+      slots[slot] = slot;
+    }
+    Arrays.sort(slots, (a, b) -> Integer.compare(roomIds[a], roomIds[b]));
+    return Arrays.stream(slots).mapToInt(Integer::intValue).toArray();
+  }
+
+  private int roomSlot(int roomId) {
+    final Integer slot = roomSlots.get(roomId);
+    if (slot != null) {
+      return slot;
+    }
+
+    final int added = roomSlots.size();
+    if (added == roomIds.length) {
+      roomIds = Arrays.copyOf(roomIds, Math.max(ROOM_HEADROOM, added * 2));
+    }
+    roomIds[added] = roomId;
+    roomSlots.put(roomId, added);
+    return added;
+  }
+
+  private int clientSlot(int clientId) {
+    final Integer slot = clientSlots.get(clientId);
+    if (slot != null) {
+      return slot;
+    }
+
+    final int added = clientSlots.size();
+    if (added == clientIds.length) {
+      final int length = Math.max(16, added * 2);
+      clientIds = Arrays.copyOf(clientIds, length);
+      clientRevenue = Arrays.copyOf(clientRevenue, length);
+      clientReservations = Arrays.copyOf(clientReservations, length);
+    }
+    clientIds[added] = clientId;
+    clientSlots.put(clientId, added);
+    return added;
+  }
+
+  private void ensureCapacity(int roomCount, int minDay, int maxDay) {
+    final boolean empty = days == 0;
+    final int lastDay = firstDay + days;
+    if (!empty && roomCount <= rooms && minDay >= firstDay && maxDay < lastDay) {
+      return;
+    }
+
+    final int newRooms = roomCount <= rooms ? rooms : roomCount + ROOM_HEADROOM;
+    final int newFirstDay = empty ? minDay : minDay < firstDay ? minDay - DAY_HEADROOM : firstDay;
+    final int newLastDay = empty || maxDay >= lastDay ? maxDay + 1 + DAY_HEADROOM : lastDay;
+    final int newDays = newLastDay - newFirstDay;
+    final int newFirstMonth = EventDelta.monthOf(LocalDate.ofEpochDay(newFirstDay));
+    final int newMonths = EventDelta.monthOf(LocalDate.ofEpochDay(newLastDay - 1)) - newFirstMonth + 1;
+
+    final int[] newOccupancy = new int[Math.multiplyExact(Math.multiplyExact(newRooms, newDays), HOURS)];
+    final double[] newRevenue = new double[Math.multiplyExact(newRooms, newMonths)];
+    final int dayShift = firstDay - newFirstDay;
+    final int monthShift = firstMonth - newFirstMonth;
+
+    for (int room = 0; room < rooms; room++) {
+      System.arraycopy(
+        occupancy,
+        room * days * HOURS,
+        newOccupancy,
+        (room * newDays + dayShift) * HOURS,
+        days * HOURS
+      );
+      System.arraycopy(revenue, room * months, newRevenue, room * newMonths + monthShift, months);
+    }
+
+    rooms = newRooms;
+    firstDay = newFirstDay;
+    days = newDays;
+    firstMonth = newFirstMonth;
+    months = newMonths;
+    occupancy = newOccupancy;
+    revenue = newRevenue;
+  }
+
+  // Rooms in [fromRoom, toRoom) split in halves until a range is small enough to apply in place.
+  private void applyRooms(
+    EventDelta delta,
+    int[] slots,
+    int[] order,
+    int[] roomStart,
+    int fromRoom,
+    int toRoom
+  ) {
+    if (toRoom - fromRoom <= 1 || roomStart[toRoom] - roomStart[fromRoom] <= SEQUENTIAL_ROWS) {
+      for (int k = roomStart[fromRoom]; k < roomStart[toRoom]; k++) {
+        applyRow(delta, slots[order[k]], order[k]);
+      }
+      return;
+    }
+
+    final int middle = (fromRoom + toRoom) >>> 1;
+    ForkJoinTask.invokeAll(
+      ForkJoinTask.adapt(() -> applyRooms(delta, slots, order, roomStart, fromRoom, middle)),
+      ForkJoinTask.adapt(() -> applyRooms(delta, slots, order, roomStart, middle, toRoom))
+    );
+  }
+
+  private void applyRow(EventDelta delta, int room, int i) {
+    final int sign = delta.signs[i];
+    final int base = (room * days + delta.days[i] - firstDay) * HOURS;
+    final int end = Math.min(delta.ends[i], HOURS);
+
+    for (int hour = Math.max(delta.starts[i], 0); hour < end; hour++) {
+      occupancy[base + hour] += sign;
+    }
+    revenue[room * months + delta.months[i] - firstMonth] += sign * delta.prices[i];
+  }
+}
@@ -0,0 +1,484 @@
+package com.unir.reservations.analytics;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.time.LocalDate;
+import java.time.YearMonth;
+import java.time.temporal.ChronoUnit;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+import javax.sql.DataSource;
+
+import com.unir.reservations.dao.TransactionTemplate;
+
+/*
+ * Occupancy, revenue and top-client reports over evp_event, kept in an
+ * AnalyticsCube and refreshed incrementally.
+ *
+ * The first refresh walks evp_event in eventId order, one keyset chunk and
+ * one borrowed connection at a time, applying each chunk as soon as it is
+ * read. Later refreshes only read rows whose updatedAt (maintained by the
+ * column's ON UPDATE CURRENT_TIMESTAMP) is at or after the newest one seen,
+ * less CHANGE_OVERLAP_MILLIS for transactions that committed late. They
+ * run in one REPEATABLE READ snapshot that also counts the table: deletes
+ * leave no row to seek on, so a count that disagrees with the events
+ * tracked here falls back to a full walk, which retracts ids that vanished.
+ *
+ * The engine remembers the version and the contribution of every event it
+ * has counted, so only events that are new or whose version moved (any
+ * update, including a reprice) reach the cube: a changed event is
+ * retracted with its old values and added with its new ones. That state is
+ * kept per dense slot (EventSlots), not per eventId, so a sparse id cannot
+ * size it. Events dated
+ * more than EVENT_WINDOW_DAYS from today are left out of the cube, so one
+ * mistyped year cannot size it.
+ */
+public class AnalyticsEngine {
+  private static final Logger LOGGER = Logger.getLogger(AnalyticsEngine.class.getName());
+  private static final int DEFAULT_CHUNK_SIZE = 50_000;
+  private static final int MAX_REPORT_DAYS = 366;
+  private static final int EVENT_WINDOW_DAYS = 10 * 366;
+  private static final long CHANGE_OVERLAP_MILLIS = 5 * 60_000;
+
+  private static final String SCAN_COLUMNS = """
+    SELECT
+      eventId,
+      clientId,
+      roomId,
+      date,
+      startHour,
+      endHour,
+      priceTotal,
+      version,
+      updatedAt
+    FROM evp_event
+  """;
+  private static final String SCAN_QUERY = SCAN_COLUMNS + """
+    WHERE eventId > ?
+    ORDER BY eventId
+    LIMIT ?
+  """;
+  private static final String CHANGES_QUERY = SCAN_COLUMNS + """
+    WHERE updatedAt >= ?
+      AND eventId > ?
+    ORDER BY eventId
+    LIMIT ?
+  """;
+  private static final String COUNT_QUERY = """
+    SELECT COUNT(*) FROM evp_event
+  """;
+
+  private final DataSource pool;
+  private final TransactionTemplate snapshots;
+  private final ForkJoinPool forkJoinPool;
+  private final int chunkSize;
+  private final AnalyticsCube cube = new AnalyticsCube();
+  private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+
+  // What each counted event contributed, indexed by slot; version -1 means not counted.
+  private final EventSlots slots = new EventSlots();
+  private int[] eventIds = new int[0];
+  private int[] versions = new int[0];
+  private int[] rooms = new int[0];
+  private int[] days = new int[0];
+  private byte[] starts = new byte[0];
+  private byte[] ends = new byte[0];
+  private double[] prices = new double[0];
+  private int[] clients = new int[0];
+  private int counted;
+  // Slots of events read but left out of the cube for their date.
+  private final BitSet outOfWindow = new BitSet();
+  // Newest updatedAt seen; null until a full walk completes.
+  private Timestamp watermark;
+
+  /*
+   * One refresh: its counters, the keyset position of the walk, the slots
+   * a full walk has seen, and the events entering or leaving outOfWindow
+   * once the pending delta applies.
+   */
+  private static final class Tally {
+    private int scanned;
+    private int added;
+    private int changed;
+    private int removed;
+    private int skipped;
+    private int unseen;
+    private int lastId;
+    private Timestamp newest;
+    private final BitSet seen = new BitSet();
+    private final Ids entered = new Ids();
+    private final Ids left = new Ids();
+  }
+
+  private static final class Ids {
+    private int[] values = new int[16];
+    private int size;
+
+    private void add(int id) {
+      if (size == values.length) {
+        values = Arrays.copyOf(values, size * 2);
+      }
+      values[size++] = id;
+    }
+  }
+
+  public AnalyticsEngine(DataSource pool) {
+    this(pool, ForkJoinPool.commonPool(), DEFAULT_CHUNK_SIZE);
+  }
+
+  public AnalyticsEngine(DataSource pool, ForkJoinPool forkJoinPool, int chunkSize) {
+    if (chunkSize <= 0) {
+      throw new IllegalArgumentException("chunkSize must be positive");
+    }
+
+    this.pool = pool;
+    this.snapshots = new TransactionTemplate(pool, Connection.TRANSACTION_REPEATABLE_READ, 3, 20);
+    this.forkJoinPool = forkJoinPool;
+    this.chunkSize = chunkSize;
+  }
+
+  public synchronized RefreshStats refresh() throws SQLException {
+    final long start = System.nanoTime();
+    final int today = (int) LocalDate.now().toEpochDay();
+
+    Tally tally = null;
+    if (watermark != null) {
+      tally = refreshChanges(today);
+    }
+    final boolean full = tally == null;
+    if (full) {
+      tally = refreshAll(today);
+    }
+    if (tally.newest != null && (watermark == null || tally.newest.after(watermark))) {
+      watermark = tally.newest;
+    }
+
+    final RefreshStats stats = new RefreshStats(
+      full,
+      tally.scanned,
+      tally.added,
+      tally.changed,
+      tally.removed,
+      tally.skipped,
+      (System.nanoTime() - start) / 1_000_000
+    );
+    LOGGER.log(Level.INFO, "Analytics refreshed: {0}", stats);
+    if (tally.skipped > 0) {
+      LOGGER.log(
+        Level.WARNING,
+        "{0} reservations dated more than {1} days from today were left out of the analytics",
+        new Object[] { tally.skipped, EVENT_WINDOW_DAYS }
+      );
+    }
+    return stats;
+  }
+
+  /*
+   * Reads the rows changed since the watermark and applies them once the
+   * snapshot is done, so a retried attempt never applies twice. Returns
+   * null, leaving the caller to walk the whole table, when the table count
+   * shows a delete.
+   */
+  private Tally refreshChanges(int today) throws SQLException {
+    final Timestamp since = new Timestamp(watermark.getTime() - CHANGE_OVERLAP_MILLIS);
+    final EventDelta delta = new EventDelta(64);
+
+    final Tally tally = snapshots.execute(transaction -> {
+      delta.clear();
+      final Tally changes = new Tally();
+      final Connection connection = transaction.connection();
+
+      try(PreparedStatement statement = connection.prepareStatement(CHANGES_QUERY)) {
+        while (true) {
+          statement.setTimestamp(1, since);
+          statement.setInt(2, changes.lastId);
+          statement.setInt(3, chunkSize);
+
+          LOGGER.log(Level.FINE, "Executing query: {0}", statement);
+
+          if (read(statement, delta, changes, today, false) < chunkSize) {
+            break;
+          }
+        }
+      }
+
+      try(
+        PreparedStatement statement = connection.prepareStatement(COUNT_QUERY);
+        ResultSet resultSet = statement.executeQuery()
+      ) {
+        resultSet.next();
+        final int known = counted + outOfWindow.cardinality() + changes.unseen;
+        return resultSet.getLong(1) == known ? changes : null;
+      }
+    });
+
+    if (tally == null) {
+      LOGGER.log(Level.FINE, "Row count moved without a matching change, walking evp_event");
+      return null;
+    }
+    apply(delta, tally);
+    return tally;
+  }
+
+  private Tally refreshAll(int today) throws SQLException {
+    final EventDelta delta = new EventDelta(chunkSize);
+    final Tally tally = new Tally();
+
+    while (true) {
+      delta.clear();
+      final int rows;
+
+      try(
+        Connection connection = pool.getConnection();
+        PreparedStatement statement = connection.prepareStatement(SCAN_QUERY)
+      ) {
+        statement.setInt(1, tally.lastId);
+        statement.setInt(2, chunkSize);
+
+        LOGGER.log(Level.FINE, "Executing query: {0}", statement);
+
+        rows = read(statement, delta, tally, today, true);
+      }
+
+      final boolean last = rows < chunkSize;
+      if (last) {
+        tally.removed += retractUnseen(delta, tally);
+      }
+
+      apply(delta, tally);
+      if (last) {
+        return tally;
+      }
+    }
+  }
+
+  /*
+   * Buffers one chunk into delta and returns the rows read. On a full walk
+   * the slots of known events are marked seen; the rest were deleted.
+   */
+  private int read(PreparedStatement statement, EventDelta delta, Tally tally, int today, boolean full)
+    throws SQLException {
+    int rows = 0;
+
+    try(ResultSet resultSet = statement.executeQuery()) {
+      while (resultSet.next()) {
+        final int eventId = resultSet.getInt("eventId");
+        tally.lastId = eventId;
+        tally.scanned++;
+        rows++;
+
+        final Timestamp updatedAt = resultSet.getTimestamp("updatedAt");
+        if (updatedAt != null && (tally.newest == null || updatedAt.after(tally.newest))) {
+          tally.newest = updatedAt;
+        }
+
+        final int version = resultSet.getInt("version");
+        final int day = (int) resultSet.getDate("date").toLocalDate().toEpochDay();
+        final int slot = slots.get(eventId);
+        final boolean counted = slot >= 0 && versions[slot] >= 0;
+        if (slot < 0) {
+          tally.unseen++;
+        } else if (full) {
+          tally.seen.set(slot);
+        }
+
+        if (Math.abs(day - today) > EVENT_WINDOW_DAYS) {
+          tally.skipped++;
+          tally.entered.add(eventId);
+          if (counted) {
+            retract(slot, delta);
+            tally.removed++;
+          }
+          continue;
+        }
+        if (counted && versions[slot] == version) {
+          continue;
+        }
+        if (counted) {
+          retract(slot, delta);
+          tally.changed++;
+        } else {
+          tally.left.add(eventId);
+          tally.added++;
+        }
+
+        delta.add(
+          1,
+          eventId,
+          version,
+          resultSet.getInt("roomId"),
+          day,
+          resultSet.getInt("startHour"),
+          resultSet.getInt("endHour"),
+          resultSet.getDouble("priceTotal"),
+          resultSet.getInt("clientId")
+        );
+      }
+    }
+
+    return rows;
+  }
+
+  public List<HourlyOccupancy> occupancy(LocalDate from, LocalDate to, Integer roomId) {
+    if (to.isBefore(from) || ChronoUnit.DAYS.between(from, to) >= MAX_REPORT_DAYS) {
+      throw new IllegalArgumentException("Report range must cover 1 to " + MAX_REPORT_DAYS + " days");
+    }
+    checkRoom(roomId);
+
+    lock.readLock().lock();
+    try {
+      return cube.occupancy(from, to, roomId);
+    } finally {
+      lock.readLock().unlock();
+    }
+  }
+
+  public List<RoomRevenue> revenue(YearMonth from, YearMonth to, Integer roomId) {
+    if (to.isBefore(from)) {
+      throw new IllegalArgumentException("Report range is empty");
+    }
+    checkRoom(roomId);
+
+    lock.readLock().lock();
+    try {
+      return cube.revenue(from, to, roomId);
+    } finally {
+      lock.readLock().unlock();
+    }
+  }
+
+  public List<ClientRevenue> topClients(int limit) {
+    if (limit <= 0) {
+      throw new IllegalArgumentException("limit must be positive");
+    }
+
+    lock.readLock().lock();
+    try {
+      return cube.topClients(limit);
+    } finally {
+      lock.readLock().unlock();
+    }
+  }
+
+  private static void checkRoom(Integer roomId) {
+    if (roomId != null && roomId < 0) {
+      throw new IllegalArgumentException("Invalid room " + roomId);
+    }
+  }
+
+  // Known events the full walk did not see were deleted: retract the counted ones, forget them all.
+  private int retractUnseen(EventDelta delta, Tally tally) {
+    int retracted = 0;
+
+    for (int slot = 0; slot < versions.length; slot++) {
+      if (tally.seen.get(slot) || (versions[slot] < 0 && !outOfWindow.get(slot))) {
+        continue;
+      }
+      if (versions[slot] >= 0) {
+        retract(slot, delta);
+        retracted++;
+      }
+      tally.left.add(eventIds[slot]);
+    }
+
+    return retracted;
+  }
+
+  private void retract(int slot, EventDelta delta) {
+    delta.add(
+      -1,
+      eventIds[slot],
+      -1,
+      rooms[slot],
+      days[slot],
+      starts[slot],
+      ends[slot],
+      prices[slot],
+      clients[slot]
+    );
+  }
+
+  /*
+   * Event contributions are written here, not while scanning, so a chunk
+   * that fails to read leaves both the cube and this table untouched.
+   */
+  private void apply(EventDelta delta, Tally tally) {
+    lock.writeLock().lock();
+    try {
+      cube.apply(delta, forkJoinPool);
+    } finally {
+      lock.writeLock().unlock();
+    }
+
+    // In delta order, so a changed event ends with its new values.
+    for (int i = 0; i < delta.size; i++) {
+      if (delta.signs[i] < 0) {
+        final int slot = slots.get(delta.eventIds[i]);
+        counted -= versions[slot] >= 0 ? 1 : 0;
+        versions[slot] = -1;
+        continue;
+      }
+
+      final int slot = slot(delta.eventIds[i], tally);
+      counted += versions[slot] >= 0 ? 0 : 1;
+      versions[slot] = delta.versions[i];
+      rooms[slot] = delta.rooms[i];
+      days[slot] = delta.days[i];
+      starts[slot] = delta.starts[i];
+      ends[slot] = delta.ends[i];
+      prices[slot] = delta.prices[i];
+      clients[slot] = delta.clients[i];
+    }
+
+    // Events that left the window or the table; a slot no longer counted is released.
+    for (int i = 0; i < tally.left.size; i++) {
+      final int eventId = tally.left.values[i];
+      final int slot = slots.get(eventId);
+      if (slot >= 0) {
+        outOfWindow.clear(slot);
+        if (versions[slot] < 0) {
+          slots.release(eventId);
+        }
+      }
+    }
+    for (int i = 0; i < tally.entered.size; i++) {
+      outOfWindow.set(slot(tally.entered.values[i], tally));
+    }
+    tally.left.size = 0;
+    tally.entered.size = 0;
+  }
+
+  private int slot(int eventId, Tally tally) {
+    final int slot = slots.slotFor(eventId);
+    if (slot >= versions.length) {
+      grow(slot);
+    }
+    eventIds[slot] = eventId;
+    tally.seen.set(slot);
+    return slot;
+  }
+
+  private void grow(int slot) {
+    final int length = Math.max(slot + 1, versions.length + (versions.length >> 1));
+    final int previous = versions.length;
+
+    eventIds = Arrays.copyOf(eventIds, length);
+    versions = Arrays.copyOf(versions, length);
+    Arrays.fill(versions, previous, length, -1);
+    rooms = Arrays.copyOf(rooms, length);
+    days = Arrays.copyOf(days, length);
+    starts = Arrays.copyOf(starts, length);
+    ends = Arrays.copyOf(ends, length);
+    prices = Arrays.copyOf(prices, length);
+    clients = Arrays.copyOf(clients, length);
+  }
+}
@@ -0,0 +1,4 @@
+package com.unir.reservations.analytics;
+
+public record ClientRevenue(int clientId, int reservations, double revenue) {
+}
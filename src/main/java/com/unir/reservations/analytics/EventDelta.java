@@ -0,0 +1,96 @@
+package com.unir.reservations.analytics;
+
+import java.time.LocalDate;
+import java.util.Arrays;
+
+/*
+ * Column-wise buffer of reservation contributions to add (+1) or retract
+ * (-1). A changed reservation appears twice, retracted with its old values
+ * and then added with its new ones.
+ */
+final class EventDelta {
+  int size;
+  int[] eventIds;
+  int[] versions;
+  byte[] signs;
+  int[] rooms;
+  int[] days;
+  int[] months;
+  byte[] starts;
+  byte[] ends;
+  double[] prices;
+  int[] clients;
+
+  int minDay;
+  int maxDay;
+
+  EventDelta(int capacity) {
+    eventIds = new int[capacity];
+    versions = new int[capacity];
+    signs = new byte[capacity];
+    rooms = new int[capacity];
+    days = new int[capacity];
+    months = new int[capacity];
+    starts = new byte[capacity];
+    ends = new byte[capacity];
+    prices = new double[capacity];
+    clients = new int[capacity];
+    clear();
+  }
+
+  void add(
+    int sign,
+    int eventId,
+    int version,
+    int room,
+    int day,
+    int start,
+    int end,
+    double price,
+    int client
+  ) {
+    if (size == eventIds.length) {
+      grow();
+    }
+
+    final LocalDate date = LocalDate.ofEpochDay(day);
+    eventIds[size] = eventId;
+    versions[size] = version;
+    signs[size] = (byte) sign;
+    rooms[size] = room;
+    days[size] = day;
+    months[size] = monthOf(date);
+    starts[size] = (byte) start;
+    ends[size] = (byte) end;
+    prices[size] = price;
+    clients[size] = client;
+    size++;
+
+    minDay = Math.min(minDay, day);
+    maxDay = Math.max(maxDay, day);
+  }
+
+  void clear() {
+    size = 0;
+    minDay = Integer.MAX_VALUE;
+    maxDay = Integer.MIN_VALUE;
+  }
+
+  static int monthOf(LocalDate date) {
+    return date.getYear() * 12 + date.getMonthValue() - 1;
+  }
+
+  private void grow() {
+    final int capacity = Math.max(16, eventIds.length * 2);
+    eventIds = Arrays.copyOf(eventIds, capacity);
+    versions = Arrays.copyOf(versions, capacity);
+    signs = Arrays.copyOf(signs, capacity);
+    rooms = Arrays.copyOf(rooms, capacity);
+    days = Arrays.copyOf(days, capacity);
+    months = Arrays.copyOf(months, capacity);
+    starts = Arrays.copyOf(starts, capacity);
+    ends = Arrays.copyOf(ends, capacity);
+    prices = Arrays.copyOf(prices, capacity);
+    clients = Arrays.copyOf(clients, capacity);
+  }
+}
@@ -0,0 +1,111 @@
+package com.unir.reservations.analytics;
+
+import java.util.Arrays;
+
+/*
+ * Maps event ids to dense slots, so per-event state is sized by the number
+ * of events rather than by the largest id. Open addressing with linear
+ * probing over int arrays; released slots are handed out again.
+ */
+final class EventSlots {
+  private static final int EMPTY = -1;
+
+  private int[] keys = new int[16];
+  private int[] values = filled(16);
+  private int size;
+  private int nextSlot;
+  private int[] free = new int[16];
+  private int freeCount;
+
+  int size() {
+    return size;
+  }
+
+  // The slot of eventId, or -1 when it has none.
+  int get(int eventId) {
+    final int mask = keys.length - 1;
+    for (int i = index(eventId, mask); values[i] != EMPTY; i = (i + 1) & mask) {
+      if (keys[i] == eventId) {
+        return values[i];
+      }
+    }
+    return EMPTY;
+  }
+
+  int slotFor(int eventId) {
+    final int existing = get(eventId);
+    if (existing != EMPTY) {
+      return existing;
+    }
+    if ((size + 1) * 2 > keys.length) {
+      rehash(keys.length * 2);
+    }
+
+    final int slot = freeCount > 0 ? free[--freeCount] : nextSlot++;
+    insert(eventId, slot);
+    size++;
+    return slot;
+  }
+
+  void release(int eventId) {
+    final int mask = keys.length - 1;
+    int i = index(eventId, mask);
+    while (values[i] != EMPTY && keys[i] != eventId) {
+      i = (i + 1) & mask;
+    }
+    if (values[i] == EMPTY) {
+      return;
+    }
+
+    if (freeCount == free.length) {
+      free = Arrays.copyOf(free, free.length * 2);
+    }
+    free[freeCount++] = values[i];
+    size--;
+
+    // Shift later entries of the probe run back so lookups never stop at the hole.
+    for (int j = (i + 1) & mask; values[j] != EMPTY; j = (j + 1) & mask) {
+      final int home = index(keys[j], mask);
+      if (((j - home) & mask) >= ((j - i) & mask)) {
+        keys[i] = keys[j];
+        values[i] = values[j];
+        i = j;
+      }
+    }
+    values[i] = EMPTY;
+  }
+
+  private void insert(int eventId, int slot) {
+    final int mask = keys.length - 1;
+    int i = index(eventId, mask);
+    while (values[i] != EMPTY) {
+      i = (i + 1) & mask;
+    }
+    keys[i] = eventId;
+    values[i] = slot;
+  }
+
+  private void rehash(int capacity) {
+    final int[] oldKeys = keys;
+    final int[] oldValues = values;
+    keys = new int[capacity];
+    values = filled(capacity);
+
+    for (int i = 0; i < oldKeys.length; i++) {
+      if (oldValues[i] != EMPTY) {
+        insert(oldKeys[i], oldValues[i]);
+      }
+    }
+  }
+
+  private static int index(int eventId, int mask) {
+    final int hash = eventId * 0x9E3779B9;
+    return (hash ^ (hash >>> 16)) & mask;
+  }
+
+  private static int[] filled(int capacity) {
+    final int[] array = new int[capacity];
+    Arrays.fill(array, EMPTY);
+    return array;
+  }
+}
@@ -0,0 +1,8 @@
+package com.unir.reservations.analytics;
+
+import java.time.LocalDate;
+import java.util.List;
+
+// bookedRooms.get(hour) counts reservations covering that hour of the day.
+public record HourlyOccupancy(LocalDate date, List<Integer> bookedRooms) {
+}
@@ -0,0 +1,12 @@
+package com.unir.reservations.analytics;
+
+public record RefreshStats(
+  boolean full,
+  int scanned,
+  int added,
+  int changed,
+  int removed,
+  int skipped,
+  long millis
+) {
+}
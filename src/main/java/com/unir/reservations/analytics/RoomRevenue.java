@@ -0,0 +1,6 @@
+package com.unir.reservations.analytics;
+
+import java.time.YearMonth;
+
+public record RoomRevenue(int roomId, YearMonth month, double revenue) {
+}
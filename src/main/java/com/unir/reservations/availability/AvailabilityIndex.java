@@ -0,0 +1,288 @@
+package com.unir.reservations.availability;
+
+import java.sql.Connection;
+import java.sql.Date;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.time.LocalDate;
+import java.time.temporal.ChronoUnit;
+import java.util.BitSet;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.locks.Lock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/*
+ * Occupied hours per room and day, one bit per hour of the day. Reservations
+ * cover [startHour, endHour), so back-to-back bookings do not collide.
+ */
+public class AvailabilityIndex {
+  private static final Logger LOGGER = Logger.getLogger(AvailabilityIndex.class.getName());
+  public static final int MAX_SEARCH_DAYS = 366;
+
+  private static final String LOAD_QUERY = """
+    SELECT
+      eventId,
+      roomId,
+      date,
+      startHour,
+      endHour
+    FROM evp_event
+  """;
+  private static final String LOAD_ROOMS_QUERY = """
+    SELECT roomId
+    FROM evp_room
+  """;
+
+  private record State(
+    ConcurrentHashMap<Long, AtomicInteger> occupied,
+    ConcurrentHashMap<Long, DayOccupancy> days
+  ) {
+    State() {
+      this(new ConcurrentHashMap<>(), new ConcurrentHashMap<>());
+    }
+  }
+
+  private volatile State state = new State();
+  private final BitSet rooms = new BitSet();
+
+  /*
+   * Writers share the read lock; load() takes the write lock only to swap in
+   * the state it built. Keys written while a load runs are recorded so the
+   * swap carries their live value over instead of the value it read.
+   */
+  private final ReentrantReadWriteLock swap = new ReentrantReadWriteLock();
+  private final Lock writers = swap.readLock();
+  private volatile Set<Long> touched;
+
+  // Returns how many reservations were left out because their row is malformed.
+  public int load(Connection connection) throws SQLException {
+    final BitSet loadedRooms = new BitSet();
+    try(
+      PreparedStatement statementRooms = connection.prepareStatement(LOAD_ROOMS_QUERY);
+      ResultSet resultSet = statementRooms.executeQuery()
+    ) {
+      while (resultSet.next()) {
+        loadedRooms.set(resultSet.getInt("roomId"));
+      }
+    }
+    synchronized (rooms) {
+      rooms.clear();
+      rooms.or(loadedRooms);
+    }
+
+    final State loaded = new State();
+    swap.writeLock().lock();
+    try {
+      touched = ConcurrentHashMap.newKeySet();
+    } finally {
+      swap.writeLock().unlock();
+    }
+
+    try(
+      PreparedStatement statement = connection.prepareStatement(LOAD_QUERY);
+      ResultSet resultSet = statement.executeQuery()
+    ) {
+      int count = 0;
+      int skipped = 0;
+
+      while (resultSet.next()) {
+        // One malformed row must not abort the load, and with it startup.
+        final Date date = resultSet.getDate("date");
+        final Integer startHour = resultSet.getObject("startHour", Integer.class);
+        final Integer endHour = resultSet.getObject("endHour", Integer.class);
+        if (date == null || !Slot.isValid(startHour, endHour)) {
+          LOGGER.log(
+            Level.WARNING,
+            "Skipping reservation {0}: date {1}, hours {2}-{3}",
+            new Object[] { resultSet.getInt("eventId"), date, startHour, endHour }
+          );
+          skipped++;
+          continue;
+        }
+
+        occupy(loaded, new Slot(resultSet.getInt("roomId"), date.toLocalDate(), startHour, endHour));
+        count++;
+      }
+
+      swap.writeLock().lock();
+      try {
+        final State live = state;
+        for (Long key : touched) {
+          final AtomicInteger hours = live.occupied().get(key);
+          final AtomicInteger copy = new AtomicInteger(hours == null ? 0 : hours.get());
+          loaded.occupied().put(key, copy);
+          publish(loaded, key, copy);
+        }
+        state = loaded;
+      } finally {
+        swap.writeLock().unlock();
+      }
+
+      LOGGER.log(Level.INFO, "Availability index loaded with {0} reservations", count);
+      if (skipped > 0) {
+        LOGGER.log(Level.WARNING, "{0} malformed reservations were left out of the availability index", skipped);
+      }
+      return skipped;
+    } finally {
+      touched = null;
+    }
+  }
+
+  public void occupy(Slot slot) {
+    writers.lock();
+    try {
+      occupy(state, slot);
+      touch(slot.key());
+    } finally {
+      writers.unlock();
+    }
+  }
+
+  private static void occupy(State state, Slot slot) {
+    final AtomicInteger hours = state.occupied().computeIfAbsent(slot.key(), key -> new AtomicInteger());
+    hours.accumulateAndGet(slot.mask(), (current, mask) -> current | mask);
+    publish(state, slot.key(), hours);
+  }
+
+  public boolean isFree(int roomId, LocalDate date, int startHour, int endHour) {
+    return (occupiedHours(roomId, date) & Slot.mask(startHour, endHour)) == 0;
+  }
+
+  public boolean isFree(Slot slot) {
+    return isFree(slot.roomId(), slot.date(), slot.startHour(), slot.endHour());
+  }
+
+  public int occupiedHours(int roomId, LocalDate date) {
+    final AtomicInteger hours = state.occupied().get(Slot.key(roomId, date.toEpochDay()));
+    return hours == null ? 0 : hours.get();
+  }
+
+  public boolean reserve(Slot slot) {
+    writers.lock();
+    try {
+      final State current = state;
+      final AtomicInteger hours = current.occupied().computeIfAbsent(slot.key(), key -> new AtomicInteger());
+      final int mask = slot.mask();
+      touch(slot.key());
+
+      while (true) {
+        final int bits = hours.get();
+        if ((bits & mask) != 0) {
+          return false;
+        }
+        if (hours.compareAndSet(bits, bits | mask)) {
+          publish(current, slot.key(), hours);
+          return true;
+        }
+      }
+    } finally {
+      writers.unlock();
+    }
+  }
+
+  public void release(Slot slot) {
+    writers.lock();
+    try {
+      final State current = state;
+      final AtomicInteger hours = current.occupied().get(slot.key());
+      if (hours != null) {
+        touch(slot.key());
+        hours.accumulateAndGet(slot.mask(), (bits, mask) -> bits & ~mask);
+        publish(current, slot.key(), hours);
+      }
+    } finally {
+      writers.unlock();
+    }
+  }
+
+  public boolean move(Slot from, Slot to) {
+    if (from.key() != to.key()) {
+      if (!reserve(to)) {
+        return false;
+      }
+      release(from);
+      return true;
+    }
+
+    writers.lock();
+    try {
+      final State current = state;
+      final AtomicInteger hours = current.occupied().computeIfAbsent(to.key(), key -> new AtomicInteger());
+      final int fromMask = from.mask();
+      final int toMask = to.mask();
+      touch(to.key());
+
+      while (true) {
+        final int bits = hours.get();
+        final int others = bits & ~fromMask;
+        if ((others & toMask) != 0) {
+          return false;
+        }
+        if (hours.compareAndSet(bits, others | toMask)) {
+          publish(current, to.key(), hours);
+          return true;
+        }
+      }
+    } finally {
+      writers.unlock();
+    }
+  }
+
+  public void addRoom(int roomId) {
+    synchronized (rooms) {
+      rooms.set(roomId);
+    }
+  }
+
+  public void removeRoom(int roomId) {
+    synchronized (rooms) {
+      rooms.clear(roomId);
+    }
+  }
+
+  // One map lookup per day, so the range is capped like the analytics reports.
+  public BitSet freeRooms(LocalDate from, LocalDate to, int startHour, int endHour) {
+    if (to.isBefore(from) || ChronoUnit.DAYS.between(from, to) >= MAX_SEARCH_DAYS) {
+      throw new IllegalArgumentException("Search range must cover 1 to " + MAX_SEARCH_DAYS + " days");
+    }
+
+    final BitSet free;
+    synchronized (rooms) {
+      free = (BitSet) rooms.clone();
+    }
+
+    final long[] busy = new long[(free.length() + 63) >>> 6];
+    for (long day = from.toEpochDay(); day <= to.toEpochDay(); day++) {
+      final DayOccupancy occupancy = state.days().get(day);
+      if (occupancy != null) {
+        occupancy.collectBusy(busy, startHour, endHour);
+      }
+    }
+
+    free.andNot(BitSet.valueOf(busy));
+    return free;
+  }
+
+  private void touch(long key) {
+    final Set<Long> keys = touched;
+    if (keys != null) {
+      keys.add(key);
+    }
+  }
+
+  private static void publish(State state, long key, AtomicInteger hours) {
+    final int roomId = (int) (key >>> 32);
+    final long epochDay = (int) key;
+
+    // Re-read the mask under the day lock so racing writers converge on the latest value.
+    final DayOccupancy occupancy = state.days().computeIfAbsent(epochDay, day -> new DayOccupancy());
+    synchronized (occupancy) {
+      occupancy.apply(roomId, hours.get());
+    }
+  }
+}
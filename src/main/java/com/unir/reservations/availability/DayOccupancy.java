@@ -0,0 +1,41 @@
+package com.unir.reservations.availability;
+
+import java.util.Arrays;
+
+/*
+ * Transposed view of one day: for every hour, a bitset over room ids. A search
+ * ORs the hours of its window together and gets every busy room 64 at a time.
+ */
+class DayOccupancy {
+  private long[][] hours = new long[Slot.HOURS_PER_DAY][1];
+
+  synchronized void apply(int roomId, int occupiedHours) {
+    final int word = roomId >>> 6;
+    final long bit = 1L << roomId;
+
+    if (word >= hours[0].length) {
+      final int length = Math.max(word + 1, hours[0].length * 2);
+      for (int hour = 0; hour < Slot.HOURS_PER_DAY; hour++) {
+        hours[hour] = Arrays.copyOf(hours[hour], length);
+      }
+    }
+
+    for (int hour = 0; hour < Slot.HOURS_PER_DAY; hour++) {
+      if ((occupiedHours & (1 << hour)) != 0) {
+        hours[hour][word] |= bit;
+      } else {
+        hours[hour][word] &= ~bit;
+      }
+    }
+  }
+
+  synchronized void collectBusy(long[] busy, int startHour, int endHour) {
+    for (int hour = startHour; hour < endHour; hour++) {
+      final long[] rooms = hours[hour];
+      final int words = Math.min(rooms.length, busy.length);
+      for (int word = 0; word < words; word++) {
+        busy[word] |= rooms[word];
+      }
+    }
+  }
+}
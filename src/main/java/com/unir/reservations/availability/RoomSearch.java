@@ -0,0 +1,53 @@
+package com.unir.reservations.availability;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.List;
+
+import com.unir.reservations.dao.RoomDAO;
+import com.unir.reservations.models.Room;
+import com.unir.reservations.utils.Pagination;
+
+public class RoomSearch {
+  private final AvailabilityIndex availability;
+  private final RoomDAO roomDAO;
+
+  public RoomSearch(AvailabilityIndex availability, RoomDAO roomDAO) {
+    this.availability = availability;
+    this.roomDAO = roomDAO;
+  }
+
+  public Pagination findFree(
+    LocalDate from,
+    LocalDate to,
+    int startHour,
+    int endHour,
+    int offset,
+    int limit
+  ) {
+    if (!Slot.isValid(startHour, endHour) || to.isBefore(from)) {
+      throw new IllegalArgumentException("Invalid search window");
+    }
+    if (offset < 0 || limit < 0) {
+      throw new IllegalArgumentException("offset and limit must not be negative");
+    }
+
+    final BitSet free = availability.freeRooms(from, to, startHour, endHour);
+    final List<Room> rooms = new ArrayList<>(Math.min(limit, free.cardinality()));
+
+    int position = 0;
+    for (int roomId = free.nextSetBit(0); roomId >= 0 && rooms.size() < limit; roomId = free.nextSetBit(roomId + 1)) {
+      if (position++ < offset) {
+        continue;
+      }
+
+      final Room room = roomDAO.getForId(roomId);
+      if (room != null) {
+        rooms.add(room);
+      }
+    }
+
+    return new Pagination(free.cardinality(), rooms);
+  }
+}
@@ -0,0 +1,45 @@
+package com.unir.reservations.availability;
+
+import java.time.LocalDate;
+
+public record Slot (
+  int roomId,
+  LocalDate date,
+  int startHour,
+  int endHour
+) {
+  public static final int HOURS_PER_DAY = 24;
+
+  public Slot {
+    if (!isValid(startHour, endHour)) {
+      throw new IllegalArgumentException(
+        "Invalid hours: " + startHour + "-" + endHour
+      );
+    }
+  }
+
+  public static Slot of(int roomId, java.util.Date date, int startHour, int endHour) {
+    return new Slot(roomId, new java.sql.Date(date.getTime()).toLocalDate(), startHour, endHour);
+  }
+
+  public static boolean isValid(Integer startHour, Integer endHour) {
+    return startHour != null && endHour != null
+      && startHour >= 0 && endHour <= HOURS_PER_DAY && startHour < endHour;
+  }
+
+  public long key() {
+    return key(roomId, date.toEpochDay());
+  }
+
+  public int mask() {
+    return mask(startHour, endHour);
+  }
+
+  static long key(int roomId, long epochDay) {
+    return ((long) roomId << 32) | (epochDay & 0xFFFFFFFFL);
+  }
+
+  static int mask(int startHour, int endHour) {
+    return (int) ((1L << endHour) - (1L << startHour));
+  }
+}
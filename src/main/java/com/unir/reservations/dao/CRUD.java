@@ -1,16 +1,43 @@
 package com.unir.reservations.dao;
 
 import java.sql.Connection;
+import java.util.ArrayList;
 import java.util.HashMap;
+import java.util.List;
 
 import com.unir.reservations.utils.Pagination;
 import com.unir.reservations.utils.RawRecord;
 
 public interface CRUD<T> {
-    Pagination getList(HashMap<String, Object> params, Connection connection);
-    RawRecord getList(HashMap<String, Object> params);
+    Pagination getList(ListQuery query, Connection connection);
+    RawRecord getList(ListQuery query);
+
+    default Pagination getList(HashMap<String, Object> params, Connection connection) {
+        return getList(ListQuery.from(params), connection);
+    }
+
+    default RawRecord getList(HashMap<String, Object> params) {
+        return getList(ListQuery.from(params));
+    }
+
     RawRecord add(T object, HashMap<String, Object> params);
     RawRecord update(T object, HashMap<String, Object> params);
     RawRecord delete(Integer id, HashMap<String, Object> params);
     T getForId(Integer id);
+
+    default List<RawRecord> addAll(List<T> objects, HashMap<String, Object> params) {
+        final List<RawRecord> records = new ArrayList<>(objects.size());
+        for (T object : objects) {
+            records.add(add(object, params));
+        }
+        return records;
+    }
+
+    default List<RawRecord> updateAll(List<T> objects, HashMap<String, Object> params) {
+        final List<RawRecord> records = new ArrayList<>(objects.size());
+        for (T object : objects) {
+            records.add(update(object, params));
+        }
+        return records;
+    }
 }
@@ -0,0 +1,219 @@
+package com.unir.reservations.dao;
+
+import java.util.HashMap;
+import java.util.Locale;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/*
+ * Typed form of the getList params. Only whitelisted shapes can be
+ * expressed: a filter value or one exact client, one of the Sort orders,
+ * and either a keyset cursor or an offset. Each DAO maps them to a fixed set of statements, so
+ * a new sort or page never produces new SQL text. A null page size lists
+ * every match.
+ */
+public record ListQuery(
+  String filter,
+  Integer clientId,
+  Sort sort,
+  Integer pageSize,
+  Integer offset,
+  String cursor,
+  boolean estimateCount,
+  boolean summary
+) {
+  public static final int DEFAULT_PAGE_SIZE = 50;
+  public static final int MAX_PAGE_SIZE = 1000;
+  private static final Logger LOGGER = Logger.getLogger(ListQuery.class.getName());
+  private static final Pattern LEGACY_LIMIT = Pattern.compile(
+    "\\s*LIMIT\\s+(\\d+)(?:\\s*,\\s*(\\d+)|\\s+OFFSET\\s+(\\d+))?\\s*",
+    Pattern.CASE_INSENSITIVE
+  );
+
+  /*
+   * Reservation lists honour every order. Client, room and service lists
+   * have a single natural order (document, id) and ignore it.
+   */
+  public enum Sort {
+    DEFAULT,
+    NEWEST_FIRST,
+    PRICE_ASC,
+    PRICE_DESC
+  }
+
+  public ListQuery {
+    if (filter == null) {
+      filter = "";
+    }
+    if (sort == null) {
+      sort = Sort.DEFAULT;
+    }
+    if (pageSize != null && (pageSize < 1 || pageSize > MAX_PAGE_SIZE)) {
+      throw new IllegalArgumentException("Page size must be between 1 and " + MAX_PAGE_SIZE);
+    }
+    if (offset != null && offset < 0) {
+      throw new IllegalArgumentException("Offset must not be negative");
+    }
+    if (offset != null && cursor != null) {
+      throw new IllegalArgumentException("Use either a cursor or an offset");
+    }
+  }
+
+  public static ListQuery of(String filter) {
+    return new ListQuery(filter, null, Sort.DEFAULT, DEFAULT_PAGE_SIZE, null, null, false, false);
+  }
+
+  // Reservations of that client only, matched exactly; the filter no longer applies.
+  public static ListQuery forClient(int clientId) {
+    return new ListQuery("", clientId, Sort.DEFAULT, DEFAULT_PAGE_SIZE, null, null, false, false);
+  }
+
+  public ListQuery sortedBy(Sort sort) {
+    return new ListQuery(filter, clientId, sort, pageSize, offset, cursor, estimateCount, summary);
+  }
+
+  public ListQuery withPageSize(Integer pageSize) {
+    return new ListQuery(filter, clientId, sort, pageSize, offset, cursor, estimateCount, summary);
+  }
+
+  public ListQuery withOffset(Integer offset) {
+    return new ListQuery(filter, clientId, sort, pageSize, offset, null, estimateCount, summary);
+  }
+
+  public ListQuery withCursor(String cursor) {
+    return new ListQuery(filter, clientId, sort, pageSize, null, cursor, estimateCount, summary);
+  }
+
+  public ListQuery estimated() {
+    return new ListQuery(filter, clientId, sort, pageSize, offset, cursor, true, summary);
+  }
+
+  public ListQuery summarized() {
+    return new ListQuery(filter, clientId, sort, pageSize, offset, cursor, estimateCount, true);
+  }
+
+  public static Sort sort(String name) {
+    return name == null || name.isBlank() ? Sort.DEFAULT : Sort.valueOf(name.trim().toUpperCase(Locale.ROOT));
+  }
+
+  /*
+   * Reads the params map the DAOs receive. Without PAGE_SIZE the list is
+   * unpaged, as it was before page tokens existed. The old SQL_ORDER_BY and
+   * SQL_PAGINATION fragments are mapped onto the whitelist rather than
+   * spliced into the query; SORT, PAGE_SIZE and OFFSET win when both are
+   * given.
+   */
+  public static ListQuery from(HashMap<String, Object> params) {
+    final Object filter = params.get("FILTER");
+    final Object sort = params.get("SORT");
+    Integer pageSize = integer(params.get("PAGE_SIZE"));
+    Integer offset = integer(params.get("OFFSET"));
+
+    final Object pagination = params.get("SQL_PAGINATION");
+    if (pagination != null && !String.valueOf(pagination).isBlank()) {
+      final Matcher limit = LEGACY_LIMIT.matcher(String.valueOf(pagination));
+      if (!limit.matches()) {
+        throw new IllegalArgumentException("Unsupported SQL_PAGINATION " + pagination);
+      }
+
+      // LIMIT n, LIMIT offset, n or LIMIT n OFFSET offset
+      final int first = Integer.parseInt(limit.group(1));
+      if (pageSize == null) {
+        pageSize = legacyLimit(limit.group(2) != null ? limit.group(2) : limit.group(1), pagination);
+      }
+      if (offset == null && limit.group(2) != null) {
+        offset = first;
+      } else if (offset == null && limit.group(3) != null) {
+        offset = Integer.parseInt(limit.group(3));
+      }
+    }
+
+    final Sort order = sort instanceof Sort value
+      ? value
+      : sort != null ? sort(String.valueOf(sort)) : legacySort(params.get("SQL_ORDER_BY"));
+
+    return new ListQuery(
+      filter == null ? "" : String.valueOf(filter),
+      integer(params.get("CLIENT_ID")),
+      order,
+      pageSize,
+      offset,
+      (String) params.get("CURSOR"),
+      Boolean.TRUE.equals(params.get("ESTIMATE_COUNT")),
+      Boolean.TRUE.equals(params.get("SUMMARY"))
+    );
+  }
+
+  public HashMap<String, Object> toParams() {
+    final HashMap<String, Object> params = new HashMap<>();
+    params.put("FILTER", filter);
+    if (clientId != null) {
+      params.put("CLIENT_ID", clientId);
+    }
+    params.put("SORT", sort);
+    if (pageSize != null) {
+      params.put("PAGE_SIZE", pageSize);
+    }
+    if (offset != null) {
+      params.put("OFFSET", offset);
+    }
+    if (cursor != null) {
+      params.put("CURSOR", cursor);
+    }
+    if (estimateCount) {
+      params.put("ESTIMATE_COUNT", true);
+    }
+    if (summary) {
+      params.put("SUMMARY", true);
+    }
+    return params;
+  }
+
+  // PAGE_SIZE and OFFSET may come as numbers or as query-string text.
+  private static Integer integer(Object value) {
+    if (value == null) {
+      return null;
+    }
+    return value instanceof Number number ? number.intValue() : Integer.valueOf(String.valueOf(value).trim());
+  }
+
+  // Old callers asked for any LIMIT; more than a page is served as one full page.
+  private static int legacyLimit(String digits, Object pagination) {
+    final long limit = digits.length() > 18 ? Long.MAX_VALUE : Long.parseLong(digits);
+    if (limit <= MAX_PAGE_SIZE) {
+      return (int) limit;
+    }
+    LOGGER.log(Level.WARNING, "SQL_PAGINATION {0} exceeds the page size limit, using " + MAX_PAGE_SIZE, pagination);
+    return MAX_PAGE_SIZE;
+  }
+
+  /*
+   * Maps an old ORDER BY fragment by its leading column and direction.
+   * Anything else falls back to the default order.
+   */
+  private static Sort legacySort(Object orderBy) {
+    if (orderBy == null) {
+      return Sort.DEFAULT;
+    }
+
+    final String[] terms = String.valueOf(orderBy).trim().toLowerCase(Locale.ROOT)
+      .replaceFirst("^order\\s+by\\s+", "")
+      .split("[\\s,]+");
+    if (terms.length == 0 || terms[0].isEmpty()) {
+      return Sort.DEFAULT;
+    }
+
+    final String column = terms[0].substring(terms[0].indexOf('.') + 1);
+    final boolean descending = terms.length > 1 && terms[1].equals("desc");
+    return switch (column) {
+      case "pricetotal" -> descending ? Sort.PRICE_DESC : Sort.PRICE_ASC;
+      case "date", "eventid" -> descending ? Sort.NEWEST_FIRST : Sort.DEFAULT;
+      default -> {
+        LOGGER.log(Level.WARNING, "Unsupported SQL_ORDER_BY {0}, using the default order", orderBy);
+        yield Sort.DEFAULT;
+      }
+    };
+  }
+}
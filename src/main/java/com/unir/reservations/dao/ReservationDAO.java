@@ -1,6 +1,15 @@
 package com.unir.reservations.dao;
 
+import java.sql.SQLException;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.stream.Stream;
+
 import com.unir.reservations.models.Reservation;
+import com.unir.reservations.utils.RawRecord;
 
 public interface ReservationDAO extends CRUD<Reservation> {
+  Stream<Reservation> stream(HashMap<String, Object> params, int fetchSize) throws SQLException;
+
+  RawRecord updatePrices(Map<Integer, Double> prices);
 }
@@ -0,0 +1,235 @@
+package com.unir.reservations.dao;
+
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.sql.SQLTransactionRollbackException;
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+import javax.sql.DataSource;
+
+/*
+ * Runs DAO mutations in one transaction each: autocommit off, optional
+ * isolation level, commit on return, rollback on any exception, and the
+ * connection restored before it goes back to the pool.
+ *
+ * Deadlocks, serialization failures and lock wait timeouts roll back and
+ * retry up to maxAttempts, sleeping a random 0..base*2^attempt ms (full
+ * jitter) so colliding writers do not retry in lockstep. Work may run more
+ * than once, so in-memory side effects taken inside it are undone through
+ * onRollback, and effects that must follow a commit belong after execute.
+ */
+public class TransactionTemplate {
+  private static final Logger LOGGER = Logger.getLogger(TransactionTemplate.class.getName());
+  public static final int DEFAULT_ISOLATION = -1;
+  private static final String SERIALIZATION_FAILURE = "40001";
+  private static final int MYSQL_LOCK_WAIT_TIMEOUT = 1205;
+  private static final int MYSQL_DEADLOCK = 1213;
+  private static final long MAX_BACKOFF_MILLIS = 1000;
+
+  private final DataSource pool;
+  private final int isolation;
+  private final int maxAttempts;
+  private final long backoffMillis;
+
+  private final LongAdder transactions = new LongAdder();
+  private final LongAdder rollbacks = new LongAdder();
+  private final LongAdder retries = new LongAdder();
+  private final LongAdder exhausted = new LongAdder();
+  // Whole attempts lost to contention, from borrowing the connection to the rollback.
+  private final LongAdder failedAttemptNanos = new LongAdder();
+
+  public interface Work<R> {
+    R run(Transaction transaction) throws SQLException;
+  }
+
+  public static final class Transaction {
+    private final Connection connection;
+    private final Deque<Runnable> compensations = new ArrayDeque<>();
+    private boolean rollbackOnly;
+
+    private Transaction(Connection connection) {
+      this.connection = connection;
+    }
+
+    public Connection connection() {
+      return connection;
+    }
+
+    // Runs, newest first, if this attempt rolls back (including a failed commit).
+    public void onRollback(Runnable compensation) {
+      compensations.push(compensation);
+    }
+
+    // Rolls back instead of committing once the work returns, e.g. after losing a version check.
+    public void setRollbackOnly() {
+      rollbackOnly = true;
+    }
+  }
+
+  public TransactionTemplate(DataSource pool) {
+    this(pool, DEFAULT_ISOLATION, 3, 20);
+  }
+
+  public TransactionTemplate(DataSource pool, int isolation, int maxAttempts, long backoffMillis) {
+    if (maxAttempts < 1 || backoffMillis < 0) {
+      throw new IllegalArgumentException("Invalid retry settings");
+    }
+
+    this.pool = pool;
+    this.isolation = isolation;
+    this.maxAttempts = maxAttempts;
+    this.backoffMillis = backoffMillis;
+  }
+
+  public DataSource getDataSource() {
+    return pool;
+  }
+
+  public <R> R execute(Work<R> work) throws SQLException {
+    return execute(isolation, work);
+  }
+
+  public <R> R execute(int isolation, Work<R> work) throws SQLException {
+    for (int attempt = 1; ; attempt++) {
+      final long start = System.nanoTime();
+
+      try {
+        return attempt(isolation, work);
+      } catch (SQLException e) {
+        if (!isRetryable(e)) {
+          throw e;
+        }
+
+        failedAttemptNanos.add(System.nanoTime() - start);
+        if (attempt >= maxAttempts) {
+          exhausted.increment();
+          throw e;
+        }
+
+        retries.increment();
+        LOGGER.log(
+          Level.FINE,
+          "Retrying transaction after attempt {0}: {1}",
+          new Object[] { attempt, e.getMessage() }
+        );
+
+        try {
+          Thread.sleep(backoff(attempt));
+        } catch (InterruptedException interrupted) {
+          Thread.currentThread().interrupt();
+          throw e;
+        }
+      }
+    }
+  }
+
+  public static boolean isRetryable(SQLException e) {
+    for (Throwable cause = e; cause != null; cause = cause.getCause()) {
+      if (cause instanceof SQLTransactionRollbackException) {
+        return true;
+      }
+      if (cause instanceof SQLException sql && (
+        SERIALIZATION_FAILURE.equals(sql.getSQLState())
+          || sql.getErrorCode() == MYSQL_DEADLOCK
+          || sql.getErrorCode() == MYSQL_LOCK_WAIT_TIMEOUT
+      )) {
+        return true;
+      }
+    }
+
+    return false;
+  }
+
+  /*
+   * Keeps contention apart from real failures in what the caller sees.
+   */
+  public static String message(SQLException e, String fallback) {
+    return isRetryable(e) ? "The record is busy with another operation, try again" : fallback;
+  }
+
+  private <R> R attempt(int isolation, Work<R> work) throws SQLException {
+    transactions.increment();
+
+    try(Connection connection = pool.getConnection()) {
+      final Transaction transaction = new Transaction(connection);
+      final int previousIsolation = connection.getTransactionIsolation();
+      connection.setAutoCommit(false);
+      if (isolation != DEFAULT_ISOLATION && isolation != previousIsolation) {
+        connection.setTransactionIsolation(isolation);
+      }
+
+      try {
+        final R result = work.run(transaction);
+        if (transaction.rollbackOnly) {
+          rollback(transaction);
+        } else {
+          connection.commit();
+        }
+        return result;
+      } catch (SQLException | RuntimeException e) {
+        try {
+          rollback(transaction);
+        } catch (SQLException rollback) {
+          e.addSuppressed(rollback);
+        }
+        throw e;
+      } finally {
+        restore(connection, previousIsolation);
+      }
+    }
+  }
+
+  private void rollback(Transaction transaction) throws SQLException {
+    rollbacks.increment();
+
+    try {
+      transaction.connection.rollback();
+    } finally {
+      while (!transaction.compensations.isEmpty()) {
+        transaction.compensations.pop().run();
+      }
+    }
+  }
+
+  private static void restore(Connection connection, int previousIsolation) {
+    try {
+      connection.setAutoCommit(true);
+      if (connection.getTransactionIsolation() != previousIsolation) {
+        connection.setTransactionIsolation(previousIsolation);
+      }
+    } catch (SQLException e) {
+      LOGGER.log(Level.WARNING, "Error restoring connection state: {0}", e.getMessage());
+    }
+  }
+
+  private long backoff(int attempt) {
+    final long ceiling = Math.min(MAX_BACKOFF_MILLIS, backoffMillis << (attempt - 1));
+    return ceiling <= 0 ? 0 : ThreadLocalRandom.current().nextLong(ceiling + 1);
+  }
+
+  public long getTransactionCount() {
+    return transactions.sum();
+  }
+
+  public long getRollbackCount() {
+    return rollbacks.sum();
+  }
+
+  public long getRetryCount() {
+    return retries.sum();
+  }
+
+  public long getExhaustedRetryCount() {
+    return exhausted.sum();
+  }
+
+  public long getFailedAttemptMillis() {
+    return TimeUnit.NANOSECONDS.toMillis(failedAttemptNanos.sum());
+  }
+}
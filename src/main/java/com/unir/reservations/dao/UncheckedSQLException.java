@@ -0,0 +1,16 @@
+package com.unir.reservations.dao;
+
+import java.sql.SQLException;
+
+public class UncheckedSQLException extends RuntimeException {
+  private static final long serialVersionUID = 1L;
+
+  public UncheckedSQLException(SQLException cause) {
+    super(cause.getMessage(), cause);
+  }
+
+  @Override
+  public synchronized SQLException getCause() {
+    return (SQLException) super.getCause();
+  }
+}
@@ -0,0 +1,18 @@
+package com.unir.reservations.dao.async;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+
+import com.unir.reservations.dao.ListQuery;
+import com.unir.reservations.utils.RawRecord;
+
+public interface AsyncCRUD<T> {
+  CompletableFuture<RawRecord> getList(ListQuery query);
+  CompletableFuture<RawRecord> add(T object, HashMap<String, Object> params);
+  CompletableFuture<RawRecord> update(T object, HashMap<String, Object> params);
+  CompletableFuture<RawRecord> delete(Integer id, HashMap<String, Object> params);
+  CompletableFuture<List<RawRecord>> addAll(List<T> objects, HashMap<String, Object> params);
+  CompletableFuture<List<RawRecord>> updateAll(List<T> objects, HashMap<String, Object> params);
+  CompletableFuture<T> getForId(Integer id);
+}
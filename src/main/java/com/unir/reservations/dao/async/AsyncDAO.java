@@ -0,0 +1,111 @@
+package com.unir.reservations.dao.async;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Semaphore;
+import java.util.function.Supplier;
+
+import com.unir.reservations.dao.CRUD;
+import com.unir.reservations.dao.ListQuery;
+import com.unir.reservations.pool.RoutingDataSource;
+import com.unir.reservations.utils.RawRecord;
+
+/*
+ * Runs a blocking CRUD on an executor, one virtual thread per call unless
+ * another executor is given. DAOs that share a Semaphore share its permits,
+ * so a wide fan-out queues on the semaphore (cheap for a virtual thread)
+ * instead of draining the connection pool and timing out other requests.
+ */
+public class AsyncDAO<T> implements AsyncCRUD<T> {
+  private static final ExecutorService VIRTUAL_THREADS = Executors.newVirtualThreadPerTaskExecutor();
+
+  private final CRUD<T> delegate;
+  private final Executor executor;
+  private final Semaphore permits;
+
+  public AsyncDAO(CRUD<T> delegate) {
+    this(delegate, VIRTUAL_THREADS, null);
+  }
+
+  public AsyncDAO(CRUD<T> delegate, Semaphore permits) {
+    this(delegate, VIRTUAL_THREADS, permits);
+  }
+
+  public AsyncDAO(CRUD<T> delegate, Executor executor, Semaphore permits) {
+    this.delegate = delegate;
+    this.executor = executor;
+    this.permits = permits;
+  }
+
+  @Override
+  public CompletableFuture<RawRecord> getList(ListQuery query) {
+    return submit(() -> delegate.getList(query));
+  }
+
+  @Override
+  public CompletableFuture<RawRecord> add(T object, HashMap<String, Object> params) {
+    return submit(() -> delegate.add(object, params));
+  }
+
+  @Override
+  public CompletableFuture<RawRecord> update(T object, HashMap<String, Object> params) {
+    return submit(() -> delegate.update(object, params));
+  }
+
+  @Override
+  public CompletableFuture<RawRecord> delete(Integer id, HashMap<String, Object> params) {
+    return submit(() -> delegate.delete(id, params));
+  }
+
+  @Override
+  public CompletableFuture<List<RawRecord>> addAll(List<T> objects, HashMap<String, Object> params) {
+    return submit(() -> delegate.addAll(objects, params));
+  }
+
+  @Override
+  public CompletableFuture<List<RawRecord>> updateAll(List<T> objects, HashMap<String, Object> params) {
+    return submit(() -> delegate.updateAll(objects, params));
+  }
+
+  @Override
+  public CompletableFuture<T> getForId(Integer id) {
+    return submit(() -> delegate.getForId(id));
+  }
+
+  private <R> CompletableFuture<R> submit(Supplier<R> call) {
+    // The read-your-writes session follows the call onto the executor thread.
+    final String session = RoutingDataSource.currentSession();
+    final Supplier<R> scoped = () -> {
+      final RoutingDataSource.Session scope = RoutingDataSource.session(session);
+      try {
+        return call.get();
+      } finally {
+        scope.close();
+      }
+    };
+
+    if (permits == null) {
+      return CompletableFuture.supplyAsync(scoped, executor);
+    }
+
+    return CompletableFuture.supplyAsync(() -> {
+      try {
+        permits.acquire();
+      } catch (InterruptedException e) {
+        Thread.currentThread().interrupt();
+        throw new CompletionException(e);
+      }
+
+      try {
+        return scoped.get();
+      } finally {
+        permits.release();
+      }
+    }, executor);
+  }
+}
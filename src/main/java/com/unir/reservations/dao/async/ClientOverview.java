@@ -0,0 +1,14 @@
+package com.unir.reservations.dao.async;
+
+import java.util.List;
+
+import com.unir.reservations.models.Client;
+import com.unir.reservations.models.Reservation;
+import com.unir.reservations.models.Room;
+
+public record ClientOverview(
+  Client client,
+  List<Reservation> reservations,
+  List<Room> rooms
+) {
+}
@@ -0,0 +1,81 @@
+package com.unir.reservations.dao.async;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+
+import com.unir.reservations.admission.AdmissionRejectedException;
+import com.unir.reservations.dao.ListQuery;
+import com.unir.reservations.models.Client;
+import com.unir.reservations.models.Reservation;
+import com.unir.reservations.models.Room;
+import com.unir.reservations.utils.Pagination;
+
+/*
+ * Loads a client, their reservations and the room catalog in parallel.
+ * The three reads are independent, so the screen costs the slowest of them
+ * rather than their sum.
+ */
+public class ClientOverviewLoader {
+  private final AsyncCRUD<Client> clients;
+  private final AsyncCRUD<Reservation> reservations;
+  private final AsyncCRUD<Room> rooms;
+
+  public ClientOverviewLoader(
+    AsyncCRUD<Client> clients,
+    AsyncCRUD<Reservation> reservations,
+    AsyncCRUD<Room> rooms
+  ) {
+    this.clients = clients;
+    this.reservations = reservations;
+    this.rooms = rooms;
+  }
+
+  /*
+   * Completes with null when the client does not exist. Reservations are
+   * all of the client's, in date order, and rooms the whole catalog, both
+   * fetched page by page. A page turned away by admission control fails
+   * the future with AdmissionRejectedException, and one that failed in
+   * the DAO with IllegalStateException, rather than passing for an empty
+   * list.
+   */
+  public CompletableFuture<ClientOverview> load(int clientId) {
+    final CompletableFuture<Client> client = clients.getForId(clientId);
+    final CompletableFuture<List<Reservation>> clientReservations = all(
+      reservations,
+      ListQuery.forClient(clientId).withPageSize(ListQuery.MAX_PAGE_SIZE),
+      new ArrayList<>()
+    );
+    final CompletableFuture<List<Room>> roomCatalog = all(
+      rooms,
+      ListQuery.of("").withPageSize(ListQuery.MAX_PAGE_SIZE),
+      new ArrayList<>()
+    );
+
+    return CompletableFuture.allOf(client, clientReservations, roomCatalog)
+      .thenApply(done -> client.join() == null
+        ? null
+        : new ClientOverview(client.join(), clientReservations.join(), roomCatalog.join()));
+  }
+
+  @SuppressWarnings("unchecked")
+  private static <T> CompletableFuture<List<T>> all(AsyncCRUD<T> dao, ListQuery query, List<T> loaded) {
+    return dao.getList(query).thenCompose(rawRecord -> {
+      if (rawRecord.isRejected()) {
+        throw new AdmissionRejectedException("getList");
+      }
+      final Pagination pagination = rawRecord.getPagination();
+      if (pagination == null) {
+        throw new IllegalStateException("List page failed: " + rawRecord.getServerMessage());
+      }
+
+      if (pagination.getData() != null) {
+        loaded.addAll((List<T>) pagination.getData());
+      }
+      final String next = pagination.getNextPageToken();
+      return next == null
+        ? CompletableFuture.completedFuture(List.copyOf(loaded))
+        : all(dao, query.withCursor(next), loaded);
+    });
+  }
+}
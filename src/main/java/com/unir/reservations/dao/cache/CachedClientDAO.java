@@ -0,0 +1,10 @@
+package com.unir.reservations.dao.cache;
+
+import com.unir.reservations.dao.ClientDAO;
+import com.unir.reservations.models.Client;
+
+public class CachedClientDAO extends CachedDAO<Client> implements ClientDAO {
+  public CachedClientDAO(ClientDAO delegate, int maxSize, long ttlMillis) {
+    super(delegate, Client::idClient, maxSize, ttlMillis);
+  }
+}
@@ -0,0 +1,131 @@
+package com.unir.reservations.dao.cache;
+
+import java.sql.Connection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.function.Function;
+
+import com.unir.reservations.dao.CRUD;
+import com.unir.reservations.dao.ListQuery;
+import com.unir.reservations.utils.LRUCache;
+import com.unir.reservations.utils.Pagination;
+import com.unir.reservations.utils.RawRecord;
+
+public class CachedDAO<T> implements CRUD<T> {
+  private static final int STRIPES = 64;
+
+  private final CRUD<T> delegate;
+  private final Function<T, Integer> idOf;
+  private final LRUCache<Integer, T> cache;
+
+  /*
+   * Every invalidation bumps the generation of its id's stripe. A miss only
+   * caches the row it loaded if no invalidation hit the stripe meanwhile, so
+   * a read that raced a write never puts the pre-write row back.
+   */
+  private final Object[] locks = new Object[STRIPES];
+  private final long[] generations = new long[STRIPES];
+
+  public CachedDAO(CRUD<T> delegate, Function<T, Integer> idOf, int maxSize, long ttlMillis) {
+    this.delegate = delegate;
+    this.idOf = idOf;
+    this.cache = new LRUCache<>(maxSize, ttlMillis);
+
+    for (int i = 0; i < STRIPES; i++) {
+      locks[i] = new Object();
+    }
+  }
+
+  @Override
+  public Pagination getList(ListQuery query, Connection connection) {
+    return delegate.getList(query, connection);
+  }
+
+  @Override
+  public RawRecord getList(ListQuery query) {
+    return delegate.getList(query);
+  }
+
+  @Override
+  public RawRecord add(T object, HashMap<String, Object> params) {
+    final RawRecord rawRecord = delegate.add(object, params);
+    invalidate(object);
+    return rawRecord;
+  }
+
+  @Override
+  public RawRecord update(T object, HashMap<String, Object> params) {
+    final RawRecord rawRecord = delegate.update(object, params);
+    invalidate(object);
+    return rawRecord;
+  }
+
+  @Override
+  public RawRecord delete(Integer id, HashMap<String, Object> params) {
+    final RawRecord rawRecord = delegate.delete(id, params);
+    invalidateId(id);
+    return rawRecord;
+  }
+
+  @Override
+  public List<RawRecord> addAll(List<T> objects, HashMap<String, Object> params) {
+    final List<RawRecord> records = delegate.addAll(objects, params);
+    objects.forEach(this::invalidate);
+    return records;
+  }
+
+  @Override
+  public List<RawRecord> updateAll(List<T> objects, HashMap<String, Object> params) {
+    final List<RawRecord> records = delegate.updateAll(objects, params);
+    objects.forEach(this::invalidate);
+    return records;
+  }
+
+  @Override
+  public T getForId(Integer id) {
+    final T cached = cache.get(id);
+    if (cached != null) {
+      return cached;
+    }
+
+    final int stripe = stripe(id);
+    final long generation;
+    synchronized (locks[stripe]) {
+      generation = generations[stripe];
+    }
+
+    final T object = delegate.getForId(id);
+    if (object != null) {
+      synchronized (locks[stripe]) {
+        if (generations[stripe] == generation) {
+          cache.put(id, object);
+        }
+      }
+    }
+
+    return object;
+  }
+
+  public LRUCache<Integer, T> getCache() {
+    return cache;
+  }
+
+  private void invalidate(T object) {
+    final Integer id = object != null ? idOf.apply(object) : null;
+    if (id != null) {
+      invalidateId(id);
+    }
+  }
+
+  private void invalidateId(Integer id) {
+    final int stripe = stripe(id);
+    synchronized (locks[stripe]) {
+      generations[stripe]++;
+      cache.invalidate(id);
+    }
+  }
+
+  private static int stripe(Integer id) {
+    return Math.floorMod(id, STRIPES);
+  }
+}
@@ -4,35 +4,67 @@ import java.sql.Connection;
 import java.sql.PreparedStatement;
 import java.sql.ResultSet;
 import java.sql.SQLException;
+import java.sql.Statement;
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.logging.Level;
 import java.util.logging.Logger;
 
 import javax.sql.DataSource;
 
 import com.unir.reservations.dao.ClientDAO;
-import com.unir.reservations.dao.SQLClose;
+import com.unir.reservations.dao.ListQuery;
+import com.unir.reservations.dao.TransactionTemplate;
 import com.unir.reservations.models.Client;
+import com.unir.reservations.pool.RoutingDataSource;
+import com.unir.reservations.search.ClientSearchIndex;
+import com.unir.reservations.utils.Cursor;
 import com.unir.reservations.utils.Pagination;
 import com.unir.reservations.utils.RawRecord;
+import com.unir.reservations.utils.SQLUtils;
 
 public class ClientDAOImplementation implements ClientDAO {
   private static final Logger LOGGER = Logger.getLogger(
     ClientDAOImplementation.class.getName()
   );
+  private static final String VERSION_REQUIRED = "Version is required to update a client";
+  // Keyset order of the SQL list, by the document column's collation; the search index issues its own.
+  private static final String PAGE_ORDER = "DOCUMENT";
   private final DataSource pool;
-
-  private static final String GET_LIST_COUNT = """
+  private final DataSource readPool;
+  private final TransactionTemplate transactions;
+  private final ClientSearchIndex searchIndex;
+
+  private static final String ESTIMATE_COUNT = """
+    SELECT TABLE_ROWS AS COUNT
+    FROM information_schema.TABLES
+    WHERE TABLE_SCHEMA = DATABASE() AND TABLE_NAME = 'evp_client'
+  """;
+  private static final String GET_LIST_QUERY = """
     SELECT
-      COUNT(clientId) as COUNT
+      clientId,
+      document,
+      documentType,
+      firstName,
+      surName,
+      phoneNumber,
+      mobileNumber,
+      email,
+      version
     FROM evp_client
     WHERE
-      document LIKE CONCAT('%', ?, '%')
+      (
+        document LIKE CONCAT('%', ?, '%')
+        OR CONCAT(firstName, ' ', surName) LIKE CONCAT('%', ?, '%')
+        OR email LIKE CONCAT('%', ?, '%')
+      )
   """;
-  private static final String GET_LIST_QUERY = """
+  private static final String GET_LIST_COUNTED_QUERY = """
     SELECT
+      COUNT(*) OVER() AS TOTAL_COUNT,
       clientId,
       document,
       documentType,
@@ -41,9 +73,21 @@ public class ClientDAOImplementation implements ClientDAO {
       phoneNumber,
       mobileNumber,
       email,
+      version
     FROM evp_client
     WHERE
-      document LIKE CONCAT('%', ?, '%')
+      (
+        document LIKE CONCAT('%', ?, '%')
+        OR CONCAT(firstName, ' ', surName) LIKE CONCAT('%', ?, '%')
+        OR email LIKE CONCAT('%', ?, '%')
+      )
+  """;
+  private static final String GET_LIST_SEEK = """
+      AND (document > ? OR (document = ? AND clientId > ?))
+  """;
+  private static final String GET_LIST_ORDER = """
+    ORDER BY document, clientId
+    LIMIT ?
   """;
   private static final String ADD_COUNT = """
     SELECT
@@ -73,15 +117,47 @@ public class ClientDAOImplementation implements ClientDAO {
       surName = ?,
       phoneNumber = ?,
       mobileNumber = ?,
-      email = ?
+      email = ?,
+      version = version + 1
     WHERE
-      clientId = ?
+      clientId = ? AND version = ?
+  """;
+  private static final String GET_VERSIONS_QUERY = """
+    SELECT
+      clientId,
+      version
+    FROM evp_client
+    WHERE
+      clientId IN (%s)
   """;
   private static final String DELETE_QUERY = """
     DELETE FROM evp_client
     WHERE
       clientId = ?
   """;
+  private static final String GET_DOCUMENTS_QUERY = """
+    SELECT
+      clientId,
+      document
+    FROM evp_client
+    WHERE
+      document IN (%s)
+  """;
+  private static final String GET_FOR_IDS_QUERY = """
+    SELECT
+      clientId,
+      document,
+      documentType,
+      firstName,
+      surName,
+      phoneNumber,
+      mobileNumber,
+      email,
+      version
+    FROM evp_client
+    WHERE
+      clientId IN (%s)
+  """;
   private static final String GET_FOR_ID_QUERY = """
     SELECT
       clientId,
@@ -91,62 +167,158 @@ public class ClientDAOImplementation implements ClientDAO {
       surName,
       phoneNumber,
       mobileNumber,
-      email
+      email,
+      version
     FROM evp_client
     WHERE
       clientId = ?
   """;
 
   public ClientDAOImplementation(DataSource pool) {
-    this.pool = pool;
+    this(pool, null);
+  }
+
+  public ClientDAOImplementation(DataSource pool, ClientSearchIndex searchIndex) {
+    this(new TransactionTemplate(pool), searchIndex);
+  }
+
+  public ClientDAOImplementation(TransactionTemplate transactions, ClientSearchIndex searchIndex) {
+    this.pool = transactions.getDataSource();
+    this.readPool = RoutingDataSource.readsOf(pool);
+    this.transactions = transactions;
+    this.searchIndex = searchIndex;
   }
 
   @Override
-  public Pagination getList(HashMap<String, Object> params, Connection connection) {
+  public Pagination getList(ListQuery query, Connection connection) {
+    if (searchIndex != null) {
+      return getIndexedList(query, connection);
+    }
+
     Pagination pagination = new Pagination();
     List<Client> clients = new ArrayList<>();
 
-    try(
-      PreparedStatement statementCount = connection.prepareStatement(GET_LIST_COUNT)
-    ) {
-      statementCount.setString(1, String.valueOf(params.get("FILTER")));
-
-      LOGGER.log(Level.INFO, "Executing query: {0}", statementCount);
+    try {
+      final Integer pageSize = query.pageSize();
+      final Cursor cursor = Cursor.decode(query.cursor(), PAGE_ORDER);
+      final boolean estimated = query.estimateCount();
+      // Counting past the cursor would scan every remaining row, so only the first page counts.
+      final boolean counted = cursor == null && !estimated;
+      int total = 0;
 
       try(
-        ResultSet resultSet = statementCount.executeQuery();
-        PreparedStatement statementQuery = connection.prepareStatement(GET_LIST_QUERY);
+        PreparedStatement statementQuery = connection.prepareStatement(
+          (counted ? GET_LIST_COUNTED_QUERY : GET_LIST_QUERY) +
+          (cursor != null ? GET_LIST_SEEK : "") +
+          GET_LIST_ORDER
+        )
       ) {
-        if(resultSet.next()) {
-          final int count = resultSet.getInt("COUNT");
-          pagination.setFilterCounter(count);
-
-          if (count > 0) {
-            statementQuery.setString(1, String.valueOf(params.get("FILTER")));
-
-            LOGGER.log(Level.INFO, "Executing query: {0}", statementQuery);
-
-            try(ResultSet resultSet2 = statementQuery.executeQuery()) {
-              while (resultSet2.next()) {
-                Client client = new Client(
-                  resultSet2.getInt("clientId"),
-                  resultSet2.getString("document"),
-                  resultSet2.getString("documentType"),
-                  resultSet2.getString("firstName"),
-                  resultSet2.getString("surName"),
-                  resultSet2.getString("phoneNumber"),
-                  resultSet2.getString("mobileNumber"),
-                  resultSet2.getString("email")
-                );
-
-                clients.add(client);
-              }
+        // Document, full name and email, the same fields the search index covers.
+        final String filter = query.filter();
+        int index = 1;
+        statementQuery.setString(index++, filter);
+        statementQuery.setString(index++, filter);
+        statementQuery.setString(index++, filter);
+        if (cursor != null) {
+          statementQuery.setString(index++, cursor.sortKey());
+          statementQuery.setString(index++, cursor.sortKey());
+          statementQuery.setInt(index++, cursor.lastId());
+        }
+        statementQuery.setInt(index, pageSize != null ? pageSize : Integer.MAX_VALUE);
+
+        LOGGER.log(Level.FINE, "Executing query: {0}", statementQuery);
+
+        try(ResultSet resultSet = statementQuery.executeQuery()) {
+          while (resultSet.next()) {
+            if (counted && clients.isEmpty()) {
+              total = resultSet.getInt("TOTAL_COUNT");
             }
+            clients.add(toClient(resultSet));
           }
         }
       }
+
+      if (counted) {
+        pagination.setFilterCounter(total);
+      } else if (cursor != null) {
+        pagination.setFilterCounter(cursor.total());
+        pagination.setCountEstimated(true);
+      } else {
+        pagination.setFilterCounter(estimateCount(connection));
+        pagination.setCountEstimated(true);
+      }
+
+      if (pageSize != null && clients.size() == pageSize) {
+        final Client last = clients.get(clients.size() - 1);
+        pagination.setNextPageToken(
+          new Cursor(
+            PAGE_ORDER,
+            last.document(),
+            last.idClient(),
+            pagination.getFilterCounter()
+          ).encode()
+        );
+      }
     } catch (SQLException e) {
       LOGGER.log(Level.SEVERE, "Error executing query: {0}", e.getMessage());
+      return null;
+    }
+
+    pagination.setData(clients);
+    return pagination;
+  }
+
+  private Pagination getIndexedList(ListQuery query, Connection connection) {
+    final Pagination pagination = new Pagination();
+    final List<Client> clients = new ArrayList<>();
+
+    try {
+      final Integer pageSize = query.pageSize();
+      final ClientSearchIndex.Result result = searchIndex.search(
+        query.filter(),
+        Cursor.decode(query.cursor(), ClientSearchIndex.PAGE_ORDER),
+        pageSize != null ? pageSize : Integer.MAX_VALUE
+      );
+      pagination.setFilterCounter(result.total());
+
+      if (result.ids().length > 0) {
+        final int[] ids = result.ids();
+        final int padded = SQLUtils.paddedSize(ids.length);
+
+        try(
+          PreparedStatement statementQuery = connection.prepareStatement(
+            GET_FOR_IDS_QUERY.formatted(SQLUtils.placeholders(padded))
+          )
+        ) {
+          for (int i = 0; i < padded; i++) {
+            statementQuery.setInt(i + 1, ids[Math.min(i, ids.length - 1)]);
+          }
+
+          LOGGER.log(Level.FINE, "Executing query: {0}", statementQuery);
+
+          final Map<Integer, Client> found = new HashMap<>();
+          try(ResultSet resultSet = statementQuery.executeQuery()) {
+            while (resultSet.next()) {
+              final Client client = toClient(resultSet);
+              found.put(client.idClient(), client);
+            }
+          }
+
+          for (int id : result.ids()) {
+            final Client client = found.get(id);
+            if (client != null) {
+              clients.add(client);
+            }
+          }
+        }
+      }
+
+      if (result.next() != null) {
+        pagination.setNextPageToken(result.next().encode());
+      }
+    } catch (SQLException e) {
+      LOGGER.log(Level.SEVERE, "Error executing query: {0}", e.getMessage());
+      return null;
     }
 
     pagination.setData(clients);
@@ -154,13 +326,15 @@ public class ClientDAOImplementation implements ClientDAO {
   }
 
   @Override
-  public RawRecord getList(HashMap<String, Object> params) {
+  public RawRecord getList(ListQuery query) {
     final RawRecord rawRecord = new RawRecord();
 
-    try(Connection connection = this.pool.getConnection()) {
-      rawRecord.setPagination(getList(params, connection));
+    try(Connection connection = this.readPool.getConnection()) {
+      rawRecord.setPagination(getList(query, connection));
     } catch (SQLException e) {
       LOGGER.log(Level.SEVERE, "Error getting list: {0}", e.getMessage());
+    }
+    if (rawRecord.getPagination() == null) {
       rawRecord.setServerMessage("Error getting list");
     }
 
@@ -169,50 +343,58 @@ public class ClientDAOImplementation implements ClientDAO {
 
   @Override
   public RawRecord add(Client client, HashMap<String, Object> params) {
-    final RawRecord rawRecord = new RawRecord();
+    RawRecord rawRecord;
 
-    try(
-      Connection connection = this.pool.getConnection();
-      SQLClose finish = connection::rollback;
-      PreparedStatement statementCount = connection.prepareStatement(ADD_COUNT);
-      ) {
-        connection.setAutoCommit(false);
+    try {
+      rawRecord = transactions.execute(transaction -> {
+        final Connection connection = transaction.connection();
 
-        statementCount.setString(1, client.document());
+        try(PreparedStatement statementCount = connection.prepareStatement(ADD_COUNT)) {
+          statementCount.setString(1, client.document());
 
-        LOGGER.log(Level.INFO, "Executing query: {0}", statementCount);
+          LOGGER.log(Level.FINE, "Executing query: {0}", statementCount);
 
-        try(
-          ResultSet resultSet = statementCount.executeQuery();
-          PreparedStatement statementQuery = connection.prepareStatement(ADD_QUERY);
-      ) {
-        if (resultSet.next()) {
-          final int count = resultSet.getInt("COUNT");
-          if (count > 0) {
-            rawRecord.setServerMessage("Client already exists");
-            return rawRecord;
+          try(ResultSet resultSet = statementCount.executeQuery()) {
+            if (resultSet.next() && resultSet.getInt("COUNT") > 0) {
+              return message("Client already exists");
+            }
           }
+        }
 
-          statementQuery.setString(1, client.document());
-          statementQuery.setString(2, client.documentType());
-          statementQuery.setString(3, client.firstName());
-          statementQuery.setString(4, client.surName());
-          statementQuery.setString(5, client.phoneNumber());
-          statementQuery.setString(6, client.mobileNumber());
-          statementQuery.setString(7, client.email());
+        try(
+          PreparedStatement statementQuery = connection.prepareStatement(
+            ADD_QUERY,
+            Statement.RETURN_GENERATED_KEYS
+          )
+        ) {
+          bindClient(statementQuery, client);
 
-          LOGGER.log(Level.INFO, "Executing query: {0}", statementQuery);
+          LOGGER.log(Level.FINE, "Executing query: {0}", statementQuery);
 
           statementQuery.executeUpdate();
-          connection.commit();
 
-          rawRecord.setServerMessage("Client added successfully");
-          rawRecord.setPagination(getList(params, connection));
+          Integer clientId = null;
+          try(ResultSet keys = statementQuery.getGeneratedKeys()) {
+            if (keys.next()) {
+              clientId = keys.getInt(1);
+            }
+          }
+
+          final RawRecord added = message("Client added successfully");
+          added.setAffected(withId(client, clientId));
+          return added;
+        }
+      });
+
+      if (rawRecord.getAffected() instanceof Client added) {
+        if (searchIndex != null && added.idClient() != null) {
+          searchIndex.put(added);
         }
+        attachList(rawRecord, params);
       }
     } catch (SQLException e) {
-      LOGGER.log(Level.SEVERE, "Error executing query: {0}", e.getMessage());
-      rawRecord.setServerMessage("Error adding client");
+      LOGGER.log(Level.SEVERE, "Error adding client: {0}", e.getMessage());
+      rawRecord = message(TransactionTemplate.message(e, "Error adding client"));
     }
 
     return rawRecord;
@@ -220,52 +402,57 @@ public class ClientDAOImplementation implements ClientDAO {
 
   @Override
   public RawRecord update(Client client, HashMap<String, Object> params) {
-    final RawRecord rawRecord = new RawRecord();
+    if (client.version() == null) {
+      return message(VERSION_REQUIRED);
+    }
 
-    try(
-      Connection connection = this.pool.getConnection();
-      SQLClose finish = connection::rollback;
-      PreparedStatement statementCount = connection.prepareStatement(UPDATE_COUNT);
-    ) {
-      connection.setAutoCommit(false);
+    RawRecord rawRecord;
 
-      statementCount.setString(1, client.document());
-      statementCount.setInt(2, client.idClient());
+    try {
+      rawRecord = transactions.execute(transaction -> {
+        final Connection connection = transaction.connection();
 
-      LOGGER.log(Level.INFO, "Executing query: {0}", statementCount);
+        try(PreparedStatement statementCount = connection.prepareStatement(UPDATE_COUNT)) {
+          statementCount.setString(1, client.document());
+          statementCount.setInt(2, client.idClient());
 
-      try(
-        ResultSet resultSet = statementCount.executeQuery();
-        PreparedStatement statementQuery = connection.prepareStatement(UPDATE_QUERY);
-      ) {
-        if (resultSet.next()) {
-          final int count = resultSet.getInt("COUNT");
-          if (count > 0) {
-            rawRecord.setServerMessage("Client already exists");
-            return rawRecord;
+          LOGGER.log(Level.FINE, "Executing query: {0}", statementCount);
+
+          try(ResultSet resultSet = statementCount.executeQuery()) {
+            if (resultSet.next() && resultSet.getInt("COUNT") > 0) {
+              return message("Client already exists");
+            }
           }
+        }
 
-          statementQuery.setString(1, client.document());
-          statementQuery.setString(2, client.documentType());
-          statementQuery.setString(3, client.firstName());
-          statementQuery.setString(4, client.surName());
-          statementQuery.setString(5, client.phoneNumber());
-          statementQuery.setString(6, client.mobileNumber());
-          statementQuery.setString(7, client.email());
-          statementQuery.setInt(8, client.idClient());
+        try(PreparedStatement statementQuery = connection.prepareStatement(UPDATE_QUERY)) {
+          bindClient(statementQuery, client);
+          bindIdentity(statementQuery, client);
 
-          LOGGER.log(Level.INFO, "Executing query: {0}", statementQuery);
+          LOGGER.log(Level.FINE, "Executing query: {0}", statementQuery);
 
-          statementQuery.executeUpdate();
-          connection.commit();
+          final boolean applied = statementQuery.executeUpdate() > 0;
+          if (!applied) {
+            return versions(List.of(client.idClient()), connection).containsKey(client.idClient())
+              ? conflict("Client was modified by another operation")
+              : message("Client not found");
+          }
+
+          final RawRecord updated = message("Client updated successfully");
+          updated.setAffected(withVersion(client, client.version() + 1));
+          return updated;
+        }
+      });
 
-          rawRecord.setServerMessage("Client updated successfully");
-          rawRecord.setPagination(getList(params, connection));
+      if (rawRecord.getAffected() instanceof Client updated) {
+        if (searchIndex != null) {
+          searchIndex.put(updated);
         }
+        attachList(rawRecord, params);
       }
     } catch (SQLException e) {
       LOGGER.log(Level.SEVERE, "Error updating client: {0}", e.getMessage());
-      rawRecord.setServerMessage("Error updating client");
+      rawRecord = message(TransactionTemplate.message(e, "Error updating client"));
     }
 
     return rawRecord;
@@ -275,23 +462,29 @@ public class ClientDAOImplementation implements ClientDAO {
   public RawRecord delete(Integer id, HashMap<String, Object> params) {
     final RawRecord rawRecord = new RawRecord();
 
-    try(
-      Connection connection = this.pool.getConnection();
-      SQLClose finish = connection::rollback;
-      PreparedStatement statementQuery = connection.prepareStatement(DELETE_QUERY);
-    ) {
-      statementQuery.setInt(1, id);
+    try {
+      transactions.execute(transaction -> {
+        try(
+          PreparedStatement statementQuery = transaction.connection().prepareStatement(DELETE_QUERY)
+        ) {
+          statementQuery.setInt(1, id);
+
+          LOGGER.log(Level.FINE, "Executing query: {0}", statementQuery);
 
-      LOGGER.log(Level.INFO, "Executing query: {0}", statementQuery);
+          return statementQuery.executeUpdate();
+        }
+      });
 
-      statementQuery.executeUpdate();
-      connection.commit();
+      if (searchIndex != null) {
+        searchIndex.remove(id);
+      }
 
       rawRecord.setServerMessage("Client deleted successfully");
-      rawRecord.setPagination(getList(params, connection));
+      rawRecord.setAffected(id);
+      attachList(rawRecord, params);
     } catch (SQLException e) {
       LOGGER.log(Level.SEVERE, "Error deleting client: {0}", e.getMessage());
-      rawRecord.setServerMessage("Error deleting client");
+      rawRecord.setServerMessage(TransactionTemplate.message(e, "Error deleting client"));
     }
 
     return rawRecord;
@@ -300,25 +493,16 @@ public class ClientDAOImplementation implements ClientDAO {
   @Override
   public Client getForId(Integer id) {
     try (
-      Connection connection = this.pool.getConnection();
+      Connection connection = this.readPool.getConnection();
       PreparedStatement statement = connection.prepareStatement(GET_FOR_ID_QUERY);
     ) {
       statement.setInt(1, id);
 
-      LOGGER.log(Level.INFO, "Executing query: {0}", statement);
+      LOGGER.log(Level.FINE, "Executing query: {0}", statement);
 
       try(ResultSet resultSet = statement.executeQuery()) {
         if (resultSet.next()) {
-          return new Client(
-            resultSet.getInt("clientId"),
-            resultSet.getString("document"),
-            resultSet.getString("documentType"),
-            resultSet.getString("firstName"),
-            resultSet.getString("surName"),
-            resultSet.getString("phoneNumber"),
-            resultSet.getString("mobileNumber"),
-            resultSet.getString("email")
-          );
+          return toClient(resultSet);
         }
       }
     } catch (SQLException e) {
@@ -327,4 +511,293 @@ public class ClientDAOImplementation implements ClientDAO {
 
     return null;
   }
+
+  @Override
+  public List<RawRecord> addAll(List<Client> clients, HashMap<String, Object> params) {
+    final List<RawRecord> records = new ArrayList<>(clients.size());
+    final int chunkSize = SQLUtils.chunkSize(params);
+
+    for (int from = 0; from < clients.size(); from += chunkSize) {
+      records.addAll(writeChunk(clients.subList(from, Math.min(clients.size(), from + chunkSize)), true));
+    }
+
+    return records;
+  }
+
+  @Override
+  public List<RawRecord> updateAll(List<Client> clients, HashMap<String, Object> params) {
+    final List<RawRecord> records = new ArrayList<>(clients.size());
+    final int chunkSize = SQLUtils.chunkSize(params);
+
+    for (int from = 0; from < clients.size(); from += chunkSize) {
+      records.addAll(writeChunk(clients.subList(from, Math.min(clients.size(), from + chunkSize)), false));
+    }
+
+    return records;
+  }
+
+  private List<RawRecord> writeChunk(List<Client> chunk, boolean insert) {
+    final RawRecord[] records = new RawRecord[chunk.size()];
+    final List<Integer> accepted = new ArrayList<>();
+
+    try {
+      final List<Client> written = transactions.execute(transaction -> {
+        final Connection connection = transaction.connection();
+        // Documents already taken, plus those claimed earlier in this chunk.
+        final Map<String, Integer> owners = documentOwners(chunk, connection);
+        accepted.clear();
+        Arrays.fill(records, null);
+
+        for (int i = 0; i < chunk.size(); i++) {
+          final Client client = chunk.get(i);
+          final Integer owner = owners.get(client.document());
+
+          if (!insert && client.version() == null) {
+            records[i] = message(VERSION_REQUIRED);
+          } else if (owner != null && (insert || !owner.equals(client.idClient()))) {
+            records[i] = message("Client already exists");
+          } else {
+            owners.put(client.document(), insert ? -1 : client.idClient());
+            accepted.add(i);
+          }
+        }
+
+        final List<Client> clients = new ArrayList<>(accepted.size());
+        if (accepted.isEmpty()) {
+          return clients;
+        }
+
+        try(
+          PreparedStatement statementQuery = insert
+            ? connection.prepareStatement(ADD_QUERY, Statement.RETURN_GENERATED_KEYS)
+            : connection.prepareStatement(UPDATE_QUERY)
+        ) {
+          for (int i : accepted) {
+            final Client client = chunk.get(i);
+            bindClient(statementQuery, client);
+            if (!insert) {
+              bindIdentity(statementQuery, client);
+            }
+            statementQuery.addBatch();
+          }
+
+          LOGGER.log(Level.FINE, "Executing batch of {0} client writes", accepted.size());
+
+          final int[] counts = statementQuery.executeBatch();
+
+          if (insert) {
+            try(ResultSet keys = statementQuery.getGeneratedKeys()) {
+              for (int i : accepted) {
+                clients.add(withId(chunk.get(i), keys.next() ? keys.getInt(1) : null));
+              }
+            }
+          } else {
+            // Rows whose version no longer matched were skipped by the batch; nothing else waits on them.
+            final List<Integer> unresolved = new ArrayList<>();
+            for (int j = 0; j < accepted.size(); j++) {
+              final Client client = chunk.get(accepted.get(j));
+              if (counts[j] == 0) {
+                unresolved.add(client.idClient());
+              }
+            }
+            final Map<Integer, Integer> versions = unresolved.isEmpty()
+              ? Map.of()
+              : versions(unresolved, connection);
+
+            for (int j = 0; j < accepted.size(); j++) {
+              final Client client = chunk.get(accepted.get(j));
+              if (counts[j] == 0) {
+                records[accepted.get(j)] = versions.containsKey(client.idClient())
+                  ? conflict("Client was modified by another operation")
+                  : message("Client not found");
+              } else {
+                clients.add(withVersion(client, client.version() + 1));
+              }
+            }
+            accepted.removeIf(i -> records[i] != null);
+          }
+        }
+
+        return clients;
+      });
+
+      for (int j = 0; j < accepted.size(); j++) {
+        final Client client = written.get(j);
+        if (searchIndex != null && client.idClient() != null) {
+          searchIndex.put(client);
+        }
+
+        final RawRecord rawRecord = message(
+          insert ? "Client added successfully" : "Client updated successfully"
+        );
+        rawRecord.setAffected(client);
+        records[accepted.get(j)] = rawRecord;
+      }
+    } catch (SQLException e) {
+      LOGGER.log(Level.SEVERE, "Error writing clients: {0}", e.getMessage());
+      for (int i : accepted) {
+        records[i] = message(TransactionTemplate.message(
+          e,
+          insert ? "Error adding client" : "Error updating client"
+        ));
+      }
+    }
+
+    return Arrays.asList(records);
+  }
+
+  private static Map<String, Integer> documentOwners(
+    List<Client> clients,
+    Connection connection
+  ) throws SQLException {
+    final List<String> documents = clients.stream()
+      .map(Client::document)
+      .distinct()
+      .toList();
+    final Map<String, Integer> owners = new HashMap<>();
+
+    try(
+      PreparedStatement statement = connection.prepareStatement(
+        GET_DOCUMENTS_QUERY.formatted(SQLUtils.placeholders(documents.size()))
+      )
+    ) {
+      for (int i = 0; i < documents.size(); i++) {
+        statement.setString(i + 1, documents.get(i));
+      }
+
+      try(ResultSet resultSet = statement.executeQuery()) {
+        while (resultSet.next()) {
+          owners.put(resultSet.getString("document"), resultSet.getInt("clientId"));
+        }
+      }
+    }
+
+    return owners;
+  }
+
+  private static void bindClient(PreparedStatement statement, Client client) throws SQLException {
+    statement.setString(1, client.document());
+    statement.setString(2, client.documentType());
+    statement.setString(3, client.firstName());
+    statement.setString(4, client.surName());
+    statement.setString(5, client.phoneNumber());
+    statement.setString(6, client.mobileNumber());
+    statement.setString(7, client.email());
+  }
+
+  // The row must still carry the version the caller read.
+  private static void bindIdentity(PreparedStatement statement, Client client) throws SQLException {
+    statement.setInt(8, client.idClient());
+    statement.setInt(9, client.version());
+  }
+
+  private static Map<Integer, Integer> versions(
+    List<Integer> ids,
+    Connection connection
+  ) throws SQLException {
+    final Map<Integer, Integer> versions = new HashMap<>();
+
+    try(
+      PreparedStatement statement = connection.prepareStatement(
+        GET_VERSIONS_QUERY.formatted(SQLUtils.placeholders(ids.size()))
+      )
+    ) {
+      for (int i = 0; i < ids.size(); i++) {
+        statement.setInt(i + 1, ids.get(i));
+      }
+
+      try(ResultSet resultSet = statement.executeQuery()) {
+        while (resultSet.next()) {
+          versions.put(resultSet.getInt("clientId"), resultSet.getInt("version"));
+        }
+      }
+    }
+
+    return versions;
+  }
+
+  private static Client withId(Client client, Integer id) {
+    return new Client(
+      id,
+      client.document(),
+      client.documentType(),
+      client.firstName(),
+      client.surName(),
+      client.phoneNumber(),
+      client.mobileNumber(),
+      client.email(),
+      0
+    );
+  }
+
+  private static Client withVersion(Client client, Integer version) {
+    return new Client(
+      client.idClient(),
+      client.document(),
+      client.documentType(),
+      client.firstName(),
+      client.surName(),
+      client.phoneNumber(),
+      client.mobileNumber(),
+      client.email(),
+      version
+    );
+  }
+
+  private static RawRecord message(String serverMessage) {
+    final RawRecord rawRecord = new RawRecord();
+    rawRecord.setServerMessage(serverMessage);
+    return rawRecord;
+  }
+
+  private static RawRecord conflict(String serverMessage) {
+    final RawRecord rawRecord = message(serverMessage);
+    rawRecord.setConflict(true);
+    return rawRecord;
+  }
+
+  // Read-after-write stays on the primary, which already has the write.
+  private Pagination primaryList(HashMap<String, Object> params) {
+    try(Connection connection = pool.getConnection()) {
+      return getList(params, connection);
+    } catch (SQLException e) {
+      LOGGER.log(Level.SEVERE, "Error getting list: {0}", e.getMessage());
+      return null;
+    }
+  }
+
+  private void attachList(RawRecord rawRecord, HashMap<String, Object> params) {
+    if (params == null) {
+      return;
+    }
+
+    if (Boolean.TRUE.equals(params.get("RELOAD_LIST"))) {
+      rawRecord.setPagination(primaryList(params));
+    } else {
+      rawRecord.setPaginationLoader(() -> primaryList(params));
+    }
+  }
+
+  private static int estimateCount(Connection connection) throws SQLException {
+    try(
+      PreparedStatement statement = connection.prepareStatement(ESTIMATE_COUNT);
+      ResultSet resultSet = statement.executeQuery()
+    ) {
+      return resultSet.next() ? resultSet.getInt("COUNT") : 0;
+    }
+  }
+
+  private static Client toClient(ResultSet resultSet) throws SQLException {
+    return new Client(
+      resultSet.getInt("clientId"),
+      resultSet.getString("document"),
+      resultSet.getString("documentType"),
+      resultSet.getString("firstName"),
+      resultSet.getString("surName"),
+      resultSet.getString("phoneNumber"),
+      resultSet.getString("mobileNumber"),
+      resultSet.getString("email"),
+      resultSet.getInt("version")
+    );
+  }
 }
@@ -5,43 +5,146 @@ import java.sql.Date;
 import java.sql.PreparedStatement;
 import java.sql.ResultSet;
 import java.sql.SQLException;
+import java.sql.Statement;
+import java.time.LocalDate;
+import java.time.format.DateTimeParseException;
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.HashMap;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.Spliterator;
+import java.util.Spliterators;
+import java.util.function.Consumer;
+import java.util.function.Function;
+import java.util.function.ToIntFunction;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
 import java.util.logging.Level;
 import java.util.logging.Logger;
 
 import javax.sql.DataSource;
 
-import com.unir.reservations.dao.ClientDAO;
+import com.unir.reservations.availability.AvailabilityIndex;
+import com.unir.reservations.availability.Slot;
+import com.unir.reservations.dao.ListQuery;
 import com.unir.reservations.dao.ReservationDAO;
-import com.unir.reservations.dao.RoomDAO;
 import com.unir.reservations.dao.SQLClose;
+import com.unir.reservations.dao.TransactionTemplate;
+import com.unir.reservations.dao.UncheckedSQLException;
+import com.unir.reservations.models.Client;
 import com.unir.reservations.models.Reservation;
+import com.unir.reservations.models.ReservationSummary;
+import com.unir.reservations.models.Room;
+import com.unir.reservations.models.Service;
+import com.unir.reservations.pool.RoutingDataSource;
+import com.unir.reservations.pricing.PricingEngine;
+import com.unir.reservations.utils.Cursor;
 import com.unir.reservations.utils.Pagination;
 import com.unir.reservations.utils.RawRecord;
+import com.unir.reservations.utils.SQLUtils;
 
 public class ReservationDAOImplementation implements ReservationDAO {
   private static final Logger LOGGER = Logger.getLogger(ReservationDAOImplementation.class.getName());
+  private static final String VERSION_REQUIRED = "Version is required to update a reservation";
+  private static final String ID_REQUIRED = "Id is required to update a reservation";
+  private static final String CLIENT_REQUIRED = "Client is required to update a reservation";
   private final DataSource pool;
+  private final DataSource readPool;
+  private final TransactionTemplate transactions;
+  private final AvailabilityIndex availability;
+  private final PricingEngine pricing;
 
   private static final String GET_LIST_COUNT = """
     SELECT COUNT(eventId) AS COUNT
     FROM evp_event
     WHERE clientId LIKE CONCAT('%', ?, '%')
   """;
+  private static final String GET_CLIENT_COUNT = """
+    SELECT COUNT(eventId) AS COUNT
+    FROM evp_event
+    WHERE clientId = ?
+  """;
+  private static final String ESTIMATE_COUNT = """
+    SELECT TABLE_ROWS AS COUNT
+    FROM information_schema.TABLES
+    WHERE TABLE_SCHEMA = DATABASE() AND TABLE_NAME = 'evp_event'
+  """;
+  private static final String LIST_COLUMNS = """
+      e.eventId,
+      e.clientId,
+      e.roomId,
+      e.date,
+      e.startHour,
+      e.endHour,
+      e.priceTotal,
+      e.observations,
+      e.version,
+      c.clientId AS joinedClientId,
+      c.document,
+      c.documentType,
+      c.firstName,
+      c.surName,
+      c.phoneNumber,
+      c.mobileNumber,
+      c.email,
+      c.version AS clientVersion,
+      r.roomId AS joinedRoomId,
+      r.name AS roomName,
+      r.description AS roomDescription,
+      r.address AS roomAddress,
+      r.pricePerHour AS roomPricePerHour
+    FROM evp_event e
+    LEFT JOIN evp_client c ON c.clientId = e.clientId
+    LEFT JOIN evp_room r ON r.roomId = e.roomId
+  """;
   private static final String GET_LIST_QUERY = """
     SELECT
-      eventId,
-      clientId,
-      roomId,
-      date,
-      startHour,
-      endHour,
-      priceTotal,
-      observations
-    FROM evp_event
-    WHERE clientId LIKE CONCAT('%', ?, '%')
+  """ + LIST_COLUMNS;
+  private static final String GET_LIST_COUNTED_QUERY = """
+    SELECT
+      COUNT(*) OVER() AS TOTAL_COUNT,
+  """ + LIST_COLUMNS;
+  private static final String SUMMARY_COLUMNS = """
+      e.eventId,
+      e.clientId,
+      e.roomId,
+      e.date,
+      e.startHour,
+      e.endHour,
+      e.priceTotal,
+      e.version
+    FROM evp_event e
+  """;
+  private static final String GET_SUMMARY_QUERY = """
+    SELECT
+  """ + SUMMARY_COLUMNS;
+  private static final String GET_SUMMARY_COUNTED_QUERY = """
+    SELECT
+      COUNT(*) OVER() AS TOTAL_COUNT,
+  """ + SUMMARY_COLUMNS;
+  // FILTER is a substring of the client id; CLIENT_ID selects one client exactly.
+  private static final String FILTER_WHERE = """
+    WHERE e.clientId LIKE CONCAT('%', ?, '%')
+  """;
+  private static final String CLIENT_WHERE = """
+    WHERE e.clientId = ?
+  """;
+  private static final String STREAM_QUERY = """
+    SELECT
+  """ + LIST_COLUMNS + """
+    WHERE e.clientId LIKE CONCAT('%', ?, '%')
+      AND e.date BETWEEN ? AND ?
+    ORDER BY e.date, e.eventId
+  """;
+  private static final String LIMIT = """
+    LIMIT ?
+  """;
+  private static final String LIMIT_OFFSET = """
+    LIMIT ? OFFSET ?
   """;
   private static final String ADD_COUNT = """
     SELECT COUNT(eventId) AS COUNT
@@ -73,104 +176,205 @@ public class ReservationDAOImplementation implements ReservationDAO {
       startHour = ?,
       endHour = ?,
       priceTotal = ?,
-      observations = ?
-    WHERE eventId = ?
+      observations = ?,
+      version = version + 1
+    WHERE eventId = ? AND version = ?
   """;
-  private static final String DELETE_QUERY = """
-    DELETE FROM evp_event
+  private static final String GET_VERSIONS_QUERY = """
+    SELECT
+      eventId,
+      version
+    FROM evp_event
+    WHERE eventId IN (%s)
+  """;
+  private static final String GET_SLOT_QUERY = """
+    SELECT
+      roomId,
+      date,
+      startHour,
+      endHour
+    FROM evp_event
     WHERE eventId = ?
   """;
-  private static final String GET_FOR_ID = """
+  private static final String GET_EXISTING_IDS_QUERY = """
+    SELECT eventId
+    FROM evp_event
+    WHERE eventId IN (%s)
+  """;
+  private static final String GET_CLIENT_EVENTS_QUERY = """
+    SELECT
+      eventId,
+      clientId
+    FROM evp_event
+    WHERE clientId IN (%s)
+  """;
+  private static final String GET_SLOTS_QUERY = """
     SELECT
       eventId,
-      clientId,
       roomId,
       date,
       startHour,
-      endHour,
-      priceTotal,
-      observations
+      endHour
     FROM evp_event
+    WHERE eventId IN (%s)
+  """;
+  private static final String GET_ROOM_SLOTS_QUERY = """
+    SELECT
+      eventId,
+      roomId,
+      date,
+      startHour,
+      endHour
+    FROM evp_event
+    WHERE roomId IN (%s) AND date BETWEEN ? AND ?
+  """;
+  private static final String UPDATE_PRICE_QUERY = """
+    UPDATE evp_event
+    SET
+      priceTotal = ?,
+      version = version + 1
     WHERE eventId = ?
   """;
+  private static final String DELETE_QUERY = """
+    DELETE FROM evp_event
+    WHERE eventId = ?
+  """;
+  private static final String GET_SERVICES_QUERY = """
+    SELECT es.eventId, s.serviceId, s.name, s.price
+    FROM evp_event_service es
+    INNER JOIN evp_service s ON s.serviceId = es.serviceId
+    WHERE es.eventId IN (%s)
+    ORDER BY es.eventId, s.serviceId
+  """;
+  private static final String ADD_SERVICE_QUERY = """
+    INSERT INTO evp_event_service (eventId, serviceId)
+    VALUES (?, ?)
+  """;
+  private static final String DELETE_SERVICES_QUERY = """
+    DELETE FROM evp_event_service
+    WHERE eventId IN (%s)
+  """;
+  private static final String GET_FOR_ID = """
+    SELECT
+  """ + LIST_COLUMNS + """
+    WHERE e.eventId = ?
+  """;
+
+  private static final int FIRST_PAGE = 0;
+  private static final int SEEK = 1;
+  private static final int OFFSET = 2;
+  private static final Map<ListQuery.Sort, SortShape> SORTS = Map.of(
+    ListQuery.Sort.DEFAULT,
+    new SortShape("e.date, e.eventId", "(e.date > ? OR (e.date = ? AND e.eventId > ?))", false),
+    ListQuery.Sort.NEWEST_FIRST,
+    new SortShape("e.date DESC, e.eventId DESC", "(e.date < ? OR (e.date = ? AND e.eventId < ?))", false),
+    ListQuery.Sort.PRICE_ASC,
+    new SortShape(
+      "e.priceTotal, e.eventId",
+      "(e.priceTotal > ? OR (e.priceTotal = ? AND e.eventId > ?))",
+      true
+    ),
+    ListQuery.Sort.PRICE_DESC,
+    new SortShape(
+      "e.priceTotal DESC, e.eventId DESC",
+      "(e.priceTotal < ? OR (e.priceTotal = ? AND e.eventId < ?))",
+      true
+    )
+  );
+  // Every list statement this DAO can run, built once: sort x view x count x criterion x page mode.
+  private static final String[] LIST_STATEMENTS = listStatements();
 
   public ReservationDAOImplementation(DataSource pool) {
-    this.pool = pool;
+    this(pool, null);
+  }
+
+  public ReservationDAOImplementation(DataSource pool, AvailabilityIndex availability) {
+    this(pool, availability, null);
   }
 
+  public ReservationDAOImplementation(
+    DataSource pool,
+    AvailabilityIndex availability,
+    PricingEngine pricing
+  ) {
+    this(new TransactionTemplate(pool), availability, pricing);
+  }
+
+  public ReservationDAOImplementation(
+    TransactionTemplate transactions,
+    AvailabilityIndex availability,
+    PricingEngine pricing
+  ) {
+    this.pool = transactions.getDataSource();
+    this.readPool = RoutingDataSource.readsOf(pool);
+    this.transactions = transactions;
+    this.availability = availability;
+    this.pricing = pricing;
+  }
+
+  /*
+   * SUMMARY=true returns ReservationSummary rows read from evp_event alone,
+   * without the client/room joins or services.
+   */
   @Override
-  public Pagination getList(HashMap<String, Object> params, Connection connection) {
+  public Pagination getList(ListQuery query, Connection connection) {
     final Pagination pagination = new Pagination();
-    final List<Reservation> reservations = new ArrayList<>();
 
-    try(
-      PreparedStatement statementCount = connection.prepareStatement(GET_LIST_COUNT)
-    ) {
-      statementCount.setString(1, (String) params.get("FILTER"));
+    try {
+      final boolean byPrice = SORTS.get(query.sort()).byPrice();
 
-      LOGGER.log(Level.INFO, "Executing query: {0}", statementCount);
-
-      try(ResultSet resultSet = statementCount.executeQuery()) {
-        if(resultSet.next()) {
-          final int count = resultSet.getInt("COUNT");
-          pagination.setFilterCounter(count);
-
-          if (count > 0) {
-            try (
-              PreparedStatement statementQuery = connection.prepareStatement(
-                GET_LIST_QUERY +
-                (String) params.get("SQL_ORDER_BY") +
-                (
-                  params.containsKey("SQL_PAGINATION")
-                    ? " " + (String) params.get("SQL_PAGINATION")
-                    : ""
-                )
-              )
-            ) {
-              statementQuery.setString(1, (String) params.get("FILTER"));
-
-              LOGGER.log(Level.INFO, "Executing query: {0}", statementQuery);
-
-              try(ResultSet resultSetQuery = statementQuery.executeQuery()) {
-                final ClientDAO clientDAO = new ClientDAOImplementation(pool);
-                final RoomDAO roomDAO = new RoomDAOImplementation(pool);
-
-                while(resultSetQuery.next()) {
-                  final Reservation reservation = new Reservation(
-                    resultSetQuery.getInt("eventId"),
-                    clientDAO.getForId(resultSetQuery.getInt("clientId")),
-                    null,
-                    roomDAO.getForId(resultSetQuery.getInt("roomId")),
-                    resultSetQuery.getDate("date"),
-                    resultSetQuery.getInt("startHour"),
-                    resultSetQuery.getInt("endHour"),
-                    resultSetQuery.getDouble("priceTotal"),
-                    resultSetQuery.getString("observations")
-                  );
-
-                  reservations.add(reservation);
-                }
-              }
-            }
-          }
-        }
+      if (query.summary()) {
+        final List<ReservationSummary> summaries = new ArrayList<>();
+        pagination.setData(summaries);
+        fetchPage(
+          query,
+          connection,
+          pagination,
+          summaries,
+          ReservationDAOImplementation::toSummary,
+          summary -> byPrice ? Double.toHexString(summary.priceTotal()) : summary.date().toString(),
+          ReservationSummary::idReservation
+        );
+        return pagination;
       }
+
+      final List<Reservation> reservations = new ArrayList<>();
+      // Rows of one page share their Client and Room instances.
+      final Map<Integer, Client> clients = new HashMap<>();
+      final Map<Integer, Room> rooms = new HashMap<>();
+      pagination.setData(reservations);
+
+      fetchPage(
+        query,
+        connection,
+        pagination,
+        reservations,
+        resultSet -> toReservation(resultSet, clients, rooms),
+        reservation -> byPrice ? Double.toHexString(reservation.priceTotal()) : reservation.date().toString(),
+        Reservation::idReservation
+      );
+      loadServices(reservations, connection);
     } catch(SQLException e) {
-      LOGGER.log(Level.SEVERE, "Error updating client: {0}", e.getMessage());
+      LOGGER.log(Level.SEVERE, "Error getting list: {0}", e.getMessage());
+      return null;
     }
 
-    pagination.setData(reservations);
+    if (pagination.getData() == null) {
+      pagination.setData(List.of());
+    }
     return pagination;
   }
 
   @Override
-  public RawRecord getList(HashMap<String, Object> params) {
+  public RawRecord getList(ListQuery query) {
     final RawRecord rawRecord = new RawRecord();
 
-    try(Connection connection = pool.getConnection()) {
-      rawRecord.setPagination(getList(params, connection));
+    try(Connection connection = readPool.getConnection()) {
+      rawRecord.setPagination(getList(query, connection));
     } catch(SQLException e) {
       LOGGER.log(Level.SEVERE, "Error getting list: {0}", e.getMessage());
+    }
+    if (rawRecord.getPagination() == null) {
       rawRecord.setServerMessage("Error getting list");
     }
 
@@ -178,106 +382,153 @@ public class ReservationDAOImplementation implements ReservationDAO {
   }
 
   @Override
-  public RawRecord add(Reservation reservation, HashMap<String, Object> params) {
-    final RawRecord rawRecord = new RawRecord();
+  public RawRecord add(Reservation requested, HashMap<String, Object> params) {
+    final Reservation reservation = priced(List.of(requested)).get(0);
+    RawRecord rawRecord;
 
-    try(
-      Connection connection = pool.getConnection();
-      SQLClose finish = connection::close;
-      PreparedStatement statementCount = connection.prepareStatement(ADD_COUNT)
-    ) {
-      connection.setAutoCommit(false);
+    try {
+      rawRecord = transactions.execute(transaction -> {
+        final Connection connection = transaction.connection();
 
-      statementCount.setInt(1, reservation.idReservation());
+        if (reservation.idReservation() != null) {
+          try(PreparedStatement statementCount = connection.prepareStatement(ADD_COUNT)) {
+            statementCount.setInt(1, reservation.idReservation());
 
-      LOGGER.log(Level.INFO, "Executing query: {0}", statementCount);
+            LOGGER.log(Level.FINE, "Executing query: {0}", statementCount);
 
-      try(ResultSet resultSet = statementCount.executeQuery()) {
-        if (resultSet.next()) {
-          final int count = resultSet.getInt("COUNT");
-          if (count > 0) {
-            rawRecord.setServerMessage("Reservation already exists");
-            return rawRecord;
+            try(ResultSet resultSet = statementCount.executeQuery()) {
+              if (resultSet.next() && resultSet.getInt("COUNT") > 0) {
+                return message("Reservation already exists");
+              }
+            }
           }
+        }
+
+        if (!Slot.isValid(reservation.startHour(), reservation.endHour())) {
+          return message("Invalid reservation hours");
+        }
+
+        if (!isPriced(reservation)) {
+          return message("Invalid reservation price");
+        }
+
+        final Slot slot = toSlot(reservation);
+        if (availability != null && !reserve(transaction, slot)) {
+          return message("Room is not available");
+        }
 
-          try(
-            PreparedStatement statementQuery = connection.prepareStatement(ADD_QUERY)
-          ) {
-            statementQuery.setInt(1, reservation.client().idClient());
-            statementQuery.setInt(2, reservation.room().idRoom());
-            statementQuery.setDate(3, new Date(reservation.date().getTime()));
-            statementQuery.setInt(4, reservation.startHour());
-            statementQuery.setInt(5, reservation.endHour());
-            statementQuery.setDouble(6, reservation.priceTotal());
-            statementQuery.setString(7, reservation.observations());
+        try(
+          PreparedStatement statementQuery = connection.prepareStatement(
+            ADD_QUERY,
+            Statement.RETURN_GENERATED_KEYS
+          )
+        ) {
+          bindReservation(statementQuery, reservation);
 
-            LOGGER.log(Level.INFO, "Executing query: {0}", statementQuery);
+          LOGGER.log(Level.FINE, "Executing query: {0}", statementQuery);
 
-            statementQuery.executeUpdate();
-            connection.commit();
+          statementQuery.executeUpdate();
 
-            rawRecord.setServerMessage("Reservation added successfully");
-            rawRecord.setPagination(getList(params, connection));
+          Integer reservationId = null;
+          try(ResultSet keys = statementQuery.getGeneratedKeys()) {
+            if (keys.next()) {
+              reservationId = keys.getInt(1);
+            }
+          }
+
+          if (reservationId != null) {
+            addServiceLinks(Map.of(reservationId, servicesOf(reservation)), connection);
           }
+
+          final RawRecord added = message("Reservation added successfully");
+          added.setAffected(withId(reservation, reservationId));
+          return added;
         }
+      });
+
+      if (rawRecord.getAffected() != null) {
+        attachList(rawRecord, params);
       }
     } catch(SQLException e) {
-      LOGGER.log(Level.SEVERE, "Error updating client: {0}", e.getMessage());
-      rawRecord.setServerMessage("Error adding client");
+      LOGGER.log(Level.SEVERE, "Error adding reservation: {0}", e.getMessage());
+      rawRecord = message(TransactionTemplate.message(e, "Error adding reservation"));
     }
 
     return rawRecord;
   }
 
   @Override
-  public RawRecord update(Reservation object, HashMap<String, Object> params) {
-    final RawRecord rawRecord = new RawRecord();
+  public RawRecord update(Reservation requested, HashMap<String, Object> params) {
+    final String invalid = updateError(requested);
+    if (invalid != null) {
+      return message(invalid);
+    }
 
-    try(
-      Connection connection = pool.getConnection();
-      SQLClose finish = connection::close;
-      PreparedStatement statementCount = connection.prepareStatement(UPDATE_COUNT)
-    ) {
-      connection.setAutoCommit(false);
+    RawRecord rawRecord;
 
-      statementCount.setInt(1, object.client().idClient());
-      statementCount.setInt(2, object.idReservation());
+    try {
+      rawRecord = transactions.execute(transaction -> {
+        final Connection connection = transaction.connection();
+        final Reservation object = priced(withStoredServices(List.of(requested), connection)).get(0);
 
-      LOGGER.log(Level.INFO, "Executing query: {0}", statementCount);
+        try(PreparedStatement statementCount = connection.prepareStatement(UPDATE_COUNT)) {
+          statementCount.setInt(1, object.client().idClient());
+          statementCount.setInt(2, object.idReservation());
 
-      try(ResultSet resultSet = statementCount.executeQuery()) {
-        if (resultSet.next()) {
-          final int count = resultSet.getInt("COUNT");
-          if (count > 0) {
-            rawRecord.setServerMessage("Reservation already exists");
-            return rawRecord;
+          LOGGER.log(Level.FINE, "Executing query: {0}", statementCount);
+
+          try(ResultSet resultSet = statementCount.executeQuery()) {
+            if (resultSet.next() && resultSet.getInt("COUNT") > 0) {
+              return message("Reservation already exists");
+            }
           }
+        }
+
+        if (!Slot.isValid(object.startHour(), object.endHour())) {
+          return message("Invalid reservation hours");
+        }
 
-          try(
-            PreparedStatement statementQuery = connection.prepareStatement(UPDATE_QUERY)
-          ) {
-            statementQuery.setInt(1, object.client().idClient());
-            statementQuery.setInt(2, object.room().idRoom());
-            statementQuery.setDate(3, new Date(object.date().getTime()));
-            statementQuery.setInt(4, object.startHour());
-            statementQuery.setInt(5, object.endHour());
-            statementQuery.setDouble(6, object.priceTotal());
-            statementQuery.setString(7, object.observations());
-            statementQuery.setInt(8, object.idReservation());
-
-            LOGGER.log(Level.INFO, "Executing query: {0}", statementQuery);
-
-            statementQuery.executeUpdate();
-            connection.commit();
-
-            rawRecord.setServerMessage("Reservation updated successfully");
-            rawRecord.setPagination(getList(params, connection));
+        if (!isPriced(object)) {
+          return message("Invalid reservation price");
+        }
+
+        final Slot slot = toSlot(object);
+        final Slot previous = availability != null
+          ? getSlot(object.idReservation(), connection)
+          : null;
+        if (previous != null && !move(transaction, previous, slot)) {
+          return message("Room is not available");
+        }
+
+        try(PreparedStatement statementQuery = connection.prepareStatement(UPDATE_QUERY)) {
+          bindReservation(statementQuery, object);
+          bindIdentity(statementQuery, object);
+
+          LOGGER.log(Level.FINE, "Executing query: {0}", statementQuery);
+
+          final boolean applied = statementQuery.executeUpdate() > 0;
+          if (!applied) {
+            // Undoes the slot move taken above.
+            transaction.setRollbackOnly();
+            return versions(List.of(object.idReservation()), connection).containsKey(object.idReservation())
+              ? conflict("Reservation was modified by another operation")
+              : message("Reservation not found");
           }
+
+          replaceServiceLinks(List.of(object), connection);
+
+          final RawRecord updated = message("Reservation updated successfully");
+          updated.setAffected(withVersion(object, object.version() + 1));
+          return updated;
         }
+      });
+
+      if (rawRecord.getAffected() != null) {
+        attachList(rawRecord, params);
       }
     } catch(SQLException e) {
       LOGGER.log(Level.SEVERE, "Error updating reservation: {0}", e.getMessage());
-      rawRecord.setServerMessage("Error updating reservation");
+      rawRecord = message(TransactionTemplate.message(e, "Error updating reservation"));
     }
 
     return rawRecord;
@@ -287,54 +538,448 @@ public class ReservationDAOImplementation implements ReservationDAO {
   public RawRecord delete(Integer id, HashMap<String, Object> params) {
     final RawRecord rawRecord = new RawRecord();
 
-    try(
-      Connection connection = pool.getConnection();
-      SQLClose finish = connection::close;
-      PreparedStatement statementQuery = connection.prepareStatement(DELETE_QUERY)
-    ) {
-      statementQuery.setInt(1, id);
+    try {
+      final Slot slot = transactions.execute(transaction -> {
+        final Connection connection = transaction.connection();
+        final Slot deleted = availability != null ? getSlot(id, connection) : null;
+
+        deleteServiceLinks(List.of(id), connection);
+
+        try(PreparedStatement statementQuery = connection.prepareStatement(DELETE_QUERY)) {
+          statementQuery.setInt(1, id);
+
+          LOGGER.log(Level.FINE, "Executing query: {0}", statementQuery);
 
-      LOGGER.log(Level.INFO, "Executing query: {0}", statementQuery);
+          statementQuery.executeUpdate();
+        }
+
+        return deleted;
+      });
 
-      statementQuery.executeUpdate();
-      connection.commit();
+      // Released only after the commit, so a rolled-back delete never frees the slot.
+      if (slot != null) {
+        availability.release(slot);
+      }
 
       rawRecord.setServerMessage("Reservation deleted successfully");
-      rawRecord.setPagination(getList(params, connection));
+      rawRecord.setAffected(id);
+      attachList(rawRecord, params);
     } catch(SQLException e) {
       LOGGER.log(Level.SEVERE, "Error deleting reservation: {0}", e.getMessage());
-      rawRecord.setServerMessage("Error deleting reservation");
+      rawRecord.setServerMessage(TransactionTemplate.message(e, "Error deleting reservation"));
     }
 
     return rawRecord;
   }
 
+  @Override
+  public List<RawRecord> addAll(List<Reservation> reservations, HashMap<String, Object> params) {
+    final List<RawRecord> records = new ArrayList<>(reservations.size());
+    final int chunkSize = SQLUtils.chunkSize(params);
+
+    for (int from = 0; from < reservations.size(); from += chunkSize) {
+      records.addAll(addChunk(
+        reservations.subList(from, Math.min(reservations.size(), from + chunkSize))
+      ));
+    }
+
+    return records;
+  }
+
+  @Override
+  public List<RawRecord> updateAll(List<Reservation> reservations, HashMap<String, Object> params) {
+    final List<RawRecord> records = new ArrayList<>(reservations.size());
+    final int chunkSize = SQLUtils.chunkSize(params);
+
+    for (int from = 0; from < reservations.size(); from += chunkSize) {
+      records.addAll(updateChunk(
+        reservations.subList(from, Math.min(reservations.size(), from + chunkSize))
+      ));
+    }
+
+    return records;
+  }
+
+  private List<RawRecord> addChunk(List<Reservation> requested) {
+    final List<Reservation> chunk = priced(requested);
+    final RawRecord[] records = new RawRecord[chunk.size()];
+    final List<Integer> accepted = new ArrayList<>();
+
+    try {
+      final List<Reservation> added = transactions.execute(transaction -> {
+        final Connection connection = transaction.connection();
+        final Set<Integer> existing = existingIds(chunk, connection);
+        // Without a shared index, check the chunk against the rooms and dates it touches.
+        final AvailabilityIndex index = availability != null
+          ? availability
+          : loadRoomSlots(chunk, connection);
+        accepted.clear();
+
+        for (int i = 0; i < chunk.size(); i++) {
+          final Reservation reservation = chunk.get(i);
+
+          if (reservation.idReservation() != null && existing.contains(reservation.idReservation())) {
+            records[i] = message("Reservation already exists");
+          } else if (!Slot.isValid(reservation.startHour(), reservation.endHour())) {
+            records[i] = message("Invalid reservation hours");
+          } else if (!isPriced(reservation)) {
+            records[i] = message("Invalid reservation price");
+          } else {
+            final Slot slot = toSlot(reservation);
+            final boolean reserved = index == availability
+              ? reserve(transaction, slot)
+              : index.reserve(slot);
+            if (!reserved) {
+              records[i] = message("Room is not available");
+            } else {
+              accepted.add(i);
+            }
+          }
+        }
+
+        final List<Reservation> reservations = new ArrayList<>(accepted.size());
+        if (accepted.isEmpty()) {
+          return reservations;
+        }
+
+        try(
+          PreparedStatement statementQuery = connection.prepareStatement(
+            ADD_QUERY,
+            Statement.RETURN_GENERATED_KEYS
+          )
+        ) {
+          for (int i : accepted) {
+            bindReservation(statementQuery, chunk.get(i));
+            statementQuery.addBatch();
+          }
+
+          LOGGER.log(Level.FINE, "Executing batch of {0} inserts", accepted.size());
+
+          statementQuery.executeBatch();
+
+          final Map<Integer, List<Service>> links = new HashMap<>();
+          try(ResultSet keys = statementQuery.getGeneratedKeys()) {
+            for (int i : accepted) {
+              final Reservation reservation = withId(chunk.get(i), keys.next() ? keys.getInt(1) : null);
+              if (reservation.idReservation() != null) {
+                links.put(reservation.idReservation(), servicesOf(reservation));
+              }
+              reservations.add(reservation);
+            }
+          }
+
+          addServiceLinks(links, connection);
+        }
+
+        return reservations;
+      });
+
+      for (int i = 0; i < accepted.size(); i++) {
+        final RawRecord rawRecord = message("Reservation added successfully");
+        rawRecord.setAffected(added.get(i));
+        records[accepted.get(i)] = rawRecord;
+      }
+    } catch(SQLException e) {
+      LOGGER.log(Level.SEVERE, "Error adding reservations: {0}", e.getMessage());
+      for (int i : accepted) {
+        records[i] = message(TransactionTemplate.message(e, "Error adding reservation"));
+      }
+    }
+
+    return Arrays.asList(records);
+  }
+
+  // Rows the lookups cannot key on are rejected one by one, before any statement runs.
+  private List<RawRecord> updateChunk(List<Reservation> requested) {
+    final RawRecord[] records = new RawRecord[requested.size()];
+    final List<Integer> valid = new ArrayList<>(requested.size());
+
+    for (int i = 0; i < requested.size(); i++) {
+      final String invalid = updateError(requested.get(i));
+      if (invalid != null) {
+        records[i] = message(invalid);
+      } else {
+        valid.add(i);
+      }
+    }
+
+    if (!valid.isEmpty()) {
+      final List<RawRecord> checked = updateCheckedChunk(valid.stream().map(requested::get).toList());
+      for (int j = 0; j < valid.size(); j++) {
+        records[valid.get(j)] = checked.get(j);
+      }
+    }
+
+    return Arrays.asList(records);
+  }
+
+  private static String updateError(Reservation reservation) {
+    if (reservation.idReservation() == null) {
+      return ID_REQUIRED;
+    }
+    if (reservation.version() == null) {
+      return VERSION_REQUIRED;
+    }
+    if (reservation.client() == null || reservation.client().idClient() == null) {
+      return CLIENT_REQUIRED;
+    }
+    return null;
+  }
+
+  private List<RawRecord> updateCheckedChunk(List<Reservation> requested) {
+    final RawRecord[] records = new RawRecord[requested.size()];
+    final List<Integer> accepted = new ArrayList<>();
+    final Map<Integer, Slot> moved = new HashMap<>();
+
+    try {
+      final List<Reservation> updated = transactions.execute(transaction -> {
+        final Connection connection = transaction.connection();
+        final List<Reservation> chunk = priced(withStoredServices(requested, connection));
+        final Map<Integer, Set<Integer>> clientEvents = clientEvents(chunk, connection);
+        final Map<Integer, Slot> previous = getSlots(chunk, connection);
+        // Without a shared index, check the chunk against the rooms and dates it moves into.
+        final AvailabilityIndex index = availability != null
+          ? availability
+          : loadRoomSlots(chunk, connection);
+        accepted.clear();
+        moved.clear();
+        Arrays.fill(records, null);
+
+        for (int i = 0; i < chunk.size(); i++) {
+          final Reservation reservation = chunk.get(i);
+          final Set<Integer> events = clientEvents.getOrDefault(
+            reservation.client().idClient(),
+            Set.of()
+          );
+
+          if (events.stream().anyMatch(eventId -> !eventId.equals(reservation.idReservation()))) {
+            records[i] = message("Reservation already exists");
+            continue;
+          }
+          if (!Slot.isValid(reservation.startHour(), reservation.endHour())) {
+            records[i] = message("Invalid reservation hours");
+            continue;
+          }
+          if (!isPriced(reservation)) {
+            records[i] = message("Invalid reservation price");
+            continue;
+          }
+
+          final Slot from = previous.get(reservation.idReservation());
+          if (from != null) {
+            final Slot to = toSlot(reservation);
+            final boolean free = index == availability
+              ? move(transaction, from, to)
+              : index.move(from, to);
+            if (!free) {
+              records[i] = message("Room is not available");
+              continue;
+            }
+            if (index == availability) {
+              moved.put(i, from);
+            }
+          }
+
+          accepted.add(i);
+        }
+
+        final List<Reservation> reservations = new ArrayList<>(accepted.size());
+        if (accepted.isEmpty()) {
+          return reservations;
+        }
+
+        try(PreparedStatement statementQuery = connection.prepareStatement(UPDATE_QUERY)) {
+          for (int i : accepted) {
+            final Reservation reservation = chunk.get(i);
+            bindReservation(statementQuery, reservation);
+            bindIdentity(statementQuery, reservation);
+            statementQuery.addBatch();
+          }
+
+          LOGGER.log(Level.FINE, "Executing batch of {0} updates", accepted.size());
+
+          final int[] counts = statementQuery.executeBatch();
+
+          // Rows whose version no longer matched were skipped by the batch; the rest still commit.
+          final List<Integer> unresolved = new ArrayList<>();
+          for (int j = 0; j < accepted.size(); j++) {
+            final Reservation reservation = chunk.get(accepted.get(j));
+            if (counts[j] == 0) {
+              unresolved.add(reservation.idReservation());
+            }
+          }
+          final Map<Integer, Integer> versions = unresolved.isEmpty()
+            ? Map.of()
+            : versions(unresolved, connection);
+
+          for (int j = 0; j < accepted.size(); j++) {
+            final Reservation reservation = chunk.get(accepted.get(j));
+            if (counts[j] == 0) {
+              records[accepted.get(j)] = versions.containsKey(reservation.idReservation())
+                ? conflict("Reservation was modified by another operation")
+                : message("Reservation not found");
+            } else {
+              reservations.add(withVersion(reservation, reservation.version() + 1));
+            }
+          }
+          accepted.removeIf(i -> records[i] != null);
+
+          replaceServiceLinks(reservations, connection);
+        }
+
+        return reservations;
+      });
+
+      for (int i = 0; i < accepted.size(); i++) {
+        final RawRecord rawRecord = message("Reservation updated successfully");
+        rawRecord.setAffected(updated.get(i));
+        records[accepted.get(i)] = rawRecord;
+      }
+
+      // Skipped rows keep their old slot.
+      moved.forEach((i, from) -> {
+        if (records[i].getAffected() == null) {
+          availability.move(toSlot(requested.get(i)), from);
+        }
+      });
+    } catch(SQLException e) {
+      LOGGER.log(Level.SEVERE, "Error updating reservations: {0}", e.getMessage());
+      for (int i : accepted) {
+        records[i] = message(TransactionTemplate.message(e, "Error updating reservation"));
+      }
+    }
+
+    return Arrays.asList(records);
+  }
+
+  @Override
+  public RawRecord updatePrices(Map<Integer, Double> prices) {
+    final RawRecord rawRecord = new RawRecord();
+
+    try {
+      final int[] counts = transactions.execute(transaction -> {
+        try(
+          PreparedStatement statementQuery = transaction.connection().prepareStatement(UPDATE_PRICE_QUERY)
+        ) {
+          for (Map.Entry<Integer, Double> price : prices.entrySet()) {
+            statementQuery.setDouble(1, price.getValue());
+            statementQuery.setInt(2, price.getKey());
+            statementQuery.addBatch();
+          }
+
+          LOGGER.log(Level.FINE, "Executing batch of {0} price updates", prices.size());
+
+          return statementQuery.executeBatch();
+        }
+      });
+
+      rawRecord.setServerMessage("Reservation prices updated successfully");
+      rawRecord.setAffected(updatedRows(counts));
+    } catch(SQLException e) {
+      LOGGER.log(Level.SEVERE, "Error updating reservation prices: {0}", e.getMessage());
+      rawRecord.setServerMessage(TransactionTemplate.message(e, "Error updating reservation prices"));
+    }
+
+    return rawRecord;
+  }
+
+  /*
+   * Rows are read as the stream is consumed and the connection is held until
+   * the stream is closed. MySQL only honours a positive fetch size with
+   * useCursorFetch=true; Integer.MIN_VALUE streams row by row without it.
+   * Services are not loaded here: the open result set owns the connection.
+   * DATE_FROM and DATE_TO take a LocalDate, a java.sql.Date or an ISO date
+   * string; they are checked before a connection is borrowed.
+   */
+  @Override
+  public Stream<Reservation> stream(HashMap<String, Object> params, int fetchSize) throws SQLException {
+    final Object filter = params.get("FILTER");
+    final LocalDate from = streamDate(params, "DATE_FROM", LocalDate.of(1, 1, 1));
+    final LocalDate to = streamDate(params, "DATE_TO", LocalDate.of(9999, 12, 31));
+    if (to.isBefore(from)) {
+      throw new IllegalArgumentException("DATE_TO must not be before DATE_FROM");
+    }
+
+    final Connection connection = readPool.getConnection();
+
+    try {
+      final PreparedStatement statement = connection.prepareStatement(
+        STREAM_QUERY,
+        ResultSet.TYPE_FORWARD_ONLY,
+        ResultSet.CONCUR_READ_ONLY
+      );
+      statement.setFetchSize(fetchSize);
+
+      statement.setString(1, filter == null ? "" : String.valueOf(filter));
+      statement.setDate(2, Date.valueOf(from));
+      statement.setDate(3, Date.valueOf(to));
+
+      LOGGER.log(Level.FINE, "Executing query: {0}", statement);
+
+      final ResultSet resultSet = statement.executeQuery();
+      final Spliterator<Reservation> rows = new Spliterators.AbstractSpliterator<>(
+        Long.MAX_VALUE,
+        Spliterator.ORDERED | Spliterator.NONNULL
+      ) {
+        @Override
+        public boolean tryAdvance(Consumer<? super Reservation> action) {
+          try {
+            if (!resultSet.next()) {
+              return false;
+            }
+            action.accept(toReservation(resultSet));
+            return true;
+          } catch(SQLException e) {
+            throw new UncheckedSQLException(e);
+          }
+        }
+      };
+
+      return StreamSupport.stream(rows, false).onClose(() -> {
+        closeQuietly(resultSet::close);
+        closeQuietly(statement::close);
+        closeQuietly(connection::close);
+        LOGGER.log(Level.FINE, "Reservation stream closed");
+      });
+    } catch(SQLException | RuntimeException e) {
+      connection.close();
+      throw e;
+    }
+  }
+
+  private static LocalDate streamDate(HashMap<String, Object> params, String name, LocalDate fallback) {
+    final Object value = params.get(name);
+    if (value == null) {
+      return fallback;
+    }
+    if (value instanceof LocalDate date) {
+      return date;
+    }
+    if (value instanceof Date date) {
+      return date.toLocalDate();
+    }
+    try {
+      return LocalDate.parse(String.valueOf(value).trim());
+    } catch (DateTimeParseException e) {
+      throw new IllegalArgumentException("Invalid " + name + " " + value);
+    }
+  }
+
   @Override
   public Reservation getForId(Integer id) {
     try(
-      Connection connection = pool.getConnection();
+      Connection connection = readPool.getConnection();
       PreparedStatement statementQuery = connection.prepareStatement(GET_FOR_ID)
     ) {
       statementQuery.setInt(1, id);
 
-      LOGGER.log(Level.INFO, "Executing query: {0}", statementQuery);
+      LOGGER.log(Level.FINE, "Executing query: {0}", statementQuery);
 
       try(ResultSet resultSet = statementQuery.executeQuery()) {
         if (resultSet.next()) {
-          final ClientDAO clientDAO = new ClientDAOImplementation(pool);
-          final RoomDAO roomDAO = new RoomDAOImplementation(pool);
-
-          return new Reservation(
-            resultSet.getInt("eventId"),
-            clientDAO.getForId(resultSet.getInt("clientId")),
-            null,
-            roomDAO.getForId(resultSet.getInt("roomId")),
-            resultSet.getDate("date"),
-            resultSet.getInt("startHour"),
-            resultSet.getInt("endHour"),
-            resultSet.getDouble("priceTotal"),
-            resultSet.getString("observations")
-          );
+          final List<Reservation> reservation = new ArrayList<>(List.of(toReservation(resultSet)));
+          loadServices(reservation, connection);
+          return reservation.get(0);
         }
       }
     } catch(SQLException e) {
@@ -343,4 +988,750 @@ public class ReservationDAOImplementation implements ReservationDAO {
 
     return null;
   }
+
+  private static Reservation toReservation(ResultSet resultSet) throws SQLException {
+    return toReservation(resultSet, null, null);
+  }
+
+  private static Reservation toReservation(
+    ResultSet resultSet,
+    Map<Integer, Client> clients,
+    Map<Integer, Room> rooms
+  ) throws SQLException {
+    final int clientId = resultSet.getInt("clientId");
+    final int roomId = resultSet.getInt("roomId");
+    Client client = clients == null ? null : clients.get(clientId);
+    Room room = rooms == null ? null : rooms.get(roomId);
+
+    if (client == null) {
+      client = toClient(resultSet);
+      if (clients != null) {
+        clients.put(clientId, client);
+      }
+    }
+    if (room == null) {
+      room = toRoom(resultSet);
+      if (rooms != null) {
+        rooms.put(roomId, room);
+      }
+    }
+
+    return new Reservation(
+      resultSet.getInt("eventId"),
+      client,
+      null,
+      room,
+      resultSet.getDate("date"),
+      resultSet.getInt("startHour"),
+      resultSet.getInt("endHour"),
+      resultSet.getDouble("priceTotal"),
+      resultSet.getString("observations"),
+      resultSet.getInt("version")
+    );
+  }
+
+  private static ReservationSummary toSummary(ResultSet resultSet) throws SQLException {
+    return new ReservationSummary(
+      resultSet.getInt("eventId"),
+      resultSet.getInt("clientId"),
+      resultSet.getInt("roomId"),
+      (int) resultSet.getDate("date").toLocalDate().toEpochDay(),
+      resultSet.getShort("startHour"),
+      resultSet.getShort("endHour"),
+      resultSet.getDouble("priceTotal"),
+      resultSet.getInt("version")
+    );
+  }
+
+  // An event whose client or room row is gone keeps a null client or room, as before the join.
+  private static Client toClient(ResultSet resultSet) throws SQLException {
+    resultSet.getInt("joinedClientId");
+    if (resultSet.wasNull()) {
+      return null;
+    }
+
+    return new Client(
+      resultSet.getInt("clientId"),
+      resultSet.getString("document"),
+      resultSet.getString("documentType"),
+      resultSet.getString("firstName"),
+      resultSet.getString("surName"),
+      resultSet.getString("phoneNumber"),
+      resultSet.getString("mobileNumber"),
+      resultSet.getString("email"),
+      resultSet.getInt("clientVersion")
+    );
+  }
+
+  private static Room toRoom(ResultSet resultSet) throws SQLException {
+    resultSet.getInt("joinedRoomId");
+    if (resultSet.wasNull()) {
+      return null;
+    }
+
+    return new Room(
+      resultSet.getInt("roomId"),
+      resultSet.getString("roomName"),
+      resultSet.getString("roomDescription"),
+      resultSet.getString("roomAddress"),
+      resultSet.getDouble("roomPricePerHour")
+    );
+  }
+
+  private <T> void fetchPage(
+    ListQuery query,
+    Connection connection,
+    Pagination pagination,
+    List<T> rows,
+    RowReader<T> reader,
+    Function<T, String> sortKey,
+    ToIntFunction<T> idOf
+  ) throws SQLException {
+    final Cursor cursor = Cursor.decode(query.cursor(), query.sort().name());
+    final int mode = query.offset() != null ? OFFSET : cursor != null ? SEEK : FIRST_PAGE;
+    // Counting past a cursor would scan every remaining row, so keyset pages only count the first.
+    final boolean counted = !query.estimateCount() && mode != SEEK;
+    int total = 0;
+
+    try(
+      PreparedStatement statementQuery = connection.prepareStatement(
+        LIST_STATEMENTS[statementIndex(query.sort(), query.summary(), counted, query.clientId() != null, mode)]
+      )
+    ) {
+      int index = 1;
+      if (query.clientId() != null) {
+        statementQuery.setInt(index++, query.clientId());
+      } else {
+        statementQuery.setString(index++, query.filter());
+      }
+      if (mode == SEEK) {
+        if (SORTS.get(query.sort()).byPrice()) {
+          // Hexadecimal keys carry the exact double the page ended on.
+          final double price = Double.parseDouble(cursor.sortKey());
+          statementQuery.setDouble(index++, price);
+          statementQuery.setDouble(index++, price);
+        } else {
+          final Date date = Date.valueOf(cursor.sortKey());
+          statementQuery.setDate(index++, date);
+          statementQuery.setDate(index++, date);
+        }
+        statementQuery.setInt(index++, cursor.lastId());
+      }
+      statementQuery.setInt(index++, query.pageSize() != null ? query.pageSize() : Integer.MAX_VALUE);
+      if (mode == OFFSET) {
+        statementQuery.setInt(index, query.offset());
+      }
+
+      LOGGER.log(Level.FINE, "Executing query: {0}", statementQuery);
+
+      try(ResultSet resultSetQuery = statementQuery.executeQuery()) {
+        while(resultSetQuery.next()) {
+          if (counted && rows.isEmpty()) {
+            total = resultSetQuery.getInt("TOTAL_COUNT");
+          }
+          rows.add(reader.read(resultSetQuery));
+        }
+      }
+    }
+
+    if (query.estimateCount()) {
+      pagination.setFilterCounter(estimateCount(connection));
+      pagination.setCountEstimated(true);
+    } else if (mode == SEEK) {
+      pagination.setFilterCounter(cursor.total());
+      pagination.setCountEstimated(true);
+    } else if (rows.isEmpty() && mode == OFFSET && query.offset() > 0) {
+      // A page past the end has no row to carry the window count.
+      pagination.setFilterCounter(count(query, connection));
+    } else {
+      pagination.setFilterCounter(total);
+    }
+
+    if (mode != OFFSET && query.pageSize() != null && rows.size() == query.pageSize()) {
+      final T last = rows.get(rows.size() - 1);
+      pagination.setNextPageToken(
+        new Cursor(
+          query.sort().name(),
+          sortKey.apply(last),
+          idOf.applyAsInt(last),
+          pagination.getFilterCounter()
+        ).encode()
+      );
+    }
+  }
+
+  private static int statementIndex(
+    ListQuery.Sort sort,
+    boolean summary,
+    boolean counted,
+    boolean byClient,
+    int mode
+  ) {
+    return (((sort.ordinal() * 2 + (summary ? 1 : 0)) * 2 + (counted ? 1 : 0)) * 2 + (byClient ? 1 : 0)) * 3 + mode;
+  }
+
+  private static String[] listStatements() {
+    final ListQuery.Sort[] sorts = ListQuery.Sort.values();
+    final String[] statements = new String[sorts.length * 24];
+
+    for (ListQuery.Sort sort : sorts) {
+      final SortShape shape = SORTS.get(sort);
+      for (boolean summary : new boolean[] { false, true }) {
+        for (boolean counted : new boolean[] { false, true }) {
+          for (boolean byClient : new boolean[] { false, true }) {
+            final String columns = summary
+              ? (counted ? GET_SUMMARY_COUNTED_QUERY : GET_SUMMARY_QUERY)
+              : (counted ? GET_LIST_COUNTED_QUERY : GET_LIST_QUERY);
+            final String select = columns + (byClient ? CLIENT_WHERE : FILTER_WHERE);
+            final String order = "  ORDER BY " + shape.orderBy() + "\n";
+
+            statements[statementIndex(sort, summary, counted, byClient, FIRST_PAGE)] = select + order + LIMIT;
+            statements[statementIndex(sort, summary, counted, byClient, SEEK)] =
+              select + "    AND " + shape.seek() + "\n" + order + LIMIT;
+            statements[statementIndex(sort, summary, counted, byClient, OFFSET)] = select + order + LIMIT_OFFSET;
+          }
+        }
+      }
+    }
+
+    return statements;
+  }
+
+  // Read-after-write stays on the primary, which already has the write.
+  private Pagination primaryList(HashMap<String, Object> params) {
+    try(Connection connection = pool.getConnection()) {
+      return getList(params, connection);
+    } catch(SQLException e) {
+      LOGGER.log(Level.SEVERE, "Error getting list: {0}", e.getMessage());
+      return null;
+    }
+  }
+
+  private void attachList(RawRecord rawRecord, HashMap<String, Object> params) {
+    if (params == null) {
+      return;
+    }
+
+    if (Boolean.TRUE.equals(params.get("RELOAD_LIST"))) {
+      rawRecord.setPagination(primaryList(params));
+    } else {
+      rawRecord.setPaginationLoader(() -> primaryList(params));
+    }
+  }
+
+  private static int count(ListQuery query, Connection connection) throws SQLException {
+    try(
+      PreparedStatement statementCount = connection.prepareStatement(
+        query.clientId() != null ? GET_CLIENT_COUNT : GET_LIST_COUNT
+      )
+    ) {
+      if (query.clientId() != null) {
+        statementCount.setInt(1, query.clientId());
+      } else {
+        statementCount.setString(1, query.filter());
+      }
+
+      LOGGER.log(Level.FINE, "Executing query: {0}", statementCount);
+
+      try(ResultSet resultSet = statementCount.executeQuery()) {
+        return resultSet.next() ? resultSet.getInt("COUNT") : 0;
+      }
+    }
+  }
+
+  private static int estimateCount(Connection connection) throws SQLException {
+    try(
+      PreparedStatement statement = connection.prepareStatement(ESTIMATE_COUNT);
+      ResultSet resultSet = statement.executeQuery()
+    ) {
+      return resultSet.next() ? resultSet.getInt("COUNT") : 0;
+    }
+  }
+
+  private static Set<Integer> existingIds(
+    List<Reservation> reservations,
+    Connection connection
+  ) throws SQLException {
+    final List<Integer> ids = reservations.stream()
+      .map(Reservation::idReservation)
+      .filter(Objects::nonNull)
+      .toList();
+    final Set<Integer> existing = new HashSet<>();
+
+    if (ids.isEmpty()) {
+      return existing;
+    }
+
+    try(
+      PreparedStatement statement = connection.prepareStatement(
+        GET_EXISTING_IDS_QUERY.formatted(SQLUtils.placeholders(ids.size()))
+      )
+    ) {
+      for (int i = 0; i < ids.size(); i++) {
+        statement.setInt(i + 1, ids.get(i));
+      }
+
+      try(ResultSet resultSet = statement.executeQuery()) {
+        while (resultSet.next()) {
+          existing.add(resultSet.getInt("eventId"));
+        }
+      }
+    }
+
+    return existing;
+  }
+
+  private static Map<Integer, Set<Integer>> clientEvents(
+    List<Reservation> reservations,
+    Connection connection
+  ) throws SQLException {
+    final List<Integer> clientIds = reservations.stream()
+      .map(reservation -> reservation.client().idClient())
+      .distinct()
+      .toList();
+    final Map<Integer, Set<Integer>> events = new HashMap<>();
+
+    try(
+      PreparedStatement statement = connection.prepareStatement(
+        GET_CLIENT_EVENTS_QUERY.formatted(SQLUtils.placeholders(clientIds.size()))
+      )
+    ) {
+      for (int i = 0; i < clientIds.size(); i++) {
+        statement.setInt(i + 1, clientIds.get(i));
+      }
+
+      try(ResultSet resultSet = statement.executeQuery()) {
+        while (resultSet.next()) {
+          events.computeIfAbsent(resultSet.getInt("clientId"), key -> new HashSet<>())
+            .add(resultSet.getInt("eventId"));
+        }
+      }
+    }
+
+    return events;
+  }
+
+  // Each resource of a stream is closed on its own, so one failure cannot leak the others.
+  private static void closeQuietly(SQLClose resource) {
+    try {
+      resource.close();
+    } catch(SQLException e) {
+      LOGGER.log(Level.SEVERE, "Error closing reservation stream: {0}", e.getMessage());
+    }
+  }
+
+  /*
+   * Rows the batch changed. Drivers that cannot tell per statement report
+   * SUCCESS_NO_INFO, counted as one row since each update targets one id.
+   */
+  private static int updatedRows(int[] counts) {
+    int rows = 0;
+    for (int count : counts) {
+      if (count > 0) {
+        rows += count;
+      } else if (count == Statement.SUCCESS_NO_INFO) {
+        rows++;
+      }
+    }
+    return rows;
+  }
+
+  private static Map<Integer, Slot> getSlots(
+    List<Reservation> reservations,
+    Connection connection
+  ) throws SQLException {
+    final List<Integer> ids = reservations.stream()
+      .map(Reservation::idReservation)
+      .toList();
+    final Map<Integer, Slot> slots = new HashMap<>();
+
+    try(
+      PreparedStatement statement = connection.prepareStatement(
+        GET_SLOTS_QUERY.formatted(SQLUtils.placeholders(ids.size()))
+      )
+    ) {
+      for (int i = 0; i < ids.size(); i++) {
+        statement.setInt(i + 1, ids.get(i));
+      }
+
+      try(ResultSet resultSet = statement.executeQuery()) {
+        while (resultSet.next()) {
+          slots.put(resultSet.getInt("eventId"), toSlot(resultSet));
+        }
+      }
+    }
+
+    return slots;
+  }
+
+  /*
+   * Fills the services of a whole page with one query per chunk of event ids
+   * instead of one per row. Reservations are records, so the list is updated
+   * in place with copies.
+   */
+  private static void loadServices(
+    List<Reservation> reservations,
+    Connection connection
+  ) throws SQLException {
+    final Map<Integer, ArrayList<Service>> services = new HashMap<>();
+    final int chunkSize = SQLUtils.chunkSize(null);
+
+    for (int from = 0; from < reservations.size(); from += chunkSize) {
+      final List<Reservation> chunk = reservations.subList(
+        from,
+        Math.min(reservations.size(), from + chunkSize)
+      );
+
+      final int padded = SQLUtils.paddedSize(chunk.size());
+
+      try(
+        PreparedStatement statement = connection.prepareStatement(
+          GET_SERVICES_QUERY.formatted(SQLUtils.placeholders(padded))
+        )
+      ) {
+        for (int i = 0; i < padded; i++) {
+          statement.setInt(i + 1, chunk.get(Math.min(i, chunk.size() - 1)).idReservation());
+        }
+
+        LOGGER.log(Level.FINE, "Executing query: {0}", statement);
+
+        try(ResultSet resultSet = statement.executeQuery()) {
+          while (resultSet.next()) {
+            services.computeIfAbsent(resultSet.getInt("eventId"), key -> new ArrayList<>())
+              .add(new Service(
+                resultSet.getInt("serviceId"),
+                resultSet.getString("name"),
+                resultSet.getDouble("price")
+              ));
+          }
+        }
+      }
+    }
+
+    reservations.replaceAll(reservation -> withServices(
+      reservation,
+      services.getOrDefault(reservation.idReservation(), new ArrayList<>())
+    ));
+  }
+
+  /*
+   * A total left out by the caller is filled from the pricing engine; one
+   * that was given has to match the quote (see isPriced).
+   */
+  private List<Reservation> priced(List<Reservation> reservations) {
+    if (pricing == null) {
+      return reservations;
+    }
+
+    return reservations.stream()
+      .map(reservation -> reservation.priceTotal() == null ? pricing.priced(reservation) : reservation)
+      .toList();
+  }
+
+  private boolean isPriced(Reservation reservation) {
+    return pricing == null || pricing.matches(reservation);
+  }
+
+  // An update without services keeps its links, so the quote has to include them.
+  private List<Reservation> withStoredServices(
+    List<Reservation> reservations,
+    Connection connection
+  ) throws SQLException {
+    if (pricing == null) {
+      return reservations;
+    }
+
+    final List<Reservation> complete = new ArrayList<>(reservations);
+    final List<Integer> missing = new ArrayList<>();
+    for (int i = 0; i < complete.size(); i++) {
+      if (complete.get(i).services() == null && complete.get(i).idReservation() != null) {
+        missing.add(i);
+      }
+    }
+
+    if (!missing.isEmpty()) {
+      final List<Reservation> stored = new ArrayList<>(missing.stream().map(complete::get).toList());
+      loadServices(stored, connection);
+      for (int i = 0; i < missing.size(); i++) {
+        complete.set(missing.get(i), stored.get(i));
+      }
+    }
+
+    return complete;
+  }
+
+  private static void addServiceLinks(
+    Map<Integer, List<Service>> links,
+    Connection connection
+  ) throws SQLException {
+    if (links.values().stream().allMatch(List::isEmpty)) {
+      return;
+    }
+
+    try(PreparedStatement statement = connection.prepareStatement(ADD_SERVICE_QUERY)) {
+      for (Map.Entry<Integer, List<Service>> link : links.entrySet()) {
+        for (Service service : link.getValue()) {
+          statement.setInt(1, link.getKey());
+          statement.setInt(2, service.idService());
+          statement.addBatch();
+        }
+      }
+
+      LOGGER.log(Level.FINE, "Executing batch of service links for {0} reservations", links.size());
+
+      statement.executeBatch();
+    }
+  }
+
+  private static void deleteServiceLinks(
+    List<Integer> eventIds,
+    Connection connection
+  ) throws SQLException {
+    if (eventIds.isEmpty()) {
+      return;
+    }
+
+    try(
+      PreparedStatement statement = connection.prepareStatement(
+        DELETE_SERVICES_QUERY.formatted(SQLUtils.placeholders(eventIds.size()))
+      )
+    ) {
+      for (int i = 0; i < eventIds.size(); i++) {
+        statement.setInt(i + 1, eventIds.get(i));
+      }
+
+      LOGGER.log(Level.FINE, "Executing query: {0}", statement);
+
+      statement.executeUpdate();
+    }
+  }
+
+  /*
+   * A null services list on update leaves the stored links untouched; an
+   * empty one clears them.
+   */
+  private static void replaceServiceLinks(
+    List<Reservation> reservations,
+    Connection connection
+  ) throws SQLException {
+    final Map<Integer, List<Service>> links = new HashMap<>();
+    for (Reservation reservation : reservations) {
+      if (reservation.services() != null) {
+        links.put(reservation.idReservation(), servicesOf(reservation));
+      }
+    }
+
+    deleteServiceLinks(List.copyOf(links.keySet()), connection);
+    addServiceLinks(links, connection);
+  }
+
+  private static List<Service> servicesOf(Reservation reservation) {
+    if (reservation.services() == null) {
+      return List.of();
+    }
+
+    // The link table is keyed on (eventId, serviceId), so repeated services collapse.
+    final Set<Integer> seen = new HashSet<>();
+    return reservation.services().stream()
+      .filter(service -> service != null && service.idService() != null)
+      .filter(service -> seen.add(service.idService()))
+      .toList();
+  }
+
+  private static AvailabilityIndex loadRoomSlots(
+    List<Reservation> reservations,
+    Connection connection
+  ) throws SQLException {
+    final AvailabilityIndex slots = new AvailabilityIndex();
+    final List<Integer> roomIds = reservations.stream()
+      .map(reservation -> reservation.room().idRoom())
+      .distinct()
+      .toList();
+    final long from = reservations.stream().mapToLong(reservation -> reservation.date().getTime()).min().orElse(0);
+    final long to = reservations.stream().mapToLong(reservation -> reservation.date().getTime()).max().orElse(0);
+
+    try(
+      PreparedStatement statement = connection.prepareStatement(
+        GET_ROOM_SLOTS_QUERY.formatted(SQLUtils.placeholders(roomIds.size()))
+      )
+    ) {
+      int index = 1;
+      for (Integer roomId : roomIds) {
+        statement.setInt(index++, roomId);
+      }
+      statement.setDate(index++, new Date(from));
+      statement.setDate(index, new Date(to));
+
+      try(ResultSet resultSet = statement.executeQuery()) {
+        while (resultSet.next()) {
+          slots.occupy(toSlot(resultSet));
+        }
+      }
+    }
+
+    return slots;
+  }
+
+  private static void bindReservation(
+    PreparedStatement statement,
+    Reservation reservation
+  ) throws SQLException {
+    statement.setInt(1, reservation.client().idClient());
+    statement.setInt(2, reservation.room().idRoom());
+    statement.setDate(3, new Date(reservation.date().getTime()));
+    statement.setInt(4, reservation.startHour());
+    statement.setInt(5, reservation.endHour());
+    statement.setDouble(6, reservation.priceTotal());
+    statement.setString(7, reservation.observations());
+  }
+
+  // The row must still carry the version the caller read.
+  private static void bindIdentity(
+    PreparedStatement statement,
+    Reservation reservation
+  ) throws SQLException {
+    statement.setInt(8, reservation.idReservation());
+    statement.setInt(9, reservation.version());
+  }
+
+  private static Map<Integer, Integer> versions(
+    List<Integer> ids,
+    Connection connection
+  ) throws SQLException {
+    final Map<Integer, Integer> versions = new HashMap<>();
+
+    try(
+      PreparedStatement statement = connection.prepareStatement(
+        GET_VERSIONS_QUERY.formatted(SQLUtils.placeholders(ids.size()))
+      )
+    ) {
+      for (int i = 0; i < ids.size(); i++) {
+        statement.setInt(i + 1, ids.get(i));
+      }
+
+      try(ResultSet resultSet = statement.executeQuery()) {
+        while (resultSet.next()) {
+          versions.put(resultSet.getInt("eventId"), resultSet.getInt("version"));
+        }
+      }
+    }
+
+    return versions;
+  }
+
+  private static Reservation withId(Reservation reservation, Integer id) {
+    return new Reservation(
+      id,
+      reservation.client(),
+      reservation.services(),
+      reservation.room(),
+      reservation.date(),
+      reservation.startHour(),
+      reservation.endHour(),
+      reservation.priceTotal(),
+      reservation.observations(),
+      0
+    );
+  }
+
+  private static Reservation withVersion(Reservation reservation, Integer version) {
+    return new Reservation(
+      reservation.idReservation(),
+      reservation.client(),
+      reservation.services(),
+      reservation.room(),
+      reservation.date(),
+      reservation.startHour(),
+      reservation.endHour(),
+      reservation.priceTotal(),
+      reservation.observations(),
+      version
+    );
+  }
+
+  private static Reservation withServices(Reservation reservation, ArrayList<Service> services) {
+    return new Reservation(
+      reservation.idReservation(),
+      reservation.client(),
+      services,
+      reservation.room(),
+      reservation.date(),
+      reservation.startHour(),
+      reservation.endHour(),
+      reservation.priceTotal(),
+      reservation.observations(),
+      reservation.version()
+    );
+  }
+
+  private static RawRecord message(String serverMessage) {
+    final RawRecord rawRecord = new RawRecord();
+    rawRecord.setServerMessage(serverMessage);
+    return rawRecord;
+  }
+
+  private static RawRecord conflict(String serverMessage) {
+    final RawRecord rawRecord = message(serverMessage);
+    rawRecord.setConflict(true);
+    return rawRecord;
+  }
+
+  /*
+   * Takes a slot in the shared index and registers its undo in the same step,
+   * so nothing the caller runs afterwards can fail with the slot unaccounted for.
+   */
+  private boolean reserve(TransactionTemplate.Transaction transaction, Slot slot) {
+    if (!availability.reserve(slot)) {
+      return false;
+    }
+    transaction.onRollback(() -> availability.release(slot));
+    return true;
+  }
+
+  private boolean move(TransactionTemplate.Transaction transaction, Slot from, Slot to) {
+    if (!availability.move(from, to)) {
+      return false;
+    }
+    transaction.onRollback(() -> availability.move(to, from));
+    return true;
+  }
+
+  private static Slot toSlot(ResultSet resultSet) throws SQLException {
+    return new Slot(
+      resultSet.getInt("roomId"),
+      resultSet.getDate("date").toLocalDate(),
+      resultSet.getInt("startHour"),
+      resultSet.getInt("endHour")
+    );
+  }
+
+  private static Slot getSlot(Integer id, Connection connection) throws SQLException {
+    try(PreparedStatement statement = connection.prepareStatement(GET_SLOT_QUERY)) {
+      statement.setInt(1, id);
+
+      try(ResultSet resultSet = statement.executeQuery()) {
+        if (resultSet.next()) {
+          return toSlot(resultSet);
+        }
+      }
+    }
+
+    return null;
+  }
+
+  private static Slot toSlot(Reservation reservation) {
+    return Slot.of(
+      reservation.room().idRoom(),
+      reservation.date(),
+      reservation.startHour(),
+      reservation.endHour()
+    );
+  }
+
+  private record SortShape(String orderBy, String seek, boolean byPrice) {
+  }
+
+  private interface RowReader<T> {
+    T read(ResultSet resultSet) throws SQLException;
+  }
 }
@@ -0,0 +1,321 @@
+package com.unir.reservations.dao.implementations;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+import javax.sql.DataSource;
+
+import com.unir.reservations.availability.AvailabilityIndex;
+import com.unir.reservations.dao.ListQuery;
+import com.unir.reservations.dao.RoomDAO;
+import com.unir.reservations.dao.TransactionTemplate;
+import com.unir.reservations.models.Room;
+import com.unir.reservations.utils.Catalog;
+import com.unir.reservations.utils.Pagination;
+import com.unir.reservations.utils.RawRecord;
+
+public class RoomDAOImplementation implements RoomDAO {
+  private static final Logger LOGGER = Logger.getLogger(RoomDAOImplementation.class.getName());
+  private final DataSource pool;
+  private final TransactionTemplate transactions;
+  private final AvailabilityIndex availability;
+  private final Catalog<Room> catalog = new Catalog<>(Room::idRoom);
+
+  private static final String LOAD_QUERY = """
+    SELECT
+      roomId,
+      name,
+      description,
+      address,
+      pricePerHour
+    FROM evp_room
+  """;
+  private static final String ADD_QUERY = """
+    INSERT INTO evp_room (
+      name,
+      description,
+      address,
+      pricePerHour
+    ) VALUES (?, ?, ?, ?)
+  """;
+  private static final String UPDATE_QUERY = """
+    UPDATE evp_room
+    SET
+      name = ?,
+      description = ?,
+      address = ?,
+      pricePerHour = ?
+    WHERE roomId = ?
+  """;
+  private static final String DELETE_QUERY = """
+    DELETE FROM evp_room
+    WHERE roomId = ?
+  """;
+
+  public RoomDAOImplementation(DataSource pool) {
+    this(pool, null);
+  }
+
+  public RoomDAOImplementation(DataSource pool, AvailabilityIndex availability) {
+    this(new TransactionTemplate(pool), availability);
+  }
+
+  public RoomDAOImplementation(TransactionTemplate transactions, AvailabilityIndex availability) {
+    this.pool = transactions.getDataSource();
+    this.transactions = transactions;
+    this.availability = availability;
+  }
+
+  public void reload() throws SQLException {
+    catalog.reloader().lock();
+    try {
+      try(
+        Connection connection = pool.getConnection();
+        PreparedStatement statement = connection.prepareStatement(LOAD_QUERY);
+        ResultSet resultSet = statement.executeQuery()
+      ) {
+        final List<Room> rooms = new ArrayList<>();
+        while (resultSet.next()) {
+          rooms.add(new Room(
+            resultSet.getInt("roomId"),
+            resultSet.getString("name"),
+            resultSet.getString("description"),
+            resultSet.getString("address"),
+            resultSet.getDouble("pricePerHour")
+          ));
+        }
+
+        catalog.replaceAll(rooms);
+        LOGGER.log(Level.INFO, "Room catalog loaded with {0} rooms", rooms.size());
+      }
+    } finally {
+      catalog.reloader().unlock();
+    }
+  }
+
+  @Override
+  public Pagination getList(ListQuery query, Connection connection) {
+    if (!ensureLoaded()) {
+      return null;
+    }
+
+    final String needle = query.filter().toLowerCase(Locale.ROOT);
+
+    return catalog.page(
+      room -> room.name() != null && room.name().toLowerCase(Locale.ROOT).contains(needle),
+      query.cursor(),
+      query.pageSize()
+    );
+  }
+
+  @Override
+  public RawRecord getList(ListQuery query) {
+    final RawRecord rawRecord = new RawRecord();
+    rawRecord.setPagination(getList(query, null));
+    if (rawRecord.getPagination() == null) {
+      rawRecord.setServerMessage("Error getting list");
+    }
+    return rawRecord;
+  }
+
+  @Override
+  public RawRecord add(Room room, HashMap<String, Object> params) {
+    final RawRecord rawRecord = new RawRecord();
+
+    catalog.writers().lock();
+    try {
+      final Catalog.Stamped<Integer> addedRoom = transactions.execute(transaction -> {
+        try(
+          PreparedStatement statementQuery = transaction.connection().prepareStatement(
+            ADD_QUERY,
+            Statement.RETURN_GENERATED_KEYS
+          )
+        ) {
+          bindRoom(statementQuery, room);
+
+          LOGGER.log(Level.FINE, "Executing query: {0}", statementQuery);
+
+          statementQuery.executeUpdate();
+
+          try(ResultSet keys = statementQuery.getGeneratedKeys()) {
+            return catalog.stamped(keys.next() ? keys.getInt(1) : null);
+          }
+        }
+      });
+
+      final Integer roomId = addedRoom.value();
+      final Room added = new Room(
+        roomId,
+        room.name(),
+        room.description(),
+        room.address(),
+        room.pricePerHour()
+      );
+      if (roomId != null && catalog.isLoaded()) {
+        catalog.put(added, addedRoom.stamp());
+      }
+      if (roomId != null && availability != null) {
+        availability.addRoom(roomId);
+      }
+
+      rawRecord.setServerMessage("Room added successfully");
+      rawRecord.setAffected(added);
+    } catch (SQLException e) {
+      LOGGER.log(Level.SEVERE, "Error adding room: {0}", e.getMessage());
+      rawRecord.setServerMessage(TransactionTemplate.message(e, "Error adding room"));
+    } finally {
+      catalog.writers().unlock();
+    }
+
+    if (rawRecord.getAffected() != null) {
+      attachList(rawRecord, params);
+    }
+    return rawRecord;
+  }
+
+  @Override
+  public RawRecord update(Room room, HashMap<String, Object> params) {
+    final RawRecord rawRecord = new RawRecord();
+
+    catalog.writers().lock();
+    try {
+      final Catalog.Stamped<Integer> updated = transactions.execute(transaction -> {
+        try(
+          PreparedStatement statementQuery = transaction.connection().prepareStatement(UPDATE_QUERY)
+        ) {
+          bindRoom(statementQuery, room);
+          statementQuery.setInt(5, room.idRoom());
+
+          LOGGER.log(Level.FINE, "Executing query: {0}", statementQuery);
+
+          return catalog.stamped(statementQuery.executeUpdate());
+        }
+      });
+
+      if (updated.value() == 0) {
+        rawRecord.setServerMessage("Room not found");
+        return rawRecord;
+      }
+
+      if (catalog.isLoaded()) {
+        catalog.put(room, updated.stamp());
+      }
+
+      rawRecord.setServerMessage("Room updated successfully");
+      rawRecord.setAffected(room);
+    } catch (SQLException e) {
+      LOGGER.log(Level.SEVERE, "Error updating room: {0}", e.getMessage());
+      rawRecord.setServerMessage(TransactionTemplate.message(e, "Error updating room"));
+    } finally {
+      catalog.writers().unlock();
+    }
+
+    if (rawRecord.getAffected() != null) {
+      attachList(rawRecord, params);
+    }
+    return rawRecord;
+  }
+
+  @Override
+  public RawRecord delete(Integer id, HashMap<String, Object> params) {
+    final RawRecord rawRecord = new RawRecord();
+
+    catalog.writers().lock();
+    try {
+      final Catalog.Stamped<Integer> deleted = transactions.execute(transaction -> {
+        try(
+          PreparedStatement statementQuery = transaction.connection().prepareStatement(DELETE_QUERY)
+        ) {
+          statementQuery.setInt(1, id);
+
+          LOGGER.log(Level.FINE, "Executing query: {0}", statementQuery);
+
+          return catalog.stamped(statementQuery.executeUpdate());
+        }
+      });
+
+      if (catalog.isLoaded()) {
+        catalog.remove(id, deleted.stamp());
+      }
+      if (availability != null) {
+        availability.removeRoom(id);
+      }
+
+      rawRecord.setServerMessage("Room deleted successfully");
+      rawRecord.setAffected(id);
+    } catch (SQLException e) {
+      LOGGER.log(Level.SEVERE, "Error deleting room: {0}", e.getMessage());
+      rawRecord.setServerMessage(TransactionTemplate.message(e, "Error deleting room"));
+    } finally {
+      catalog.writers().unlock();
+    }
+
+    if (rawRecord.getAffected() != null) {
+      attachList(rawRecord, params);
+    }
+    return rawRecord;
+  }
+
+  @Override
+  public Room getForId(Integer id) {
+    return id != null && ensureLoaded() ? catalog.get(id) : null;
+  }
+
+  /*
+   * The returned list is the current snapshot and stays the same instance
+   * until the next write, so callers can cache work derived from it.
+   */
+  public List<Room> all() {
+    return ensureLoaded() ? catalog.all() : List.of();
+  }
+
+  private boolean ensureLoaded() {
+    if (catalog.isLoaded()) {
+      return true;
+    }
+
+    catalog.reloader().lock();
+    try {
+      if (!catalog.isLoaded()) {
+        try {
+          reload();
+        } catch (SQLException e) {
+          LOGGER.log(Level.SEVERE, "Error loading room catalog: {0}", e.getMessage());
+          return false;
+        }
+      }
+    } finally {
+      catalog.reloader().unlock();
+    }
+
+    return true;
+  }
+
+  private void attachList(RawRecord rawRecord, HashMap<String, Object> params) {
+    if (params == null) {
+      return;
+    }
+
+    if (Boolean.TRUE.equals(params.get("RELOAD_LIST"))) {
+      rawRecord.setPagination(getList(params, null));
+    } else {
+      rawRecord.setPaginationLoader(() -> getList(params, null));
+    }
+  }
+
+  private static void bindRoom(PreparedStatement statement, Room room) throws SQLException {
+    statement.setString(1, room.name());
+    statement.setString(2, room.description());
+    statement.setString(3, room.address());
+    statement.setDouble(4, room.pricePerHour());
+  }
+}
@@ -0,0 +1,292 @@
+package com.unir.reservations.dao.implementations;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+import javax.sql.DataSource;
+
+import com.unir.reservations.dao.ListQuery;
+import com.unir.reservations.dao.ServiceDAO;
+import com.unir.reservations.dao.TransactionTemplate;
+import com.unir.reservations.models.Service;
+import com.unir.reservations.utils.Catalog;
+import com.unir.reservations.utils.Pagination;
+import com.unir.reservations.utils.RawRecord;
+
+public class ServiceDAOImplementation implements ServiceDAO {
+  private static final Logger LOGGER = Logger.getLogger(ServiceDAOImplementation.class.getName());
+  private final DataSource pool;
+  private final TransactionTemplate transactions;
+  private final Catalog<Service> catalog = new Catalog<>(Service::idService);
+
+  private static final String LOAD_QUERY = """
+    SELECT
+      serviceId,
+      name,
+      price
+    FROM evp_service
+  """;
+  private static final String ADD_QUERY = """
+    INSERT INTO evp_service (
+      name,
+      price
+    ) VALUES (?, ?)
+  """;
+  private static final String UPDATE_QUERY = """
+    UPDATE evp_service
+    SET
+      name = ?,
+      price = ?
+    WHERE serviceId = ?
+  """;
+  private static final String DELETE_QUERY = """
+    DELETE FROM evp_service
+    WHERE serviceId = ?
+  """;
+
+  public ServiceDAOImplementation(DataSource pool) {
+    this(new TransactionTemplate(pool));
+  }
+
+  public ServiceDAOImplementation(TransactionTemplate transactions) {
+    this.pool = transactions.getDataSource();
+    this.transactions = transactions;
+  }
+
+  public void reload() throws SQLException {
+    catalog.reloader().lock();
+    try {
+      try(
+        Connection connection = pool.getConnection();
+        PreparedStatement statement = connection.prepareStatement(LOAD_QUERY);
+        ResultSet resultSet = statement.executeQuery()
+      ) {
+        final List<Service> services = new ArrayList<>();
+        while (resultSet.next()) {
+          services.add(new Service(
+            resultSet.getInt("serviceId"),
+            resultSet.getString("name"),
+            resultSet.getDouble("price")
+          ));
+        }
+
+        catalog.replaceAll(services);
+        LOGGER.log(Level.INFO, "Service catalog loaded with {0} services", services.size());
+      }
+    } finally {
+      catalog.reloader().unlock();
+    }
+  }
+
+  @Override
+  public Pagination getList(ListQuery query, Connection connection) {
+    if (!ensureLoaded()) {
+      return null;
+    }
+
+    final String needle = query.filter().toLowerCase(Locale.ROOT);
+
+    return catalog.page(
+      service -> service.name() != null && service.name().toLowerCase(Locale.ROOT).contains(needle),
+      query.cursor(),
+      query.pageSize()
+    );
+  }
+
+  @Override
+  public RawRecord getList(ListQuery query) {
+    final RawRecord rawRecord = new RawRecord();
+    rawRecord.setPagination(getList(query, null));
+    if (rawRecord.getPagination() == null) {
+      rawRecord.setServerMessage("Error getting list");
+    }
+    return rawRecord;
+  }
+
+  @Override
+  public RawRecord add(Service service, HashMap<String, Object> params) {
+    final RawRecord rawRecord = new RawRecord();
+
+    catalog.writers().lock();
+    try {
+      final Catalog.Stamped<Integer> addedService = transactions.execute(transaction -> {
+        try(
+          PreparedStatement statementQuery = transaction.connection().prepareStatement(
+            ADD_QUERY,
+            Statement.RETURN_GENERATED_KEYS
+          )
+        ) {
+          bindService(statementQuery, service);
+
+          LOGGER.log(Level.FINE, "Executing query: {0}", statementQuery);
+
+          statementQuery.executeUpdate();
+
+          try(ResultSet keys = statementQuery.getGeneratedKeys()) {
+            return catalog.stamped(keys.next() ? keys.getInt(1) : null);
+          }
+        }
+      });
+
+      final Integer serviceId = addedService.value();
+      final Service added = new Service(serviceId, service.name(), service.price());
+      if (serviceId != null && catalog.isLoaded()) {
+        catalog.put(added, addedService.stamp());
+      }
+
+      rawRecord.setServerMessage("Service added successfully");
+      rawRecord.setAffected(added);
+    } catch (SQLException e) {
+      LOGGER.log(Level.SEVERE, "Error adding service: {0}", e.getMessage());
+      rawRecord.setServerMessage(TransactionTemplate.message(e, "Error adding service"));
+    } finally {
+      catalog.writers().unlock();
+    }
+
+    if (rawRecord.getAffected() != null) {
+      attachList(rawRecord, params);
+    }
+    return rawRecord;
+  }
+
+  @Override
+  public RawRecord update(Service service, HashMap<String, Object> params) {
+    final RawRecord rawRecord = new RawRecord();
+
+    catalog.writers().lock();
+    try {
+      final Catalog.Stamped<Integer> updated = transactions.execute(transaction -> {
+        try(
+          PreparedStatement statementQuery = transaction.connection().prepareStatement(UPDATE_QUERY)
+        ) {
+          bindService(statementQuery, service);
+          statementQuery.setInt(3, service.idService());
+
+          LOGGER.log(Level.FINE, "Executing query: {0}", statementQuery);
+
+          return catalog.stamped(statementQuery.executeUpdate());
+        }
+      });
+
+      if (updated.value() == 0) {
+        rawRecord.setServerMessage("Service not found");
+        return rawRecord;
+      }
+
+      if (catalog.isLoaded()) {
+        catalog.put(service, updated.stamp());
+      }
+
+      rawRecord.setServerMessage("Service updated successfully");
+      rawRecord.setAffected(service);
+    } catch (SQLException e) {
+      LOGGER.log(Level.SEVERE, "Error updating service: {0}", e.getMessage());
+      rawRecord.setServerMessage(TransactionTemplate.message(e, "Error updating service"));
+    } finally {
+      catalog.writers().unlock();
+    }
+
+    if (rawRecord.getAffected() != null) {
+      attachList(rawRecord, params);
+    }
+    return rawRecord;
+  }
+
+  @Override
+  public RawRecord delete(Integer id, HashMap<String, Object> params) {
+    final RawRecord rawRecord = new RawRecord();
+
+    catalog.writers().lock();
+    try {
+      final Catalog.Stamped<Integer> deleted = transactions.execute(transaction -> {
+        try(
+          PreparedStatement statementQuery = transaction.connection().prepareStatement(DELETE_QUERY)
+        ) {
+          statementQuery.setInt(1, id);
+
+          LOGGER.log(Level.FINE, "Executing query: {0}", statementQuery);
+
+          return catalog.stamped(statementQuery.executeUpdate());
+        }
+      });
+
+      if (catalog.isLoaded()) {
+        catalog.remove(id, deleted.stamp());
+      }
+
+      rawRecord.setServerMessage("Service deleted successfully");
+      rawRecord.setAffected(id);
+    } catch (SQLException e) {
+      LOGGER.log(Level.SEVERE, "Error deleting service: {0}", e.getMessage());
+      rawRecord.setServerMessage(TransactionTemplate.message(e, "Error deleting service"));
+    } finally {
+      catalog.writers().unlock();
+    }
+
+    if (rawRecord.getAffected() != null) {
+      attachList(rawRecord, params);
+    }
+    return rawRecord;
+  }
+
+  @Override
+  public Service getForId(Integer id) {
+    return id != null && ensureLoaded() ? catalog.get(id) : null;
+  }
+
+  /*
+   * The returned list is the current snapshot and stays the same instance
+   * until the next write, so callers can cache work derived from it.
+   */
+  public List<Service> all() {
+    return ensureLoaded() ? catalog.all() : List.of();
+  }
+
+  private boolean ensureLoaded() {
+    if (catalog.isLoaded()) {
+      return true;
+    }
+
+    catalog.reloader().lock();
+    try {
+      if (!catalog.isLoaded()) {
+        try {
+          reload();
+        } catch (SQLException e) {
+          LOGGER.log(Level.SEVERE, "Error loading service catalog: {0}", e.getMessage());
+          return false;
+        }
+      }
+    } finally {
+      catalog.reloader().unlock();
+    }
+
+    return true;
+  }
+
+  private void attachList(RawRecord rawRecord, HashMap<String, Object> params) {
+    if (params == null) {
+      return;
+    }
+
+    if (Boolean.TRUE.equals(params.get("RELOAD_LIST"))) {
+      rawRecord.setPagination(getList(params, null));
+    } else {
+      rawRecord.setPaginationLoader(() -> getList(params, null));
+    }
+  }
+
+  private static void bindService(PreparedStatement statement, Service service) throws SQLException {
+    statement.setString(1, service.name());
+    statement.setDouble(2, service.price());
+  }
+}
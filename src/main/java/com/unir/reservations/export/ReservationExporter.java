@@ -0,0 +1,191 @@
+package com.unir.reservations.export;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.stream.Stream;
+
+import com.unir.reservations.dao.ReservationDAO;
+import com.unir.reservations.dao.UncheckedSQLException;
+import com.unir.reservations.models.Client;
+import com.unir.reservations.models.Reservation;
+import com.unir.reservations.models.Room;
+
+public class ReservationExporter {
+  public enum Format {
+    CSV,
+    JSON
+  }
+
+  private static final String[] COLUMNS = {
+    "eventId", "date", "startHour", "endHour", "priceTotal", "observations",
+    "clientId", "document", "documentType", "firstName", "surName", "email",
+    "roomId", "roomName", "roomAddress", "roomPricePerHour"
+  };
+  public static final int DEFAULT_FETCH_SIZE = 500;
+
+  private final ReservationDAO reservationDAO;
+  private final int fetchSize;
+
+  public ReservationExporter(ReservationDAO reservationDAO, int fetchSize) {
+    if (fetchSize < 1 && fetchSize != Integer.MIN_VALUE) {
+      throw new IllegalArgumentException("Fetch size must be positive, or Integer.MIN_VALUE on MySQL");
+    }
+    this.reservationDAO = reservationDAO;
+    this.fetchSize = fetchSize;
+  }
+
+  /*
+   * MySQL streams row by row only for Integer.MIN_VALUE, unless the URL
+   * sets useCursorFetch=true; other drivers reject a negative fetch size.
+   */
+  public static int fetchSizeFor(Connection connection) throws SQLException {
+    return connection.getMetaData().getDatabaseProductName().equalsIgnoreCase("MySQL")
+      ? Integer.MIN_VALUE
+      : DEFAULT_FETCH_SIZE;
+  }
+
+  public long export(
+    HashMap<String, Object> params,
+    OutputStream output,
+    Format format
+  ) throws SQLException, IOException {
+    final Writer writer = new BufferedWriter(new OutputStreamWriter(output, StandardCharsets.UTF_8));
+
+    try(Stream<Reservation> reservations = reservationDAO.stream(params, fetchSize)) {
+      final long count = format == Format.CSV
+        ? writeCsv(reservations.iterator(), writer)
+        : writeJson(reservations.iterator(), writer);
+      writer.flush();
+      return count;
+    } catch(UncheckedSQLException e) {
+      throw e.getCause();
+    }
+  }
+
+  private static long writeCsv(Iterator<Reservation> reservations, Writer writer) throws IOException {
+    writer.write(String.join(",", COLUMNS));
+    writer.write("\r\n");
+
+    long count = 0;
+    while (reservations.hasNext()) {
+      final Object[] values = values(reservations.next());
+      for (int i = 0; i < values.length; i++) {
+        if (i > 0) {
+          writer.write(',');
+        }
+        writeCsvValue(writer, values[i]);
+      }
+      writer.write("\r\n");
+      count++;
+    }
+
+    return count;
+  }
+
+  private static long writeJson(Iterator<Reservation> reservations, Writer writer) throws IOException {
+    writer.write('[');
+
+    long count = 0;
+    while (reservations.hasNext()) {
+      if (count > 0) {
+        writer.write(',');
+      }
+
+      final Object[] values = values(reservations.next());
+      writer.write('{');
+      for (int i = 0; i < values.length; i++) {
+        if (i > 0) {
+          writer.write(',');
+        }
+        writeJsonString(writer, COLUMNS[i]);
+        writer.write(':');
+        writeJsonValue(writer, values[i]);
+      }
+      writer.write('}');
+      count++;
+    }
+
+    writer.write(']');
+    return count;
+  }
+
+  private static Object[] values(Reservation reservation) {
+    final Client client = reservation.client();
+    final Room room = reservation.room();
+
+    return new Object[] {
+      reservation.idReservation(),
+      reservation.date(),
+      reservation.startHour(),
+      reservation.endHour(),
+      reservation.priceTotal(),
+      reservation.observations(),
+      client == null ? null : client.idClient(),
+      client == null ? null : client.document(),
+      client == null ? null : client.documentType(),
+      client == null ? null : client.firstName(),
+      client == null ? null : client.surName(),
+      client == null ? null : client.email(),
+      room == null ? null : room.idRoom(),
+      room == null ? null : room.name(),
+      room == null ? null : room.address(),
+      room == null ? null : room.pricePerHour()
+    };
+  }
+
+  private static void writeCsvValue(Writer writer, Object value) throws IOException {
+    if (value == null) {
+      return;
+    }
+
+    final String text = value.toString();
+    if (text.indexOf(',') < 0 && text.indexOf('"') < 0 && text.indexOf('\n') < 0 && text.indexOf('\r') < 0) {
+      writer.write(text);
+      return;
+    }
+
+    writer.write('"');
+    writer.write(text.replace("\"", "\"\""));
+    writer.write('"');
+  }
+
+  private static void writeJsonValue(Writer writer, Object value) throws IOException {
+    if (value == null) {
+      writer.write("null");
+    } else if (value instanceof Number) {
+      writer.write(value.toString());
+    } else {
+      writeJsonString(writer, value.toString());
+    }
+  }
+
+  private static void writeJsonString(Writer writer, String text) throws IOException {
+    writer.write('"');
+    for (int i = 0; i < text.length(); i++) {
+      final char character = text.charAt(i);
+      switch (character) {
+        case '"' -> writer.write("\\\"");
+        case '\\' -> writer.write("\\\\");
+        case '\n' -> writer.write("\\n");
+        case '\r' -> writer.write("\\r");
+        case '\t' -> writer.write("\\t");
+        default -> {
+          if (character < 0x20) {
+            writer.write(String.format("\\u%04x", (int) character));
+          } else {
+            writer.write(character);
+          }
+        }
+      }
+    }
+    writer.write('"');
+  }
+}
@@ -0,0 +1,68 @@
+package com.unir.reservations.http;
+
+import java.io.IOException;
+import java.time.LocalDate;
+import java.time.YearMonth;
+import java.time.format.DateTimeParseException;
+import java.util.Map;
+
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpHandler;
+import com.unir.reservations.analytics.AnalyticsEngine;
+
+/*
+ *   GET /occupancy?from=2025-03-01&to=2025-03-31[&roomId=7]
+ *   GET /revenue?from=2025-01&to=2025-12[&roomId=7]
+ *   GET /top-clients?limit=10
+ */
+public class AnalyticsHandler implements HttpHandler {
+  private final AnalyticsEngine engine;
+
+  public AnalyticsHandler(AnalyticsEngine engine) {
+    this.engine = engine;
+  }
+
+  @Override
+  public void handle(HttpExchange exchange) throws IOException {
+    try {
+      if (!exchange.getRequestMethod().equals("GET")) {
+        CrudHandler.send(exchange, 405, Map.of("serverMessage", "Method not allowed"));
+        return;
+      }
+
+      final String context = exchange.getHttpContext().getPath();
+      final String report = exchange.getRequestURI().getPath().substring(context.length());
+      final Map<String, String> query = CrudHandler.query(exchange);
+      final Integer roomId = query.containsKey("roomId") ? Integer.valueOf(query.get("roomId")) : null;
+
+      switch (report) {
+        case "/occupancy" -> {
+          final LocalDate from = LocalDate.parse(CrudHandler.required(query, "from"));
+          CrudHandler.send(exchange, 200, engine.occupancy(
+            from,
+            query.containsKey("to") ? LocalDate.parse(query.get("to")) : from,
+            roomId
+          ));
+        }
+        case "/revenue" -> {
+          final YearMonth from = YearMonth.parse(CrudHandler.required(query, "from"));
+          CrudHandler.send(exchange, 200, engine.revenue(
+            from,
+            query.containsKey("to") ? YearMonth.parse(query.get("to")) : from,
+            roomId
+          ));
+        }
+        case "/top-clients" -> CrudHandler.send(
+          exchange,
+          200,
+          engine.topClients(Integer.parseInt(query.getOrDefault("limit", "10")))
+        );
+        default -> CrudHandler.send(exchange, 404, Map.of("serverMessage", "Unknown report"));
+      }
+    } catch (IllegalArgumentException | DateTimeParseException e) {
+      CrudHandler.send(exchange, 400, Map.of("serverMessage", "Invalid report parameters: " + e.getMessage()));
+    } finally {
+      exchange.close();
+    }
+  }
+}
@@ -0,0 +1,63 @@
+package com.unir.reservations.http;
+
+import java.io.IOException;
+import java.util.Map;
+import java.util.concurrent.CompletionException;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpHandler;
+import com.unir.reservations.admission.AdmissionControl;
+import com.unir.reservations.admission.AdmissionRejectedException;
+import com.unir.reservations.dao.async.ClientOverview;
+import com.unir.reservations.dao.async.ClientOverviewLoader;
+import com.unir.reservations.pool.RoutingDataSource;
+
+/*
+ * GET /{clientId}: the client, their reservations and the room catalog.
+ */
+public class ClientOverviewHandler implements HttpHandler {
+  private static final Logger LOGGER = Logger.getLogger(ClientOverviewHandler.class.getName());
+
+  private final ClientOverviewLoader loader;
+
+  public ClientOverviewHandler(ClientOverviewLoader loader) {
+    this.loader = loader;
+  }
+
+  @Override
+  public void handle(HttpExchange exchange) throws IOException {
+    final RoutingDataSource.Session session = RoutingDataSource.session(CrudHandler.session(exchange));
+    try {
+      if (!exchange.getRequestMethod().equals("GET")) {
+        CrudHandler.send(exchange, 405, Map.of("serverMessage", "Method not allowed"));
+        return;
+      }
+
+      final String context = exchange.getHttpContext().getPath();
+      final String rest = exchange.getRequestURI().getPath().substring(context.length());
+      final int clientId = Integer.parseInt(rest.startsWith("/") ? rest.substring(1) : rest);
+
+      // Handlers already run on virtual threads, so waiting here only parks this request.
+      final ClientOverview overview = loader.load(clientId).join();
+      if (overview == null) {
+        CrudHandler.send(exchange, 404, Map.of("serverMessage", "Client not found"));
+      } else {
+        CrudHandler.send(exchange, 200, overview);
+      }
+    } catch (NumberFormatException e) {
+      CrudHandler.send(exchange, 400, Map.of("serverMessage", "Invalid client id"));
+    } catch (CompletionException e) {
+      if (e.getCause() instanceof AdmissionRejectedException) {
+        CrudHandler.send(exchange, 503, Map.of("serverMessage", AdmissionControl.BUSY_MESSAGE));
+        return;
+      }
+      LOGGER.log(Level.SEVERE, "Error loading client overview", e.getCause());
+      CrudHandler.send(exchange, 500, Map.of("serverMessage", "Internal server error"));
+    } finally {
+      session.close();
+      exchange.close();
+    }
+  }
+}
@@ -0,0 +1,231 @@
+package com.unir.reservations.http;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.URLDecoder;
+import java.nio.charset.StandardCharsets;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.function.Function;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpHandler;
+import com.unir.reservations.admission.AdmissionControl;
+import com.unir.reservations.admission.AdmissionRejectedException;
+import com.unir.reservations.dao.CRUD;
+import com.unir.reservations.dao.ListQuery;
+import com.unir.reservations.pool.RoutingDataSource;
+import com.unir.reservations.utils.RawRecord;
+
+/*
+ * REST routes for one DAO mounted at a context path:
+ *   GET    /         getList (filter, sort, pageSize, cursor or offset, estimate, summary)
+ *   GET    /{id}     getForId
+ *   POST   /         add
+ *   PUT    /{id}     update (400 without the body's version, 409 when it is stale)
+ *   DELETE /{id}     delete
+ *
+ * Writes answer with the affected record; with reload=true (and the GET
+ * list params) they also attach the refreshed page. Calls turned away by
+ * admission control answer 503.
+ */
+public class CrudHandler<T extends Record> implements HttpHandler {
+  private static final Logger LOGGER = Logger.getLogger(CrudHandler.class.getName());
+
+  private final CRUD<T> dao;
+  private final Class<T> type;
+  private final Function<T, Integer> idOf;
+  private final Function<T, Integer> versionOf;
+
+  public CrudHandler(CRUD<T> dao, Class<T> type, Function<T, Integer> idOf) {
+    this(dao, type, idOf, null);
+  }
+
+  // versionOf is null for records without optimistic locking.
+  public CrudHandler(
+    CRUD<T> dao,
+    Class<T> type,
+    Function<T, Integer> idOf,
+    Function<T, Integer> versionOf
+  ) {
+    this.dao = dao;
+    this.type = type;
+    this.idOf = idOf;
+    this.versionOf = versionOf;
+  }
+
+  @Override
+  public void handle(HttpExchange exchange) throws IOException {
+    final RoutingDataSource.Session session = RoutingDataSource.session(session(exchange));
+    try {
+      final Integer id = pathId(exchange);
+      final Map<String, String> query = query(exchange);
+      final ListQuery listQuery = listQuery(query);
+      final HashMap<String, Object> params = params(query, listQuery);
+
+      switch (exchange.getRequestMethod()) {
+        case "GET" -> {
+          if (id == null) {
+            final RawRecord rawRecord = dao.getList(listQuery);
+            send(exchange, status(rawRecord), rawRecord);
+          } else {
+            final T object = dao.getForId(id);
+            send(exchange, object == null ? 404 : 200, object);
+          }
+        }
+        case "POST" -> {
+          if (id != null) {
+            send(exchange, 405, Map.of("serverMessage", "Method not allowed"));
+            return;
+          }
+          final RawRecord rawRecord = dao.add(body(exchange), params);
+          send(exchange, status(rawRecord), rawRecord);
+        }
+        case "PUT" -> {
+          final T object = body(exchange);
+          if (id == null || !id.equals(idOf.apply(object))) {
+            send(exchange, 400, Map.of("serverMessage", "Path and body ids do not match"));
+            return;
+          }
+          if (versionOf != null && versionOf.apply(object) == null) {
+            send(exchange, 400, Map.of("serverMessage", "Version is required"));
+            return;
+          }
+          final RawRecord rawRecord = dao.update(object, params);
+          send(exchange, status(rawRecord), rawRecord);
+        }
+        case "DELETE" -> {
+          if (id == null) {
+            send(exchange, 405, Map.of("serverMessage", "Method not allowed"));
+            return;
+          }
+          final RawRecord rawRecord = dao.delete(id, params);
+          send(exchange, status(rawRecord), rawRecord);
+        }
+        default -> send(exchange, 405, Map.of("serverMessage", "Method not allowed"));
+      }
+    } catch (AdmissionRejectedException e) {
+      send(exchange, 503, Map.of("serverMessage", AdmissionControl.BUSY_MESSAGE));
+    } catch (IllegalArgumentException | ClassCastException e) {
+      send(exchange, 400, Map.of("serverMessage", "Bad request: " + e.getMessage()));
+    } catch (RuntimeException e) {
+      LOGGER.log(Level.SEVERE, "Error handling request", e);
+      send(exchange, 500, Map.of("serverMessage", "Internal server error"));
+    } finally {
+      session.close();
+      exchange.close();
+    }
+  }
+
+  /*
+   * Read-your-writes session key: the X-Session-Id header when the client
+   * sends one, otherwise its address.
+   */
+  static String session(HttpExchange exchange) {
+    final String header = exchange.getRequestHeaders().getFirst("X-Session-Id");
+    if (header != null && !header.isBlank()) {
+      return header;
+    }
+    return exchange.getRemoteAddress().getAddress().getHostAddress();
+  }
+
+  static int status(RawRecord rawRecord) {
+    if (rawRecord.isRejected()) {
+      return 503;
+    }
+    return rawRecord.isConflict() ? 409 : 200;
+  }
+
+  static void send(HttpExchange exchange, int status, Object body) throws IOException {
+    final byte[] bytes = Json.write(body).getBytes(StandardCharsets.UTF_8);
+    exchange.getResponseHeaders().set("Content-Type", "application/json; charset=utf-8");
+    exchange.sendResponseHeaders(status, bytes.length);
+    try(OutputStream output = exchange.getResponseBody()) {
+      output.write(bytes);
+    }
+  }
+
+  static Map<String, String> query(HttpExchange exchange) {
+    final Map<String, String> values = new HashMap<>();
+    final String query = exchange.getRequestURI().getRawQuery();
+    if (query == null || query.isEmpty()) {
+      return values;
+    }
+
+    for (String pair : query.split("&")) {
+      final int separator = pair.indexOf('=');
+      final String key = separator < 0 ? pair : pair.substring(0, separator);
+      final String value = separator < 0 ? "" : pair.substring(separator + 1);
+      values.put(
+        URLDecoder.decode(key, StandardCharsets.UTF_8),
+        URLDecoder.decode(value, StandardCharsets.UTF_8)
+      );
+    }
+
+    return values;
+  }
+
+  static String required(Map<String, String> query, String name) {
+    final String value = query.get(name);
+    if (value == null || value.isBlank()) {
+      throw new IllegalArgumentException("Missing parameter " + name);
+    }
+    return value;
+  }
+
+  private T body(HttpExchange exchange) throws IOException {
+    try(InputStream input = exchange.getRequestBody()) {
+      return Json.bind(new String(input.readAllBytes(), StandardCharsets.UTF_8), type);
+    }
+  }
+
+  private static Integer pathId(HttpExchange exchange) {
+    final String context = exchange.getHttpContext().getPath();
+    final String rest = exchange.getRequestURI().getPath().substring(context.length());
+    final String id = rest.startsWith("/") ? rest.substring(1) : rest;
+
+    if (id.isEmpty()) {
+      return null;
+    }
+    try {
+      return Integer.valueOf(id);
+    } catch (NumberFormatException e) {
+      throw new IllegalArgumentException("Invalid id " + id);
+    }
+  }
+
+  private static ListQuery listQuery(Map<String, String> query) {
+    ListQuery listQuery = ListQuery.of(query.get("filter"))
+      .sortedBy(ListQuery.sort(query.get("sort")))
+      .withPageSize(Integer.parseInt(query.getOrDefault("pageSize", String.valueOf(ListQuery.DEFAULT_PAGE_SIZE))));
+
+    if (query.containsKey("offset")) {
+      listQuery = listQuery.withOffset(Integer.valueOf(query.get("offset")));
+    }
+    if (query.containsKey("cursor")) {
+      listQuery = listQuery.withCursor(query.get("cursor"));
+    }
+    if (Boolean.parseBoolean(query.get("estimate"))) {
+      listQuery = listQuery.estimated();
+    }
+    if (Boolean.parseBoolean(query.get("summary"))) {
+      listQuery = listQuery.summarized();
+    }
+
+    return listQuery;
+  }
+
+  // Writes only carry the list params, and answer with the refreshed page, on reload=true.
+  private static HashMap<String, Object> params(Map<String, String> query, ListQuery listQuery) {
+    if (!Boolean.parseBoolean(query.get("reload"))) {
+      return null;
+    }
+
+    final HashMap<String, Object> params = listQuery.toParams();
+    params.put("RELOAD_LIST", true);
+    return params;
+  }
+}
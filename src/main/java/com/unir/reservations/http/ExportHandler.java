@@ -0,0 +1,116 @@
+package com.unir.reservations.http;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.sql.SQLException;
+import java.util.HashMap;
+import java.util.Locale;
+import java.util.Map;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpHandler;
+import com.unir.reservations.admission.AdmissionControl;
+import com.unir.reservations.admission.AdmissionRejectedException;
+import com.unir.reservations.export.ReservationExporter;
+
+/*
+ * GET ?format=csv&filter=12&from=2025-01-01&to=2025-12-31
+ *
+ * The response is chunked and its headers go out with the first bytes, so
+ * a rejected or failed query still gets a JSON error. A failure after that
+ * can only cut the response short.
+ */
+public class ExportHandler implements HttpHandler {
+  private static final Logger LOGGER = Logger.getLogger(ExportHandler.class.getName());
+
+  private final ReservationExporter exporter;
+
+  public ExportHandler(ReservationExporter exporter) {
+    this.exporter = exporter;
+  }
+
+  @Override
+  public void handle(HttpExchange exchange) throws IOException {
+    final ResponseBody body = new ResponseBody(exchange);
+    try {
+      if (!exchange.getRequestMethod().equals("GET")) {
+        CrudHandler.send(exchange, 405, Map.of("serverMessage", "Method not allowed"));
+        return;
+      }
+
+      final Map<String, String> query = CrudHandler.query(exchange);
+      final ReservationExporter.Format format = ReservationExporter.Format.valueOf(
+        query.getOrDefault("format", "csv").trim().toUpperCase(Locale.ROOT)
+      );
+      final HashMap<String, Object> params = new HashMap<>();
+      params.put("FILTER", query.getOrDefault("filter", ""));
+      params.put("DATE_FROM", query.get("from"));
+      params.put("DATE_TO", query.get("to"));
+
+      exchange.getResponseHeaders().set(
+        "Content-Type",
+        format == ReservationExporter.Format.CSV ? "text/csv; charset=utf-8" : "application/json; charset=utf-8"
+      );
+      final long count = exporter.export(params, body, format);
+      body.close();
+      LOGGER.log(Level.FINE, "Exported {0} reservations", count);
+    } catch (IllegalArgumentException e) {
+      fail(exchange, body, 400, "Invalid export parameters: " + e.getMessage());
+    } catch (AdmissionRejectedException e) {
+      fail(exchange, body, 503, AdmissionControl.BUSY_MESSAGE);
+    } catch (SQLException e) {
+      LOGGER.log(Level.SEVERE, "Error exporting reservations: {0}", e.getMessage());
+      fail(exchange, body, 500, "Error exporting reservations");
+    } finally {
+      exchange.close();
+    }
+  }
+
+  private static void fail(HttpExchange exchange, ResponseBody body, int status, String message) throws IOException {
+    if (!body.started) {
+      CrudHandler.send(exchange, status, Map.of("serverMessage", message));
+    }
+  }
+
+  // Sends the 200 headers on the first write, once the export query is running.
+  private static final class ResponseBody extends OutputStream {
+    private final HttpExchange exchange;
+    private OutputStream output;
+    private boolean started;
+
+    ResponseBody(HttpExchange exchange) {
+      this.exchange = exchange;
+    }
+
+    @Override
+    public void write(int value) throws IOException {
+      output().write(value);
+    }
+
+    @Override
+    public void write(byte[] bytes, int offset, int length) throws IOException {
+      output().write(bytes, offset, length);
+    }
+
+    @Override
+    public void flush() throws IOException {
+      output().flush();
+    }
+
+    @Override
+    public void close() throws IOException {
+      output().close();
+    }
+
+    private OutputStream output() throws IOException {
+      if (output == null) {
+        exchange.sendResponseHeaders(200, 0);
+        started = true;
+        output = exchange.getResponseBody();
+      }
+      return output;
+    }
+  }
+}
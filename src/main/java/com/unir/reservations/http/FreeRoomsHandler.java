@@ -0,0 +1,47 @@
+package com.unir.reservations.http;
+
+import java.io.IOException;
+import java.time.LocalDate;
+import java.time.format.DateTimeParseException;
+import java.util.Map;
+
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpHandler;
+import com.unir.reservations.availability.RoomSearch;
+
+/*
+ * GET ?from=2025-03-01&to=2025-03-31&startHour=14&endHour=18&offset=0&limit=50
+ */
+public class FreeRoomsHandler implements HttpHandler {
+  private final RoomSearch roomSearch;
+
+  public FreeRoomsHandler(RoomSearch roomSearch) {
+    this.roomSearch = roomSearch;
+  }
+
+  @Override
+  public void handle(HttpExchange exchange) throws IOException {
+    try {
+      if (!exchange.getRequestMethod().equals("GET")) {
+        CrudHandler.send(exchange, 405, Map.of("serverMessage", "Method not allowed"));
+        return;
+      }
+
+      final Map<String, String> query = CrudHandler.query(exchange);
+      final LocalDate from = LocalDate.parse(CrudHandler.required(query, "from"));
+
+      CrudHandler.send(exchange, 200, roomSearch.findFree(
+        from,
+        query.containsKey("to") ? LocalDate.parse(query.get("to")) : from,
+        Integer.parseInt(CrudHandler.required(query, "startHour")),
+        Integer.parseInt(CrudHandler.required(query, "endHour")),
+        Integer.parseInt(query.getOrDefault("offset", "0")),
+        Integer.parseInt(query.getOrDefault("limit", "50"))
+      ));
+    } catch (IllegalArgumentException | DateTimeParseException e) {
+      CrudHandler.send(exchange, 400, Map.of("serverMessage", "Invalid search parameters: " + e.getMessage()));
+    } finally {
+      exchange.close();
+    }
+  }
+}
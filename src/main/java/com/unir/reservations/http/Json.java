@@ -0,0 +1,357 @@
+package com.unir.reservations.http;
+
+import java.lang.reflect.ParameterizedType;
+import java.lang.reflect.RecordComponent;
+import java.lang.reflect.Type;
+import java.time.LocalDate;
+import java.time.temporal.TemporalAccessor;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Date;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import com.unir.reservations.utils.Pagination;
+import com.unir.reservations.utils.RawRecord;
+
+/*
+ * Minimal JSON codec for the HTTP layer: writes records, collections, maps and
+ * the Pagination/RawRecord envelopes, and binds request bodies onto records by
+ * component name.
+ */
+public final class Json {
+  private Json() {
+  }
+
+  public static String write(Object value) {
+    final StringBuilder builder = new StringBuilder();
+    write(builder, value);
+    return builder.toString();
+  }
+
+  public static Object parse(String text) {
+    final Parser parser = new Parser(text);
+    final Object value = parser.value();
+    parser.skipWhitespace();
+    if (!parser.atEnd()) {
+      throw new IllegalArgumentException("Unexpected trailing content at " + parser.position);
+    }
+    return value;
+  }
+
+  public static <T extends Record> T bind(String text, Class<T> type) {
+    return type.cast(convert(parse(text), type));
+  }
+
+  private static void write(StringBuilder builder, Object value) {
+    if (value == null) {
+      builder.append("null");
+    } else if (value instanceof String text) {
+      writeString(builder, text);
+    } else if (value instanceof Number || value instanceof Boolean) {
+      builder.append(value);
+    } else if (value instanceof java.sql.Date date) {
+      writeString(builder, date.toLocalDate().toString());
+    } else if (value instanceof Date date) {
+      writeString(builder, new java.sql.Date(date.getTime()).toLocalDate().toString());
+    } else if (value instanceof TemporalAccessor || value instanceof Enum<?>) {
+      writeString(builder, value.toString());
+    } else if (value instanceof Record record) {
+      final Map<String, Object> fields = new LinkedHashMap<>();
+      for (RecordComponent component : record.getClass().getRecordComponents()) {
+        try {
+          fields.put(component.getName(), component.getAccessor().invoke(record));
+        } catch (ReflectiveOperationException e) {
+          throw new IllegalStateException(e);
+        }
+      }
+      write(builder, fields);
+    } else if (value instanceof Pagination pagination) {
+      final Map<String, Object> fields = new LinkedHashMap<>();
+      fields.put("filterCounter", pagination.getFilterCounter());
+      fields.put("countEstimated", pagination.isCountEstimated());
+      fields.put("nextPageToken", pagination.getNextPageToken());
+      fields.put("data", pagination.getData());
+      write(builder, fields);
+    } else if (value instanceof RawRecord rawRecord) {
+      final Map<String, Object> fields = new LinkedHashMap<>();
+      fields.put("serverMessage", rawRecord.getServerMessage());
+      fields.put("affected", rawRecord.getAffected());
+      if (rawRecord.getPagination() != null) {
+        fields.put("pagination", rawRecord.getPagination());
+      }
+      write(builder, fields);
+    } else if (value instanceof Map<?, ?> map) {
+      builder.append('{');
+      boolean first = true;
+      for (Map.Entry<?, ?> entry : map.entrySet()) {
+        if (!first) {
+          builder.append(',');
+        }
+        first = false;
+        writeString(builder, String.valueOf(entry.getKey()));
+        builder.append(':');
+        write(builder, entry.getValue());
+      }
+      builder.append('}');
+    } else if (value instanceof Collection<?> collection) {
+      builder.append('[');
+      boolean first = true;
+      for (Object item : collection) {
+        if (!first) {
+          builder.append(',');
+        }
+        first = false;
+        write(builder, item);
+      }
+      builder.append(']');
+    } else {
+      writeString(builder, value.toString());
+    }
+  }
+
+  private static void writeString(StringBuilder builder, String text) {
+    builder.append('"');
+    for (int i = 0; i < text.length(); i++) {
+      final char character = text.charAt(i);
+      switch (character) {
+        case '"' -> builder.append("\\\"");
+        case '\\' -> builder.append("\\\\");
+        case '\n' -> builder.append("\\n");
+        case '\r' -> builder.append("\\r");
+        case '\t' -> builder.append("\\t");
+        default -> {
+          if (character < 0x20) {
+            builder.append(String.format("\\u%04x", (int) character));
+          } else {
+            builder.append(character);
+          }
+        }
+      }
+    }
+    builder.append('"');
+  }
+
+  private static Object convert(Object value, Type type) {
+    if (value == null) {
+      return null;
+    }
+
+    final Class<?> raw = type instanceof ParameterizedType parameterized
+      ? (Class<?>) parameterized.getRawType()
+      : (Class<?>) type;
+
+    if (raw.isRecord()) {
+      if (!(value instanceof Map<?, ?> map)) {
+        throw new IllegalArgumentException("Expected an object for " + raw.getSimpleName());
+      }
+
+      final RecordComponent[] components = raw.getRecordComponents();
+      final Object[] arguments = new Object[components.length];
+      final Class<?>[] types = new Class<?>[components.length];
+      for (int i = 0; i < components.length; i++) {
+        types[i] = components[i].getType();
+        arguments[i] = convert(map.get(components[i].getName()), components[i].getGenericType());
+      }
+
+      try {
+        return raw.getDeclaredConstructor(types).newInstance(arguments);
+      } catch (ReflectiveOperationException e) {
+        throw new IllegalArgumentException("Cannot build " + raw.getSimpleName(), e);
+      }
+    }
+
+    if (Collection.class.isAssignableFrom(raw)) {
+      final Type item = type instanceof ParameterizedType parameterized
+        ? parameterized.getActualTypeArguments()[0]
+        : Object.class;
+      final ArrayList<Object> items = new ArrayList<>();
+      for (Object element : (List<?>) value) {
+        items.add(convert(element, item));
+      }
+      return items;
+    }
+
+    if (raw == Integer.class || raw == int.class) {
+      return ((Number) value).intValue();
+    }
+    if (raw == Long.class || raw == long.class) {
+      return ((Number) value).longValue();
+    }
+    if (raw == Double.class || raw == double.class) {
+      return ((Number) value).doubleValue();
+    }
+    if (raw == Short.class || raw == short.class) {
+      return ((Number) value).shortValue();
+    }
+    if (raw == Boolean.class || raw == boolean.class) {
+      return (Boolean) value;
+    }
+    if (raw == String.class) {
+      return value.toString();
+    }
+    if (raw == LocalDate.class) {
+      return LocalDate.parse(value.toString());
+    }
+    if (Date.class.isAssignableFrom(raw)) {
+      return java.sql.Date.valueOf(value.toString());
+    }
+
+    return value;
+  }
+
+  private static final class Parser {
+    private final String text;
+    private int position;
+
+    Parser(String text) {
+      this.text = text;
+    }
+
+    boolean atEnd() {
+      return position >= text.length();
+    }
+
+    void skipWhitespace() {
+      while (!atEnd() && Character.isWhitespace(text.charAt(position))) {
+        position++;
+      }
+    }
+
+    Object value() {
+      skipWhitespace();
+      if (atEnd()) {
+        throw new IllegalArgumentException("Unexpected end of JSON");
+      }
+
+      final char character = text.charAt(position);
+      return switch (character) {
+        case '{' -> object();
+        case '[' -> array();
+        case '"' -> string();
+        case 't' -> literal("true", Boolean.TRUE);
+        case 'f' -> literal("false", Boolean.FALSE);
+        case 'n' -> literal("null", null);
+        default -> number();
+      };
+    }
+
+    private Map<String, Object> object() {
+      final Map<String, Object> map = new LinkedHashMap<>();
+      position++;
+      skipWhitespace();
+      if (peek('}')) {
+        position++;
+        return map;
+      }
+
+      while (true) {
+        skipWhitespace();
+        final String key = string();
+        skipWhitespace();
+        expect(':');
+        map.put(key, value());
+        skipWhitespace();
+        if (peek(',')) {
+          position++;
+        } else {
+          expect('}');
+          return map;
+        }
+      }
+    }
+
+    private List<Object> array() {
+      final List<Object> list = new ArrayList<>();
+      position++;
+      skipWhitespace();
+      if (peek(']')) {
+        position++;
+        return list;
+      }
+
+      while (true) {
+        list.add(value());
+        skipWhitespace();
+        if (peek(',')) {
+          position++;
+        } else {
+          expect(']');
+          return list;
+        }
+      }
+    }
+
+    private String string() {
+      expect('"');
+      final StringBuilder builder = new StringBuilder();
+
+      while (true) {
+        if (atEnd()) {
+          throw new IllegalArgumentException("Unterminated string");
+        }
+
+        final char character = text.charAt(position++);
+        if (character == '"') {
+          return builder.toString();
+        }
+        if (character != '\\') {
+          builder.append(character);
+          continue;
+        }
+
+        final char escaped = text.charAt(position++);
+        switch (escaped) {
+          case 'n' -> builder.append('\n');
+          case 'r' -> builder.append('\r');
+          case 't' -> builder.append('\t');
+          case 'b' -> builder.append('\b');
+          case 'f' -> builder.append('\f');
+          case 'u' -> {
+            builder.append((char) Integer.parseInt(text.substring(position, position + 4), 16));
+            position += 4;
+          }
+          default -> builder.append(escaped);
+        }
+      }
+    }
+
+    private Number number() {
+      final int start = position;
+      while (!atEnd() && "+-0123456789.eE".indexOf(text.charAt(position)) >= 0) {
+        position++;
+      }
+
+      final String number = text.substring(start, position);
+      if (number.isEmpty()) {
+        throw new IllegalArgumentException("Unexpected character at " + start);
+      }
+
+      if (number.contains(".") || number.contains("e") || number.contains("E")) {
+        return Double.parseDouble(number);
+      }
+      final long value = Long.parseLong(number);
+      return value == (int) value ? (Number) (int) value : (Number) value;
+    }
+
+    private Object literal(String literal, Object value) {
+      if (!text.startsWith(literal, position)) {
+        throw new IllegalArgumentException("Unexpected token at " + position);
+      }
+      position += literal.length();
+      return value;
+    }
+
+    private boolean peek(char character) {
+      return !atEnd() && text.charAt(position) == character;
+    }
+
+    private void expect(char character) {
+      if (!peek(character)) {
+        throw new IllegalArgumentException("Expected '" + character + "' at " + position);
+      }
+      position++;
+    }
+  }
+}
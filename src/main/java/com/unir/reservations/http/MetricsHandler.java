@@ -0,0 +1,88 @@
+package com.unir.reservations.http;
+
+import java.io.IOException;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpHandler;
+import com.unir.reservations.admission.AdmissionControl;
+import com.unir.reservations.admission.AdmissionLimiter;
+import com.unir.reservations.dao.TransactionTemplate;
+import com.unir.reservations.metrics.QueryMetrics;
+import com.unir.reservations.pool.ConnectionPool;
+import com.unir.reservations.utils.LRUCache;
+
+public class MetricsHandler implements HttpHandler {
+  private final QueryMetrics metrics;
+  private final ConnectionPool pool;
+  private final TransactionTemplate transactions;
+  private final AdmissionControl admission;
+  private final LRUCache<?, ?> clientCache;
+
+  public MetricsHandler(
+    QueryMetrics metrics,
+    ConnectionPool pool,
+    TransactionTemplate transactions,
+    AdmissionControl admission,
+    LRUCache<?, ?> clientCache
+  ) {
+    this.metrics = metrics;
+    this.pool = pool;
+    this.transactions = transactions;
+    this.admission = admission;
+    this.clientCache = clientCache;
+  }
+
+  @Override
+  public void handle(HttpExchange exchange) throws IOException {
+    try(exchange) {
+      final Map<String, Object> poolStats = new LinkedHashMap<>();
+      poolStats.put("active", pool.getActiveCount());
+      poolStats.put("idle", pool.getIdleCount());
+      poolStats.put("waiting", pool.getWaitingCount());
+      poolStats.put("totalWaitMillis", pool.getTotalWaitMillis());
+      poolStats.put("timeouts", pool.getTimeoutCount());
+      poolStats.put("leaks", pool.getLeakCount());
+      poolStats.put("nestedBorrows", pool.getNestedBorrowCount());
+      poolStats.put("statementCacheHits", pool.getStatementCacheHitCount());
+      poolStats.put("statementCacheMisses", pool.getStatementCacheMissCount());
+      poolStats.put("statementCacheHitRate", pool.getStatementCacheHitRate());
+      poolStats.put("distinctStatements", pool.getDistinctStatementCount());
+
+      final Map<String, Object> transactionStats = new LinkedHashMap<>();
+      transactionStats.put("transactions", transactions.getTransactionCount());
+      transactionStats.put("rollbacks", transactions.getRollbackCount());
+      transactionStats.put("retries", transactions.getRetryCount());
+      transactionStats.put("exhaustedRetries", transactions.getExhaustedRetryCount());
+      transactionStats.put("failedAttemptMillis", transactions.getFailedAttemptMillis());
+
+      final Map<String, Object> admissionStats = new LinkedHashMap<>();
+      for (AdmissionLimiter limiter : admission.limiters()) {
+        final Map<String, Object> limiterStats = new LinkedHashMap<>();
+        limiterStats.put("limit", limiter.getLimit());
+        limiterStats.put("inFlight", limiter.getInFlight());
+        limiterStats.put("queued", limiter.getQueued());
+        limiterStats.put("admitted", limiter.getAdmittedCount());
+        limiterStats.put("rejected", limiter.getRejectedCount());
+        limiterStats.put("timedOut", limiter.getTimedOutCount());
+        admissionStats.put(limiter.getName(), limiterStats);
+      }
+
+      final Map<String, Object> clientCacheStats = new LinkedHashMap<>();
+      clientCacheStats.put("size", clientCache.size());
+      clientCacheStats.put("hits", clientCache.getHitCount());
+      clientCacheStats.put("misses", clientCache.getMissCount());
+      clientCacheStats.put("evictions", clientCache.getEvictionCount());
+
+      final Map<String, Object> body = new LinkedHashMap<>();
+      body.put("pool", poolStats);
+      body.put("transactions", transactionStats);
+      body.put("admission", admissionStats);
+      body.put("clientCache", clientCacheStats);
+      body.put("queries", metrics.snapshot());
+
+      CrudHandler.send(exchange, 200, body);
+    }
+  }
+}
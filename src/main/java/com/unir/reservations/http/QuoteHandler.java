@@ -0,0 +1,57 @@
+package com.unir.reservations.http;
+
+import java.io.IOException;
+import java.time.LocalDate;
+import java.time.format.DateTimeParseException;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpHandler;
+import com.unir.reservations.pricing.PricingEngine;
+
+/*
+ * GET ?roomId=3&date=2025-03-01&startHour=14&endHour=18&services=1,4
+ */
+public class QuoteHandler implements HttpHandler {
+  private final PricingEngine pricing;
+
+  public QuoteHandler(PricingEngine pricing) {
+    this.pricing = pricing;
+  }
+
+  @Override
+  public void handle(HttpExchange exchange) throws IOException {
+    try {
+      if (!exchange.getRequestMethod().equals("GET")) {
+        CrudHandler.send(exchange, 405, Map.of("serverMessage", "Method not allowed"));
+        return;
+      }
+
+      final Map<String, String> query = CrudHandler.query(exchange);
+      final String services = query.getOrDefault("services", "");
+      final List<Integer> serviceIds = services.isBlank()
+        ? List.of()
+        : Arrays.stream(services.split(",")).map(String::trim).map(Integer::valueOf).toList();
+
+      final Double quote = pricing.quote(
+        Integer.parseInt(CrudHandler.required(query, "roomId")),
+        LocalDate.parse(CrudHandler.required(query, "date")),
+        Integer.parseInt(CrudHandler.required(query, "startHour")),
+        Integer.parseInt(CrudHandler.required(query, "endHour")),
+        serviceIds
+      );
+
+      if (quote == null) {
+        CrudHandler.send(exchange, 404, Map.of("serverMessage", "No price for this reservation"));
+      } else {
+        CrudHandler.send(exchange, 200, Map.of("priceTotal", quote));
+      }
+    } catch (IllegalArgumentException | DateTimeParseException e) {
+      CrudHandler.send(exchange, 400, Map.of("serverMessage", "Invalid quote parameters: " + e.getMessage()));
+    } finally {
+      exchange.close();
+    }
+  }
+}
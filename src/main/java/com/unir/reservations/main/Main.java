@@ -0,0 +1,265 @@
+package com.unir.reservations.main;
+
+import java.io.IOException;
+import java.net.InetSocketAddress;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+import javax.sql.DataSource;
+
+import com.sun.net.httpserver.HttpServer;
+import com.unir.reservations.admission.AdmissionControl;
+import com.unir.reservations.admission.AdmissionLimiter;
+import com.unir.reservations.admission.AdmittedClientDAO;
+import com.unir.reservations.admission.AdmittedReservationDAO;
+import com.unir.reservations.analytics.AnalyticsEngine;
+import com.unir.reservations.availability.AvailabilityIndex;
+import com.unir.reservations.availability.RoomSearch;
+import com.unir.reservations.dao.ClientDAO;
+import com.unir.reservations.dao.ReservationDAO;
+import com.unir.reservations.dao.RoomDAO;
+import com.unir.reservations.dao.ServiceDAO;
+import com.unir.reservations.dao.TransactionTemplate;
+import com.unir.reservations.dao.async.AsyncDAO;
+import com.unir.reservations.dao.async.ClientOverviewLoader;
+import com.unir.reservations.dao.cache.CachedClientDAO;
+import com.unir.reservations.dao.implementations.ClientDAOImplementation;
+import com.unir.reservations.dao.implementations.ReservationDAOImplementation;
+import com.unir.reservations.dao.implementations.RoomDAOImplementation;
+import com.unir.reservations.dao.implementations.ServiceDAOImplementation;
+import com.unir.reservations.export.ReservationExporter;
+import com.unir.reservations.http.AnalyticsHandler;
+import com.unir.reservations.http.ClientOverviewHandler;
+import com.unir.reservations.http.ExportHandler;
+import com.unir.reservations.http.CrudHandler;
+import com.unir.reservations.http.FreeRoomsHandler;
+import com.unir.reservations.http.MetricsHandler;
+import com.unir.reservations.http.QuoteHandler;
+import com.unir.reservations.metrics.MeteredClientDAO;
+import com.unir.reservations.metrics.MeteredDataSource;
+import com.unir.reservations.metrics.MeteredReservationDAO;
+import com.unir.reservations.metrics.MeteredRoomDAO;
+import com.unir.reservations.metrics.MeteredServiceDAO;
+import com.unir.reservations.metrics.QueryMetrics;
+import com.unir.reservations.models.Client;
+import com.unir.reservations.models.Reservation;
+import com.unir.reservations.models.Room;
+import com.unir.reservations.models.Service;
+import com.unir.reservations.pool.ConnectionPool;
+import com.unir.reservations.pool.ConnectionPoolConfig;
+import com.unir.reservations.pool.RoutingDataSource;
+import com.unir.reservations.pricing.PricingEngine;
+import com.unir.reservations.search.ClientSearchIndex;
+
+/*
+ * Embedded HTTP front end. Each request runs on its own virtual thread, so
+ * blocking JDBC calls park cheaply; the connection pool, not a platform
+ * thread pool, is what bounds concurrent database work.
+ *
+ * Settings come from system properties (reservations.port, ...) or the
+ * matching environment variables (PORT, DB_URL, ...).
+ */
+public class Main {
+  private static final Logger LOGGER = Logger.getLogger(Main.class.getName());
+
+  public static void main(String[] args) throws IOException, SQLException {
+    final long start = System.nanoTime();
+    final int port = Integer.parseInt(setting("PORT", "8080"));
+
+    final int poolSize = Integer.parseInt(setting("DB_POOL_SIZE", "20"));
+    // DB_TRACE_BORROWS=true adds the borrowing stack to leak reports, at the cost of one per checkout.
+    final boolean traceBorrows = Boolean.parseBoolean(setting("DB_TRACE_BORROWS", "false"));
+    final ConnectionPool pool = new ConnectionPool(new ConnectionPoolConfig(
+      setting("DB_URL", "jdbc:mysql://localhost:3306/reservations"),
+      setting("DB_USER", "root"),
+      setting("DB_PASSWORD", ""),
+      poolSize
+    ).withBorrowStacks(traceBorrows));
+    final QueryMetrics metrics = new QueryMetrics(Long.parseLong(setting("SLOW_QUERY_MS", "200")));
+
+    // DB_REPLICA_URLS lists read replicas, comma separated; without it every read goes to the primary.
+    final List<ConnectionPool> replicaPools = new ArrayList<>();
+    final List<DataSource> replicas = new ArrayList<>();
+    for (String url : setting("DB_REPLICA_URLS", "").split(",")) {
+      if (!url.isBlank()) {
+        final ConnectionPool replicaPool = new ConnectionPool(new ConnectionPoolConfig(
+          url.trim(),
+          setting("DB_USER", "root"),
+          setting("DB_PASSWORD", ""),
+          poolSize
+        ).withBorrowStacks(traceBorrows));
+        replicaPools.add(replicaPool);
+        replicas.add(new MeteredDataSource(replicaPool, metrics));
+      }
+    }
+    final DataSource dataSource = new RoutingDataSource(
+      new MeteredDataSource(pool, metrics),
+      replicas,
+      RoutingDataSource.Selection.valueOf(setting("DB_REPLICA_SELECTION", "ROUND_ROBIN").toUpperCase()),
+      Long.parseLong(setting("DB_STICKY_MS", "2000"))
+    );
+
+    final AvailabilityIndex availability = new AvailabilityIndex();
+    final ClientSearchIndex clientIndex = new ClientSearchIndex();
+    final int exportFetchSize;
+    try(Connection connection = dataSource.getConnection()) {
+      availability.load(connection);
+      clientIndex.load(connection);
+      exportFetchSize = ReservationExporter.fetchSizeFor(connection);
+    }
+
+    final TransactionTemplate transactions = new TransactionTemplate(
+      dataSource,
+      isolation(setting("TX_ISOLATION", "DEFAULT")),
+      Integer.parseInt(setting("TX_MAX_ATTEMPTS", "3")),
+      Long.parseLong(setting("TX_BACKOFF_MS", "20"))
+    );
+
+    /*
+     * Reads and writes adapt below the size of the pools they run on from
+     * observed latency. Exports hold a connection for a whole stream, so
+     * they get a small fixed share and are never queued. The primary and
+     * replica budgets cap the kinds together at their pools' connections.
+     */
+    final long queueMillis = Long.parseLong(setting("ADMISSION_QUEUE_MS", "100"));
+    final int readCapacity = poolSize * Math.max(1, replicaPools.size());
+    final int writeLimit = Math.max(1, poolSize / 2);
+    final AdmissionLimiter primaryBudget = new AdmissionLimiter("primary", poolSize, Integer.MAX_VALUE, queueMillis);
+    final AdmissionLimiter replicaBudget = replicaPools.isEmpty()
+      ? primaryBudget
+      : new AdmissionLimiter("replicas", readCapacity, Integer.MAX_VALUE, queueMillis);
+    final AdmissionControl admission = new AdmissionControl(
+      new AdmissionLimiter("reads", readCapacity, 1, readCapacity, readCapacity * 4, queueMillis, true),
+      new AdmissionLimiter("writes", writeLimit, 1, poolSize, poolSize * 2, queueMillis, true),
+      new AdmissionLimiter(
+        "exports",
+        Integer.parseInt(setting("ADMISSION_EXPORTS", String.valueOf(Math.max(1, poolSize / 8)))),
+        0,
+        0
+      ),
+      primaryBudget,
+      replicaBudget
+    );
+
+    // Client lookups by id (overviews, reservation forms) are served from a short-lived cache.
+    final CachedClientDAO cachedClients = new CachedClientDAO(
+      new ClientDAOImplementation(transactions, clientIndex),
+      Integer.parseInt(setting("CLIENT_CACHE_SIZE", "10000")),
+      Long.parseLong(setting("CLIENT_CACHE_TTL_MS", "30000"))
+    );
+    final ClientDAO clientDAO = new AdmittedClientDAO(new MeteredClientDAO(cachedClients, metrics), admission);
+    final RoomDAOImplementation roomCatalog = new RoomDAOImplementation(transactions, availability);
+    final ServiceDAOImplementation serviceCatalog = new ServiceDAOImplementation(transactions);
+    roomCatalog.reload();
+    serviceCatalog.reload();
+
+    final RoomDAO roomDAO = new MeteredRoomDAO(roomCatalog, metrics);
+    final ServiceDAO serviceDAO = new MeteredServiceDAO(serviceCatalog, metrics);
+    final PricingEngine pricing = new PricingEngine(roomCatalog::all, serviceCatalog::all, List.of());
+    final ReservationDAO reservationDAO = new AdmittedReservationDAO(
+      new MeteredReservationDAO(
+        new ReservationDAOImplementation(transactions, availability, pricing),
+        metrics
+      ),
+      admission
+    );
+
+    // Fan-out reads may hold at most half the pool, leaving the rest for ordinary requests.
+    final Semaphore asyncPermits = new Semaphore(
+      Integer.parseInt(setting("ASYNC_PERMITS", String.valueOf(Math.max(1, poolSize / 2)))),
+      true
+    );
+    final ClientOverviewLoader overviewLoader = new ClientOverviewLoader(
+      new AsyncDAO<>(clientDAO, asyncPermits),
+      new AsyncDAO<>(reservationDAO, asyncPermits),
+      new AsyncDAO<>(roomDAO, asyncPermits)
+    );
+
+    // Reports scan from the replicas; the first refresh runs in the background.
+    final AnalyticsEngine analytics = new AnalyticsEngine(RoutingDataSource.readsOf(dataSource));
+    final ScheduledExecutorService analyticsRefresh = Executors.newSingleThreadScheduledExecutor();
+    analyticsRefresh.scheduleWithFixedDelay(() -> {
+      try {
+        analytics.refresh();
+      } catch (SQLException | RuntimeException e) {
+        LOGGER.log(Level.SEVERE, "Error refreshing analytics: {0}", e.getMessage());
+      }
+    }, 0, Long.parseLong(setting("ANALYTICS_REFRESH_SECONDS", "300")), TimeUnit.SECONDS);
+
+    final HttpServer server = HttpServer.create(new InetSocketAddress(port), 0);
+    server.setExecutor(Executors.newVirtualThreadPerTaskExecutor());
+    server.createContext(
+      "/api/clients",
+      new CrudHandler<>(clientDAO, Client.class, Client::idClient, Client::version)
+    );
+    server.createContext("/api/rooms", new CrudHandler<>(roomDAO, Room.class, Room::idRoom));
+    server.createContext("/api/rooms/free", new FreeRoomsHandler(new RoomSearch(availability, roomDAO)));
+    server.createContext(
+      "/api/services",
+      new CrudHandler<>(serviceDAO, Service.class, Service::idService)
+    );
+    server.createContext(
+      "/api/reservations",
+      new CrudHandler<>(
+        reservationDAO,
+        Reservation.class,
+        Reservation::idReservation,
+        Reservation::version
+      )
+    );
+    server.createContext(
+      "/api/reservations/export",
+      new ExportHandler(new ReservationExporter(reservationDAO, exportFetchSize))
+    );
+    server.createContext("/api/quotes", new QuoteHandler(pricing));
+    server.createContext("/api/client-overview", new ClientOverviewHandler(overviewLoader));
+    server.createContext("/api/analytics", new AnalyticsHandler(analytics));
+    server.createContext(
+      "/api/metrics",
+      new MetricsHandler(metrics, pool, transactions, admission, cachedClients.getCache())
+    );
+
+    Runtime.getRuntime().addShutdownHook(new Thread(() -> {
+      server.stop(1);
+      analyticsRefresh.shutdownNow();
+      pool.close();
+      replicaPools.forEach(ConnectionPool::close);
+    }));
+
+    server.start();
+    LOGGER.log(
+      Level.INFO,
+      "Listening on port {0} after {1} ms, reading from {2} replicas",
+      new Object[] { port, (System.nanoTime() - start) / 1_000_000, replicas.size() }
+    );
+  }
+
+  private static int isolation(String name) {
+    return switch (name.toUpperCase()) {
+      case "READ_UNCOMMITTED" -> Connection.TRANSACTION_READ_UNCOMMITTED;
+      case "READ_COMMITTED" -> Connection.TRANSACTION_READ_COMMITTED;
+      case "REPEATABLE_READ" -> Connection.TRANSACTION_REPEATABLE_READ;
+      case "SERIALIZABLE" -> Connection.TRANSACTION_SERIALIZABLE;
+      case "DEFAULT" -> TransactionTemplate.DEFAULT_ISOLATION;
+      default -> throw new IllegalArgumentException("Unknown isolation level: " + name);
+    };
+  }
+
+  private static String setting(String name, String defaultValue) {
+    final String property = System.getProperty("reservations." + name.toLowerCase().replace('_', '.'));
+    if (property != null) {
+      return property;
+    }
+
+    final String environment = System.getenv(name);
+    return environment != null ? environment : defaultValue;
+  }
+}
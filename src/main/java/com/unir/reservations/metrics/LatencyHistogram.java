@@ -0,0 +1,72 @@
+package com.unir.reservations.metrics;
+
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAdder;
+
+/*
+ * Lock-free latency histogram with power-of-two microsecond buckets. Bucket i
+ * holds samples below 2^i microseconds, so percentiles are upper bounds within
+ * a factor of two, which is plenty to spot regressions and slow queries.
+ */
+public class LatencyHistogram {
+  private static final int BUCKETS = 40;
+
+  private final AtomicLongArray buckets = new AtomicLongArray(BUCKETS);
+  private final LongAdder count = new LongAdder();
+  private final LongAdder totalNanos = new LongAdder();
+  private volatile long maxNanos;
+
+  public void record(long nanos) {
+    final long micros = Math.max(0, nanos / 1_000);
+    final int bucket = Math.min(BUCKETS - 1, 64 - Long.numberOfLeadingZeros(micros));
+
+    buckets.incrementAndGet(bucket);
+    count.increment();
+    totalNanos.add(nanos);
+
+    if (nanos > maxNanos) {
+      synchronized (this) {
+        if (nanos > maxNanos) {
+          maxNanos = nanos;
+        }
+      }
+    }
+  }
+
+  public long getCount() {
+    return count.sum();
+  }
+
+  public double getMeanMillis() {
+    final long samples = count.sum();
+    return samples == 0 ? 0 : totalNanos.sum() / 1e6 / samples;
+  }
+
+  public double getMaxMillis() {
+    return maxNanos / 1e6;
+  }
+
+  public double percentileMillis(double percentile) {
+    final long[] counts = new long[BUCKETS];
+    long samples = 0;
+    for (int i = 0; i < BUCKETS; i++) {
+      counts[i] = buckets.get(i);
+      samples += counts[i];
+    }
+
+    if (samples == 0) {
+      return 0;
+    }
+
+    final long rank = (long) Math.ceil(percentile / 100 * samples);
+    long seen = 0;
+    for (int i = 0; i < BUCKETS; i++) {
+      seen += counts[i];
+      if (seen >= rank) {
+        return Math.min((1L << i) / 1_000.0, getMaxMillis());
+      }
+    }
+
+    return getMaxMillis();
+  }
+}
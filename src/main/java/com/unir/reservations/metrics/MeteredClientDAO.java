@@ -0,0 +1,10 @@
+package com.unir.reservations.metrics;
+
+import com.unir.reservations.dao.ClientDAO;
+import com.unir.reservations.models.Client;
+
+public class MeteredClientDAO extends MeteredDAO<Client> implements ClientDAO {
+  public MeteredClientDAO(ClientDAO delegate, QueryMetrics metrics) {
+    super(delegate, metrics, "ClientDAO");
+  }
+}
@@ -0,0 +1,118 @@
+package com.unir.reservations.metrics;
+
+import java.sql.Connection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.function.Predicate;
+import java.util.function.Supplier;
+
+import com.unir.reservations.dao.CRUD;
+import com.unir.reservations.dao.ListQuery;
+import com.unir.reservations.utils.Pagination;
+import com.unir.reservations.utils.RawRecord;
+
+public class MeteredDAO<T> implements CRUD<T> {
+  private final CRUD<T> delegate;
+  private final QueryMetrics metrics;
+  private final String prefix;
+
+  public MeteredDAO(CRUD<T> delegate, QueryMetrics metrics, String prefix) {
+    this.delegate = delegate;
+    this.metrics = metrics;
+    this.prefix = prefix;
+  }
+
+  @Override
+  public Pagination getList(ListQuery query, Connection connection) {
+    return time("getList", () -> delegate.getList(query, connection), MeteredDAO::rows);
+  }
+
+  @Override
+  public RawRecord getList(ListQuery query) {
+    return time(
+      "getList",
+      () -> delegate.getList(query),
+      rawRecord -> rows(rawRecord.getPagination()),
+      rawRecord -> rawRecord.getPagination() == null
+    );
+  }
+
+  @Override
+  public RawRecord add(T object, HashMap<String, Object> params) {
+    return time("add", () -> delegate.add(object, params), rawRecord -> 1, MeteredDAO::failed);
+  }
+
+  @Override
+  public RawRecord update(T object, HashMap<String, Object> params) {
+    return time("update", () -> delegate.update(object, params), rawRecord -> 1, MeteredDAO::failed);
+  }
+
+  @Override
+  public RawRecord delete(Integer id, HashMap<String, Object> params) {
+    return time("delete", () -> delegate.delete(id, params), rawRecord -> 1, MeteredDAO::failed);
+  }
+
+  @Override
+  public List<RawRecord> addAll(List<T> objects, HashMap<String, Object> params) {
+    return time(
+      "addAll",
+      () -> delegate.addAll(objects, params),
+      records -> records.stream().filter(rawRecord -> !failed(rawRecord)).count(),
+      records -> records.stream().anyMatch(MeteredDAO::failed)
+    );
+  }
+
+  @Override
+  public List<RawRecord> updateAll(List<T> objects, HashMap<String, Object> params) {
+    return time(
+      "updateAll",
+      () -> delegate.updateAll(objects, params),
+      records -> records.stream().filter(rawRecord -> !failed(rawRecord)).count(),
+      records -> records.stream().anyMatch(MeteredDAO::failed)
+    );
+  }
+
+  @Override
+  public T getForId(Integer id) {
+    return time("getForId", () -> delegate.getForId(id), object -> object == null ? 0 : 1);
+  }
+
+  protected <R> R time(String operation, Supplier<R> call, RowCounter<R> rows) {
+    return time(operation, call, rows, result -> false);
+  }
+
+  /*
+   * The DAOs report failures in the RawRecord instead of throwing, so a call
+   * whose outcome failed counts as an error too.
+   */
+  protected <R> R time(String operation, Supplier<R> call, RowCounter<R> rows, Predicate<R> failed) {
+    final String name = prefix + "." + operation;
+    final long start = System.nanoTime();
+
+    try {
+      final R result = call.get();
+      if (failed.test(result)) {
+        metrics.recordError(name, System.nanoTime() - start);
+      } else {
+        metrics.record(name, System.nanoTime() - start, rows.count(result));
+      }
+      return result;
+    } catch (RuntimeException e) {
+      metrics.recordError(name, System.nanoTime() - start);
+      throw e;
+    }
+  }
+
+  protected interface RowCounter<R> {
+    long count(R result);
+  }
+
+  // A mutation that applied always names what it affected.
+  protected static boolean failed(RawRecord rawRecord) {
+    return rawRecord.getAffected() == null;
+  }
+
+  private static long rows(Pagination pagination) {
+    return pagination == null || pagination.getData() == null ? 0 : pagination.getData().size();
+  }
+}
@@ -0,0 +1,131 @@
+package com.unir.reservations.metrics;
+
+import java.io.PrintWriter;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.sql.SQLFeatureNotSupportedException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.logging.Logger;
+
+import javax.sql.DataSource;
+
+/*
+ * Wraps a DataSource so every connection checkout and every prepared
+ * statement execution is timed into QueryMetrics. Statements are named by
+ * their whitespace-normalised SQL text.
+ */
+public class MeteredDataSource implements DataSource {
+  private static final int MAX_NAME_LENGTH = 200;
+  private static final int MAX_NAMES = 1_024;
+
+  private final DataSource delegate;
+  private final QueryMetrics metrics;
+  private final ConcurrentHashMap<String, String> names = new ConcurrentHashMap<>();
+
+  public MeteredDataSource(DataSource delegate, QueryMetrics metrics) {
+    this.delegate = delegate;
+    this.metrics = metrics;
+  }
+
+  @Override
+  public Connection getConnection() throws SQLException {
+    final long start = System.nanoTime();
+    try {
+      final Connection connection = delegate.getConnection();
+      metrics.record(QueryMetrics.POOL_WAIT, System.nanoTime() - start, 0);
+      return wrap(connection);
+    } catch (SQLException e) {
+      metrics.recordError(QueryMetrics.POOL_WAIT, System.nanoTime() - start);
+      throw e;
+    }
+  }
+
+  @Override
+  public Connection getConnection(String username, String password) throws SQLException {
+    final long start = System.nanoTime();
+    try {
+      final Connection connection = delegate.getConnection(username, password);
+      metrics.record(QueryMetrics.POOL_WAIT, System.nanoTime() - start, 0);
+      return wrap(connection);
+    } catch (SQLException e) {
+      metrics.recordError(QueryMetrics.POOL_WAIT, System.nanoTime() - start);
+      throw e;
+    }
+  }
+
+  @Override
+  public PrintWriter getLogWriter() throws SQLException {
+    return delegate.getLogWriter();
+  }
+
+  @Override
+  public void setLogWriter(PrintWriter out) throws SQLException {
+    delegate.setLogWriter(out);
+  }
+
+  @Override
+  public void setLoginTimeout(int seconds) throws SQLException {
+    delegate.setLoginTimeout(seconds);
+  }
+
+  @Override
+  public int getLoginTimeout() throws SQLException {
+    return delegate.getLoginTimeout();
+  }
+
+  @Override
+  public Logger getParentLogger() throws SQLFeatureNotSupportedException {
+    return delegate.getParentLogger();
+  }
+
+  @Override
+  public <T> T unwrap(Class<T> iface) throws SQLException {
+    return iface.isInstance(this) ? iface.cast(this) : delegate.unwrap(iface);
+  }
+
+  @Override
+  public boolean isWrapperFor(Class<?> iface) throws SQLException {
+    return iface.isInstance(this) || delegate.isWrapperFor(iface);
+  }
+
+  private Connection wrap(Connection connection) {
+    return new MeteredConnection(connection, metrics, this);
+  }
+
+  /*
+   * The DAOs prepare a fixed set of SQL texts, so each is normalised once.
+   * Past MAX_NAMES distinct texts new ones are still named, just not kept.
+   */
+  String name(String sql) {
+    final String cached = names.get(sql);
+    if (cached != null) {
+      return cached;
+    }
+
+    final String name = normalize(sql);
+    if (names.size() < MAX_NAMES) {
+      names.putIfAbsent(sql, name);
+    }
+    return name;
+  }
+
+  private static String normalize(String sql) {
+    final StringBuilder name = new StringBuilder(Math.min(sql.length(), MAX_NAME_LENGTH));
+    boolean space = false;
+
+    for (int i = 0; i < sql.length() && name.length() < MAX_NAME_LENGTH; i++) {
+      final char c = sql.charAt(i);
+      if (Character.isWhitespace(c)) {
+        space = name.length() > 0;
+      } else {
+        if (space) {
+          name.append(' ');
+          space = false;
+        }
+        name.append(c);
+      }
+    }
+
+    return name.length() > MAX_NAME_LENGTH ? name.substring(0, MAX_NAME_LENGTH) : name.toString();
+  }
+}
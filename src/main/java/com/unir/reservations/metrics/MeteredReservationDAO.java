@@ -0,0 +1,34 @@
+package com.unir.reservations.metrics;
+
+import java.sql.SQLException;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.stream.Stream;
+
+import com.unir.reservations.dao.ReservationDAO;
+import com.unir.reservations.models.Reservation;
+import com.unir.reservations.utils.RawRecord;
+
+public class MeteredReservationDAO extends MeteredDAO<Reservation> implements ReservationDAO {
+  private final ReservationDAO delegate;
+
+  public MeteredReservationDAO(ReservationDAO delegate, QueryMetrics metrics) {
+    super(delegate, metrics, "ReservationDAO");
+    this.delegate = delegate;
+  }
+
+  @Override
+  public Stream<Reservation> stream(HashMap<String, Object> params, int fetchSize) throws SQLException {
+    return delegate.stream(params, fetchSize);
+  }
+
+  @Override
+  public RawRecord updatePrices(Map<Integer, Double> prices) {
+    return time(
+      "updatePrices",
+      () -> delegate.updatePrices(prices),
+      rawRecord -> rawRecord.getAffected() instanceof Integer rows ? rows : 0,
+      MeteredDAO::failed
+    );
+  }
+}
@@ -0,0 +1,10 @@
+package com.unir.reservations.metrics;
+
+import com.unir.reservations.dao.RoomDAO;
+import com.unir.reservations.models.Room;
+
+public class MeteredRoomDAO extends MeteredDAO<Room> implements RoomDAO {
+  public MeteredRoomDAO(RoomDAO delegate, QueryMetrics metrics) {
+    super(delegate, metrics, "RoomDAO");
+  }
+}
@@ -0,0 +1,10 @@
+package com.unir.reservations.metrics;
+
+import com.unir.reservations.dao.ServiceDAO;
+import com.unir.reservations.models.Service;
+
+public class MeteredServiceDAO extends MeteredDAO<Service> implements ServiceDAO {
+  public MeteredServiceDAO(ServiceDAO delegate, QueryMetrics metrics) {
+    super(delegate, metrics, "ServiceDAO");
+  }
+}
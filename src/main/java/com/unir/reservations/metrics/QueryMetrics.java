@@ -0,0 +1,77 @@
+package com.unir.reservations.metrics;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+public class QueryMetrics {
+  private static final Logger LOGGER = Logger.getLogger(QueryMetrics.class.getName());
+  public static final String POOL_WAIT = "pool.getConnection";
+
+  private static final class Stats {
+    final LatencyHistogram latency = new LatencyHistogram();
+    final LongAdder errors = new LongAdder();
+    final LongAdder rows = new LongAdder();
+  }
+
+  private final ConcurrentHashMap<String, Stats> stats = new ConcurrentHashMap<>();
+  private volatile long slowQueryNanos;
+
+  public QueryMetrics(long slowQueryMillis) {
+    this.slowQueryNanos = TimeUnit.MILLISECONDS.toNanos(slowQueryMillis);
+  }
+
+  public void setSlowQueryThreshold(long slowQueryMillis) {
+    this.slowQueryNanos = TimeUnit.MILLISECONDS.toNanos(slowQueryMillis);
+  }
+
+  public void record(String name, long nanos, long rows) {
+    final Stats query = stats.computeIfAbsent(name, key -> new Stats());
+    query.latency.record(nanos);
+    if (rows > 0) {
+      query.rows.add(rows);
+    }
+
+    if (nanos > slowQueryNanos) {
+      LOGGER.log(
+        Level.WARNING,
+        "Slow query {0}: {1} ms, {2} rows",
+        new Object[] { name, nanos / 1_000_000, rows }
+      );
+    }
+  }
+
+  public void recordError(String name, long nanos) {
+    final Stats query = stats.computeIfAbsent(name, key -> new Stats());
+    query.latency.record(nanos);
+    query.errors.increment();
+  }
+
+  public List<QuerySnapshot> snapshot() {
+    final List<QuerySnapshot> snapshots = new ArrayList<>(stats.size());
+
+    stats.forEach((name, query) -> snapshots.add(new QuerySnapshot(
+      name,
+      query.latency.getCount(),
+      query.errors.sum(),
+      query.rows.sum(),
+      query.latency.getMeanMillis(),
+      query.latency.percentileMillis(50),
+      query.latency.percentileMillis(95),
+      query.latency.percentileMillis(99),
+      query.latency.getMaxMillis()
+    )));
+
+    snapshots.sort(Comparator.comparing(QuerySnapshot::name));
+    return snapshots;
+  }
+
+  public void reset() {
+    stats.clear();
+  }
+}
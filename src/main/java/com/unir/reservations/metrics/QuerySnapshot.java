@@ -0,0 +1,14 @@
+package com.unir.reservations.metrics;
+
+public record QuerySnapshot (
+  String name,
+  long count,
+  long errors,
+  long rows,
+  double meanMillis,
+  double p50Millis,
+  double p95Millis,
+  double p99Millis,
+  double maxMillis
+) {
+}
@@ -8,6 +8,7 @@ public record Client (
   String surName,
   String phoneNumber,
   String mobileNumber,
-  String email
+  String email,
+  Integer version
 ) {
 }
@@ -12,6 +12,7 @@ public record Reservation (
   Integer startHour,
   Integer endHour,
   Double priceTotal,
-  String observations
+  String observations,
+  Integer version
 ) {
 }
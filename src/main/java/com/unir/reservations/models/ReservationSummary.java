@@ -0,0 +1,40 @@
+package com.unir.reservations.models;
+
+import java.time.LocalDate;
+import java.util.function.IntFunction;
+
+/*
+ * List-view projection of a reservation: primitive ids, the date as an
+ * epoch day and the hours as shorts. Clients and rooms are referenced by id
+ * and can be resolved through a shared lookup (the room catalog, a client
+ * cache) so a page holds one instance of each.
+ */
+public record ReservationSummary (
+  int idReservation,
+  int clientId,
+  int roomId,
+  int epochDay,
+  short startHour,
+  short endHour,
+  double priceTotal,
+  int version
+) {
+  public LocalDate date() {
+    return LocalDate.ofEpochDay(epochDay);
+  }
+
+  public Reservation toReservation(IntFunction<Client> clients, IntFunction<Room> rooms) {
+    return new Reservation(
+      idReservation,
+      clients.apply(clientId),
+      null,
+      rooms.apply(roomId),
+      java.sql.Date.valueOf(date()),
+      (int) startHour,
+      (int) endHour,
+      priceTotal,
+      null,
+      version
+    );
+  }
+}
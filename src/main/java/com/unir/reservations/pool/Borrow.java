@@ -0,0 +1,43 @@
+package com.unir.reservations.pool;
+
+import java.util.concurrent.atomic.AtomicBoolean;
+
+class Borrow {
+  private final Thread thread = Thread.currentThread();
+  private final long borrowedAt = System.nanoTime();
+  private final Throwable stackTrace;
+  private final AtomicBoolean released = new AtomicBoolean();
+  private volatile boolean reportedLeak;
+
+  Borrow(boolean captureStackTrace) {
+    this.stackTrace = captureStackTrace ? new Throwable("Connection borrowed here") : null;
+  }
+
+  Thread thread() {
+    return thread;
+  }
+
+  long borrowedAt() {
+    return borrowedAt;
+  }
+
+  Throwable stackTrace() {
+    return stackTrace;
+  }
+
+  boolean release() {
+    return released.compareAndSet(false, true);
+  }
+
+  boolean isReleased() {
+    return released.get();
+  }
+
+  boolean markLeakReported() {
+    if (reportedLeak) {
+      return false;
+    }
+    reportedLeak = true;
+    return true;
+  }
+}
@@ -0,0 +1,404 @@
+package com.unir.reservations.pool;
+
+import java.sql.Array;
+import java.sql.Blob;
+import java.sql.CallableStatement;
+import java.sql.Clob;
+import java.sql.Connection;
+import java.sql.DatabaseMetaData;
+import java.sql.NClob;
+import java.sql.PreparedStatement;
+import java.sql.SQLClientInfoException;
+import java.sql.SQLException;
+import java.sql.SQLWarning;
+import java.sql.SQLXML;
+import java.sql.Savepoint;
+import java.sql.ShardingKey;
+import java.sql.Statement;
+import java.sql.Struct;
+import java.util.Arrays;
+import java.util.Map;
+import java.util.Properties;
+import java.util.concurrent.Executor;
+
+/*
+ * Connection handed to one borrower. Closing it returns the physical
+ * connection to the pool; any other call after that fails. Prepared
+ * statements come from the owner's cache when it has one.
+ */
+final class BorrowedConnection implements Connection {
+  private static final String RETURNED = "Connection has already been returned to the pool";
+
+  private final PooledConnection owner;
+  private final Borrow borrow;
+
+  BorrowedConnection(PooledConnection owner, Borrow borrow) {
+    this.owner = owner;
+    this.borrow = borrow;
+  }
+
+  private Connection physical() throws SQLException {
+    if (borrow.isReleased()) {
+      throw new SQLException(RETURNED);
+    }
+    return owner.physical();
+  }
+
+  private void checkClientInfo() throws SQLClientInfoException {
+    if (borrow.isReleased()) {
+      throw new SQLClientInfoException(RETURNED, null);
+    }
+  }
+
+  private PreparedStatement prepare(PooledConnection.Preparer preparer, Object... key) throws SQLException {
+    physical();
+    return owner.prepare(this, Arrays.deepToString(key), preparer);
+  }
+
+  @Override
+  public void abort(Executor executor) throws SQLException {
+    physical().abort(executor);
+  }
+
+  @Override
+  public void beginRequest() throws SQLException {
+    physical().beginRequest();
+  }
+
+  @Override
+  public void clearWarnings() throws SQLException {
+    physical().clearWarnings();
+  }
+
+  @Override
+  public void close() throws SQLException {
+    owner.giveBack(borrow);
+  }
+
+  @Override
+  public void commit() throws SQLException {
+    physical().commit();
+  }
+
+  @Override
+  public Array createArrayOf(String typeName, Object[] elements) throws SQLException {
+    return physical().createArrayOf(typeName, elements);
+  }
+
+  @Override
+  public Blob createBlob() throws SQLException {
+    return physical().createBlob();
+  }
+
+  @Override
+  public Clob createClob() throws SQLException {
+    return physical().createClob();
+  }
+
+  @Override
+  public NClob createNClob() throws SQLException {
+    return physical().createNClob();
+  }
+
+  @Override
+  public SQLXML createSQLXML() throws SQLException {
+    return physical().createSQLXML();
+  }
+
+  @Override
+  public Statement createStatement() throws SQLException {
+    return physical().createStatement();
+  }
+
+  @Override
+  public Statement createStatement(
+    int resultSetType,
+    int resultSetConcurrency,
+    int resultSetHoldability
+  ) throws SQLException {
+    return physical().createStatement(resultSetType, resultSetConcurrency, resultSetHoldability);
+  }
+
+  @Override
+  public Statement createStatement(
+    int resultSetType,
+    int resultSetConcurrency
+  ) throws SQLException {
+    return physical().createStatement(resultSetType, resultSetConcurrency);
+  }
+
+  @Override
+  public Struct createStruct(String typeName, Object[] attributes) throws SQLException {
+    return physical().createStruct(typeName, attributes);
+  }
+
+  @Override
+  public void endRequest() throws SQLException {
+    physical().endRequest();
+  }
+
+  @Override
+  public boolean getAutoCommit() throws SQLException {
+    return physical().getAutoCommit();
+  }
+
+  @Override
+  public String getCatalog() throws SQLException {
+    return physical().getCatalog();
+  }
+
+  @Override
+  public Properties getClientInfo() throws SQLException {
+    return physical().getClientInfo();
+  }
+
+  @Override
+  public String getClientInfo(String name) throws SQLException {
+    return physical().getClientInfo(name);
+  }
+
+  @Override
+  public int getHoldability() throws SQLException {
+    return physical().getHoldability();
+  }
+
+  @Override
+  public DatabaseMetaData getMetaData() throws SQLException {
+    return physical().getMetaData();
+  }
+
+  @Override
+  public int getNetworkTimeout() throws SQLException {
+    return physical().getNetworkTimeout();
+  }
+
+  @Override
+  public String getSchema() throws SQLException {
+    return physical().getSchema();
+  }
+
+  @Override
+  public int getTransactionIsolation() throws SQLException {
+    return physical().getTransactionIsolation();
+  }
+
+  @Override
+  public Map<String, Class<?>> getTypeMap() throws SQLException {
+    return physical().getTypeMap();
+  }
+
+  @Override
+  public SQLWarning getWarnings() throws SQLException {
+    return physical().getWarnings();
+  }
+
+  @Override
+  public boolean isClosed() throws SQLException {
+    return borrow.isReleased() || owner.physical().isClosed();
+  }
+
+  @Override
+  public boolean isReadOnly() throws SQLException {
+    return physical().isReadOnly();
+  }
+
+  @Override
+  public boolean isValid(int timeout) throws SQLException {
+    return physical().isValid(timeout);
+  }
+
+  @Override
+  public boolean isWrapperFor(Class<?> iface) throws SQLException {
+    return iface.isInstance(this) || owner.physical().isWrapperFor(iface);
+  }
+
+  @Override
+  public String nativeSQL(String sql) throws SQLException {
+    return physical().nativeSQL(sql);
+  }
+
+  @Override
+  public CallableStatement prepareCall(
+    String sql,
+    int resultSetType,
+    int resultSetConcurrency,
+    int resultSetHoldability
+  ) throws SQLException {
+    return physical().prepareCall(sql, resultSetType, resultSetConcurrency, resultSetHoldability);
+  }
+
+  @Override
+  public CallableStatement prepareCall(
+    String sql,
+    int resultSetType,
+    int resultSetConcurrency
+  ) throws SQLException {
+    return physical().prepareCall(sql, resultSetType, resultSetConcurrency);
+  }
+
+  @Override
+  public CallableStatement prepareCall(String sql) throws SQLException {
+    return physical().prepareCall(sql);
+  }
+
+  @Override
+  public PreparedStatement prepareStatement(String sql, int[] columnIndexes) throws SQLException {
+    return prepare(() -> physical().prepareStatement(sql, columnIndexes), sql, columnIndexes);
+  }
+
+  @Override
+  public PreparedStatement prepareStatement(String sql, String[] columnNames) throws SQLException {
+    return prepare(() -> physical().prepareStatement(sql, columnNames), sql, columnNames);
+  }
+
+  @Override
+  public PreparedStatement prepareStatement(
+    String sql,
+    int resultSetType,
+    int resultSetConcurrency,
+    int resultSetHoldability
+  ) throws SQLException {
+    return prepare(
+      () -> physical().prepareStatement(sql, resultSetType, resultSetConcurrency, resultSetHoldability),
+      sql,
+      resultSetType,
+      resultSetConcurrency,
+      resultSetHoldability
+    );
+  }
+
+  @Override
+  public PreparedStatement prepareStatement(
+    String sql,
+    int resultSetType,
+    int resultSetConcurrency
+  ) throws SQLException {
+    return prepare(
+      () -> physical().prepareStatement(sql, resultSetType, resultSetConcurrency),
+      sql,
+      resultSetType,
+      resultSetConcurrency
+    );
+  }
+
+  @Override
+  public PreparedStatement prepareStatement(String sql, int autoGeneratedKeys) throws SQLException {
+    return prepare(() -> physical().prepareStatement(sql, autoGeneratedKeys), sql, autoGeneratedKeys);
+  }
+
+  @Override
+  public PreparedStatement prepareStatement(String sql) throws SQLException {
+    return prepare(() -> physical().prepareStatement(sql), sql);
+  }
+
+  @Override
+  public void releaseSavepoint(Savepoint savepoint) throws SQLException {
+    physical().releaseSavepoint(savepoint);
+  }
+
+  @Override
+  public void rollback() throws SQLException {
+    physical().rollback();
+  }
+
+  @Override
+  public void rollback(Savepoint savepoint) throws SQLException {
+    physical().rollback(savepoint);
+  }
+
+  @Override
+  public void setAutoCommit(boolean autoCommit) throws SQLException {
+    physical().setAutoCommit(autoCommit);
+  }
+
+  @Override
+  public void setCatalog(String catalog) throws SQLException {
+    physical().setCatalog(catalog);
+  }
+
+  @Override
+  public void setClientInfo(String name, String value) throws SQLClientInfoException {
+    checkClientInfo();
+    owner.physical().setClientInfo(name, value);
+  }
+
+  @Override
+  public void setClientInfo(Properties properties) throws SQLClientInfoException {
+    checkClientInfo();
+    owner.physical().setClientInfo(properties);
+  }
+
+  @Override
+  public void setHoldability(int holdability) throws SQLException {
+    physical().setHoldability(holdability);
+  }
+
+  @Override
+  public void setNetworkTimeout(Executor executor, int milliseconds) throws SQLException {
+    physical().setNetworkTimeout(executor, milliseconds);
+  }
+
+  @Override
+  public void setReadOnly(boolean readOnly) throws SQLException {
+    physical().setReadOnly(readOnly);
+    owner.sessionChanged();
+  }
+
+  @Override
+  public Savepoint setSavepoint() throws SQLException {
+    return physical().setSavepoint();
+  }
+
+  @Override
+  public Savepoint setSavepoint(String name) throws SQLException {
+    return physical().setSavepoint(name);
+  }
+
+  @Override
+  public void setSchema(String schema) throws SQLException {
+    physical().setSchema(schema);
+  }
+
+  @Override
+  public void setShardingKey(
+    ShardingKey shardingKey,
+    ShardingKey superShardingKey
+  ) throws SQLException {
+    physical().setShardingKey(shardingKey, superShardingKey);
+  }
+
+  @Override
+  public void setShardingKey(ShardingKey shardingKey) throws SQLException {
+    physical().setShardingKey(shardingKey);
+  }
+
+  @Override
+  public boolean setShardingKeyIfValid(ShardingKey shardingKey, int timeout) throws SQLException {
+    return physical().setShardingKeyIfValid(shardingKey, timeout);
+  }
+
+  @Override
+  public boolean setShardingKeyIfValid(
+    ShardingKey shardingKey,
+    ShardingKey superShardingKey,
+    int timeout
+  ) throws SQLException {
+    return physical().setShardingKeyIfValid(shardingKey, superShardingKey, timeout);
+  }
+
+  @Override
+  public void setTransactionIsolation(int level) throws SQLException {
+    physical().setTransactionIsolation(level);
+    owner.sessionChanged();
+  }
+
+  @Override
+  public void setTypeMap(Map<String, Class<?>> map) throws SQLException {
+    physical().setTypeMap(map);
+  }
+
+  @Override
+  public <T> T unwrap(Class<T> iface) throws SQLException {
+    return iface.isInstance(this) ? iface.cast(this) : owner.physical().unwrap(iface);
+  }
+}
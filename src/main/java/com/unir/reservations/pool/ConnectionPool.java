@@ -0,0 +1,288 @@
+package com.unir.reservations.pool;
+
+import java.io.PrintWriter;
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.SQLException;
+import java.sql.SQLFeatureNotSupportedException;
+import java.sql.SQLTransientConnectionException;
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedDeque;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+import javax.sql.DataSource;
+
+/*
+ * Bounded, fair connection pool. Callers queue on a fair semaphore, so under
+ * contention connections are handed out in arrival order and a full pool
+ * fails after acquireTimeoutMillis instead of blocking forever.
+ *
+ * A borrow held longer than leakThresholdMillis is logged once as a leak,
+ * and a thread borrowing while it already holds a connection is logged as a
+ * nested borrow, since that pattern deadlocks a small pool. The reports carry
+ * the borrowing stack when captureBorrowStacks is on.
+ */
+public class ConnectionPool implements DataSource, AutoCloseable {
+  private static final Logger LOGGER = Logger.getLogger(ConnectionPool.class.getName());
+  private static final int MAX_TRACKED_STATEMENTS = 1024;
+
+  private final ConnectionPoolConfig config;
+  private final Semaphore permits;
+  private final ConcurrentLinkedDeque<PooledConnection> idle = new ConcurrentLinkedDeque<>();
+  private final Set<Borrow> borrowed = ConcurrentHashMap.newKeySet();
+  private final ThreadLocal<Deque<Borrow>> heldByThread = ThreadLocal.withInitial(ArrayDeque::new);
+  private final ScheduledExecutorService leakDetector;
+
+  private final LongAdder waitNanos = new LongAdder();
+  private final LongAdder timeouts = new LongAdder();
+  private final LongAdder leaks = new LongAdder();
+  private final LongAdder nestedBorrows = new LongAdder();
+  private final LongAdder statementCacheHits = new LongAdder();
+  private final LongAdder statementCacheMisses = new LongAdder();
+  // Distinct statement texts seen, capped so a stream of ad-hoc SQL cannot grow it without bound.
+  private final Set<String> statementTexts = ConcurrentHashMap.newKeySet();
+
+  private volatile boolean closed;
+
+  public ConnectionPool(ConnectionPoolConfig config) {
+    this.config = config;
+    this.permits = new Semaphore(config.maxSize(), true);
+
+    if (config.leakThresholdMillis() > 0) {
+      this.leakDetector = Executors.newSingleThreadScheduledExecutor(runnable -> {
+        final Thread thread = new Thread(runnable, "connection-pool-leak-detector");
+        thread.setDaemon(true);
+        return thread;
+      });
+      final long period = Math.max(1, config.leakThresholdMillis() / 2);
+      this.leakDetector.scheduleAtFixedRate(this::detectLeaks, period, period, TimeUnit.MILLISECONDS);
+    } else {
+      this.leakDetector = null;
+    }
+  }
+
+  @Override
+  public Connection getConnection() throws SQLException {
+    if (closed) {
+      throw new SQLException("Connection pool is closed");
+    }
+
+    final Deque<Borrow> held = heldByThread.get();
+    // Connections closed from another thread are only dropped here.
+    held.removeIf(Borrow::isReleased);
+    if (!held.isEmpty()) {
+      nestedBorrows.increment();
+      LOGGER.log(
+        Level.WARNING,
+        "Thread " + Thread.currentThread().getName() + " borrowed a second connection while holding one",
+        held.peek().stackTrace()
+      );
+    }
+
+    final long start = System.nanoTime();
+    final boolean acquired;
+    try {
+      acquired = permits.tryAcquire(config.acquireTimeoutMillis(), TimeUnit.MILLISECONDS);
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+      throw new SQLTransientConnectionException("Interrupted while waiting for a connection", e);
+    } finally {
+      waitNanos.add(System.nanoTime() - start);
+    }
+
+    if (!acquired) {
+      timeouts.increment();
+      throw new SQLTransientConnectionException(
+        "Timed out after " + config.acquireTimeoutMillis() + " ms waiting for a connection"
+      );
+    }
+
+    try {
+      final PooledConnection connection = takeIdleOrOpen();
+      final Borrow borrow = new Borrow(config.captureBorrowStacks());
+      borrowed.add(borrow);
+      held.push(borrow);
+      return connection.borrow(borrow);
+    } catch (SQLException | RuntimeException e) {
+      permits.release();
+      throw e;
+    }
+  }
+
+  @Override
+  public Connection getConnection(String username, String password) throws SQLException {
+    throw new SQLFeatureNotSupportedException("Pooled connections use the configured credentials");
+  }
+
+  void giveBack(PooledConnection connection, Borrow borrow) {
+    borrowed.remove(borrow);
+    if (borrow.thread() == Thread.currentThread()) {
+      heldByThread.get().remove(borrow);
+    }
+
+    try {
+      if (closed) {
+        connection.closePhysical();
+      } else {
+        connection.reset();
+        connection.markIdle();
+        idle.push(connection);
+      }
+    } catch (SQLException e) {
+      LOGGER.log(Level.WARNING, "Discarding broken connection: {0}", e.getMessage());
+      connection.closePhysical();
+    } finally {
+      permits.release();
+    }
+  }
+
+  void statementCacheHit() {
+    statementCacheHits.increment();
+  }
+
+  void statementCacheMiss(String key) {
+    statementCacheMisses.increment();
+    if (statementTexts.size() < MAX_TRACKED_STATEMENTS) {
+      statementTexts.add(key);
+    }
+  }
+
+  public int getActiveCount() {
+    return borrowed.size();
+  }
+
+  public int getIdleCount() {
+    return idle.size();
+  }
+
+  public int getWaitingCount() {
+    return permits.getQueueLength();
+  }
+
+  public long getTotalWaitMillis() {
+    return TimeUnit.NANOSECONDS.toMillis(waitNanos.sum());
+  }
+
+  public long getTimeoutCount() {
+    return timeouts.sum();
+  }
+
+  public long getLeakCount() {
+    return leaks.sum();
+  }
+
+  public long getNestedBorrowCount() {
+    return nestedBorrows.sum();
+  }
+
+  public long getStatementCacheHitCount() {
+    return statementCacheHits.sum();
+  }
+
+  public long getStatementCacheMissCount() {
+    return statementCacheMisses.sum();
+  }
+
+  public double getStatementCacheHitRate() {
+    final long hits = statementCacheHits.sum();
+    final long total = hits + statementCacheMisses.sum();
+    return total == 0 ? 0 : (double) hits / total;
+  }
+
+  public int getDistinctStatementCount() {
+    return statementTexts.size();
+  }
+
+  @Override
+  public void close() {
+    closed = true;
+    if (leakDetector != null) {
+      leakDetector.shutdownNow();
+    }
+
+    PooledConnection connection;
+    while ((connection = idle.poll()) != null) {
+      connection.closePhysical();
+    }
+  }
+
+  @Override
+  public PrintWriter getLogWriter() {
+    return null;
+  }
+
+  @Override
+  public void setLogWriter(PrintWriter out) {
+  }
+
+  @Override
+  public void setLoginTimeout(int seconds) {
+  }
+
+  @Override
+  public int getLoginTimeout() {
+    return 0;
+  }
+
+  @Override
+  public Logger getParentLogger() {
+    return LOGGER;
+  }
+
+  @Override
+  public <T> T unwrap(Class<T> iface) throws SQLException {
+    if (iface.isInstance(this)) {
+      return iface.cast(this);
+    }
+    throw new SQLException("Not a wrapper for " + iface.getName());
+  }
+
+  @Override
+  public boolean isWrapperFor(Class<?> iface) {
+    return iface.isInstance(this);
+  }
+
+  private PooledConnection takeIdleOrOpen() throws SQLException {
+    PooledConnection connection;
+    final long validateAfter = TimeUnit.MILLISECONDS.toNanos(config.validateAfterIdleMillis());
+    while ((connection = idle.poll()) != null) {
+      // Recently returned connections are reused as they are; a broken one fails its first statement.
+      if (connection.idleNanos() < validateAfter || connection.physical().isValid(1)) {
+        return connection;
+      }
+      connection.closePhysical();
+    }
+
+    return new PooledConnection(
+      DriverManager.getConnection(config.url(), config.user(), config.password()),
+      config.statementCacheSize(),
+      this
+    );
+  }
+
+  private void detectLeaks() {
+    final long threshold = TimeUnit.MILLISECONDS.toNanos(config.leakThresholdMillis());
+    final long now = System.nanoTime();
+
+    for (Borrow borrow : borrowed) {
+      if (now - borrow.borrowedAt() > threshold && borrow.markLeakReported()) {
+        leaks.increment();
+        LOGGER.log(
+          Level.WARNING,
+          "Connection held by " + borrow.thread().getName() + " for more than "
+            + config.leakThresholdMillis() + " ms, possible leak",
+          borrow.stackTrace()
+        );
+      }
+    }
+  }
+}
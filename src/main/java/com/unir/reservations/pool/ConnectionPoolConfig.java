@@ -0,0 +1,47 @@
+package com.unir.reservations.pool;
+
+/*
+ * validateAfterIdleMillis: an idle connection is only checked with isValid
+ * before reuse once it has sat unused for this long.
+ * captureBorrowStacks: record the borrowing stack for leak and nested-borrow
+ * reports. Off by default; it costs a stack walk per checkout.
+ */
+public record ConnectionPoolConfig (
+  String url,
+  String user,
+  String password,
+  int maxSize,
+  long acquireTimeoutMillis,
+  long leakThresholdMillis,
+  int statementCacheSize,
+  long validateAfterIdleMillis,
+  boolean captureBorrowStacks
+) {
+  public ConnectionPoolConfig {
+    if (maxSize <= 0) {
+      throw new IllegalArgumentException("maxSize must be positive");
+    }
+    if (acquireTimeoutMillis < 0 || leakThresholdMillis < 0 || statementCacheSize < 0
+      || validateAfterIdleMillis < 0) {
+      throw new IllegalArgumentException("Timeouts and cache size must not be negative");
+    }
+  }
+
+  public ConnectionPoolConfig(String url, String user, String password, int maxSize) {
+    this(url, user, password, maxSize, 5_000, 60_000, 64, 5_000, false);
+  }
+
+  public ConnectionPoolConfig withBorrowStacks(boolean captureBorrowStacks) {
+    return new ConnectionPoolConfig(
+      url,
+      user,
+      password,
+      maxSize,
+      acquireTimeoutMillis,
+      leakThresholdMillis,
+      statementCacheSize,
+      validateAfterIdleMillis,
+      captureBorrowStacks
+    );
+  }
+}
@@ -0,0 +1,183 @@
+package com.unir.reservations.pool;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/*
+ * A physical connection plus its prepared-statement cache. The cache is only
+ * touched by the thread currently borrowing the connection, so it needs no
+ * locking of its own.
+ */
+class PooledConnection {
+  private static final Logger LOGGER = Logger.getLogger(PooledConnection.class.getName());
+
+  private final Connection physical;
+  private final int cacheSize;
+  private final ConnectionPool pool;
+  private final LinkedHashMap<String, CachedStatement> statements;
+  // Session settings a borrower may change, restored before the next borrower gets the connection.
+  private final boolean readOnly;
+  private final int isolation;
+  private boolean sessionChanged;
+  private volatile long idleSince = System.nanoTime();
+
+  interface Preparer {
+    PreparedStatement prepare() throws SQLException;
+  }
+
+  static final class CachedStatement {
+    final String key;
+    final PreparedStatement statement;
+    final int fetchSize;
+    final int maxRows;
+    final int queryTimeout;
+    boolean inUse;
+    boolean limitsChanged;
+
+    CachedStatement(String key, PreparedStatement statement) throws SQLException {
+      this.key = key;
+      this.statement = statement;
+      this.fetchSize = statement.getFetchSize();
+      this.maxRows = statement.getMaxRows();
+      this.queryTimeout = statement.getQueryTimeout();
+    }
+
+    void reset() throws SQLException {
+      statement.clearParameters();
+      statement.clearBatch();
+      if (limitsChanged) {
+        statement.setMaxRows(maxRows);
+        statement.setFetchSize(fetchSize);
+        statement.setQueryTimeout(queryTimeout);
+        limitsChanged = false;
+      }
+    }
+  }
+
+  PooledConnection(Connection physical, int cacheSize, ConnectionPool pool) throws SQLException {
+    this.physical = physical;
+    this.cacheSize = cacheSize;
+    this.pool = pool;
+    this.statements = new LinkedHashMap<>(16, 0.75f, true);
+    this.readOnly = physical.isReadOnly();
+    this.isolation = physical.getTransactionIsolation();
+  }
+
+  Connection physical() {
+    return physical;
+  }
+
+  Connection borrow(Borrow borrow) {
+    return new BorrowedConnection(this, borrow);
+  }
+
+  void giveBack(Borrow borrow) {
+    if (borrow.release()) {
+      pool.giveBack(this, borrow);
+    }
+  }
+
+  void sessionChanged() {
+    sessionChanged = true;
+  }
+
+  void reset() throws SQLException {
+    if (!physical.getAutoCommit()) {
+      physical.rollback();
+      physical.setAutoCommit(true);
+    }
+    if (sessionChanged) {
+      physical.setReadOnly(readOnly);
+      physical.setTransactionIsolation(isolation);
+      sessionChanged = false;
+    }
+    physical.clearWarnings();
+  }
+
+  void markIdle() {
+    idleSince = System.nanoTime();
+  }
+
+  long idleNanos() {
+    return System.nanoTime() - idleSince;
+  }
+
+  void closePhysical() {
+    statements.values().forEach(cached -> closeQuietly(cached.statement));
+    statements.clear();
+
+    try {
+      physical.close();
+    } catch (SQLException e) {
+      LOGGER.log(Level.WARNING, "Error closing pooled connection: {0}", e.getMessage());
+    }
+  }
+
+  PreparedStatement prepare(Connection borrowed, String key, Preparer preparer) throws SQLException {
+    if (cacheSize <= 0) {
+      return preparer.prepare();
+    }
+
+    final CachedStatement cached = statements.get(key);
+    if (cached != null && !cached.inUse) {
+      pool.statementCacheHit();
+      cached.inUse = true;
+      return new LentStatement(this, cached, borrowed);
+    }
+
+    pool.statementCacheMiss(key);
+    final PreparedStatement statement = preparer.prepare();
+    if (cached != null) {
+      // The same SQL is already open on this connection; hand out an uncached one.
+      return statement;
+    }
+
+    final CachedStatement created = new CachedStatement(key, statement);
+    created.inUse = true;
+    statements.put(key, created);
+
+    if (statements.size() > cacheSize) {
+      final Iterator<Map.Entry<String, CachedStatement>> eldest = statements.entrySet().iterator();
+      while (eldest.hasNext()) {
+        final CachedStatement candidate = eldest.next().getValue();
+        if (!candidate.inUse) {
+          eldest.remove();
+          closeQuietly(candidate.statement);
+          break;
+        }
+      }
+    }
+
+    return new LentStatement(this, created, borrowed);
+  }
+
+  /*
+   * A statement that cannot be reset is dropped from the cache rather than
+   * lent out again with a previous borrower's parameters or limits.
+   */
+  void giveBack(CachedStatement cached) {
+    try {
+      cached.reset();
+    } catch (SQLException e) {
+      LOGGER.log(Level.WARNING, "Evicting a cached statement that failed to reset: {0}", e.getMessage());
+      statements.remove(cached.key, cached);
+      closeQuietly(cached.statement);
+    } finally {
+      cached.inUse = false;
+    }
+  }
+
+  private static void closeQuietly(PreparedStatement statement) {
+    try {
+      statement.close();
+    } catch (SQLException e) {
+      LOGGER.log(Level.FINE, "Error closing cached statement: {0}", e.getMessage());
+    }
+  }
+}
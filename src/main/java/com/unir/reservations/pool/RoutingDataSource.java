@@ -0,0 +1,308 @@
+package com.unir.reservations.pool;
+
+import java.io.PrintWriter;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.sql.SQLFeatureNotSupportedException;
+import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+import javax.sql.DataSource;
+
+/*
+ * Primary for writes, replicas for reads. getConnection() always returns a
+ * primary connection; reads() is a view that picks a replica, round robin
+ * or the one with the fewest connections out.
+ *
+ * Read your writes: work runs inside a session (one per HTTP client, see
+ * session()), and a session reads from the primary too for stickyMillis
+ * after its last primary connection commits or closes, which should cover
+ * the replication lag. Reads outside a session are never sticky.
+ */
+public class RoutingDataSource implements DataSource {
+  private static final Logger LOGGER = Logger.getLogger(RoutingDataSource.class.getName());
+  private static final ThreadLocal<String> SESSION = new ThreadLocal<>();
+  private static final int MAX_SESSIONS = 10_000;
+
+  public enum Selection {
+    ROUND_ROBIN,
+    LEAST_LOADED
+  }
+
+  private final DataSource primary;
+  private final List<DataSource> replicas;
+  private final AtomicInteger[] borrowed;
+  private final Selection selection;
+  private final long stickyNanos;
+  // Session key to the System.nanoTime() its stickiness runs out.
+  private final ConcurrentHashMap<String, Long> recentWriters = new ConcurrentHashMap<>();
+  private final AtomicInteger next = new AtomicInteger();
+  private final DataSource reads = new ReadDataSource();
+
+  public RoutingDataSource(
+    DataSource primary,
+    List<DataSource> replicas,
+    Selection selection,
+    long stickyMillis
+  ) {
+    this.primary = primary;
+    this.replicas = List.copyOf(replicas);
+    this.borrowed = new AtomicInteger[replicas.size()];
+    this.selection = selection;
+    this.stickyNanos = TimeUnit.MILLISECONDS.toNanos(stickyMillis);
+
+    for (int i = 0; i < borrowed.length; i++) {
+      borrowed[i] = new AtomicInteger();
+    }
+  }
+
+  public static final class Session implements AutoCloseable {
+    private final String previous;
+
+    private Session(String previous) {
+      this.previous = previous;
+    }
+
+    @Override
+    public void close() {
+      if (previous == null) {
+        SESSION.remove();
+      } else {
+        SESSION.set(previous);
+      }
+    }
+  }
+
+  public static Session session(String key) {
+    final Session session = new Session(SESSION.get());
+    if (key == null) {
+      SESSION.remove();
+    } else {
+      SESSION.set(key);
+    }
+    return session;
+  }
+
+  public static String currentSession() {
+    return SESSION.get();
+  }
+
+  // DAOs built on a plain DataSource keep reading from it.
+  public static DataSource readsOf(DataSource dataSource) {
+    return dataSource instanceof RoutingDataSource routing ? routing.reads() : dataSource;
+  }
+
+  public DataSource reads() {
+    return reads;
+  }
+
+  @Override
+  public Connection getConnection() throws SQLException {
+    final String session = SESSION.get();
+    final Connection connection = primary.getConnection();
+    return session == null ? connection : sticky(connection, session);
+  }
+
+  @Override
+  public Connection getConnection(String username, String password) throws SQLException {
+    throw new SQLFeatureNotSupportedException("Routing uses the configured credentials");
+  }
+
+  @Override
+  public PrintWriter getLogWriter() throws SQLException {
+    return primary.getLogWriter();
+  }
+
+  @Override
+  public void setLogWriter(PrintWriter out) throws SQLException {
+    primary.setLogWriter(out);
+  }
+
+  @Override
+  public void setLoginTimeout(int seconds) throws SQLException {
+    primary.setLoginTimeout(seconds);
+  }
+
+  @Override
+  public int getLoginTimeout() throws SQLException {
+    return primary.getLoginTimeout();
+  }
+
+  @Override
+  public Logger getParentLogger() throws SQLFeatureNotSupportedException {
+    return LOGGER;
+  }
+
+  @Override
+  public <T> T unwrap(Class<T> iface) throws SQLException {
+    if (iface.isInstance(this)) {
+      return iface.cast(this);
+    }
+    throw new SQLException("Not a wrapper for " + iface.getName());
+  }
+
+  @Override
+  public boolean isWrapperFor(Class<?> iface) {
+    return iface.isInstance(this);
+  }
+
+  private Connection readConnection() throws SQLException {
+    final String session = SESSION.get();
+    if (replicas.isEmpty() || (session != null && isSticky(session))) {
+      return primary.getConnection();
+    }
+
+    final int index = select();
+    borrowed[index].incrementAndGet();
+    try {
+      return tracked(replicas.get(index).getConnection(), borrowed[index]);
+    } catch (SQLException e) {
+      borrowed[index].decrementAndGet();
+      LOGGER.log(Level.WARNING, "Replica {0} unavailable, reading from primary: {1}", new Object[] {
+        index,
+        e.getMessage()
+      });
+      return primary.getConnection();
+    }
+  }
+
+  private int select() {
+    if (selection == Selection.ROUND_ROBIN) {
+      return Math.floorMod(next.getAndIncrement(), replicas.size());
+    }
+
+    // Ties rotate, so an idle system still spreads its reads.
+    final int start = Math.floorMod(next.getAndIncrement(), replicas.size());
+    int best = start;
+    for (int i = 1; i < replicas.size(); i++) {
+      final int candidate = (start + i) % replicas.size();
+      if (borrowed[candidate].get() < borrowed[best].get()) {
+        best = candidate;
+      }
+    }
+    return best;
+  }
+
+  /*
+   * The write only reaches the replicas after it commits, so the window is
+   * measured from commit (or close, for auto-commit work) rather than from
+   * borrowing the connection.
+   */
+  private Connection sticky(Connection connection, String session) {
+    return (Connection) Proxy.newProxyInstance(
+      Connection.class.getClassLoader(),
+      new Class<?>[] { Connection.class },
+      (proxy, method, args) -> {
+        final Object result;
+        try {
+          result = method.invoke(connection, args);
+        } catch (InvocationTargetException e) {
+          throw e.getCause();
+        } finally {
+          if (method.getName().equals("commit") || method.getName().equals("close")) {
+            markWritten(session);
+          }
+        }
+        return result;
+      }
+    );
+  }
+
+  private void markWritten(String session) {
+    final long now = System.nanoTime();
+    recentWriters.put(session, now + stickyNanos);
+
+    if (recentWriters.size() > MAX_SESSIONS) {
+      recentWriters.values().removeIf(expiry -> expiry - now <= 0);
+    }
+  }
+
+  private boolean isSticky(String session) {
+    final Long expiry = recentWriters.get(session);
+    if (expiry == null) {
+      return false;
+    }
+    if (expiry - System.nanoTime() > 0) {
+      return true;
+    }
+    recentWriters.remove(session, expiry);
+    return false;
+  }
+
+  private static Connection tracked(Connection connection, AtomicInteger borrowed) {
+    final AtomicBoolean closed = new AtomicBoolean();
+
+    return (Connection) Proxy.newProxyInstance(
+      Connection.class.getClassLoader(),
+      new Class<?>[] { Connection.class },
+      (proxy, method, args) -> {
+        if (method.getName().equals("close") && closed.compareAndSet(false, true)) {
+          borrowed.decrementAndGet();
+        }
+
+        try {
+          return method.invoke(connection, args);
+        } catch (InvocationTargetException e) {
+          throw e.getCause();
+        }
+      }
+    );
+  }
+
+  private final class ReadDataSource implements DataSource {
+    @Override
+    public Connection getConnection() throws SQLException {
+      return readConnection();
+    }
+
+    @Override
+    public Connection getConnection(String username, String password) throws SQLException {
+      throw new SQLFeatureNotSupportedException("Routing uses the configured credentials");
+    }
+
+    @Override
+    public PrintWriter getLogWriter() throws SQLException {
+      return primary.getLogWriter();
+    }
+
+    @Override
+    public void setLogWriter(PrintWriter out) throws SQLException {
+      primary.setLogWriter(out);
+    }
+
+    @Override
+    public void setLoginTimeout(int seconds) throws SQLException {
+      primary.setLoginTimeout(seconds);
+    }
+
+    @Override
+    public int getLoginTimeout() throws SQLException {
+      return primary.getLoginTimeout();
+    }
+
+    @Override
+    public Logger getParentLogger() throws SQLFeatureNotSupportedException {
+      return LOGGER;
+    }
+
+    @Override
+    public <T> T unwrap(Class<T> iface) throws SQLException {
+      if (iface.isInstance(this)) {
+        return iface.cast(this);
+      }
+      throw new SQLException("Not a wrapper for " + iface.getName());
+    }
+
+    @Override
+    public boolean isWrapperFor(Class<?> iface) {
+      return iface.isInstance(this);
+    }
+  }
+}
@@ -0,0 +1,190 @@
+package com.unir.reservations.pricing;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Supplier;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+import java.util.stream.IntStream;
+
+import com.unir.reservations.availability.Slot;
+import com.unir.reservations.dao.ListQuery;
+import com.unir.reservations.dao.ReservationDAO;
+import com.unir.reservations.models.Reservation;
+import com.unir.reservations.models.Room;
+import com.unir.reservations.models.Service;
+import com.unir.reservations.utils.Pagination;
+import com.unir.reservations.utils.RawRecord;
+
+/*
+ * Quotes reservations from an in-memory RateTable. Rooms and services come
+ * from suppliers that return the same list until the data changes (the DAO
+ * catalogs do), so the table is rebuilt only when one of them is swapped.
+ */
+public class PricingEngine {
+  private static final Logger LOGGER = Logger.getLogger(PricingEngine.class.getName());
+  private static final double TOLERANCE = 0.005;
+
+  private final Supplier<List<Room>> rooms;
+  private final Supplier<List<Service>> services;
+  private volatile List<RateRule> rules;
+  private volatile RateTable table;
+
+  public PricingEngine(Supplier<List<Room>> rooms, Supplier<List<Service>> services, List<RateRule> rules) {
+    this.rooms = rooms;
+    this.services = services;
+    this.rules = List.copyOf(rules);
+  }
+
+  public void setRules(List<RateRule> rules) {
+    this.rules = List.copyOf(rules);
+    this.table = null;
+  }
+
+  public Double quote(int roomId, LocalDate date, int startHour, int endHour, List<Integer> serviceIds) {
+    if (!Slot.isValid(startHour, endHour)) {
+      return null;
+    }
+
+    final RateTable current = table();
+    double total = current.roomRate(roomId) * current.factor(date, startHour, endHour);
+    for (Integer serviceId : serviceIds) {
+      total += serviceId == null ? Double.NaN : current.servicePrice(serviceId);
+    }
+
+    return Double.isNaN(total) ? null : Math.round(total * 100) / 100.0;
+  }
+
+  public Double quote(Reservation reservation) {
+    if (reservation.room() == null || reservation.room().idRoom() == null || reservation.date() == null) {
+      return null;
+    }
+
+    return quote(
+      reservation.room().idRoom(),
+      toLocalDate(reservation.date()),
+      reservation.startHour() == null ? -1 : reservation.startHour(),
+      reservation.endHour() == null ? -1 : reservation.endHour(),
+      reservation.services() == null
+        ? List.of()
+        : reservation.services().stream().map(service -> service == null ? null : service.idService()).toList()
+    );
+  }
+
+  public boolean matches(Reservation reservation) {
+    final Double quote = quote(reservation);
+    return quote != null
+      && reservation.priceTotal() != null
+      && Math.abs(quote - reservation.priceTotal()) < TOLERANCE;
+  }
+
+  public Reservation priced(Reservation reservation) {
+    final Double quote = quote(reservation);
+    return quote == null ? reservation : withPrice(reservation, quote);
+  }
+
+  public List<Reservation> reprice(List<Reservation> reservations) {
+    final Reservation[] priced = new Reservation[reservations.size()];
+    IntStream.range(0, priced.length)
+      .parallel()
+      .forEach(i -> priced[i] = priced(reservations.get(i)));
+    return List.of(priced);
+  }
+
+  /*
+   * Walks every reservation matching the query's filter or client with
+   * keyset pages in date order (a price order would shift under the
+   * updates) and writes back only the totals that changed. Full rows are
+   * read even for a summary query, since the quote needs the services.
+   * Returns the number of rows updated.
+   */
+  public int repriceAll(ReservationDAO reservationDAO, ListQuery query) {
+    ListQuery pageQuery = new ListQuery(
+      query.filter(),
+      query.clientId(),
+      ListQuery.Sort.DEFAULT,
+      query.pageSize(),
+      null,
+      null,
+      false,
+      false
+    );
+    int updated = 0;
+
+    while (true) {
+      final RawRecord list = reservationDAO.getList(pageQuery);
+      final Pagination page = list.getPagination();
+      if (page == null) {
+        LOGGER.log(Level.SEVERE, "Repricing stopped: {0}", list.getServerMessage());
+        break;
+      }
+      if (page.getData() == null || page.getData().isEmpty()) {
+        break;
+      }
+
+      @SuppressWarnings("unchecked")
+      final List<Reservation> current = (List<Reservation>) page.getData();
+      final List<Reservation> repriced = reprice(current);
+      final Map<Integer, Double> prices = new HashMap<>();
+      for (int i = 0; i < current.size(); i++) {
+        final Double before = current.get(i).priceTotal();
+        final Double after = repriced.get(i).priceTotal();
+        if (after != null && (before == null || Math.abs(after - before) >= TOLERANCE)) {
+          prices.put(current.get(i).idReservation(), after);
+        }
+      }
+
+      if (!prices.isEmpty()) {
+        final RawRecord result = reservationDAO.updatePrices(prices);
+        if (result.getAffected() instanceof Integer count) {
+          updated += count;
+        } else {
+          LOGGER.log(Level.SEVERE, "Repricing stopped: {0}", result.getServerMessage());
+          break;
+        }
+      }
+
+      if (page.getNextPageToken() == null) {
+        break;
+      }
+      pageQuery = pageQuery.withCursor(page.getNextPageToken());
+    }
+
+    return updated;
+  }
+
+  private RateTable table() {
+    final List<Room> currentRooms = rooms.get();
+    final List<Service> currentServices = services.get();
+    RateTable current = table;
+
+    if (current == null || current.rooms() != currentRooms || current.services() != currentServices) {
+      current = new RateTable(currentRooms, currentServices, rules);
+      table = current;
+    }
+
+    return current;
+  }
+
+  private static LocalDate toLocalDate(java.util.Date date) {
+    return new java.sql.Date(date.getTime()).toLocalDate();
+  }
+
+  private static Reservation withPrice(Reservation reservation, Double priceTotal) {
+    return new Reservation(
+      reservation.idReservation(),
+      reservation.client(),
+      reservation.services() == null ? null : new ArrayList<>(reservation.services()),
+      reservation.room(),
+      reservation.date(),
+      reservation.startHour(),
+      reservation.endHour(),
+      priceTotal,
+      reservation.observations(),
+      reservation.version()
+    );
+  }
+}
@@ -0,0 +1,35 @@
+package com.unir.reservations.pricing;
+
+import java.time.DayOfWeek;
+import java.time.LocalDate;
+
+/*
+ * Multiplies the room rate for the hours [startHour, endHour) of the
+ * matching days. A null dayOfWeek matches every day and a null from/to
+ * leaves that side of the date range open. When rules overlap, the last
+ * one in the list wins for that hour.
+ */
+public record RateRule(
+  DayOfWeek dayOfWeek,
+  LocalDate from,
+  LocalDate to,
+  int startHour,
+  int endHour,
+  double multiplier
+) {
+  public RateRule {
+    if (startHour < 0 || endHour > 24 || startHour >= endHour) {
+      throw new IllegalArgumentException("Invalid rule hours");
+    }
+    if (from != null && to != null && to.isBefore(from)) {
+      throw new IllegalArgumentException("Invalid rule dates");
+    }
+    if (multiplier < 0) {
+      throw new IllegalArgumentException("Invalid rule multiplier");
+    }
+  }
+
+  boolean covers(long fromDay, long toDay) {
+    return (from == null || from.toEpochDay() <= fromDay) && (to == null || to.toEpochDay() >= toDay);
+  }
+}
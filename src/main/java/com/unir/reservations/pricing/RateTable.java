@@ -0,0 +1,112 @@
+package com.unir.reservations.pricing;
+
+import java.time.LocalDate;
+import java.util.Arrays;
+import java.util.List;
+import java.util.TreeSet;
+
+import com.unir.reservations.availability.Slot;
+import com.unir.reservations.models.Room;
+import com.unir.reservations.models.Service;
+
+/*
+ * Rule boundaries split the calendar into segments with the same rules.
+ * Each segment stores, per weekday, the running sum of hourly multipliers,
+ * so the rate factor of any [start, end) is one subtraction and a quote is
+ * a binary search plus a few array reads.
+ */
+final class RateTable {
+  private final List<Room> rooms;
+  private final List<Service> services;
+  private final double[] roomRates;
+  private final double[] servicePrices;
+  private final long[] segmentStarts;
+  private final double[][][] prefixes;
+
+  RateTable(List<Room> rooms, List<Service> services, List<RateRule> rules) {
+    this.rooms = rooms;
+    this.services = services;
+    this.roomRates = new double[rooms.stream().mapToInt(room -> room.idRoom() + 1).max().orElse(0)];
+    this.servicePrices = new double[
+      services.stream().mapToInt(service -> service.idService() + 1).max().orElse(0)
+    ];
+    Arrays.fill(roomRates, Double.NaN);
+    Arrays.fill(servicePrices, Double.NaN);
+
+    for (Room room : rooms) {
+      roomRates[room.idRoom()] = room.pricePerHour() == null ? Double.NaN : room.pricePerHour();
+    }
+    for (Service service : services) {
+      servicePrices[service.idService()] = service.price() == null ? Double.NaN : service.price();
+    }
+
+    final TreeSet<Long> bounds = new TreeSet<>();
+    bounds.add(Long.MIN_VALUE);
+    for (RateRule rule : rules) {
+      if (rule.from() != null) {
+        bounds.add(rule.from().toEpochDay());
+      }
+      if (rule.to() != null) {
+        bounds.add(rule.to().toEpochDay() + 1);
+      }
+    }
+
+    this.segmentStarts = bounds.stream().mapToLong(Long::longValue).toArray();
+    this.prefixes = new double[segmentStarts.length][][];
+    for (int segment = 0; segment < segmentStarts.length; segment++) {
+      final long fromDay = segmentStarts[segment];
+      final long toDay = segment + 1 < segmentStarts.length
+        ? segmentStarts[segment + 1] - 1
+        : Long.MAX_VALUE;
+      prefixes[segment] = weekPrefixes(rules, fromDay, toDay);
+    }
+  }
+
+  List<Room> rooms() {
+    return rooms;
+  }
+
+  List<Service> services() {
+    return services;
+  }
+
+  double roomRate(int roomId) {
+    return roomId >= 0 && roomId < roomRates.length ? roomRates[roomId] : Double.NaN;
+  }
+
+  double servicePrice(int serviceId) {
+    return serviceId >= 0 && serviceId < servicePrices.length ? servicePrices[serviceId] : Double.NaN;
+  }
+
+  double factor(LocalDate date, int startHour, int endHour) {
+    int segment = Arrays.binarySearch(segmentStarts, date.toEpochDay());
+    if (segment < 0) {
+      segment = -segment - 2;
+    }
+
+    final double[] prefix = prefixes[segment][date.getDayOfWeek().ordinal()];
+    return prefix[endHour] - prefix[startHour];
+  }
+
+  private static double[][] weekPrefixes(List<RateRule> rules, long fromDay, long toDay) {
+    final double[][] week = new double[7][Slot.HOURS_PER_DAY + 1];
+
+    for (int day = 0; day < 7; day++) {
+      final double[] hours = new double[Slot.HOURS_PER_DAY];
+      Arrays.fill(hours, 1);
+
+      for (RateRule rule : rules) {
+        if (rule.covers(fromDay, toDay)
+          && (rule.dayOfWeek() == null || rule.dayOfWeek().ordinal() == day)) {
+          Arrays.fill(hours, rule.startHour(), rule.endHour(), rule.multiplier());
+        }
+      }
+
+      for (int hour = 0; hour < Slot.HOURS_PER_DAY; hour++) {
+        week[day][hour + 1] = week[day][hour] + hours[hour];
+      }
+    }
+
+    return week;
+  }
+}
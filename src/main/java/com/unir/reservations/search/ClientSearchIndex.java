@@ -0,0 +1,286 @@
+package com.unir.reservations.search;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.TreeSet;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+import com.unir.reservations.models.Client;
+import com.unir.reservations.utils.Cursor;
+
+/*
+ * Trigram index over client document, name and email. A query is split into
+ * trigrams, their posting bitsets are intersected and the survivors are
+ * checked with a plain substring match, so results equal LIKE '%query%'.
+ */
+public class ClientSearchIndex {
+  private static final Logger LOGGER = Logger.getLogger(ClientSearchIndex.class.getName());
+  private static final int GRAM = 3;
+  private static final char FIELD_SEPARATOR = '\u0000';
+  // Up to this many trigram candidates are sorted; past it, walking the page order is cheaper.
+  private static final int SORT_CANDIDATES = 4096;
+
+  private static final String LOAD_QUERY = """
+    SELECT
+      clientId,
+      document,
+      firstName,
+      surName,
+      email,
+      version
+    FROM evp_client
+  """;
+
+  private record Entry(int id, String document, String text, int version) {
+  }
+
+  public record Result(int total, int[] ids, Cursor next) {
+  }
+
+  /*
+   * Not the SQL list's order name: the database sorts documents by its
+   * collation (case-insensitive on MySQL) and this index by String order,
+   * so a token from one could skip or repeat rows in the other.
+   */
+  public static final String PAGE_ORDER = "INDEXED_DOCUMENT";
+
+  private static final Comparator<Entry> ORDER = Comparator
+    .comparing(Entry::document)
+    .thenComparingInt(Entry::id);
+
+  private final Map<String, BitSet> postings = new HashMap<>();
+  private final Map<Integer, Entry> entries = new HashMap<>();
+  private final TreeSet<Entry> ordered = new TreeSet<>(ORDER);
+  // Deleted ids; client ids are never reused, so a late put must not bring one back.
+  private final BitSet removed = new BitSet();
+  private final ReadWriteLock lock = new ReentrantReadWriteLock();
+
+  public void load(Connection connection) throws SQLException {
+    try(
+      PreparedStatement statement = connection.prepareStatement(LOAD_QUERY);
+      ResultSet resultSet = statement.executeQuery()
+    ) {
+      lock.writeLock().lock();
+      try {
+        postings.clear();
+        entries.clear();
+        ordered.clear();
+        removed.clear();
+
+        while (resultSet.next()) {
+          index(
+            resultSet.getInt("clientId"),
+            resultSet.getString("document"),
+            resultSet.getString("firstName"),
+            resultSet.getString("surName"),
+            resultSet.getString("email"),
+            resultSet.getInt("version")
+          );
+        }
+      } finally {
+        lock.writeLock().unlock();
+      }
+
+      LOGGER.log(Level.INFO, "Client search index loaded with {0} clients", entries.size());
+    }
+  }
+
+  /*
+   * Puts are published after their transaction commits, so two updates of
+   * one client can arrive out of order; an older version than the indexed
+   * one is ignored.
+   */
+  public void put(Client client) {
+    final int version = client.version() == null ? 0 : client.version();
+
+    lock.writeLock().lock();
+    try {
+      final Entry current = entries.get(client.idClient());
+      if (removed.get(client.idClient()) || (current != null && current.version() > version)) {
+        return;
+      }
+
+      unindex(client.idClient());
+      index(
+        client.idClient(),
+        client.document(),
+        client.firstName(),
+        client.surName(),
+        client.email(),
+        version
+      );
+    } finally {
+      lock.writeLock().unlock();
+    }
+  }
+
+  public void remove(int clientId) {
+    lock.writeLock().lock();
+    try {
+      unindex(clientId);
+      removed.set(clientId);
+    } finally {
+      lock.writeLock().unlock();
+    }
+  }
+
+  /*
+   * Matches are ordered by (document, clientId), the same order the list query
+   * uses. Entries are kept in that order, so a page seeks to the cursor and
+   * stops after limit matches; only the first page counts the total, later
+   * pages carry it in the cursor.
+   */
+  public Result search(String query, Cursor after, int limit) {
+    final String needle = normalize(query);
+
+    lock.readLock().lock();
+    try {
+      final BitSet candidates = needle.length() < GRAM ? null : candidates(needle);
+      final int total = after != null ? after.total() : count(needle, candidates);
+      final Collection<Entry> from = after == null
+        ? ordered
+        : ordered.tailSet(new Entry(after.lastId(), after.sortKey(), null, 0), false);
+
+      final List<Entry> page = candidates != null && candidates.cardinality() <= SORT_CANDIDATES
+        ? sortedPage(needle, candidates, from, limit)
+        : walkedPage(needle, candidates, from, limit);
+
+      final int[] ids = new int[page.size()];
+      for (int i = 0; i < ids.length; i++) {
+        ids[i] = page.get(i).id();
+      }
+
+      final Entry last = page.isEmpty() ? null : page.get(page.size() - 1);
+      final Cursor next = last != null && page.size() == limit
+        ? new Cursor(PAGE_ORDER, last.document(), last.id(), total)
+        : null;
+
+      return new Result(total, ids, next);
+    } finally {
+      lock.readLock().unlock();
+    }
+  }
+
+  private List<Entry> walkedPage(String needle, BitSet candidates, Collection<Entry> from, int limit) {
+    final List<Entry> page = new ArrayList<>(Math.min(limit, 64));
+    for (Entry entry : from) {
+      if (page.size() == limit) {
+        break;
+      }
+      if (matches(entry, needle, candidates)) {
+        page.add(entry);
+      }
+    }
+    return page;
+  }
+
+  private List<Entry> sortedPage(String needle, BitSet candidates, Collection<Entry> from, int limit) {
+    final Entry first = from.isEmpty() ? null : from.iterator().next();
+    final List<Entry> matches = new ArrayList<>(candidates.cardinality());
+
+    for (int id = candidates.nextSetBit(0); id >= 0; id = candidates.nextSetBit(id + 1)) {
+      final Entry entry = entries.get(id);
+      if (first != null && ORDER.compare(entry, first) >= 0 && matches(entry, needle, null)) {
+        matches.add(entry);
+      }
+    }
+
+    matches.sort(ORDER);
+    return matches.size() > limit ? matches.subList(0, limit) : matches;
+  }
+
+  private int count(String needle, BitSet candidates) {
+    if (needle.isEmpty()) {
+      return entries.size();
+    }
+
+    int count = 0;
+    if (candidates != null) {
+      for (int id = candidates.nextSetBit(0); id >= 0; id = candidates.nextSetBit(id + 1)) {
+        if (entries.get(id).text().contains(needle)) {
+          count++;
+        }
+      }
+    } else {
+      for (Entry entry : entries.values()) {
+        if (entry.text().contains(needle)) {
+          count++;
+        }
+      }
+    }
+    return count;
+  }
+
+  private static boolean matches(Entry entry, String needle, BitSet candidates) {
+    return (candidates == null || candidates.get(entry.id())) && entry.text().contains(needle);
+  }
+
+  private BitSet candidates(String needle) {
+    BitSet candidates = null;
+
+    for (int i = 0; i + GRAM <= needle.length(); i++) {
+      final BitSet posting = postings.get(needle.substring(i, i + GRAM));
+      if (posting == null) {
+        return new BitSet();
+      }
+
+      if (candidates == null) {
+        candidates = (BitSet) posting.clone();
+      } else {
+        candidates.and(posting);
+      }
+    }
+
+    return candidates;
+  }
+
+  private void index(int id, String document, String firstName, String surName, String email, int version) {
+    final String text = normalize(document) + FIELD_SEPARATOR
+      + normalize(firstName) + ' ' + normalize(surName) + FIELD_SEPARATOR
+      + normalize(email);
+    final Entry entry = new Entry(id, document == null ? "" : document, text, version);
+    entries.put(id, entry);
+    ordered.add(entry);
+
+    for (int i = 0; i + GRAM <= text.length(); i++) {
+      postings.computeIfAbsent(text.substring(i, i + GRAM), gram -> new BitSet()).set(id);
+    }
+  }
+
+  private void unindex(int id) {
+    final Entry entry = entries.remove(id);
+    if (entry == null) {
+      return;
+    }
+    ordered.remove(entry);
+
+    final String text = entry.text();
+    for (int i = 0; i + GRAM <= text.length(); i++) {
+      final String gram = text.substring(i, i + GRAM);
+      final BitSet posting = postings.get(gram);
+      if (posting != null) {
+        posting.clear(id);
+        if (posting.isEmpty()) {
+          postings.remove(gram);
+        }
+      }
+    }
+  }
+
+  private static String normalize(String value) {
+    return value == null ? "" : value.toLowerCase(Locale.ROOT);
+  }
+}
@@ -0,0 +1,143 @@
+package com.unir.reservations.utils;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.Lock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.function.Function;
+import java.util.function.Predicate;
+
+/*
+ * Immutable id-indexed snapshot of a small, read-mostly table. Readers take
+ * the current snapshot with one volatile read and look the id up in a map;
+ * writers build a new snapshot and publish it, so reads never lock or
+ * allocate.
+ *
+ * Writes publish after their commit without holding a lock across it. A
+ * writer takes a stamp inside its transaction, right after the statement
+ * that locks the row, so for one id the stamps follow commit order and a
+ * put or remove older than the last one published is dropped. Writers
+ * share writers() for their whole transaction; a reload takes reloader(),
+ * so it never overwrites a write it did not read.
+ */
+public class Catalog<T> {
+  private record Snapshot<T>(Map<Integer, T> byId, List<T> ordered) {
+  }
+
+  // A statement result and the write stamp taken right after it.
+  public record Stamped<V>(V value, long stamp) {
+  }
+
+  private static final String PAGE_ORDER = "ID";
+
+  private final Function<T, Integer> idOf;
+  private final AtomicLong clock = new AtomicLong();
+  private final ReentrantReadWriteLock reloading = new ReentrantReadWriteLock();
+  // Last stamp published per id, kept after a remove so a late put cannot bring the row back.
+  private final Map<Integer, Long> published = new HashMap<>();
+  private volatile Snapshot<T> snapshot;
+
+  public Catalog(Function<T, Integer> idOf) {
+    this.idOf = idOf;
+  }
+
+  public boolean isLoaded() {
+    return snapshot != null;
+  }
+
+  public T get(int id) {
+    return snapshot.byId().get(id);
+  }
+
+  public List<T> all() {
+    return snapshot.ordered();
+  }
+
+  // A null limit returns every match after the cursor.
+  public Pagination page(Predicate<T> filter, String token, Integer limit) {
+    final Cursor after = Cursor.decode(token, PAGE_ORDER);
+    final List<T> matches = snapshot.ordered().stream().filter(filter).toList();
+
+    int start = 0;
+    if (after != null) {
+      while (start < matches.size() && idOf.apply(matches.get(start)) <= after.lastId()) {
+        start++;
+      }
+    }
+
+    final int end = limit == null ? matches.size() : (int) Math.min(matches.size(), (long) start + limit);
+    final Pagination pagination = new Pagination(matches.size(), matches.subList(start, end));
+    if (limit != null && end > start && end - start == limit && end < matches.size()) {
+      pagination.setNextPageToken(
+        new Cursor(PAGE_ORDER, "", idOf.apply(matches.get(end - 1)), matches.size()).encode()
+      );
+    }
+
+    return pagination;
+  }
+
+  public Lock writers() {
+    return reloading.readLock();
+  }
+
+  public Lock reloader() {
+    return reloading.writeLock();
+  }
+
+  public <V> Stamped<V> stamped(V value) {
+    return new Stamped<>(value, clock.incrementAndGet());
+  }
+
+  public synchronized void replaceAll(Collection<T> items) {
+    published.clear();
+    snapshot = build(items);
+  }
+
+  public synchronized void put(T item, long stamp) {
+    final int id = idOf.apply(item);
+    if (!isNewest(id, stamp)) {
+      return;
+    }
+
+    final List<T> items = new ArrayList<>(snapshot.ordered());
+    items.removeIf(existing -> idOf.apply(existing) == id);
+    items.add(item);
+    snapshot = build(items);
+  }
+
+  public synchronized void remove(int id, long stamp) {
+    if (!isNewest(id, stamp)) {
+      return;
+    }
+
+    final List<T> items = new ArrayList<>(snapshot.ordered());
+    items.removeIf(existing -> idOf.apply(existing) == id);
+    snapshot = build(items);
+  }
+
+  private boolean isNewest(int id, long stamp) {
+    final Long last = published.get(id);
+    if (last != null && last > stamp) {
+      return false;
+    }
+
+    published.put(id, stamp);
+    return true;
+  }
+
+  private Snapshot<T> build(Collection<T> items) {
+    final Map<Integer, T> byId = new HashMap<>();
+    for (T item : items) {
+      byId.put(idOf.apply(item), item);
+    }
+
+    final List<T> ordered = new ArrayList<>(items);
+    ordered.sort(Comparator.comparingInt(idOf::apply));
+    return new Snapshot<>(Map.copyOf(byId), List.copyOf(ordered));
+  }
+}
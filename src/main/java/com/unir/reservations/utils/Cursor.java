@@ -0,0 +1,52 @@
+package com.unir.reservations.utils;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+
+/*
+ * Keyset page token. It names the order it was issued for, so a token
+ * replayed under another sort is rejected instead of seeking on the wrong
+ * key.
+ */
+public record Cursor (
+  String order,
+  String sortKey,
+  int lastId,
+  int total
+) {
+  private static final char SEPARATOR = '\n';
+
+  public String encode() {
+    final String raw = lastId + String.valueOf(SEPARATOR) + total + SEPARATOR + order + SEPARATOR + sortKey;
+    return Base64.getUrlEncoder().withoutPadding()
+      .encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+  }
+
+  public static Cursor decode(String token, String order) {
+    if (token == null || token.isBlank()) {
+      return null;
+    }
+
+    final Cursor cursor;
+    try {
+      final String raw = new String(Base64.getUrlDecoder().decode(token), StandardCharsets.UTF_8);
+      final int first = raw.indexOf(SEPARATOR);
+      final int second = raw.indexOf(SEPARATOR, first + 1);
+      final int third = raw.indexOf(SEPARATOR, second + 1);
+
+      cursor = new Cursor(
+        raw.substring(second + 1, third),
+        raw.substring(third + 1),
+        Integer.parseInt(raw.substring(0, first)),
+        Integer.parseInt(raw.substring(first + 1, second))
+      );
+    } catch (IllegalArgumentException | IndexOutOfBoundsException e) {
+      throw new IllegalArgumentException("Invalid page token", e);
+    }
+
+    if (!cursor.order().equals(order)) {
+      throw new IllegalArgumentException("Page token was issued for another sort");
+    }
+    return cursor;
+  }
+}
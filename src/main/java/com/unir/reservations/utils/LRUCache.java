@@ -0,0 +1,83 @@
+package com.unir.reservations.utils;
+
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+
+public class LRUCache<K, V> {
+  private final int maxSize;
+  private final long ttlNanos;
+  private final LinkedHashMap<K, Entry<V>> entries;
+
+  private final AtomicLong hits = new AtomicLong();
+  private final AtomicLong misses = new AtomicLong();
+  private final AtomicLong evictions = new AtomicLong();
+
+  private record Entry<V>(V value, long expiresAt) {
+  }
+
+  public LRUCache(int maxSize, long ttlMillis) {
+    if (maxSize <= 0) {
+      throw new IllegalArgumentException("maxSize must be positive");
+    }
+
+    this.maxSize = maxSize;
+    this.ttlNanos = ttlMillis * 1_000_000L;
+    this.entries = new LinkedHashMap<>(16, 0.75f, true);
+  }
+
+  public synchronized V get(K key) {
+    final Entry<V> entry = entries.get(key);
+
+    if (entry == null) {
+      misses.incrementAndGet();
+      return null;
+    }
+
+    if (entry.expiresAt() - System.nanoTime() <= 0) {
+      entries.remove(key);
+      evictions.incrementAndGet();
+      misses.incrementAndGet();
+      return null;
+    }
+
+    hits.incrementAndGet();
+    return entry.value();
+  }
+
+  public synchronized void put(K key, V value) {
+    entries.put(key, new Entry<>(value, System.nanoTime() + ttlNanos));
+
+    if (entries.size() > maxSize) {
+      final Iterator<Map.Entry<K, Entry<V>>> eldest = entries.entrySet().iterator();
+      eldest.next();
+      eldest.remove();
+      evictions.incrementAndGet();
+    }
+  }
+
+  public synchronized void invalidate(K key) {
+    entries.remove(key);
+  }
+
+  public synchronized void invalidateAll() {
+    entries.clear();
+  }
+
+  public synchronized int size() {
+    return entries.size();
+  }
+
+  public long getHitCount() {
+    return hits.get();
+  }
+
+  public long getMissCount() {
+    return misses.get();
+  }
+
+  public long getEvictionCount() {
+    return evictions.get();
+  }
+}
@@ -5,6 +5,8 @@ import java.util.List;
 public class Pagination {
   private Integer filterCounter;
   private List<?> data;
+  private String nextPageToken;
+  private boolean countEstimated;
 
   public Pagination() {
   }
@@ -29,4 +31,20 @@ public class Pagination {
   public void setData(List<?> data) {
     this.data = data;
   }
+
+  public String getNextPageToken() {
+    return nextPageToken;
+  }
+
+  public void setNextPageToken(String nextPageToken) {
+    this.nextPageToken = nextPageToken;
+  }
+
+  public boolean isCountEstimated() {
+    return countEstimated;
+  }
+
+  public void setCountEstimated(boolean countEstimated) {
+    this.countEstimated = countEstimated;
+  }
 }
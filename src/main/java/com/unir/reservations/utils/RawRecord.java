@@ -1,8 +1,14 @@
 package com.unir.reservations.utils;
 
+import java.util.function.Supplier;
+
 public class RawRecord {
   private String serverMessage;
   private Pagination pagination;
+  private Object affected;
+  private boolean conflict;
+  private boolean rejected;
+  private Supplier<Pagination> paginationLoader;
 
   public RawRecord() {
   }
@@ -25,5 +31,46 @@ public class RawRecord {
 
   public void setPagination(Pagination pagination) {
     this.pagination = pagination;
+    this.paginationLoader = null;
+  }
+
+  public Object getAffected() {
+    return affected;
+  }
+
+  public void setAffected(Object affected) {
+    this.affected = affected;
+  }
+
+  // Set when a versioned write lost to a concurrent one; the caller should reload and retry.
+  public boolean isConflict() {
+    return conflict;
+  }
+
+  public void setConflict(boolean conflict) {
+    this.conflict = conflict;
+  }
+
+  // Set when admission control turned the call away before it reached the database.
+  public boolean isRejected() {
+    return rejected;
+  }
+
+  public void setRejected(boolean rejected) {
+    this.rejected = rejected;
+  }
+
+  public void setPaginationLoader(Supplier<Pagination> paginationLoader) {
+    this.paginationLoader = paginationLoader;
+  }
+
+  // Runs the list query a mutation deferred, once; getPagination() never does.
+  public Pagination loadPagination() {
+    if (pagination == null && paginationLoader != null) {
+      pagination = paginationLoader.get();
+      paginationLoader = null;
+    }
+
+    return pagination;
   }
 }
@@ -0,0 +1,28 @@
+package com.unir.reservations.utils;
+
+import java.util.Collections;
+import java.util.HashMap;
+
+public final class SQLUtils {
+  private static final int DEFAULT_CHUNK_SIZE = 500;
+
+  private SQLUtils() {
+  }
+
+  public static String placeholders(int count) {
+    return String.join(", ", Collections.nCopies(count, "?"));
+  }
+
+  /*
+   * IN lists are rounded up to a power of two, so pages of any size share a
+   * handful of statement texts. Callers fill the padding with the last value.
+   */
+  public static int paddedSize(int count) {
+    return count <= 1 ? 1 : Integer.highestOneBit(count - 1) << 1;
+  }
+
+  public static int chunkSize(HashMap<String, Object> params) {
+    final Object chunkSize = params != null ? params.get("CHUNK_SIZE") : null;
+    return chunkSize instanceof Integer size && size > 0 ? size : DEFAULT_CHUNK_SIZE;
+  }
+}
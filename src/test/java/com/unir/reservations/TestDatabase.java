@@ -0,0 +1,193 @@
+package com.unir.reservations;
+
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import javax.sql.DataSource;
+
+import org.h2.jdbcx.JdbcDataSource;
+
+/*
+ * Embedded H2 database in MySQL mode with the evp_* schema. Every instance
+ * gets its own in-memory database, so tests can stand up several of them
+ * (a primary and its replicas) side by side.
+ */
+public final class TestDatabase implements AutoCloseable {
+  private static final AtomicInteger NEXT = new AtomicInteger();
+
+  private static final String SCHEMA = """
+    CREATE TABLE evp_client (
+      clientId INT AUTO_INCREMENT PRIMARY KEY,
+      document VARCHAR(20) NOT NULL,
+      documentType VARCHAR(5) NOT NULL,
+      firstName VARCHAR(60) NOT NULL,
+      surName VARCHAR(60) NOT NULL,
+      phoneNumber VARCHAR(20),
+      mobileNumber VARCHAR(20),
+      email VARCHAR(120),
+      version INT NOT NULL DEFAULT 0,
+      UNIQUE (document)
+    );
+    CREATE TABLE evp_room (
+      roomId INT AUTO_INCREMENT PRIMARY KEY,
+      name VARCHAR(60) NOT NULL,
+      description VARCHAR(255),
+      address VARCHAR(255),
+      pricePerHour DOUBLE NOT NULL
+    );
+    CREATE TABLE evp_event (
+      eventId INT AUTO_INCREMENT PRIMARY KEY,
+      clientId INT NOT NULL,
+      roomId INT NOT NULL,
+      date DATE NOT NULL,
+      startHour INT NOT NULL,
+      endHour INT NOT NULL,
+      priceTotal DOUBLE NOT NULL,
+      observations VARCHAR(255),
+      version INT NOT NULL DEFAULT 0,
+      updatedAt TIMESTAMP(3) NOT NULL DEFAULT CURRENT_TIMESTAMP(3) ON UPDATE CURRENT_TIMESTAMP(3)
+    );
+    CREATE TABLE evp_service (
+      serviceId INT AUTO_INCREMENT PRIMARY KEY,
+      name VARCHAR(60) NOT NULL,
+      price DOUBLE NOT NULL
+    );
+    CREATE TABLE evp_event_service (
+      eventId INT NOT NULL,
+      serviceId INT NOT NULL,
+      PRIMARY KEY (eventId, serviceId)
+    );
+    CREATE INDEX evp_event_client ON evp_event (clientId);
+    CREATE INDEX evp_event_room_date ON evp_event (roomId, date);
+    CREATE INDEX evp_event_date ON evp_event (date, eventId);
+    CREATE INDEX evp_event_updated ON evp_event (updatedAt);
+  """;
+
+  private final JdbcDataSource dataSource = new JdbcDataSource();
+  private final Connection keepAlive;
+
+  public TestDatabase() throws SQLException {
+    dataSource.setURL(
+      "jdbc:h2:mem:test" + NEXT.incrementAndGet() + ";MODE=MySQL;DATABASE_TO_LOWER=TRUE"
+    );
+    dataSource.setUser("sa");
+    dataSource.setPassword("");
+
+    // The in-memory database lives as long as one connection to it does.
+    keepAlive = dataSource.getConnection();
+    try(Statement statement = keepAlive.createStatement()) {
+      statement.execute(SCHEMA);
+    }
+  }
+
+  public DataSource dataSource() {
+    return dataSource;
+  }
+
+  public int update(String sql, Object... values) throws SQLException {
+    try(
+      Connection connection = dataSource.getConnection();
+      PreparedStatement statement = connection.prepareStatement(sql)
+    ) {
+      for (int i = 0; i < values.length; i++) {
+        statement.setObject(i + 1, values[i]);
+      }
+      return statement.executeUpdate();
+    }
+  }
+
+  public void addClient(int id) throws SQLException {
+    update(
+      "INSERT INTO evp_client (clientId, document, documentType, firstName, surName, email) VALUES (?, ?, 'CC', ?, ?, ?)",
+      id,
+      "D" + id,
+      "Name" + id,
+      "Surname" + id,
+      "client" + id + "@example.com"
+    );
+  }
+
+  public void addRoom(int id, double pricePerHour) throws SQLException {
+    update(
+      "INSERT INTO evp_room (roomId, name, description, address, pricePerHour) VALUES (?, ?, '', '', ?)",
+      id,
+      "Room " + id,
+      pricePerHour
+    );
+  }
+
+  public void addEvent(int clientId, int roomId, String date, int startHour, int endHour, double price)
+    throws SQLException {
+    update(
+      "INSERT INTO evp_event (clientId, roomId, date, startHour, endHour, priceTotal) VALUES (?, ?, ?, ?, ?, ?)",
+      clientId,
+      roomId,
+      java.sql.Date.valueOf(date),
+      startHour,
+      endHour,
+      price
+    );
+  }
+
+  /*
+   * Counts the statements executed through connections of the returned
+   * DataSource.
+   */
+  public static DataSource counting(DataSource dataSource, AtomicInteger executed) {
+    return (DataSource) Proxy.newProxyInstance(
+      DataSource.class.getClassLoader(),
+      new Class<?>[] { DataSource.class },
+      (proxy, method, args) -> {
+        final Object result = invoke(dataSource, method, args);
+        return result instanceof Connection connection ? counting(connection, executed) : result;
+      }
+    );
+  }
+
+  private static Connection counting(Connection connection, AtomicInteger executed) {
+    return (Connection) Proxy.newProxyInstance(
+      Connection.class.getClassLoader(),
+      new Class<?>[] { Connection.class },
+      (proxy, method, args) -> {
+        final Object result = invoke(connection, method, args);
+        if (result instanceof PreparedStatement statement) {
+          return counting(statement, executed);
+        }
+        return result;
+      }
+    );
+  }
+
+  private static PreparedStatement counting(PreparedStatement statement, AtomicInteger executed) {
+    return (PreparedStatement) Proxy.newProxyInstance(
+      PreparedStatement.class.getClassLoader(),
+      new Class<?>[] { PreparedStatement.class },
+      (proxy, method, args) -> {
+        if (method.getName().startsWith("execute")) {
+          executed.incrementAndGet();
+        }
+        return invoke(statement, method, args);
+      }
+    );
+  }
+
+  private static Object invoke(Object target, java.lang.reflect.Method method, Object[] args) throws Throwable {
+    try {
+      return method.invoke(target, args);
+    } catch (InvocationTargetException e) {
+      throw e.getCause();
+    }
+  }
+
+  @Override
+  public void close() throws SQLException {
+    try(Statement statement = keepAlive.createStatement()) {
+      statement.execute("SHUTDOWN");
+    }
+  }
+}
@@ -0,0 +1,97 @@
+package com.unir.reservations.admission;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.Test;
+
+import com.unir.reservations.admission.AdmissionControl.Operation;
+
+public class AdmissionLimiterTest {
+  @Test
+  public void callsBeyondTheQueueAreTurnedAway() throws Exception {
+    final AdmissionLimiter limiter = new AdmissionLimiter("test", 1, 1, 5_000);
+    assertTrue(limiter.acquire());
+
+    final CompletableFuture<Boolean> waiter = CompletableFuture.supplyAsync(limiter::acquire);
+    while (limiter.getQueued() == 0) {
+      Thread.onSpinWait();
+    }
+
+    // The single queue place is taken, so this one is rejected without waiting.
+    assertFalse(limiter.acquire());
+    assertEquals(1, limiter.getRejectedCount());
+
+    limiter.release(0);
+    assertTrue(waiter.get(5, TimeUnit.SECONDS));
+    assertEquals(1, limiter.getInFlight());
+  }
+
+  @Test
+  public void queuedCallsGiveUpAtTheirDeadline() {
+    final AdmissionLimiter limiter = new AdmissionLimiter("test", 1, 1, 20);
+    assertTrue(limiter.acquire());
+
+    assertFalse(limiter.acquire());
+    assertEquals(1, limiter.getTimedOutCount());
+    assertEquals(0, limiter.getQueued());
+  }
+
+  @Test
+  public void adaptiveLimitShrinksWhenLatencyRises() {
+    final AdmissionLimiter limiter = new AdmissionLimiter("test", 16, 2, 64, 0, 0, true);
+
+    for (int i = 0; i < 50; i++) {
+      cycle(limiter, 16, TimeUnit.MILLISECONDS.toNanos(1));
+    }
+    final int settled = limiter.getLimit();
+    assertTrue(settled >= 16);
+
+    for (int i = 0; i < 50; i++) {
+      cycle(limiter, 2, TimeUnit.MILLISECONDS.toNanos(20));
+    }
+    assertTrue(limiter.getLimit() < settled);
+    assertTrue(limiter.getLimit() >= 2);
+  }
+
+  @Test
+  public void kindsTogetherStayWithinThePoolBudget() {
+    final AdmissionLimiter primary = new AdmissionLimiter("primary", 3, 0, 0);
+    final AdmissionControl admission = new AdmissionControl(
+      new AdmissionLimiter("reads", 2, 0, 0),
+      new AdmissionLimiter("writes", 2, 0, 0),
+      new AdmissionLimiter("exports", 1, 0, 0),
+      primary,
+      primary
+    );
+
+    assertTrue(admission.acquire(Operation.READ));
+    assertTrue(admission.acquire(Operation.READ));
+    assertTrue(admission.acquire(Operation.WRITE));
+    // Writes still have a slot of their own, but the pool has none left.
+    assertFalse(admission.acquire(Operation.WRITE));
+    assertFalse(admission.acquire(Operation.EXPORT));
+    assertEquals(1, admission.limiter(Operation.WRITE).getInFlight());
+    assertEquals(0, admission.limiter(Operation.EXPORT).getInFlight());
+
+    admission.release(Operation.READ, 0);
+    assertTrue(admission.acquire(Operation.EXPORT));
+    assertEquals(3, primary.getInFlight());
+    assertEquals(4, admission.limiters().size());
+  }
+
+  // Holds up to calls slots at once, then releases them with the given latency.
+  private static void cycle(AdmissionLimiter limiter, int calls, long latencyNanos) {
+    int acquired = 0;
+    for (int i = 0; i < calls && limiter.acquire(); i++) {
+      acquired++;
+    }
+    for (int i = 0; i < acquired; i++) {
+      limiter.release(latencyNanos);
+    }
+  }
+}
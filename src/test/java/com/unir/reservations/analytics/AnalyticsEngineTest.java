@@ -0,0 +1,151 @@
+package com.unir.reservations.analytics;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import java.sql.SQLException;
+import java.time.YearMonth;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import com.unir.reservations.TestDatabase;
+
+public class AnalyticsEngineTest {
+  private static final YearMonth MARCH = YearMonth.of(2025, 3);
+
+  private TestDatabase database;
+  private AnalyticsEngine engine;
+
+  @Before
+  public void setUp() throws SQLException {
+    database = new TestDatabase();
+    database.addClient(1);
+    database.addClient(2);
+    database.addRoom(7, 10.0);
+    engine = new AnalyticsEngine(database.dataSource(), ForkJoinPool.commonPool(), 2);
+  }
+
+  @After
+  public void tearDown() throws SQLException {
+    database.close();
+  }
+
+  @Test
+  public void laterRefreshesOnlyReadChangedRows() throws SQLException {
+    for (int i = 0; i < 5; i++) {
+      database.addEvent(i % 2 + 1, 7, "2025-03-0" + (i + 1), 9, 11, 20.0);
+    }
+    settle();
+
+    final RefreshStats first = engine.refresh();
+    assertTrue(first.full());
+    assertEquals(5, first.scanned());
+    assertEquals(5, first.added());
+    assertEquals(100.0, revenue(7), 0.001);
+
+    // Only the newest row is inside the overlap, and it has not changed.
+    final RefreshStats idle = engine.refresh();
+    assertFalse(idle.full());
+    assertEquals(1, idle.scanned());
+    assertEquals(0, idle.added() + idle.changed());
+
+    database.update("UPDATE evp_event SET priceTotal = 50, version = version + 1 WHERE eventId = 2");
+    database.addEvent(1, 7, "2025-03-20", 9, 10, 5.0);
+    final RefreshStats changes = engine.refresh();
+    assertFalse(changes.full());
+    assertEquals(3, changes.scanned());
+    assertEquals(1, changes.changed());
+    assertEquals(1, changes.added());
+    assertEquals(135.0, revenue(7), 0.001);
+  }
+
+  @Test
+  public void deletesFallBackToAFullWalk() throws SQLException {
+    for (int i = 0; i < 3; i++) {
+      database.addEvent(1, 7, "2025-03-1" + i, 9, 10, 10.0);
+    }
+    engine.refresh();
+
+    database.update("DELETE FROM evp_event WHERE eventId = 2");
+    final RefreshStats stats = engine.refresh();
+
+    assertTrue(stats.full());
+    assertEquals(1, stats.removed());
+    assertEquals(20.0, revenue(7), 0.001);
+    assertEquals(2, engine.topClients(1).get(0).reservations());
+  }
+
+  @Test
+  public void outliersNeitherSizeNorBreakTheCube() throws SQLException {
+    final int bigRoom = Integer.MAX_VALUE - 1;
+    database.addRoom(bigRoom, 10.0);
+    database.addEvent(1, bigRoom, "2025-03-01", 9, 10, 10.0);
+    database.addEvent(2, 7, "9999-12-31", 9, 10, 99.0);
+    database.addEvent(2, 7, "2025-03-02", 9, 10, 30.0);
+    settle();
+
+    final RefreshStats stats = engine.refresh();
+    assertEquals(1, stats.skipped());
+    assertEquals(2, stats.added());
+    assertEquals(10.0, revenue(bigRoom), 0.001);
+    assertEquals(30.0, revenue(7), 0.001);
+    assertEquals(
+      List.of(7, bigRoom),
+      engine.revenue(MARCH, MARCH, null).stream().map(RoomRevenue::roomId).toList()
+    );
+
+    // The skipped event still counts as known, so the row count agrees.
+    assertFalse(engine.refresh().full());
+
+    database.update("UPDATE evp_event SET date = '2025-03-03', version = version + 1 WHERE eventId = 2");
+    final RefreshStats moved = engine.refresh();
+    assertFalse(moved.full());
+    assertEquals(1, moved.added());
+    assertEquals(129.0, revenue(7), 0.001);
+  }
+
+  @Test
+  public void sparseEventIdsNeitherSizeNorBreakTheState() throws SQLException {
+    database.addEvent(1, 7, "2025-03-01", 9, 10, 10.0);
+    database.update(
+      "INSERT INTO evp_event (eventId, clientId, roomId, date, startHour, endHour, priceTotal) VALUES (?, 2, 7, ?, 9, 10, 20)",
+      2_000_000_000,
+      java.sql.Date.valueOf("2025-03-02")
+    );
+    database.update(
+      "INSERT INTO evp_event (eventId, clientId, roomId, date, startHour, endHour, priceTotal) VALUES (?, 2, 7, ?, 9, 10, 40)",
+      Integer.MAX_VALUE,
+      java.sql.Date.valueOf("2025-03-03")
+    );
+
+    final RefreshStats first = engine.refresh();
+    assertEquals(3, first.added());
+    assertEquals(70.0, revenue(7), 0.001);
+
+    database.update("DELETE FROM evp_event WHERE eventId = 2000000000");
+    final RefreshStats deleted = engine.refresh();
+    assertTrue(deleted.full());
+    assertEquals(1, deleted.removed());
+    assertEquals(50.0, revenue(7), 0.001);
+
+    database.update("UPDATE evp_event SET priceTotal = 5, version = version + 1 WHERE eventId = ?", Integer.MAX_VALUE);
+    final RefreshStats changed = engine.refresh();
+    assertFalse(changed.full());
+    assertEquals(1, changed.changed());
+    assertEquals(15.0, revenue(7), 0.001);
+  }
+
+  // Backdates the rows a day apart, as if each was written long ago.
+  private void settle() throws SQLException {
+    database.update("UPDATE evp_event SET updatedAt = DATEADD('DAY', eventId, TIMESTAMP '2025-01-01 00:00:00')");
+  }
+
+  private double revenue(int roomId) {
+    return engine.revenue(MARCH, MARCH, roomId).stream().mapToDouble(RoomRevenue::revenue).sum();
+  }
+}
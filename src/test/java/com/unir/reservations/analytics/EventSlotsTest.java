@@ -0,0 +1,44 @@
+package com.unir.reservations.analytics;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Random;
+import java.util.Set;
+
+import org.junit.Test;
+
+public class EventSlotsTest {
+  @Test
+  public void releasedSlotsAreReusedAndLookupsSurviveRemovals() {
+    final EventSlots slots = new EventSlots();
+    final Map<Integer, Integer> expected = new HashMap<>();
+    final Random random = new Random(42);
+
+    for (int i = 0; i < 20_000; i++) {
+      // A narrow id range keeps probe runs long, so removals shift entries back.
+      final int eventId = random.nextBoolean() ? random.nextInt(4_000) : random.nextInt(4_000) * 65_536;
+      if (random.nextInt(3) == 0) {
+        slots.release(eventId);
+        expected.remove(eventId);
+      } else {
+        final int slot = slots.slotFor(eventId);
+        final Integer previous = expected.putIfAbsent(eventId, slot);
+        assertEquals(previous == null ? slot : previous.intValue(), slot);
+      }
+    }
+
+    assertEquals(expected.size(), slots.size());
+    final Set<Integer> used = new HashSet<>();
+    for (Map.Entry<Integer, Integer> entry : expected.entrySet()) {
+      assertEquals(entry.getValue().intValue(), slots.get(entry.getKey()));
+      assertTrue(used.add(entry.getValue()));
+    }
+    // Slots stay dense: no more are handed out than events were ever live at once.
+    assertTrue(used.stream().mapToInt(Integer::intValue).max().getAsInt() < 8_000);
+    assertEquals(-1, slots.get(-5));
+  }
+}
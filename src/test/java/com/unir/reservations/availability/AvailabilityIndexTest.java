@@ -0,0 +1,193 @@
+package com.unir.reservations.availability;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.time.LocalDate;
+import java.util.BitSet;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import com.unir.reservations.TestDatabase;
+import com.unir.reservations.dao.implementations.RoomDAOImplementation;
+
+public class AvailabilityIndexTest {
+  private static final LocalDate DAY = LocalDate.of(2025, 1, 10);
+
+  private TestDatabase database;
+
+  @Before
+  public void setUp() throws SQLException {
+    database = new TestDatabase();
+    database.addClient(1);
+    database.addRoom(1, 10.0);
+    database.addRoom(2, 10.0);
+    database.addEvent(1, 1, DAY.toString(), 9, 11, 20.0);
+  }
+
+  @After
+  public void tearDown() throws SQLException {
+    database.close();
+  }
+
+  @Test
+  public void backToBackSlotsDoNotCollide() {
+    final AvailabilityIndex index = new AvailabilityIndex();
+
+    assertTrue(index.reserve(new Slot(1, DAY, 9, 11)));
+    assertTrue(index.reserve(new Slot(1, DAY, 11, 12)));
+    assertFalse(index.reserve(new Slot(1, DAY, 10, 12)));
+
+    index.release(new Slot(1, DAY, 9, 11));
+    assertTrue(index.isFree(1, DAY, 9, 11));
+    assertFalse(index.isFree(1, DAY, 11, 12));
+  }
+
+  @Test
+  public void moveWithinADayIgnoresItsOwnHours() {
+    final AvailabilityIndex index = new AvailabilityIndex();
+    final Slot from = new Slot(1, DAY, 9, 11);
+    index.reserve(from);
+    index.reserve(new Slot(1, DAY, 12, 13));
+
+    assertTrue(index.move(from, new Slot(1, DAY, 10, 12)));
+    assertFalse(index.move(new Slot(1, DAY, 10, 12), new Slot(1, DAY, 11, 13)));
+    assertTrue(index.isFree(1, DAY, 9, 10));
+  }
+
+  @Test
+  public void freeRoomsExcludesBusyOnes() throws SQLException {
+    final AvailabilityIndex index = new AvailabilityIndex();
+    try(Connection connection = database.dataSource().getConnection()) {
+      index.load(connection);
+    }
+
+    final BitSet free = index.freeRooms(DAY, DAY, 10, 11);
+    assertFalse(free.get(1));
+    assertTrue(free.get(2));
+  }
+
+  @Test
+  public void loadSkipsMalformedRows() throws SQLException {
+    database.update("ALTER TABLE evp_event ALTER COLUMN date SET NULL");
+    database.addEvent(1, 2, DAY.toString(), 14, 30, 20.0);
+    database.addEvent(1, 2, DAY.toString(), 12, 13, 10.0);
+    database.update("UPDATE evp_event SET date = NULL WHERE eventId = 3");
+    database.addEvent(1, 2, DAY.toString(), 16, 17, 10.0);
+
+    final AvailabilityIndex index = new AvailabilityIndex();
+    try(Connection connection = database.dataSource().getConnection()) {
+      assertEquals(2, index.load(connection));
+    }
+
+    assertFalse(index.isFree(1, DAY, 9, 11));
+    assertFalse(index.isFree(2, DAY, 16, 17));
+    assertTrue(index.isFree(2, DAY, 12, 15));
+  }
+
+  @Test
+  public void freeRoomsRejectsRangesBeyondTheCap() {
+    final AvailabilityIndex index = new AvailabilityIndex();
+
+    assertTrue(index.freeRooms(DAY, DAY.plusDays(AvailabilityIndex.MAX_SEARCH_DAYS - 1), 9, 10).isEmpty());
+    assertRejected(() -> index.freeRooms(DAY, DAY.plusDays(AvailabilityIndex.MAX_SEARCH_DAYS), 9, 10));
+    assertRejected(() -> index.freeRooms(LocalDate.MIN, LocalDate.MAX, 9, 10));
+  }
+
+  @Test
+  public void searchRejectsNegativePaging() throws SQLException {
+    final AvailabilityIndex index = new AvailabilityIndex();
+    try(Connection connection = database.dataSource().getConnection()) {
+      index.load(connection);
+    }
+    final RoomSearch search = new RoomSearch(index, new RoomDAOImplementation(database.dataSource()));
+
+    assertEquals(2, search.findFree(DAY, DAY, 12, 13, 1, 5).getFilterCounter().intValue());
+    assertEquals(1, search.findFree(DAY, DAY, 12, 13, 1, 5).getData().size());
+    assertRejected(() -> search.findFree(DAY, DAY, 12, 13, -1, 5));
+    assertRejected(() -> search.findFree(DAY, DAY, 12, 13, 0, -5));
+  }
+
+  @Test
+  public void loadKeepsSlotsReservedWhileItRuns() throws SQLException {
+    final AvailabilityIndex index = new AvailabilityIndex();
+    final Slot during = new Slot(2, DAY, 14, 16);
+
+    try(Connection connection = database.dataSource().getConnection()) {
+      index.load(duringEventScan(connection, () -> index.reserve(during)));
+    }
+
+    assertFalse(index.isFree(during));
+    assertFalse(index.isFree(1, DAY, 9, 11));
+    assertEquals(BitSet.valueOf(new long[] { 0b100 }), index.freeRooms(DAY, DAY, 9, 10));
+  }
+
+  @Test
+  public void loadKeepsSlotsReleasedWhileItRuns() throws SQLException {
+    final AvailabilityIndex index = new AvailabilityIndex();
+    final Slot stored = new Slot(1, DAY, 9, 11);
+    index.reserve(stored);
+
+    // The release lands after the load has read the row it frees.
+    try(Connection connection = database.dataSource().getConnection()) {
+      index.load(duringEventScan(connection, () -> index.release(stored)));
+    }
+
+    assertTrue(index.isFree(stored));
+  }
+
+  /*
+   * Runs the action right after the load has read evp_event, standing in for
+   * a writer that races the load.
+   */
+  private static Connection duringEventScan(Connection connection, Runnable action) {
+    return (Connection) Proxy.newProxyInstance(
+      Connection.class.getClassLoader(),
+      new Class<?>[] { Connection.class },
+      (proxy, method, args) -> {
+        final Object result = invoke(connection, method, args);
+        if (!(result instanceof PreparedStatement statement) || !((String) args[0]).contains("evp_event")) {
+          return result;
+        }
+
+        return Proxy.newProxyInstance(
+          PreparedStatement.class.getClassLoader(),
+          new Class<?>[] { PreparedStatement.class },
+          (statementProxy, statementMethod, statementArgs) -> {
+            final Object executed = invoke(statement, statementMethod, statementArgs);
+            if (statementMethod.getName().equals("executeQuery")) {
+              action.run();
+            }
+            return executed;
+          }
+        );
+      }
+    );
+  }
+
+  private static Object invoke(Object target, java.lang.reflect.Method method, Object[] args) throws Throwable {
+    try {
+      return method.invoke(target, args);
+    } catch (InvocationTargetException e) {
+      throw e.getCause();
+    }
+  }
+
+  private static void assertRejected(Runnable call) {
+    try {
+      call.run();
+      fail("Expected IllegalArgumentException");
+    } catch (IllegalArgumentException e) {
+      // Expected.
+    }
+  }
+}
@@ -0,0 +1,113 @@
+package com.unir.reservations.dao;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.fail;
+
+import java.sql.Connection;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.SQLTransactionRollbackException;
+import java.sql.Statement;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import com.unir.reservations.TestDatabase;
+
+public class TransactionTemplateTest {
+  private TestDatabase database;
+  private TransactionTemplate transactions;
+
+  @Before
+  public void setUp() throws SQLException {
+    database = new TestDatabase();
+    transactions = new TransactionTemplate(database.dataSource(), Connection.TRANSACTION_READ_COMMITTED, 3, 1);
+  }
+
+  @After
+  public void tearDown() throws SQLException {
+    database.close();
+  }
+
+  @Test
+  public void deadlocksRetryUntilTheWorkCommits() throws SQLException {
+    final AtomicInteger attempts = new AtomicInteger();
+    final AtomicInteger compensations = new AtomicInteger();
+
+    final int committedOn = transactions.execute(transaction -> {
+      transaction.onRollback(compensations::incrementAndGet);
+      try(Statement statement = transaction.connection().createStatement()) {
+        statement.executeUpdate(
+          "INSERT INTO evp_client (document, documentType, firstName, surName) VALUES ('D1', 'CC', 'N', 'S')"
+        );
+      }
+      if (attempts.incrementAndGet() < 3) {
+        throw new SQLTransactionRollbackException("Deadlock found", "40001", 1213);
+      }
+      return attempts.get();
+    });
+
+    assertEquals(3, committedOn);
+    assertEquals(2, compensations.get());
+    assertEquals(3, transactions.getTransactionCount());
+    assertEquals(2, transactions.getRollbackCount());
+    assertEquals(2, transactions.getRetryCount());
+    assertEquals(0, transactions.getExhaustedRetryCount());
+    // Rolled-back attempts leave nothing behind.
+    assertEquals(1, count("SELECT COUNT(*) FROM evp_client"));
+  }
+
+  @Test
+  public void retriesStopAfterMaxAttempts() {
+    final SQLException timeout = new SQLException("Lock wait timeout exceeded", "HY000", 1205);
+    final AtomicInteger attempts = new AtomicInteger();
+
+    try {
+      transactions.execute(transaction -> {
+        attempts.incrementAndGet();
+        throw timeout;
+      });
+      fail("Expected the lock wait timeout");
+    } catch (SQLException e) {
+      assertSame(timeout, e);
+    }
+
+    assertEquals(3, attempts.get());
+    assertEquals(2, transactions.getRetryCount());
+    assertEquals(1, transactions.getExhaustedRetryCount());
+  }
+
+  @Test
+  public void otherFailuresAreNotRetried() {
+    final AtomicInteger attempts = new AtomicInteger();
+
+    try {
+      transactions.execute(transaction -> {
+        attempts.incrementAndGet();
+        throw new SQLException("Duplicate entry", "23000", 1062);
+      });
+      fail("Expected the duplicate key error");
+    } catch (SQLException e) {
+      assertEquals(1062, e.getErrorCode());
+    }
+
+    assertEquals(1, attempts.get());
+    assertEquals(0, transactions.getRetryCount());
+  }
+
+  private int count(String sql) {
+    try(
+      Connection connection = database.dataSource().getConnection();
+      Statement statement = connection.createStatement();
+      ResultSet resultSet = statement.executeQuery(sql)
+    ) {
+      resultSet.next();
+      return resultSet.getInt(1);
+    } catch (SQLException e) {
+      throw new IllegalStateException(e);
+    }
+  }
+}
@@ -0,0 +1,117 @@
+package com.unir.reservations.dao.async;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+import java.sql.SQLException;
+import java.util.concurrent.CompletionException;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import com.unir.reservations.TestDatabase;
+import com.unir.reservations.admission.AdmissionControl;
+import com.unir.reservations.admission.AdmissionLimiter;
+import com.unir.reservations.admission.AdmissionRejectedException;
+import com.unir.reservations.admission.AdmittedDAO;
+import com.unir.reservations.dao.implementations.ClientDAOImplementation;
+import com.unir.reservations.dao.implementations.ReservationDAOImplementation;
+import com.unir.reservations.dao.implementations.RoomDAOImplementation;
+import com.unir.reservations.models.Reservation;
+
+public class ClientOverviewLoaderTest {
+  private TestDatabase database;
+  private ClientOverviewLoader loader;
+
+  @Before
+  public void setUp() throws SQLException {
+    database = new TestDatabase();
+    for (int id : new int[] { 5, 15, 50 }) {
+      database.addClient(id);
+    }
+    database.addRoom(1, 10.0);
+
+    loader = new ClientOverviewLoader(
+      new AsyncDAO<>(new ClientDAOImplementation(database.dataSource())),
+      new AsyncDAO<>(new ReservationDAOImplementation(database.dataSource())),
+      new AsyncDAO<>(new RoomDAOImplementation(database.dataSource()))
+    );
+  }
+
+  @After
+  public void tearDown() throws SQLException {
+    database.close();
+  }
+
+  @Test
+  public void reservationsArePagedByExactClient() throws SQLException {
+    // More than one page of the client's own rows, with 15 and 50 interleaved.
+    for (int i = 0; i < 1200; i++) {
+      final String date = "2025-%02d-%02d".formatted(i / 280 + 1, i / 10 % 28 + 1);
+      database.addEvent(5, 1, date, i % 10, i % 10 + 1, 10.0);
+      if (i % 4 == 0) {
+        database.addEvent(i % 8 == 0 ? 15 : 50, 1, date, i % 10, i % 10 + 1, 10.0);
+      }
+    }
+
+    final ClientOverview overview = loader.load(5).join();
+
+    assertEquals(1200, overview.reservations().size());
+    for (Reservation reservation : overview.reservations()) {
+      assertEquals(Integer.valueOf(5), reservation.client().idClient());
+    }
+    assertEquals(150, loader.load(15).join().reservations().size());
+    assertEquals(1, overview.rooms().size());
+  }
+
+  @Test
+  public void missingClientCompletesWithNull() {
+    assertNull(loader.load(7).join());
+  }
+
+  @Test
+  public void roomCatalogIsFollowedPastOnePage() throws SQLException {
+    for (int id = 2; id <= 1500; id++) {
+      database.addRoom(id, 10.0);
+    }
+
+    assertEquals(1500, loader.load(5).join().rooms().size());
+  }
+
+  @Test
+  public void rejectedPageFailsTheLoad() {
+    final AdmissionLimiter reads = new AdmissionLimiter("reads", 1, 0, 0);
+    reads.acquire();
+    final AdmissionLimiter unlimited = new AdmissionLimiter("any", 10, 0, 0);
+    final ClientOverviewLoader busy = new ClientOverviewLoader(
+      new AsyncDAO<>(new ClientDAOImplementation(database.dataSource())),
+      new AsyncDAO<>(new AdmittedDAO<>(
+        new ReservationDAOImplementation(database.dataSource()),
+        new AdmissionControl(reads, unlimited, unlimited, unlimited, unlimited)
+      )),
+      new AsyncDAO<>(new RoomDAOImplementation(database.dataSource()))
+    );
+
+    assertTrue(failure(busy) instanceof AdmissionRejectedException);
+  }
+
+  @Test
+  public void failedPageFailsTheLoad() throws SQLException {
+    database.update("DROP TABLE evp_event");
+
+    assertTrue(failure(loader) instanceof IllegalStateException);
+  }
+
+  private static Throwable failure(ClientOverviewLoader loader) {
+    try {
+      loader.load(5).join();
+      fail("Expected the load to fail");
+      return null;
+    } catch (CompletionException e) {
+      return e.getCause();
+    }
+  }
+}
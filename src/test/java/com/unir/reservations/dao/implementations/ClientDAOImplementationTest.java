@@ -0,0 +1,147 @@
+package com.unir.reservations.dao.implementations;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import com.unir.reservations.TestDatabase;
+import com.unir.reservations.models.Client;
+import com.unir.reservations.search.ClientSearchIndex;
+import com.unir.reservations.utils.Pagination;
+import com.unir.reservations.utils.RawRecord;
+
+public class ClientDAOImplementationTest {
+  private static final int CLIENTS = 120;
+
+  private TestDatabase database;
+  private ClientDAOImplementation dao;
+
+  @Before
+  public void setUp() throws SQLException {
+    database = new TestDatabase();
+    for (int i = 1; i <= CLIENTS; i++) {
+      database.addClient(i);
+    }
+    dao = new ClientDAOImplementation(database.dataSource());
+  }
+
+  @After
+  public void tearDown() throws SQLException {
+    database.close();
+  }
+
+  @Test
+  public void listWithoutPageSizeIsUnpaged() {
+    final Pagination pagination = dao.getList(params("")).getPagination();
+
+    assertEquals(CLIENTS, pagination.getData().size());
+    assertEquals(Integer.valueOf(CLIENTS), pagination.getFilterCounter());
+    assertNull(pagination.getNextPageToken());
+  }
+
+  @Test
+  public void pageSizeMayArriveAsText() {
+    final HashMap<String, Object> params = params("");
+    params.put("PAGE_SIZE", "25");
+
+    final Pagination pagination = dao.getList(params).getPagination();
+
+    assertEquals(25, pagination.getData().size());
+    assertNotNull(pagination.getNextPageToken());
+  }
+
+  @Test
+  public void searchIndexPagesLikeTheSqlFallback() throws SQLException {
+    final ClientSearchIndex index = new ClientSearchIndex();
+    try(Connection connection = database.dataSource().getConnection()) {
+      index.load(connection);
+    }
+    final ClientDAOImplementation indexed = new ClientDAOImplementation(database.dataSource(), index);
+
+    for (String filter : List.of("", "1", "D1", "ame2", "example.com", "Surname11", "missing")) {
+      assertEquals(filter, walk(dao, filter), walk(indexed, filter));
+    }
+  }
+
+  @Test(expected = IllegalArgumentException.class)
+  public void sqlPageTokensAreNotReplayedOnTheIndex() throws SQLException {
+    final ClientSearchIndex index = new ClientSearchIndex();
+    try(Connection connection = database.dataSource().getConnection()) {
+      index.load(connection);
+    }
+    final HashMap<String, Object> params = params("");
+    params.put("PAGE_SIZE", 7);
+    params.put("CURSOR", dao.getList(params).getPagination().getNextPageToken());
+
+    new ClientDAOImplementation(database.dataSource(), index).getList(params);
+  }
+
+  @Test
+  public void updatesRequireTheCurrentVersion() {
+    final Client current = dao.getForId(1);
+
+    final RawRecord versionless = dao.update(renamed(current, "Versionless", null), null);
+    assertEquals("Version is required to update a client", versionless.getServerMessage());
+
+    final RawRecord updated = dao.update(renamed(current, "First", current.version()), null);
+    assertEquals(Integer.valueOf(current.version() + 1), ((Client) updated.getAffected()).version());
+
+    final RawRecord stale = dao.update(renamed(current, "Second", current.version()), null);
+    assertTrue(stale.isConflict());
+    assertEquals("First", dao.getForId(1).firstName());
+  }
+
+  private static Client renamed(Client client, String firstName, Integer version) {
+    return new Client(
+      client.idClient(),
+      client.document(),
+      client.documentType(),
+      firstName,
+      client.surName(),
+      client.phoneNumber(),
+      client.mobileNumber(),
+      client.email(),
+      version
+    );
+  }
+
+  // Every id of every page, followed by the total the first page reported.
+  private static List<Integer> walk(ClientDAOImplementation dao, String filter) {
+    final List<Integer> ids = new ArrayList<>();
+    final HashMap<String, Object> params = params(filter);
+    params.put("PAGE_SIZE", 7);
+
+    final Pagination first = dao.getList(params).getPagination();
+    Pagination pagination = first;
+    while (true) {
+      for (Object client : pagination.getData()) {
+        ids.add(((Client) client).idClient());
+      }
+      if (pagination.getNextPageToken() == null) {
+        break;
+      }
+      params.put("CURSOR", pagination.getNextPageToken());
+      pagination = dao.getList(params).getPagination();
+    }
+
+    ids.add(first.getFilterCounter());
+    return ids;
+  }
+
+  private static HashMap<String, Object> params(String filter) {
+    final HashMap<String, Object> params = new HashMap<>();
+    params.put("FILTER", filter);
+    return params;
+  }
+}
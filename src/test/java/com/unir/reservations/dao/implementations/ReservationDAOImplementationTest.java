@@ -0,0 +1,321 @@
+package com.unir.reservations.dao.implementations;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+import java.sql.Date;
+import java.sql.SQLException;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import com.unir.reservations.TestDatabase;
+import com.unir.reservations.dao.ListQuery;
+import com.unir.reservations.models.Client;
+import com.unir.reservations.models.Reservation;
+import com.unir.reservations.models.Room;
+import com.unir.reservations.utils.Pagination;
+import com.unir.reservations.utils.RawRecord;
+
+public class ReservationDAOImplementationTest {
+  private static final int CLIENTS = 20;
+  private static final int ROOMS = 5;
+  private static final int EVENTS = 500;
+
+  private TestDatabase database;
+
+  @Before
+  public void setUp() throws SQLException {
+    database = new TestDatabase();
+    for (int i = 1; i <= CLIENTS; i++) {
+      database.addClient(i);
+    }
+    for (int i = 1; i <= ROOMS; i++) {
+      database.addRoom(i, 10.0);
+    }
+    for (int i = 0; i < EVENTS; i++) {
+      final String date = "2025-01-%02d".formatted(i / (ROOMS * 10) + 1);
+      final int hour = i % 10;
+      database.addEvent(i % CLIENTS + 1, i % ROOMS + 1, date, hour, hour + 1, 10.0);
+    }
+    database.update("INSERT INTO evp_service (serviceId, name, price) VALUES (1, 'Catering', 5.0)");
+    database.update("INSERT INTO evp_event_service (eventId, serviceId) VALUES (1, 1), (2, 1)");
+  }
+
+  @After
+  public void tearDown() throws SQLException {
+    database.close();
+  }
+
+  @Test
+  public void pageRunsConstantStatementsWhateverItsSize() {
+    final AtomicInteger executed = new AtomicInteger();
+    final ReservationDAOImplementation dao = new ReservationDAOImplementation(
+      TestDatabase.counting(database.dataSource(), executed)
+    );
+
+    final Pagination pagination = dao.getList(page(EVENTS)).getPagination();
+
+    assertEquals(EVENTS, pagination.getData().size());
+    assertEquals(Integer.valueOf(EVENTS), pagination.getFilterCounter());
+    // One statement for the counted page, one for the services of all its rows.
+    assertEquals(2, executed.get());
+
+    executed.set(0);
+    dao.getList(page(10));
+    assertEquals(2, executed.get());
+  }
+
+  @Test
+  public void eventsWithoutClientOrRoomStayListed() throws SQLException {
+    database.addEvent(CLIENTS + 1, ROOMS + 1, "2025-02-01", 8, 9, 10.0);
+    final ReservationDAOImplementation dao = new ReservationDAOImplementation(database.dataSource());
+
+    final Pagination pagination = dao.getList(page(EVENTS + 1)).getPagination();
+
+    assertEquals(EVENTS + 1, pagination.getData().size());
+    assertEquals(Integer.valueOf(EVENTS + 1), pagination.getFilterCounter());
+
+    final Reservation orphan = dao.getForId(EVENTS + 1);
+    assertNotNull(orphan);
+    assertNull(orphan.client());
+    assertNull(orphan.room());
+  }
+
+  @Test
+  public void servicesAreAttachedToTheirRows() {
+    final ReservationDAOImplementation dao = new ReservationDAOImplementation(database.dataSource());
+
+    final List<?> rows = dao.getList(page(3)).getPagination().getData();
+
+    assertEquals(1, ((Reservation) rows.get(0)).services().size());
+    assertEquals(1, ((Reservation) rows.get(1)).services().size());
+    assertEquals(0, ((Reservation) rows.get(2)).services().size());
+  }
+
+  @Test
+  public void listAfterAWriteLoadsOnlyWhenRead() {
+    final AtomicInteger executed = new AtomicInteger();
+    final ReservationDAOImplementation dao = new ReservationDAOImplementation(
+      TestDatabase.counting(database.dataSource(), executed)
+    );
+    final Reservation reservation = new Reservation(
+      null,
+      new Client(1, null, null, null, null, null, null, null, null),
+      null,
+      new Room(1, null, null, null, null),
+      Date.valueOf("2025-03-01"),
+      8,
+      10,
+      20.0,
+      null,
+      null
+    );
+
+    final RawRecord rawRecord = dao.add(reservation, page(10));
+    final int writeStatements = executed.get();
+
+    assertTrue(rawRecord.getAffected() instanceof Reservation);
+    assertNull(rawRecord.getPagination());
+    assertEquals(writeStatements, executed.get());
+    assertEquals(10, rawRecord.loadPagination().getData().size());
+    assertTrue(executed.get() > writeStatements);
+
+    // Read once, then kept.
+    final int listStatements = executed.get();
+    rawRecord.loadPagination();
+    assertEquals(listStatements, executed.get());
+  }
+
+  @Test
+  public void batchUpdatesAreCheckedWithoutASharedIndex() throws SQLException {
+    // A client holds one reservation, so the pair gets clients of its own.
+    database.addClient(CLIENTS + 1);
+    database.addClient(CLIENTS + 2);
+    database.addEvent(CLIENTS + 1, 1, "2025-03-01", 8, 9, 10.0);
+    database.addEvent(CLIENTS + 2, 1, "2025-03-01", 12, 13, 10.0);
+    final ReservationDAOImplementation dao = new ReservationDAOImplementation(database.dataSource());
+    final Reservation first = dao.getForId(EVENTS + 1);
+    final Reservation second = dao.getForId(EVENTS + 2);
+
+    final List<RawRecord> records = dao.updateAll(
+      List.of(
+        moved(first, 12, 13),
+        moved(second, 13, 14)
+      ),
+      null
+    );
+
+    assertEquals("Room is not available", records.get(0).getServerMessage());
+    assertEquals("Reservation updated successfully", records.get(1).getServerMessage());
+    assertEquals(Integer.valueOf(8), dao.getForId(EVENTS + 1).startHour());
+    assertEquals(Integer.valueOf(13), dao.getForId(EVENTS + 2).startHour());
+  }
+
+  @Test
+  public void priceUpdatesReportTheRowsTheyChanged() {
+    final ReservationDAOImplementation dao = new ReservationDAOImplementation(database.dataSource());
+
+    final RawRecord rawRecord = dao.updatePrices(Map.of(1, 12.0, 2, 14.0, EVENTS + 50, 16.0));
+
+    assertEquals(2, rawRecord.getAffected());
+  }
+
+  @Test
+  public void updatesRequireTheCurrentVersion() throws SQLException {
+    database.addClient(CLIENTS + 1);
+    database.addEvent(CLIENTS + 1, 1, "2025-03-01", 8, 9, 10.0);
+    final ReservationDAOImplementation dao = new ReservationDAOImplementation(database.dataSource());
+    final Reservation current = dao.getForId(EVENTS + 1);
+
+    final RawRecord versionless = dao.update(versioned(moved(current, 9, 10), null), null);
+    assertEquals("Version is required to update a reservation", versionless.getServerMessage());
+    assertEquals(Integer.valueOf(8), dao.getForId(EVENTS + 1).startHour());
+
+    final RawRecord updated = dao.update(moved(current, 9, 10), null);
+    assertEquals(Integer.valueOf(current.version() + 1), ((Reservation) updated.getAffected()).version());
+
+    final RawRecord stale = dao.update(moved(current, 10, 11), null);
+    assertTrue(stale.isConflict());
+    assertEquals(Integer.valueOf(9), dao.getForId(EVENTS + 1).startHour());
+
+    final List<RawRecord> batch = dao.updateAll(List.of(versioned(moved(current, 10, 11), null)), null);
+    assertEquals("Version is required to update a reservation", batch.get(0).getServerMessage());
+  }
+
+  @Test
+  public void batchRowsWithoutAnIdAreRejectedOneByOne() throws SQLException {
+    database.addClient(CLIENTS + 1);
+    database.addEvent(CLIENTS + 1, 1, "2025-03-01", 8, 9, 10.0);
+    final AtomicInteger executed = new AtomicInteger();
+    final ReservationDAOImplementation dao = new ReservationDAOImplementation(
+      TestDatabase.counting(database.dataSource(), executed)
+    );
+    final Reservation current = dao.getForId(EVENTS + 1);
+    final Reservation idless = new Reservation(
+      null,
+      current.client(),
+      current.services(),
+      current.room(),
+      current.date(),
+      10,
+      11,
+      10.0,
+      current.observations(),
+      current.version()
+    );
+
+    executed.set(0);
+    final List<RawRecord> rejected = dao.updateAll(List.of(idless), null);
+    assertEquals("Id is required to update a reservation", rejected.get(0).getServerMessage());
+    assertEquals(0, executed.get());
+
+    final List<RawRecord> mixed = dao.updateAll(List.of(idless, moved(current, 9, 10)), null);
+    assertEquals("Id is required to update a reservation", mixed.get(0).getServerMessage());
+    assertEquals("Reservation updated successfully", mixed.get(1).getServerMessage());
+    assertEquals(Integer.valueOf(9), dao.getForId(EVENTS + 1).startHour());
+  }
+
+  private static Reservation versioned(Reservation reservation, Integer version) {
+    return new Reservation(
+      reservation.idReservation(),
+      reservation.client(),
+      reservation.services(),
+      reservation.room(),
+      reservation.date(),
+      reservation.startHour(),
+      reservation.endHour(),
+      reservation.priceTotal(),
+      reservation.observations(),
+      version
+    );
+  }
+
+  private static Reservation moved(Reservation reservation, int startHour, int endHour) {
+    return new Reservation(
+      reservation.idReservation(),
+      reservation.client(),
+      reservation.services(),
+      reservation.room(),
+      reservation.date(),
+      startHour,
+      endHour,
+      10.0 * (endHour - startHour),
+      reservation.observations(),
+      reservation.version()
+    );
+  }
+
+  @Test
+  public void priceCursorWalksEveryRowOnce() throws SQLException {
+    // 0.1 + 0.2 is not 0.3; the cursor must seek on the exact stored double.
+    database.update("UPDATE evp_event SET priceTotal = ? WHERE MOD(eventId, 3) = 0", 0.1 + 0.2);
+    database.update("UPDATE evp_event SET priceTotal = ? WHERE MOD(eventId, 3) = 1", 0.3);
+    final ReservationDAOImplementation dao = new ReservationDAOImplementation(database.dataSource());
+
+    final HashSet<Integer> seen = new HashSet<>();
+    ListQuery query = ListQuery.of("").sortedBy(ListQuery.Sort.PRICE_ASC).withPageSize(7);
+    while (true) {
+      final Pagination pagination = dao.getList(query).getPagination();
+      for (Object row : pagination.getData()) {
+        assertTrue(seen.add(((Reservation) row).idReservation()));
+      }
+      if (pagination.getNextPageToken() == null) {
+        break;
+      }
+      query = query.withCursor(pagination.getNextPageToken());
+    }
+
+    assertEquals(EVENTS, seen.size());
+  }
+
+  @Test(expected = IllegalArgumentException.class)
+  public void cursorFromAnotherSortIsRejected() {
+    final ReservationDAOImplementation dao = new ReservationDAOImplementation(database.dataSource());
+    final ListQuery byPrice = ListQuery.of("").sortedBy(ListQuery.Sort.PRICE_ASC).withPageSize(10);
+    final String token = dao.getList(byPrice).getPagination().getNextPageToken();
+
+    dao.getList(byPrice.sortedBy(ListQuery.Sort.NEWEST_FIRST).withCursor(token));
+  }
+
+  @Test
+  public void legacySqlParamsMapOntoTheWhitelist() throws SQLException {
+    database.update("UPDATE evp_event SET priceTotal = eventId");
+    final ReservationDAOImplementation dao = new ReservationDAOImplementation(database.dataSource());
+    final HashMap<String, Object> params = new HashMap<>();
+    params.put("FILTER", "");
+    params.put("SQL_ORDER_BY", " ORDER BY priceTotal DESC");
+    params.put("SQL_PAGINATION", "LIMIT 5, 2");
+
+    final List<?> rows = dao.getList(params).getPagination().getData();
+
+    assertEquals(2, rows.size());
+    assertEquals(Integer.valueOf(EVENTS - 5), ((Reservation) rows.get(0)).idReservation());
+    assertEquals(Integer.valueOf(EVENTS - 6), ((Reservation) rows.get(1)).idReservation());
+
+    // Oversized legacy limits are clamped to one full page instead of rejected.
+    params.put("SQL_PAGINATION", "LIMIT 5000");
+    assertEquals(Integer.valueOf(ListQuery.MAX_PAGE_SIZE), ListQuery.from(params).pageSize());
+    assertEquals(EVENTS, dao.getList(params).getPagination().getData().size());
+
+    params.remove("SQL_PAGINATION");
+    final Pagination unpaged = dao.getList(params).getPagination();
+    assertEquals(EVENTS, unpaged.getData().size());
+    assertNull(unpaged.getNextPageToken());
+  }
+
+  private static HashMap<String, Object> page(int size) {
+    final HashMap<String, Object> params = new HashMap<>();
+    params.put("FILTER", "");
+    params.put("PAGE_SIZE", size);
+    return params;
+  }
+}
@@ -0,0 +1,69 @@
+package com.unir.reservations.dao.implementations;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import com.unir.reservations.TestDatabase;
+import com.unir.reservations.models.Room;
+
+public class RoomDAOImplementationTest {
+  private TestDatabase database;
+  private RoomDAOImplementation dao;
+
+  @Before
+  public void setUp() throws SQLException {
+    database = new TestDatabase();
+    dao = new RoomDAOImplementation(database.dataSource());
+  }
+
+  @After
+  public void tearDown() throws SQLException {
+    database.close();
+  }
+
+  @Test
+  public void sparseIdsDoNotSizeTheCatalog() throws SQLException {
+    database.addRoom(1, 10.0);
+    database.addRoom(Integer.MAX_VALUE - 1, 20.0);
+
+    assertEquals("Room 1", dao.getForId(1).name());
+    assertEquals(Double.valueOf(20.0), dao.getForId(Integer.MAX_VALUE - 1).pricePerHour());
+    assertNull(dao.getForId(2));
+    assertNull(dao.getForId(-1));
+  }
+
+  @Test
+  public void concurrentUpdatesPublishTheCommittedRow() throws Exception {
+    database.addRoom(1, 10.0);
+    dao.getForId(1);
+
+    final ExecutorService executor = Executors.newFixedThreadPool(8);
+    try {
+      final List<Future<?>> updates = new ArrayList<>();
+      for (int i = 0; i < 200; i++) {
+        final double price = i;
+        updates.add(executor.submit(() -> dao.update(new Room(1, "Room 1", "", "", price), null)));
+      }
+      for (Future<?> update : updates) {
+        update.get();
+      }
+    } finally {
+      executor.shutdown();
+    }
+
+    final Room cached = dao.getForId(1);
+    dao.reload();
+    assertEquals(dao.getForId(1).pricePerHour(), cached.pricePerHour());
+  }
+}
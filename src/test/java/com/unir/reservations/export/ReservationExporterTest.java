@@ -0,0 +1,161 @@
+package com.unir.reservations.export;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Proxy;
+import java.nio.charset.StandardCharsets;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.util.HashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Stream;
+
+import javax.sql.DataSource;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import com.unir.reservations.TestDatabase;
+import com.unir.reservations.dao.implementations.ReservationDAOImplementation;
+import com.unir.reservations.models.Reservation;
+
+public class ReservationExporterTest {
+  private final AtomicInteger open = new AtomicInteger();
+  private final AtomicInteger borrowed = new AtomicInteger();
+  private TestDatabase database;
+  private ReservationDAOImplementation reservationDAO;
+  private ReservationExporter exporter;
+
+  @Before
+  public void setUp() throws SQLException {
+    database = new TestDatabase();
+    database.addClient(1);
+    database.addClient(2);
+    database.addRoom(7, 10.0);
+    database.addEvent(1, 7, "2025-03-01", 9, 11, 20.0);
+    database.addEvent(2, 7, "2025-03-02", 9, 10, 10.0);
+    database.addEvent(1, 7, "2025-03-03", 12, 14, 20.0);
+    database.update("UPDATE evp_event SET observations = ? WHERE eventId = 1", "Late, \"VIP\"\nguest");
+
+    reservationDAO = new ReservationDAOImplementation(tracking(database.dataSource()));
+    try(Connection connection = database.dataSource().getConnection()) {
+      exporter = new ReservationExporter(reservationDAO, ReservationExporter.fetchSizeFor(connection));
+    }
+  }
+
+  @After
+  public void tearDown() throws SQLException {
+    database.close();
+  }
+
+  @Test
+  public void csvQuotesFieldsAndReleasesTheConnection() throws SQLException, IOException {
+    final ByteArrayOutputStream output = new ByteArrayOutputStream();
+
+    assertEquals(3, exporter.export(new HashMap<>(), output, ReservationExporter.Format.CSV));
+
+    final String csv = output.toString(StandardCharsets.UTF_8);
+    assertEquals(4, csv.split("\r\n").length);
+    assertTrue(csv.startsWith("eventId,date,"));
+    assertTrue(csv.contains(",\"Late, \"\"VIP\"\"\nguest\",1,D1,CC,"));
+    assertEquals(1, borrowed.get());
+    assertEquals(0, open.get());
+  }
+
+  @Test
+  public void jsonTakesDatesAsStrings() throws SQLException, IOException {
+    final HashMap<String, Object> params = new HashMap<>();
+    params.put("DATE_FROM", "2025-03-01");
+    params.put("DATE_TO", "2025-03-02");
+    final ByteArrayOutputStream output = new ByteArrayOutputStream();
+
+    assertEquals(2, exporter.export(params, output, ReservationExporter.Format.JSON));
+
+    final String json = output.toString(StandardCharsets.UTF_8);
+    assertTrue(json.startsWith("[{\"eventId\":1,"));
+    assertTrue(json.contains("\"observations\":\"Late, \\\"VIP\\\"\\nguest\""));
+    assertTrue(json.contains("\"roomName\":\"Room 7\""));
+    assertEquals(0, open.get());
+  }
+
+  @Test
+  public void closingAPartlyReadStreamReleasesTheConnection() throws SQLException {
+    try(Stream<Reservation> reservations = reservationDAO.stream(new HashMap<>(), ReservationExporter.DEFAULT_FETCH_SIZE)) {
+      assertEquals(1, reservations.findFirst().get().idReservation().intValue());
+      assertEquals(1, open.get());
+    }
+
+    assertEquals(0, open.get());
+  }
+
+  @Test
+  public void invalidParamsFailBeforeBorrowing() throws SQLException, IOException {
+    final HashMap<String, Object> params = new HashMap<>();
+    params.put("DATE_FROM", "March");
+    assertRejected(params);
+
+    params.put("DATE_FROM", 20250301);
+    assertRejected(params);
+
+    params.put("DATE_FROM", "2025-03-02");
+    params.put("DATE_TO", "2025-03-01");
+    assertRejected(params);
+
+    assertEquals(0, borrowed.get());
+  }
+
+  @Test(expected = IllegalArgumentException.class)
+  public void negativeFetchSizesOtherThanMySqlStreamingAreRejected() {
+    new ReservationExporter(reservationDAO, -1);
+  }
+
+  private void assertRejected(HashMap<String, Object> params) throws SQLException, IOException {
+    try {
+      exporter.export(params, new ByteArrayOutputStream(), ReservationExporter.Format.CSV);
+      fail("Expected IllegalArgumentException");
+    } catch (IllegalArgumentException e) {
+      // Expected.
+    }
+  }
+
+  // Counts the connections borrowed and those not yet closed.
+  private DataSource tracking(DataSource dataSource) {
+    return (DataSource) Proxy.newProxyInstance(
+      DataSource.class.getClassLoader(),
+      new Class<?>[] { DataSource.class },
+      (proxy, method, args) -> {
+        final Object result = invoke(dataSource, method, args);
+        if (!(result instanceof Connection connection)) {
+          return result;
+        }
+
+        borrowed.incrementAndGet();
+        open.incrementAndGet();
+        return Proxy.newProxyInstance(
+          Connection.class.getClassLoader(),
+          new Class<?>[] { Connection.class },
+          (connectionProxy, connectionMethod, connectionArgs) -> {
+            if (connectionMethod.getName().equals("close") && !connection.isClosed()) {
+              open.decrementAndGet();
+            }
+            return invoke(connection, connectionMethod, connectionArgs);
+          }
+        );
+      }
+    );
+  }
+
+  private static Object invoke(Object target, java.lang.reflect.Method method, Object[] args) throws Throwable {
+    try {
+      return method.invoke(target, args);
+    } catch (InvocationTargetException e) {
+      throw e.getCause();
+    }
+  }
+}
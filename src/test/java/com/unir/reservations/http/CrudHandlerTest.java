@@ -0,0 +1,80 @@
+package com.unir.reservations.http;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import java.io.IOException;
+import java.net.InetSocketAddress;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.sql.SQLException;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import com.sun.net.httpserver.HttpServer;
+import com.unir.reservations.TestDatabase;
+import com.unir.reservations.dao.implementations.ClientDAOImplementation;
+import com.unir.reservations.models.Client;
+
+public class CrudHandlerTest {
+  private final AtomicInteger executed = new AtomicInteger();
+  private final HttpClient client = HttpClient.newHttpClient();
+  private TestDatabase database;
+  private HttpServer server;
+
+  @Before
+  public void setUp() throws SQLException, IOException {
+    database = new TestDatabase();
+    for (int id = 1; id <= 5; id++) {
+      database.addClient(id);
+    }
+
+    server = HttpServer.create(new InetSocketAddress("127.0.0.1", 0), 0);
+    server.createContext("/api/clients", new CrudHandler<>(
+      new ClientDAOImplementation(TestDatabase.counting(database.dataSource(), executed)),
+      Client.class,
+      Client::idClient,
+      Client::version
+    ));
+    server.start();
+  }
+
+  @After
+  public void tearDown() throws SQLException {
+    server.stop(0);
+    database.close();
+  }
+
+  @Test
+  public void writesSkipTheListUnlessAskedToReload() throws Exception {
+    final HttpResponse<String> plain = post("", "D10");
+    assertEquals(200, plain.statusCode());
+    assertTrue(plain.body().contains("\"affected\""));
+    assertFalse(plain.body().contains("\"pagination\""));
+    // The duplicate check and the insert; no count or page query after the commit.
+    assertEquals(2, executed.getAndSet(0));
+
+    final HttpResponse<String> reloaded = post("?reload=true&pageSize=3", "D11");
+    assertEquals(200, reloaded.statusCode());
+    assertTrue(reloaded.body().contains("\"pagination\""));
+    assertTrue(reloaded.body().contains("\"filterCounter\":7"));
+    assertTrue(executed.get() > 2);
+  }
+
+  private HttpResponse<String> post(String query, String document) throws IOException, InterruptedException {
+    final String body = """
+      {"document":"%s","documentType":"CC","firstName":"Ana","surName":"Ruiz","email":"%s@example.com"}
+    """.formatted(document, document);
+    final HttpRequest request = HttpRequest.newBuilder(
+      URI.create("http://127.0.0.1:" + server.getAddress().getPort() + "/api/clients" + query)
+    ).POST(HttpRequest.BodyPublishers.ofString(body)).build();
+
+    return client.send(request, HttpResponse.BodyHandlers.ofString());
+  }
+}
@@ -0,0 +1,68 @@
+package com.unir.reservations.metrics;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.sql.SQLException;
+import java.util.Map;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import com.unir.reservations.TestDatabase;
+import com.unir.reservations.dao.implementations.ClientDAOImplementation;
+import com.unir.reservations.models.Client;
+
+public class MeteredDAOTest {
+  private TestDatabase database;
+  private QueryMetrics metrics;
+  private MeteredClientDAO dao;
+
+  @Before
+  public void setUp() throws SQLException {
+    database = new TestDatabase();
+    metrics = new QueryMetrics(60_000);
+    dao = new MeteredClientDAO(
+      new ClientDAOImplementation(new MeteredDataSource(database.dataSource(), metrics)),
+      metrics
+    );
+  }
+
+  @After
+  public void tearDown() throws SQLException {
+    database.close();
+  }
+
+  @Test
+  public void refusedWritesCountAsErrors() {
+    final Client client = new Client(null, "D1", "CC", "Ana", "Diaz", null, null, null, null);
+
+    dao.add(client, null);
+    dao.add(client, null);
+
+    final QuerySnapshot add = snapshots().get("ClientDAO.add");
+    assertEquals(2, add.count());
+    assertEquals(1, add.errors());
+  }
+
+  @Test
+  public void statementsAreTimedUnderTheirNormalisedText() {
+    dao.add(new Client(null, "D1", "CC", "Ana", "Diaz", null, null, null, null), null);
+
+    final Map<String, QuerySnapshot> snapshots = snapshots();
+    final QuerySnapshot insert = snapshots.get(
+      "INSERT INTO evp_client ( document, documentType, firstName, surName, phoneNumber, mobileNumber, email ) VALUES (?, ?, ?, ?, ?, ?, ?)"
+    );
+    assertEquals(1, insert.count());
+    assertEquals(1, insert.rows());
+    assertTrue(snapshots.containsKey(QueryMetrics.POOL_WAIT));
+  }
+
+  private Map<String, QuerySnapshot> snapshots() {
+    return metrics.snapshot().stream()
+      .collect(Collectors.toMap(QuerySnapshot::name, Function.identity()));
+  }
+}
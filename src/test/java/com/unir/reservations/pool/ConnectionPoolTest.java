@@ -0,0 +1,97 @@
+package com.unir.reservations.pool;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+
+import org.h2.jdbc.JdbcPreparedStatement;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+public class ConnectionPoolTest {
+  private static final String QUERY = "SELECT 1";
+
+  private ConnectionPool pool;
+
+  @Before
+  public void setUp() {
+    // A single connection, so every borrow gets the one the previous borrower returned.
+    pool = new ConnectionPool(new ConnectionPoolConfig(
+      "jdbc:h2:mem:pool;MODE=MySQL",
+      "sa",
+      "",
+      1
+    ));
+  }
+
+  @After
+  public void tearDown() {
+    pool.close();
+  }
+
+  @Test
+  public void returnedConnectionsGetTheirSessionBack() throws SQLException {
+    final int isolation;
+    try(Connection connection = pool.getConnection()) {
+      isolation = connection.getTransactionIsolation();
+      connection.setReadOnly(true);
+      connection.setTransactionIsolation(Connection.TRANSACTION_SERIALIZABLE);
+    }
+
+    try(Connection connection = pool.getConnection()) {
+      assertFalse(connection.isReadOnly());
+      assertEquals(isolation, connection.getTransactionIsolation());
+    }
+  }
+
+  @Test
+  public void cachedStatementsForgetTheirLimits() throws SQLException {
+    try(
+      Connection connection = pool.getConnection();
+      PreparedStatement statement = connection.prepareStatement(QUERY)
+    ) {
+      statement.setFetchSize(7);
+      statement.setMaxRows(10);
+    }
+
+    try(
+      Connection connection = pool.getConnection();
+      PreparedStatement statement = connection.prepareStatement(QUERY)
+    ) {
+      assertEquals(1, pool.getStatementCacheHitCount());
+      assertEquals(0, statement.getMaxRows());
+      assertFalse(statement.getFetchSize() == 7);
+    }
+  }
+
+  @Test
+  public void statementsThatFailToResetAreEvicted() throws SQLException {
+    try(Connection connection = pool.getConnection()) {
+      final PreparedStatement statement = connection.prepareStatement(QUERY);
+      // Closing the driver's statement underneath makes the reset on close fail.
+      statement.unwrap(JdbcPreparedStatement.class).close();
+      statement.close();
+      assertTrue(statement.isClosed());
+
+      try(PreparedStatement again = connection.prepareStatement(QUERY)) {
+        assertEquals(0, pool.getStatementCacheHitCount());
+        assertEquals(2, pool.getStatementCacheMissCount());
+        assertTrue(again.executeQuery().next());
+      }
+    }
+  }
+
+  @Test(expected = SQLException.class)
+  public void closedStatementsCannotBeUsed() throws SQLException {
+    try(Connection connection = pool.getConnection()) {
+      final PreparedStatement statement = connection.prepareStatement(QUERY);
+      statement.close();
+      statement.executeQuery();
+    }
+  }
+}
@@ -0,0 +1,136 @@
+package com.unir.reservations.pool;
+
+import static org.junit.Assert.assertEquals;
+
+import java.sql.Connection;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.List;
+
+import javax.sql.DataSource;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import com.unir.reservations.TestDatabase;
+import com.unir.reservations.pool.RoutingDataSource.Selection;
+import com.unir.reservations.pool.RoutingDataSource.Session;
+
+public class RoutingDataSourceTest {
+  private TestDatabase primary;
+  private TestDatabase first;
+  private TestDatabase second;
+
+  @Before
+  public void setUp() throws SQLException {
+    primary = new TestDatabase();
+    first = new TestDatabase();
+    second = new TestDatabase();
+
+    // Each database holds one room named after it, so a read tells where it ran.
+    primary.addRoom(1, 10.0);
+    first.addRoom(2, 10.0);
+    second.addRoom(3, 10.0);
+  }
+
+  @After
+  public void tearDown() throws SQLException {
+    primary.close();
+    first.close();
+    second.close();
+  }
+
+  @Test
+  public void readsRotateOverTheReplicas() throws SQLException {
+    final RoutingDataSource routing = routing(Selection.ROUND_ROBIN, 60_000);
+
+    assertEquals(2, lastRoom(routing.reads()));
+    assertEquals(3, lastRoom(routing.reads()));
+    assertEquals(2, lastRoom(routing.reads()));
+    assertEquals(1, lastRoom(routing));
+  }
+
+  @Test
+  public void leastLoadedSkipsTheBusyReplica() throws SQLException {
+    final RoutingDataSource routing = routing(Selection.LEAST_LOADED, 60_000);
+
+    try(Connection held = routing.reads().getConnection()) {
+      final int busy = lastRoom(held);
+      for (int i = 0; i < 4; i++) {
+        assertEquals(busy == 2 ? 3 : 2, lastRoom(routing.reads()));
+      }
+    }
+  }
+
+  @Test
+  public void sessionStaysOnThePrimaryAfterItsWriteCommits() throws SQLException {
+    final RoutingDataSource routing = routing(Selection.ROUND_ROBIN, 60_000);
+
+    final Session session = RoutingDataSource.session("writer");
+    try(Connection connection = routing.getConnection()) {
+      connection.setAutoCommit(false);
+      try(Statement statement = connection.createStatement()) {
+        statement.executeUpdate(
+          "INSERT INTO evp_room (roomId, name, description, address, pricePerHour) VALUES (4, 'Room 4', '', '', 10)"
+        );
+      }
+
+      // Until the commit there is nothing for the replicas to lag behind on.
+      assertEquals(2, lastRoom(routing.reads()));
+
+      connection.commit();
+      assertEquals(4, lastRoom(routing.reads()));
+      assertEquals(4, lastRoom(routing.reads()));
+    } finally {
+      session.close();
+    }
+
+    final Session other = RoutingDataSource.session("reader");
+    try {
+      assertEquals(3, lastRoom(routing.reads()));
+    } finally {
+      other.close();
+    }
+    assertEquals(2, lastRoom(routing.reads()));
+  }
+
+  @Test
+  public void stickinessRunsOutAfterTheWindow() throws SQLException {
+    final RoutingDataSource routing = routing(Selection.ROUND_ROBIN, 0);
+
+    final Session session = RoutingDataSource.session("writer");
+    try {
+      assertEquals(1, lastRoom(routing));
+      assertEquals(2, lastRoom(routing.reads()));
+    } finally {
+      session.close();
+    }
+  }
+
+  private RoutingDataSource routing(Selection selection, long stickyMillis) {
+    return new RoutingDataSource(
+      primary.dataSource(),
+      List.of(first.dataSource(), second.dataSource()),
+      selection,
+      stickyMillis
+    );
+  }
+
+  private static int lastRoom(DataSource dataSource) throws SQLException {
+    try(Connection connection = dataSource.getConnection()) {
+      return lastRoom(connection);
+    }
+  }
+
+  private static int lastRoom(Connection connection) throws SQLException {
+    try(
+      Statement statement = connection.createStatement();
+      ResultSet resultSet = statement.executeQuery("SELECT MAX(roomId) FROM evp_room")
+    ) {
+      resultSet.next();
+      return resultSet.getInt(1);
+    }
+  }
+}
@@ -0,0 +1,104 @@
+package com.unir.reservations.pricing;
+
+import static org.junit.Assert.assertEquals;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.List;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import com.unir.reservations.TestDatabase;
+import com.unir.reservations.dao.ListQuery;
+import com.unir.reservations.dao.implementations.ReservationDAOImplementation;
+import com.unir.reservations.models.Room;
+import com.unir.reservations.models.Service;
+
+public class PricingEngineTest {
+  private static final List<Room> ROOMS = List.of(new Room(7, "Room 7", "", "", 10.0));
+  private static final List<Service> SERVICES = List.of();
+
+  private TestDatabase database;
+  private ReservationDAOImplementation reservationDAO;
+  private PricingEngine pricing;
+
+  @Before
+  public void setUp() throws SQLException {
+    database = new TestDatabase();
+    database.addClient(1);
+    database.addClient(2);
+    database.addRoom(7, 10.0);
+    // Two hours at 10 per hour: 20 is right, 99 and 5 are stale.
+    database.addEvent(1, 7, "2025-03-01", 9, 11, 20.0);
+    database.addEvent(1, 7, "2025-03-02", 9, 11, 99.0);
+    database.addEvent(1, 7, "2025-03-03", 9, 11, 5.0);
+    database.addEvent(2, 7, "2025-03-04", 9, 11, 99.0);
+
+    reservationDAO = new ReservationDAOImplementation(database.dataSource());
+    pricing = new PricingEngine(() -> ROOMS, () -> SERVICES, List.of());
+  }
+
+  @After
+  public void tearDown() throws SQLException {
+    database.close();
+  }
+
+  @Test
+  public void clientQueryRepricesOnlyThatClientsChangedTotals() throws SQLException {
+    assertEquals(2, pricing.repriceAll(reservationDAO, ListQuery.forClient(1).withPageSize(1)));
+
+    assertEquals(20.0, price(1), 0.001);
+    assertEquals(20.0, price(2), 0.001);
+    assertEquals(20.0, price(3), 0.001);
+    assertEquals(99.0, price(4), 0.001);
+    // Only the rows whose total changed were written.
+    assertEquals(0, version(1));
+    assertEquals(1, version(2));
+
+    assertEquals(0, pricing.repriceAll(reservationDAO, ListQuery.forClient(1)));
+  }
+
+  @Test
+  public void failedUpdateStopsTheWalk() throws SQLException {
+    // Only the second row refuses its new total; the third would take it if the walk went on.
+    database.update("ALTER TABLE evp_event ADD CONSTRAINT evp_event_price_check CHECK (eventId <> 2 OR priceTotal <> 20)");
+
+    assertEquals(0, pricing.repriceAll(reservationDAO, ListQuery.of("").withPageSize(1)));
+
+    assertEquals(99.0, price(2), 0.001);
+    assertEquals(5.0, price(3), 0.001);
+    assertEquals(99.0, price(4), 0.001);
+  }
+
+  @Test
+  public void failedListStopsTheWalk() throws SQLException {
+    database.update("DROP TABLE evp_event");
+
+    assertEquals(0, pricing.repriceAll(reservationDAO, ListQuery.of("")));
+  }
+
+  private double price(int eventId) throws SQLException {
+    return column("priceTotal", eventId);
+  }
+
+  private int version(int eventId) throws SQLException {
+    return (int) column("version", eventId);
+  }
+
+  private double column(String name, int eventId) throws SQLException {
+    try(
+      Connection connection = database.dataSource().getConnection();
+      PreparedStatement statement = connection.prepareStatement("SELECT " + name + " FROM evp_event WHERE eventId = ?")
+    ) {
+      statement.setInt(1, eventId);
+      try(ResultSet resultSet = statement.executeQuery()) {
+        resultSet.next();
+        return resultSet.getDouble(1);
+      }
+    }
+  }
+}
@@ -0,0 +1,36 @@
+package com.unir.reservations.search;
+
+import static org.junit.Assert.assertArrayEquals;
+
+import org.junit.Test;
+
+import com.unir.reservations.models.Client;
+
+public class ClientSearchIndexTest {
+  @Test
+  public void putsOlderThanTheIndexedVersionAreIgnored() {
+    final ClientSearchIndex index = new ClientSearchIndex();
+    index.put(client(1, "Second", 2));
+    index.put(client(1, "First", 1));
+
+    assertArrayEquals(new int[] { 1 }, index.search("second", null, 10).ids());
+    assertArrayEquals(new int[0], index.search("first", null, 10).ids());
+
+    index.put(client(1, "Third", 2));
+    assertArrayEquals(new int[] { 1 }, index.search("third", null, 10).ids());
+  }
+
+  @Test
+  public void putsAfterARemoveDoNotBringTheClientBack() {
+    final ClientSearchIndex index = new ClientSearchIndex();
+    index.put(client(1, "Gone", 0));
+    index.remove(1);
+    index.put(client(1, "Gone", 1));
+
+    assertArrayEquals(new int[0], index.search("gone", null, 10).ids());
+  }
+
+  private static Client client(int id, String firstName, int version) {
+    return new Client(id, "D" + id, "CC", firstName, "Ruiz", null, null, "c" + id + "@example.com", version);
+  }
+}